@@ -0,0 +1,25 @@
+#!/bin/sh
+# Ejecuta los benchmarks con el perfilador de GC y compara con la línea base.
+#   ./ejecutar.sh                 ejecuta todo y compara con baseline/base.csv
+#   ./ejecutar.sh --base          ejecuta todo y reemplaza la línea base
+#   ./ejecutar.sh <regex JMH>     ejecuta solo los benchmarks indicados
+set -e
+cd "$(dirname "$0")"
+
+mvn -B -q package
+
+ACTUALIZAR_BASE=no
+if [ "$1" = "--base" ]; then
+    ACTUALIZAR_BASE=si
+    shift
+fi
+
+mkdir -p resultados baseline
+java -jar target/benchmarks.jar -prof gc -rf csv -rff resultados/actual.csv "$@"
+
+if [ "$ACTUALIZAR_BASE" = "si" ]; then
+    cp resultados/actual.csv baseline/base.csv
+    echo "Línea base actualizada: baseline/base.csv"
+elif [ -f baseline/base.csv ]; then
+    java -cp target/benchmarks.jar benchmarks.CompararResultados baseline/base.csv resultados/actual.csv 10
+fi
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import excepciones.CasillaYaDescubiertaException;
+import modelo.Tablero;
+import modelo.TableroDisperso;
+
+/**
+ * Compara Tablero con TableroDisperso en tableros grandes con una mina por cada mil casillas
+ * Con -prof gc se ve la memoria reservada por cada partida
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkDisperso {
+    
+    @Param({"256", "1024"})
+    public int tamaño;
+    
+    private int minas;
+    private int centro;
+    private long semilla;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        minas = tamaño * tamaño / 1000;
+        centro = tamaño / 2;
+    }
+    
+    /**
+     * Tableros recién reiniciados para medir la primera expansión
+     */
+    @State(Scope.Thread)
+    public static class TablerosCubiertos {
+        private Tablero tablero;
+        private TableroDisperso disperso;
+        private int centro;
+        private long semilla;
+        
+        @Setup(Level.Invocation)
+        public void reiniciar(BenchmarkDisperso parametros) {
+            if (tablero == null) {
+                tablero = new Tablero(parametros.tamaño, parametros.minas, 0L, parametros.centro, parametros.centro);
+                disperso = new TableroDisperso(parametros.tamaño, parametros.minas, 0L,
+                                               parametros.centro, parametros.centro);
+                centro = parametros.centro;
+            }
+            semilla++;
+            tablero.reiniciar(semilla, centro, centro);
+            disperso.reiniciar(semilla, centro, centro);
+        }
+    }
+    
+    @Benchmark
+    public Tablero construirTablero() {
+        return new Tablero(tamaño, minas, ++semilla, centro, centro);
+    }
+    
+    @Benchmark
+    public TableroDisperso construirDisperso() {
+        return new TableroDisperso(tamaño, minas, ++semilla, centro, centro);
+    }
+    
+    @Benchmark
+    public int descubrirTablero(TablerosCubiertos cubiertos) throws CasillaYaDescubiertaException {
+        cubiertos.tablero.descubrirCasilla(cubiertos.centro, cubiertos.centro);
+        return cubiertos.tablero.getCasillasDescubiertas();
+    }
+    
+    @Benchmark
+    public long descubrirDisperso(TablerosCubiertos cubiertos) throws CasillaYaDescubiertaException {
+        cubiertos.disperso.descubrirCasilla(cubiertos.centro, cubiertos.centro);
+        return cubiertos.disperso.getCasillasDescubiertas();
+    }
+}
\ No newline at end of file
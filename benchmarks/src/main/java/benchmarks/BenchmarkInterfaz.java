@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controlador.ControladorJuego;
+import excepciones.CasillaYaDescubiertaException;
+import modelo.Tablero;
+import vista.VistaConsola;
+
+/**
+ * Benchmarks de la entrada y salida por consola
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkInterfaz {
+    
+    @Param({"A5", "J10", "Z26"})
+    public String coordenada;
+    
+    private VistaConsola vista;
+    private Tablero tablero;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws CasillaYaDescubiertaException {
+        // Descarta todo lo impreso: se mide el formateo, no la terminal
+        vista = new VistaConsola(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+            
+            @Override
+            public void write(byte[] b, int desde, int longitud) {
+            }
+        }));
+        tablero = new Tablero(10, 10, 0L, 5, 5);
+        tablero.descubrirCasilla(5, 5);
+        tablero.marcarCasilla(0, 0);
+    }
+    
+    @Benchmark
+    public int[] parsearCoordenada() {
+        return ControladorJuego.parsearCoordenada(coordenada);
+    }
+    
+    @Benchmark
+    public void mostrarTablero() {
+        vista.mostrarTablero(tablero);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.Tablero;
+import simulacion.LoteTableros;
+import simulacion.Simulador;
+
+/**
+ * Partidas por segundo del jugador al azar en Tablero y en un lote de tableros
+ * Las dos variantes juegan exactamente las mismas partidas
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkLotes {
+    private static final int PARTIDAS = 1024;
+    
+    @Param({"8", "10"})
+    public int tamaño;
+    
+    private int minas;
+    private long semilla;
+    private long[] semillas;
+    private Tablero tablero;
+    private LoteTableros lote;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        minas = tamaño * tamaño / 10;
+        semillas = new long[PARTIDAS];
+        tablero = new Tablero(tamaño, minas, 0L, tamaño / 2, tamaño / 2);
+        lote = new LoteTableros(tamaño, minas, PARTIDAS);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PARTIDAS)
+    public int tablero() {
+        int victorias = 0;
+        for (int p = 0; p < PARTIDAS; p++) {
+            semilla++;
+            tablero.reiniciar(semilla, tamaño / 2, tamaño / 2);
+            Simulador.jugarAlAzar(tablero, new Random(~semilla));
+            victorias += tablero.esVictoria() ? 1 : 0;
+        }
+        return victorias;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PARTIDAS)
+    public int lote() {
+        for (int p = 0; p < PARTIDAS; p++) {
+            semillas[p] = ++semilla;
+        }
+        return lote.jugarAlAzar(semillas);
+    }
+}
\ No newline at end of file
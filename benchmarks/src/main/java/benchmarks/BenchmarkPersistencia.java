@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import excepciones.CasillaYaDescubiertaException;
+import modelo.Jugador;
+import modelo.Tablero;
+import persistencia.GestorArchivos;
+
+/**
+ * Benchmarks de guardado y carga de partidas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkPersistencia {
+    
+    @Param({"10", "22"})
+    public int tamaño;
+    
+    private File directorio;
+    private GestorArchivos gestor;
+    private Tablero tablero;
+    private Jugador jugador;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws IOException, CasillaYaDescubiertaException {
+        directorio = Files.createTempDirectory("buscaminas-bench").toFile();
+        gestor = new GestorArchivos(directorio.getPath());
+        tablero = new Tablero(tamaño, tamaño * tamaño / 5, 0L, tamaño / 2, tamaño / 2);
+        tablero.descubrirCasilla(tamaño / 2, tamaño / 2);
+        jugador = new Jugador("Benchmark");
+        gestor.guardarJuego(tablero, jugador);
+    }
+    
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        gestor.eliminarJuegoGuardado();
+        directorio.delete();
+    }
+    
+    @Benchmark
+    public void guardar() throws IOException {
+        gestor.guardarJuego(tablero, jugador);
+    }
+    
+    @Benchmark
+    public Object[] cargar() throws IOException, ClassNotFoundException {
+        return gestor.cargarJuego();
+    }
+}
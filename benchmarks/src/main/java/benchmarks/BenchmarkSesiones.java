@@ -0,0 +1,161 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import persistencia.AlmacenSesiones;
+
+/**
+ * Guardados por segundo en el almacén de sesiones y tiempo de reabrirlo con muchas
+ * sesiones guardadas, cargando el índice desde las pistas o recorriendo los segmentos
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkSesiones {
+    // Tamaño aproximado de una partida de 10x10 serializada
+    private static final int BYTES_POR_SESION = 512;
+    
+    @Param({"100000"})
+    public int sesiones;
+    
+    private Path directorio;
+    private AlmacenSesiones almacen;
+    private String[] claves;
+    private byte[] valor;
+    private int siguiente;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("buscaminas-bench-sesiones");
+        claves = claves(sesiones);
+        valor = valor();
+        almacen = new AlmacenSesiones(directorio);
+        llenar(almacen, claves, valor);
+    }
+    
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        almacen.close();
+        borrar(directorio);
+    }
+    
+    /**
+     * Almacén ya cerrado con las sesiones guardadas, para medir cuánto tarda en abrirse
+     */
+    @State(Scope.Thread)
+    public static class AlmacenCerrado {
+        Path directorio;
+        
+        @Setup(Level.Trial)
+        public void preparar(BenchmarkSesiones parametros) throws IOException {
+            directorio = Files.createTempDirectory("buscaminas-bench-recuperacion");
+            // Segmentos de 4 MB para que haya varios, como en un servidor que lleva tiempo guardando
+            try (AlmacenSesiones almacen = new AlmacenSesiones(directorio, 4L << 20)) {
+                llenar(almacen, parametros.claves, parametros.valor);
+            }
+        }
+        
+        @TearDown(Level.Trial)
+        public void limpiar() throws IOException {
+            borrar(directorio);
+        }
+    }
+    
+    /**
+     * Almacén cerrado al que se le quitan las pistas antes de cada apertura
+     */
+    @State(Scope.Thread)
+    public static class AlmacenSinPistas extends AlmacenCerrado {
+        
+        @Setup(Level.Invocation)
+        public void quitarPistas() throws IOException {
+            try (DirectoryStream<Path> pistas = Files.newDirectoryStream(directorio, "*.pista")) {
+                for (Path pista : pistas) {
+                    Files.delete(pista);
+                }
+            }
+        }
+    }
+    
+    @Benchmark
+    public void guardar() throws IOException {
+        almacen.guardar(claves[siguiente], valor);
+        siguiente = siguiente + 1 == claves.length ? 0 : siguiente + 1;
+    }
+    
+    @Benchmark
+    public byte[] obtener() throws IOException {
+        byte[] leido = almacen.obtener(claves[siguiente]);
+        siguiente = siguiente + 1 == claves.length ? 0 : siguiente + 1;
+        return leido;
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int abrirConPistas(AlmacenCerrado cerrado) throws IOException {
+        try (AlmacenSesiones abierto = new AlmacenSesiones(cerrado.directorio, 4L << 20)) {
+            return abierto.getNumeroClaves();
+        }
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int abrirSinPistas(AlmacenSinPistas cerrado) throws IOException {
+        try (AlmacenSesiones abierto = new AlmacenSesiones(cerrado.directorio, 4L << 20)) {
+            return abierto.getNumeroClaves();
+        }
+    }
+    
+    private static String[] claves(int sesiones) {
+        String[] claves = new String[sesiones];
+        for (int i = 0; i < sesiones; i++) {
+            claves[i] = "sesion-" + i;
+        }
+        return claves;
+    }
+    
+    private static byte[] valor() {
+        byte[] valor = new byte[BYTES_POR_SESION];
+        new Random(0L).nextBytes(valor);
+        return valor;
+    }
+    
+    private static void llenar(AlmacenSesiones almacen, String[] claves, byte[] valor) throws IOException {
+        for (String clave : claves) {
+            almacen.guardar(clave, valor);
+        }
+    }
+    
+    private static void borrar(Path directorio) throws IOException {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                Files.delete(archivo);
+            }
+        }
+        Files.delete(directorio);
+    }
+}
\ No newline at end of file
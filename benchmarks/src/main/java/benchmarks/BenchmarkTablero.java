@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import excepciones.CasillaYaDescubiertaException;
+import modelo.Tablero;
+
+/**
+ * Benchmarks de construcción y jugadas sobre el tablero
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkTablero {
+    
+    @Param({"10", "16", "32", "64"})
+    public int tamaño;
+    
+    @Param({"0.05", "0.15", "0.20"})
+    public double densidad;
+    
+    private int minas;
+    private int centro;
+    private Tablero tablero;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        minas = Math.max(1, (int) Math.round(tamaño * tamaño * densidad));
+        centro = tamaño / 2;
+        tablero = new Tablero(tamaño, minas, 0L, centro, centro);
+    }
+    
+    /**
+     * Tablero cubierto para medir la expansión de casillas vacías
+     * El centro queda libre de minas, así que descubrirlo siempre expande
+     */
+    @State(Scope.Thread)
+    public static class TableroCubierto {
+        private Tablero tablero;
+        private int centro;
+        private long semilla;
+        
+        @Setup(Level.Invocation)
+        public void reiniciar(BenchmarkTablero parametros) {
+            if (tablero == null) {
+                tablero = new Tablero(parametros.tamaño, parametros.minas, 0L,
+                                      parametros.centro, parametros.centro);
+                centro = parametros.centro;
+            }
+            semilla++;
+            tablero.reiniciar(semilla, centro, centro);
+        }
+    }
+    
+    @Benchmark
+    public Tablero construir() {
+        return new Tablero(tamaño, minas, 0L, centro, centro);
+    }
+    
+    @Benchmark
+    public int descubrirConExpansion(TableroCubierto cubierto) throws CasillaYaDescubiertaException {
+        cubierto.tablero.descubrirCasilla(cubierto.centro, cubierto.centro);
+        return cubierto.tablero.getCasillasDescubiertas();
+    }
+    
+    @Benchmark
+    public int marcarYDesmarcar() {
+        tablero.marcarCasilla(0, 0);
+        tablero.marcarCasilla(0, 0);
+        return tablero.getBanderas();
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import excepciones.CasillaYaDescubiertaException;
+import modelo.Tablero;
+import modelo.Topologia;
+
+/**
+ * Compara la cuadrícula con las demás topologías: mismo número de casillas y de minas,
+ * distinto número de vecinas por casilla
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkTopologia {
+    
+    @Param({"16", "64", "256"})
+    public int tamaño;
+    
+    @Param({"CUADRICULA", "TOROIDE", "HEXAGONAL", "CAPAS"})
+    public Topologia.Tipo tipo;
+    
+    private Topologia topologia;
+    private int minas;
+    private int centro;
+    private long semilla;
+    private Tablero tablero;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        switch (tipo) {
+            case TOROIDE:
+                topologia = Topologia.toroide(tamaño);
+                break;
+            case HEXAGONAL:
+                topologia = Topologia.hexagonal(tamaño);
+                break;
+            case CAPAS:
+                topologia = Topologia.capas(tamaño, 4);
+                break;
+            default:
+                topologia = Topologia.cuadricula(tamaño);
+                break;
+        }
+        minas = tamaño * tamaño / 10;
+        centro = tamaño / 2;
+        tablero = new Tablero(topologia, minas, 0L, centro, centro);
+    }
+    
+    /**
+     * Tablero recién reiniciado para medir la expansión de casillas vacías
+     */
+    @State(Scope.Thread)
+    public static class TableroCubierto {
+        private Tablero tablero;
+        private int centro;
+        private long semilla;
+        
+        @Setup(Level.Invocation)
+        public void reiniciar(BenchmarkTopologia parametros) {
+            if (tablero == null) {
+                tablero = new Tablero(parametros.topologia, parametros.minas, 0L,
+                                      parametros.centro, parametros.centro);
+                centro = parametros.centro;
+            }
+            semilla++;
+            tablero.reiniciar(semilla, centro, centro);
+        }
+    }
+    
+    /**
+     * Colocar minas y calcular todos los contadores de minas adyacentes
+     */
+    @Benchmark
+    public int reiniciar() {
+        semilla++;
+        tablero.reiniciar(semilla, centro, centro);
+        return tablero.getCasilla(centro, centro).getMinasAdyacentes();
+    }
+    
+    @Benchmark
+    public int descubrirConExpansion(TableroCubierto cubierto) throws CasillaYaDescubiertaException {
+        cubierto.tablero.descubrirCasilla(cubierto.centro, cubierto.centro);
+        return cubierto.tablero.getCasillasDescubiertas();
+    }
+}
\ No newline at end of file
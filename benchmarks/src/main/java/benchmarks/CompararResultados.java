@@ -0,0 +1,135 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara dos resultados JMH en formato CSV y señala las regresiones
+ * Solo compara la puntuación principal y los bytes asignados por operación. Un valor
+ * mayor es peor salvo en la puntuación de los benchmarks de rendimiento (modo thrpt,
+ * operaciones por segundo), donde la regresión es bajar
+ */
+public class CompararResultados {
+    private static final String METRICA_ASIGNACION = "gc.alloc.rate.norm";
+    
+    /**
+     * Uso: CompararResultados base.csv actual.csv [umbral%]
+     * Termina con código 1 si alguna métrica empeora más que el umbral
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararResultados <base.csv> <actual.csv> [umbral%]");
+            System.exit(2);
+        }
+        double umbral = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        
+        Map<String, double[]> base = leer(args[0]);
+        Map<String, double[]> actual = leer(args[1]);
+        
+        int regresiones = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Base", "Actual", "Cambio");
+        for (Map.Entry<String, double[]> entrada : actual.entrySet()) {
+            double[] anterior = base.get(entrada.getKey());
+            if (anterior == null) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entrada.getKey(), "-", entrada.getValue()[0], "nuevo");
+                continue;
+            }
+            double valor = entrada.getValue()[0];
+            double error = entrada.getValue()[1];
+            boolean mayorEsMejor = entrada.getValue()[2] != 0;
+            double cambio = anterior[0] == 0 ? 0 : (valor - anterior[0]) * 100.0 / anterior[0];
+            // Un cambio dentro del error de ambas mediciones no cuenta como regresión
+            boolean dentroDelError = mayorEsMejor
+                    ? valor + error >= anterior[0] - anterior[1]
+                    : valor - error <= anterior[0] + anterior[1];
+            boolean regresion = (mayorEsMejor ? -cambio : cambio) > umbral && !dentroDelError;
+            if (regresion) {
+                regresiones++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s%n", entrada.getKey(), anterior[0], valor, cambio,
+                              regresion ? "  REGRESIÓN" : "");
+        }
+        
+        System.out.println(regresiones == 0 ? "\nSin regresiones" : "\nRegresiones: " + regresiones);
+        if (regresiones > 0) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Lee un CSV de JMH y devuelve puntuación, error y si un valor mayor es mejor (1) o
+     * peor (0), por benchmark y parámetros
+     */
+    private static Map<String, double[]> leer(String ruta) throws IOException {
+        List<String> lineas = Files.readAllLines(Paths.get(ruta), StandardCharsets.UTF_8);
+        Map<String, double[]> resultados = new LinkedHashMap<>();
+        if (lineas.isEmpty()) {
+            return resultados;
+        }
+        
+        List<String> cabecera = separar(lineas.get(0));
+        int columnaModo = cabecera.indexOf("Mode");
+        int columnaPuntuacion = cabecera.indexOf("Score");
+        int columnaError = cabecera.indexOf("Score Error (99.9%)");
+        
+        for (int i = 1; i < lineas.size(); i++) {
+            List<String> campos = separar(lineas.get(i));
+            String nombre = campos.get(0);
+            boolean principal = nombre.indexOf(':') < 0;
+            if (!principal && !nombre.endsWith(METRICA_ASIGNACION)) {
+                continue;
+            }
+            
+            StringBuilder clave = new StringBuilder(nombre.replace("benchmarks.", ""));
+            for (int c = columnaError + 2; c < campos.size(); c++) {
+                if (!campos.get(c).isEmpty()) {
+                    clave.append(c == columnaError + 2 ? " [" : ", ").append(campos.get(c));
+                }
+            }
+            if (clave.indexOf(" [") >= 0) {
+                clave.append(']');
+            }
+            
+            double error = parsear(campos.get(columnaError));
+            boolean mayorEsMejor = principal && campos.get(columnaModo).equals("thrpt");
+            resultados.put(clave.toString(), new double[]{parsear(campos.get(columnaPuntuacion)), error, mayorEsMejor ? 1 : 0});
+        }
+        return resultados;
+    }
+    
+    private static double parsear(String valor) {
+        try {
+            return Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Separa una línea CSV con campos entre comillas
+     */
+    private static List<String> separar(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                entreComillas = !entreComillas;
+            } else if (c == ',' && !entreComillas) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+}
@@ -1,18 +1,70 @@
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Paths;
+import java.util.List;
+
 import controlador.ControladorJuego;
+import controlador.ControladorSinInterfaz;
+import controlador.FuenteMovimientos;
+import controlador.FuenteMovimientosAleatoria;
+import controlador.FuenteMovimientosTexto;
+import modelo.Dificultad;
+import modelo.ReproductorRepeticion;
+import modelo.Repeticion;
+import persistencia.GestorRepeticiones;
+import simulacion.ResumenSimulacion;
+import simulacion.Simulador;
+import solucionador.GeneradorSinAdivinanzas;
 
 /**
  * Clase principal para ejecutar el juego Buscaminas
  * Punto de entrada de la aplicación
  * 
+ * Uso sin interfaz:
+ *   java -cp bin Main --sin-interfaz [--movimientos archivo|-] [--partidas N]
+ *                     [--tamano N] [--minas N] [--semilla S]
+ * Sin --movimientos las partidas las juega un bot que descubre casillas al azar
+ * 
+ * Uso del simulador:
+ *   java -cp bin Main --simular [--dificultad PRINCIPIANTE|INTERMEDIO|EXPERTO] [--partidas N]
+ *                     [--hilos N] [--semilla S] [--probabilidades] [--escalado] [--informe archivo]
+ *                     [--lotes]
+ * Con --lotes compara en un hilo el jugador al azar sobre Tablero y sobre LoteTableros
+ * 
+ * Latencias del generador de tableros sin adivinanzas:
+ *   java -cp bin Main --latencias-sin-adivinanzas [--muestras N] [--hilos N] [--semilla S]
+ * 
+ * Verificación de repeticiones grabadas (avance rápido, termina con código 1 si alguna diverge):
+ *   java -cp bin Main --verificar-repeticion archivo.rep [archivo.rep ...]
+ * 
  * @author Paul Crespo
  */
 public class Main {
     
     /**
      * Método principal que inicia la aplicación
-     * @param args Argumentos de línea de comandos (no utilizados)
+     * @param args Argumentos de línea de comandos (ver uso sin interfaz)
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--sin-interfaz")) {
+            ejecutarSinInterfaz(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--simular")) {
+            ejecutarSimulacion(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--latencias-sin-adivinanzas")) {
+            medirLatenciasSinAdivinanzas(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--verificar-repeticion")) {
+            verificarRepeticiones(args);
+            return;
+        }
+        
         System.out.println("=== BUSCAMINAS - EXAMEN PRÁCTICO POO - Paul Crespo ===");
         System.out.println();
         
@@ -20,10 +72,239 @@ public class Main {
             // Crear e iniciar el controlador del juego
             ControladorJuego controlador = new ControladorJuego();
             controlador.iniciarJuego();
-            
+        
         } catch (Exception e) {
             System.err.println("Error fatal en la aplicación: " + e.getMessage());
             e.printStackTrace();
         }
     }
+    
+    /**
+     * Ejecuta el modo sin interfaz con las opciones de la línea de comandos
+     * @param args Argumentos de línea de comandos
+     */
+    private static void ejecutarSinInterfaz(String[] args) {
+        String movimientos = null;
+        int partidas = 1;
+        int tamaño = 10;
+        int minas = 10;
+        Long semilla = null;
+        
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--movimientos":
+                        movimientos = args[++i];
+                        break;
+                    case "--partidas":
+                        partidas = Integer.parseInt(args[++i]);
+                        break;
+                    case "--tamano":
+                        tamaño = Integer.parseInt(args[++i]);
+                        break;
+                    case "--minas":
+                        minas = Integer.parseInt(args[++i]);
+                        break;
+                    case "--semilla":
+                        semilla = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
+            }
+            
+            FuenteMovimientos fuente;
+            if (movimientos == null) {
+                fuente = new FuenteMovimientosAleatoria(semilla != null ? semilla : System.nanoTime());
+            } else if (movimientos.equals("-")) {
+                fuente = new FuenteMovimientosTexto(new InputStreamReader(System.in), tamaño);
+            } else {
+                try (Reader lector = new FileReader(movimientos)) {
+                    fuente = new FuenteMovimientosTexto(lector, tamaño);
+                }
+            }
+            
+            new ControladorSinInterfaz(fuente, tamaño, minas, semilla, System.out).ejecutar(partidas);
+        
+        } catch (IOException e) {
+            System.err.println("Error al leer las jugadas: " + e.getMessage());
+            System.exit(1);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Falta el valor de una opción");
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Argumentos inválidos: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Ejecuta el simulador de partidas del bot con las opciones de la línea de comandos
+     * @param args Argumentos de línea de comandos
+     */
+    private static void ejecutarSimulacion(String[] args) {
+        Dificultad dificultad = Dificultad.PRINCIPIANTE;
+        long partidas = 1_000_000;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long semilla = System.nanoTime();
+        boolean probabilidades = false;
+        boolean escalado = false;
+        boolean lotes = false;
+        String informe = null;
+        
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--dificultad":
+                        dificultad = Dificultad.valueOf(args[++i].toUpperCase());
+                        break;
+                    case "--partidas":
+                        partidas = Long.parseLong(args[++i]);
+                        break;
+                    case "--hilos":
+                        hilos = Integer.parseInt(args[++i]);
+                        break;
+                    case "--semilla":
+                        semilla = Long.parseLong(args[++i]);
+                        break;
+                    case "--probabilidades":
+                        probabilidades = true;
+                        break;
+                    case "--escalado":
+                        escalado = true;
+                        break;
+                    case "--informe":
+                        informe = args[++i];
+                        break;
+                    case "--lotes":
+                        lotes = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
+            }
+            
+            Simulador simulador = new Simulador(dificultad.getTamaño(), dificultad.getNumeroMinas(),
+                    semilla, probabilidades);
+            if (lotes) {
+                System.out.print(simulador.compararConLotes(partidas));
+                return;
+            }
+            ResumenSimulacion resumen = simulador.ejecutar(partidas, hilos);
+            List<ResumenSimulacion> medicionesEscalado = escalado
+                    ? simulador.medirEscalado(partidas, hilos)
+                    : null;
+            
+            String texto = Simulador.generarInforme(resumen, medicionesEscalado);
+            System.out.print(texto);
+            if (informe != null) {
+                Simulador.escribirInforme(Paths.get(informe), texto);
+                System.out.println("Informe escrito en " + informe);
+            }
+        
+        } catch (IOException e) {
+            System.err.println("Error al escribir el informe: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Simulación interrumpida");
+            System.exit(1);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Falta el valor de una opción");
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Argumentos inválidos: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Mide los percentiles de latencia del generador sin adivinanzas para cada dificultad
+     * @param args Argumentos de línea de comandos
+     */
+    private static void medirLatenciasSinAdivinanzas(String[] args) {
+        int muestras = 100;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long semilla = System.nanoTime();
+        
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--muestras":
+                        muestras = Integer.parseInt(args[++i]);
+                        break;
+                    case "--hilos":
+                        hilos = Integer.parseInt(args[++i]);
+                        break;
+                    case "--semilla":
+                        semilla = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
+            }
+            
+            GeneradorSinAdivinanzas generador = new GeneradorSinAdivinanzas(hilos);
+            try {
+                System.out.println("=== LATENCIA DE GENERACIÓN SIN ADIVINANZAS ===");
+                System.out.printf("%-14s %10s %10s %10s %10s%n", "Dificultad", "p50 ms", "p90 ms", "p99 ms", "máx ms");
+                for (Dificultad dificultad : Dificultad.values()) {
+                    long[] latencias = generador.medirLatencias(dificultad, muestras, semilla);
+                    System.out.printf("%-14s %10.2f %10.2f %10.2f %10.2f%n", dificultad,
+                            GeneradorSinAdivinanzas.percentil(latencias, 50) / 1e6,
+                            GeneradorSinAdivinanzas.percentil(latencias, 90) / 1e6,
+                            GeneradorSinAdivinanzas.percentil(latencias, 99) / 1e6,
+                            latencias[latencias.length - 1] / 1e6);
+                }
+            } finally {
+                generador.cerrar();
+            }
+        
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Medición interrumpida");
+            System.exit(1);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Falta el valor de una opción");
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Argumentos inválidos: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Reproduce a toda velocidad las repeticiones indicadas y las compara con sus puntos de control
+     * @param args Argumentos de línea de comandos (archivos de repetición)
+     */
+    private static void verificarRepeticiones(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Indique al menos un archivo de repetición");
+            System.exit(1);
+        }
+        
+        boolean todasCoinciden = true;
+        for (int i = 1; i < args.length; i++) {
+            try {
+                Repeticion repeticion = GestorRepeticiones.leer(Paths.get(args[i]));
+                long inicio = System.nanoTime();
+                int divergencia = new ReproductorRepeticion(repeticion).avanceRapido();
+                double milisegundos = (System.nanoTime() - inicio) / 1e6;
+                if (divergencia < 0) {
+                    System.out.printf("OK      %s: %d jugadas en %.2f ms%n", args[i],
+                            repeticion.getNumeroJugadas(), milisegundos);
+                } else {
+                    System.out.printf("DIVERGE %s: jugada %d%n", args[i], divergencia);
+                    todasCoinciden = false;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Un archivo dañado no detiene la verificación de los demás
+                System.out.printf("ERROR   %s: %s%n", args[i], e.getMessage());
+                todasCoinciden = false;
+            }
+        }
+        if (!todasCoinciden) {
+            System.exit(1);
+        }
+    }
 }
\ No newline at end of file
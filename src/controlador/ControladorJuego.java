@@ -1,13 +1,27 @@
 package controlador;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.InputMismatchException;
 import java.util.Scanner;
 import java.util.regex.Pattern;
 
 import excepciones.CasillaYaDescubiertaException;
+import metricas.MetricasJuego;
+import modelo.ConfiguracionTablero;
+import modelo.Dificultad;
 import modelo.Jugador;
+import modelo.Movimiento;
+import modelo.ReproductorRepeticion;
+import modelo.Repeticion;
+import modelo.ResultadoPartida;
 import modelo.Tablero;
+import persistencia.AlmacenEstadisticas;
 import persistencia.GestorArchivos;
+import persistencia.GestorRepeticiones;
+import persistencia.TablaClasificacion;
+import solucionador.Pista;
+import solucionador.ServicioPistas;
 import vista.VistaConsola;
 
 /**
@@ -15,12 +29,27 @@ import vista.VistaConsola;
  * Implementa la lógica de control del patrón MVC
  */
 public class ControladorJuego {
+    private static final int PROFUNDIDAD_DESHACER = 100;
+    private static final long PAUSA_MAXIMA_REPRODUCCION_MS = 1000;
+    private static final Pattern PATRON_COORDENADA = Pattern.compile("^[A-Z][1-9][0-9]?$");
+    
     private Tablero tablero;
     private Jugador jugador;
     private VistaConsola vista;
     private Scanner scanner;
     private GestorArchivos gestorArchivos;
+    private GestorRepeticiones gestorRepeticiones;
+    private Repeticion repeticion;
+    private AlmacenEstadisticas almacenEstadisticas;
+    private TablaClasificacion tablaClasificacion;
+    private FabricaTableros fabricaTableros;
+    private ServicioPistas servicioPistas;
+    private final MetricasJuego metricas;
     private boolean juegoActivo;
+    private Dificultad dificultadActual;
+    private boolean partidaClasificable;
+    private long inicioPartidaNanos;
+    private int clics;
     
     /**
      * Constructor del controlador
@@ -29,7 +58,28 @@ public class ControladorJuego {
         this.vista = new VistaConsola();
         this.scanner = new Scanner(System.in);
         this.gestorArchivos = new GestorArchivos();
+        this.gestorRepeticiones = new GestorRepeticiones();
+        this.fabricaTableros = new FabricaTableros();
+        this.metricas = MetricasJuego.getInstancia();
         this.juegoActivo = false;
+        
+        MetricasJuego.registrarEnJmx();
+        
+        try {
+            this.almacenEstadisticas = new AlmacenEstadisticas();
+        } catch (IOException e) {
+            // Sin almacén las estadísticas solo duran la sesión
+            vista.mostrarError("No se pudieron abrir las estadísticas guardadas: " + e.getMessage());
+        }
+        try {
+            this.tablaClasificacion = new TablaClasificacion();
+        } catch (IOException e) {
+            vista.mostrarError("No se pudo abrir la clasificación: " + e.getMessage());
+        }
+        
+        // Pregenerar tableros para que "Nuevo juego" empiece sin esperas
+        fabricaTableros.precalentar(ConfiguracionTablero.de(Dificultad.PRINCIPIANTE, false));
+        fabricaTableros.precalentar(ConfiguracionTablero.de(Dificultad.PRINCIPIANTE, true));
     }
     
     /**
@@ -49,20 +99,29 @@ public class ControladorJuego {
                 
                 switch (opcion) {
                     case 1:
-                        nuevoJuego();
+                        nuevoJuego(false);
                         break;
                     case 2:
-                        cargarJuego();
+                        nuevoJuego(true);
                         break;
                     case 3:
-                        vista.mostrarEstadisticas(jugador);
+                        cargarJuego();
                         break;
                     case 4:
+                        vista.mostrarEstadisticas(jugador);
+                        break;
+                    case 5:
+                        mostrarClasificaciones();
+                        break;
+                    case 6:
+                        verRepeticion();
+                        break;
+                    case 7:
                         continuar = false;
                         vista.mostrarMensaje("¡Gracias por jugar!");
                         break;
                     default:
-                        vista.mostrarError("Opción no válida. Seleccione del 1 al 4.");
+                        vista.mostrarError("Opción no válida. Seleccione del 1 al 7.");
                 }
             } catch (InputMismatchException e) {
                 vista.mostrarError("Por favor, ingrese un número válido.");
@@ -71,6 +130,9 @@ public class ControladorJuego {
         }
         
         scanner.close();
+        fabricaTableros.cerrar();
+        cerrarAlmacenEstadisticas();
+        cerrarClasificacion();
     }
     
     /**
@@ -85,17 +147,36 @@ public class ControladorJuego {
         }
         
         this.jugador = new Jugador(nombre);
+        if (almacenEstadisticas != null) {
+            try {
+                Jugador guardado = almacenEstadisticas.obtener(nombre);
+                if (guardado != null) {
+                    this.jugador = guardado;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                vista.mostrarError("No se pudieron leer las estadísticas de " + nombre + ": " + e.getMessage());
+            }
+        }
         vista.mostrarBienvenida(nombre);
     }
     
     /**
-     * Inicia un nuevo juego
+     * Inicia un nuevo juego con un tablero de la reserva pregenerada
+     * @param sinAdivinanzas true para un tablero que se resuelve sin adivinar
      */
-    private void nuevoJuego() {
-        this.tablero = new Tablero();
+    private void nuevoJuego(boolean sinAdivinanzas) {
+        this.tablero = fabricaTableros.obtener(ConfiguracionTablero.de(Dificultad.PRINCIPIANTE, sinAdivinanzas));
+        this.tablero.activarHistorial(PROFUNDIDAD_DESHACER);
+        this.servicioPistas = new ServicioPistas(tablero);
+        this.repeticion = new Repeticion(tablero, Repeticion.INTERVALO_POR_DEFECTO);
         this.juegoActivo = true;
+        // Los tableros sin adivinanzas empiezan con una región abierta: no compiten en la clasificación
+        reiniciarCronometro(Dificultad.PRINCIPIANTE, !sinAdivinanzas);
         
         vista.mostrarMensaje("¡Nuevo juego iniciado!");
+        if (sinAdivinanzas) {
+            vista.mostrarMensaje("La casilla central ya está descubierta: el resto se resuelve sin adivinar.");
+        }
         bucleJuego();
     }
     
@@ -106,9 +187,14 @@ public class ControladorJuego {
         try {
             Object[] datos = gestorArchivos.cargarJuego();
             if (datos != null) {
+                // El jugador guardado se ignora: las estadísticas son las del jugador actual
                 this.tablero = (Tablero) datos[0];
-                this.jugador = (Jugador) datos[1];
+                this.tablero.activarHistorial(PROFUNDIDAD_DESHACER);
+                this.servicioPistas = new ServicioPistas(tablero);
+                this.repeticion = new Repeticion(tablero, Repeticion.INTERVALO_POR_DEFECTO);
                 this.juegoActivo = true;
+                // Cargar permite repetir jugadas, así que estas partidas no entran en la clasificación
+                reiniciarCronometro(null, false);
                 
                 vista.mostrarMensaje("¡Juego cargado exitosamente!");
                 bucleJuego();
@@ -116,6 +202,7 @@ public class ControladorJuego {
                 vista.mostrarError("No se encontró ningún juego guardado.");
             }
         } catch (Exception e) {
+            metricas.registrarError(e.getClass().getSimpleName());
             vista.mostrarError("Error al cargar el juego: " + e.getMessage());
         }
     }
@@ -125,7 +212,7 @@ public class ControladorJuego {
      */
     private void bucleJuego() {
         while (juegoActivo && !tablero.estaTerminado()) {
-            vista.mostrarTablero(tablero);
+            mostrarTablero();
             vista.mostrarOpcionesJuego();
             
             String entrada = scanner.nextLine().trim().toUpperCase();
@@ -133,11 +220,20 @@ public class ControladorJuego {
         }
         
         if (tablero.estaTerminado()) {
-            vista.mostrarTablero(tablero);
+            mostrarTablero();
             finalizarJuego();
         }
     }
     
+    /**
+     * Dibuja el tablero midiendo el tiempo de renderizado
+     */
+    private void mostrarTablero() {
+        long inicio = System.nanoTime();
+        vista.mostrarTablero(tablero);
+        metricas.registrarRender(System.nanoTime() - inicio);
+    }
+    
     /**
      * Procesa la entrada del usuario
      * @param entrada La cadena ingresada por el usuario
@@ -154,16 +250,60 @@ public class ControladorJuego {
                 return;
             }
             
+            if (entrada.equals("PISTA")) {
+                mostrarPista();
+                return;
+            }
+            
+            if (entrada.equals("STATS")) {
+                mostrarMetricas();
+                return;
+            }
+            
+            if (entrada.equals("DESHACER")) {
+                deshacerJugada();
+                return;
+            }
+            
+            if (entrada.equals("REHACER")) {
+                if (tablero.rehacer()) {
+                    repeticion.restaurarUltima(tablero);
+                    vista.mostrarMensaje("Jugada rehecha.");
+                } else {
+                    vista.mostrarError("No hay jugadas para rehacer.");
+                }
+                return;
+            }
+            
             if (entrada.startsWith("M") && entrada.length() >= 3) {
                 // Marcar casilla
                 String coordenada = entrada.substring(1);
-                int[] posicion = parsearCoordenada(coordenada);
+                int[] posicion = parsearCoordenada(coordenada, tablero.getTamaño());
+                boolean marcadaAntes = tablero.getCasilla(posicion[0], posicion[1]).estaMarcada();
+                iniciarCronometro();
                 tablero.marcarCasilla(posicion[0], posicion[1]);
+                if (tablero.getCasilla(posicion[0], posicion[1]).estaMarcada() != marcadaAntes) {
+                    // Solo cuentan los clics que cambian el tablero
+                    repeticion.registrar(Movimiento.marcar(posicion[0], posicion[1], tablero.getTamaño()), tablero);
+                    clics++;
+                }
+                metricas.registrarMovimiento();
                 vista.mostrarMensaje("Casilla marcada/desmarcada en " + coordenada);
             } else {
                 // Descubrir casilla
-                int[] posicion = parsearCoordenada(entrada);
+                int[] posicion = parsearCoordenada(entrada, tablero.getTamaño());
+                int descubiertasAntes = tablero.getCasillasDescubiertas();
+                iniciarCronometro();
+                long inicio = System.nanoTime();
                 tablero.descubrirCasilla(posicion[0], posicion[1]);
+                metricas.registrarDescubrimiento(System.nanoTime() - inicio,
+                        tablero.getCasillasDescubiertas() - descubiertasAntes);
+                if (tablero.getCasillasDescubiertas() != descubiertasAntes) {
+                    // Descubrir una casilla marcada no cambia el tablero ni cuenta como clic
+                    repeticion.registrar(Movimiento.descubrir(posicion[0], posicion[1], tablero.getTamaño()), tablero);
+                    clics++;
+                }
+                metricas.registrarMovimiento();
                 
                 if (tablero.getCasilla(posicion[0], posicion[1]).tieneMina()) {
                     vista.mostrarMensaje("¡Has descubierto una mina!");
@@ -172,23 +312,29 @@ public class ControladorJuego {
                 }
             }
         } catch (CasillaYaDescubiertaException e) {
+            metricas.registrarError(e.getClass().getSimpleName());
             vista.mostrarError(e.getMessage());
         } catch (ArrayIndexOutOfBoundsException e) {
-            vista.mostrarError("Coordenada fuera del tablero. Use formato como A5 (A-J, 1-10).");
+            metricas.registrarError(e.getClass().getSimpleName());
+            vista.mostrarError("Coordenada fuera del tablero. Use formato como A5 (" + describirRango(tablero.getTamaño()) + ").");
         } catch (IllegalArgumentException e) {
+            metricas.registrarError(e.getClass().getSimpleName());
             vista.mostrarError("Formato de coordenada inválido. Use formato como A5 o MA5 para marcar.");
         } catch (Exception e) {
+            metricas.registrarError(e.getClass().getSimpleName());
             vista.mostrarError("Error inesperado: " + e.getMessage());
         }
     }
     
     /**
      * Parsea una coordenada en formato A5 a índices de matriz
+     * Solo comprueba el formato: para rechazar las que caen fuera de un tablero concreto
+     * está {@link #parsearCoordenada(String, int)}
      * @param coordenada La coordenada en formato letra-número
      * @return Array con [fila, columna]
      */
-    private int[] parsearCoordenada(String coordenada) {
-        if (!Pattern.matches("^[A-J][1-9]|[A-J]10$", coordenada)) {
+    public static int[] parsearCoordenada(String coordenada) {
+        if (!PATRON_COORDENADA.matcher(coordenada).matches()) {
             throw new IllegalArgumentException("Formato de coordenada inválido");
         }
         
@@ -201,6 +347,77 @@ public class ControladorJuego {
         return new int[]{fila, columna};
     }
     
+    /**
+     * Parsea una coordenada y verifica que esté dentro de un tablero
+     * @param coordenada La coordenada en formato letra-número
+     * @param tamaño Tamaño del tablero
+     * @return Array con [fila, columna]
+     */
+    public static int[] parsearCoordenada(String coordenada, int tamaño) {
+        int[] posicion = parsearCoordenada(coordenada);
+        if (posicion[0] >= tamaño || posicion[1] >= tamaño) {
+            throw new ArrayIndexOutOfBoundsException("Posición " + coordenada + " fuera del tablero (" + describirRango(tamaño) + ")");
+        }
+        return posicion;
+    }
+    
+    /**
+     * Describe las coordenadas válidas de un tablero, por ejemplo "A-J, 1-10"
+     * @param tamaño Tamaño del tablero
+     * @return Rango de letras y de números que se pueden escribir
+     */
+    public static String describirRango(int tamaño) {
+        // El formato admite 26 letras y números de dos cifras
+        return String.format("A-%c, 1-%d", (char) ('A' + Math.min(tamaño, 26) - 1), Math.min(tamaño, 99));
+    }
+    
+    /**
+     * Muestra una casilla segura o, si no hay ninguna, la de menor probabilidad de mina
+     * Como al deshacer, la partida deja de ser clasificable
+     */
+    private void mostrarPista() {
+        Pista pista = servicioPistas.obtenerPista();
+        if (pista == null) {
+            vista.mostrarError("No hay pistas disponibles.");
+            return;
+        }
+        if (partidaClasificable) {
+            partidaClasificable = false;
+            vista.mostrarMensaje("Al pedir pistas la partida ya no entra en la clasificación.");
+        }
+        if (pista.esSegura()) {
+            vista.mostrarMensaje("Pista: " + pista.getCoordenada() + " es segura.");
+        } else {
+            vista.mostrarMensaje(String.format("Pista: no hay casillas seguras; %s tiene la menor probabilidad de mina (%.1f%%).",
+                    pista.getCoordenada(), pista.getProbabilidadMina() * 100));
+        }
+    }
+    
+    /**
+     * Deshace la última jugada; la partida deja de ser clasificable
+     */
+    private void deshacerJugada() {
+        if (!tablero.deshacer()) {
+            vista.mostrarError("No hay jugadas para deshacer.");
+            return;
+        }
+        repeticion.descartarUltima(tablero);
+        if (partidaClasificable) {
+            partidaClasificable = false;
+            vista.mostrarMensaje("Al deshacer jugadas la partida ya no entra en la clasificación.");
+        }
+        vista.mostrarMensaje("Jugada deshecha.");
+    }
+    
+    /**
+     * Muestra las métricas de ejecución y el estado de las reservas de tableros
+     */
+    private void mostrarMetricas() {
+        vista.mostrarMensaje("\n=== MÉTRICAS ===");
+        vista.mostrarMensaje(metricas.generarInforme());
+        vista.mostrarMensaje(fabricaTableros.getMetricas());
+    }
+    
     /**
      * Guarda el estado actual del juego
      */
@@ -209,6 +426,7 @@ public class ControladorJuego {
             gestorArchivos.guardarJuego(tablero, jugador);
             vista.mostrarMensaje("Juego guardado exitosamente.");
         } catch (Exception e) {
+            metricas.registrarError(e.getClass().getSimpleName());
             vista.mostrarError("Error al guardar el juego: " + e.getMessage());
         }
     }
@@ -219,13 +437,218 @@ public class ControladorJuego {
     private void finalizarJuego() {
         if (tablero.esVictoria()) {
             vista.mostrarVictoria();
-            jugador.registrarVictoria();
         } else {
             vista.mostrarDerrota();
-            jugador.registrarDerrota();
         }
+        registrarResultado(tablero.esVictoria());
+        registrarEnClasificacion();
+        guardarRepeticion();
         
         vista.mostrarEstadisticas(jugador);
+        servicioPistas.cerrar();
         juegoActivo = false;
     }
+    
+    /**
+     * Guarda la repetición de la partida terminada
+     */
+    private void guardarRepeticion() {
+        try {
+            Path ruta = gestorRepeticiones.guardar(repeticion);
+            vista.mostrarMensaje("Repetición guardada en " + ruta + " (menú \"Ver última repetición\").");
+        } catch (IOException e) {
+            metricas.registrarError(e.getClass().getSimpleName());
+            vista.mostrarError("No se pudo guardar la repetición: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Muestra la última repetición guardada y permite recorrerla
+     */
+    private void verRepeticion() {
+        Repeticion ultima;
+        try {
+            ultima = gestorRepeticiones.cargarUltima();
+        } catch (IOException e) {
+            metricas.registrarError(e.getClass().getSimpleName());
+            vista.mostrarError("No se pudo cargar la repetición: " + e.getMessage());
+            return;
+        }
+        if (ultima == null) {
+            vista.mostrarError("No hay repeticiones guardadas. Termine una partida para grabar una.");
+            return;
+        }
+        
+        ReproductorRepeticion reproductor = new ReproductorRepeticion(ultima);
+        while (true) {
+            vista.mostrarTablero(reproductor.getTablero());
+            vista.mostrarMensaje("Jugada " + reproductor.getPosicion() + " de " + ultima.getNumeroJugadas());
+            vista.mostrarOpcionesRepeticion();
+            
+            String entrada = scanner.nextLine().trim().toUpperCase();
+            if (entrada.equals("MENU")) {
+                return;
+            } else if (entrada.isEmpty() || entrada.equals("+")) {
+                if (!reproductor.avanzar()) {
+                    vista.mostrarMensaje("Fin de la repetición.");
+                }
+            } else if (entrada.equals("-")) {
+                reproductor.retroceder();
+            } else if (entrada.equals("REPRODUCIR")) {
+                reproducir(reproductor);
+            } else if (entrada.equals("VERIFICAR")) {
+                verificarRepeticion(reproductor);
+            } else {
+                try {
+                    reproductor.irA(Integer.parseInt(entrada));
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    vista.mostrarError("Ingrese un número de jugada entre 0 y " + ultima.getNumeroJugadas() + ".");
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reproduce desde la posición actual hasta el final con las pausas originales, acortadas a un segundo
+     */
+    private void reproducir(ReproductorRepeticion reproductor) {
+        Repeticion grabada = reproductor.getRepeticion();
+        while (reproductor.getPosicion() < grabada.getNumeroJugadas()) {
+            int jugada = reproductor.getPosicion();
+            long pausa = jugada == 0 ? 0 : grabada.getTiempo(jugada) - grabada.getTiempo(jugada - 1);
+            try {
+                Thread.sleep(Math.min(PAUSA_MAXIMA_REPRODUCCION_MS, Math.max(0, pausa)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            reproductor.avanzar();
+            vista.mostrarTablero(reproductor.getTablero());
+        }
+    }
+    
+    /**
+     * Vuelve a jugar la repetición completa sin pausas y la compara con sus puntos de control
+     */
+    private void verificarRepeticion(ReproductorRepeticion reproductor) {
+        long inicio = System.nanoTime();
+        int divergencia = reproductor.avanceRapido();
+        double milisegundos = (System.nanoTime() - inicio) / 1e6;
+        if (divergencia < 0) {
+            vista.mostrarMensaje(String.format("Repetición verificada: %d jugadas en %.2f ms.",
+                    reproductor.getRepeticion().getNumeroJugadas(), milisegundos));
+        } else {
+            vista.mostrarError("La repetición no coincide con lo grabado en la jugada " + divergencia + ".");
+        }
+    }
+    
+    /**
+     * Registra el resultado en el jugador y en el almacén de estadísticas
+     * Con almacén, el jugador se actualiza con lo guardado en disco, que
+     * incluye las partidas de otras sesiones
+     */
+    private void registrarResultado(boolean victoria) {
+        if (almacenEstadisticas != null) {
+            try {
+                this.jugador = victoria ? almacenEstadisticas.registrarVictoria(jugador.getNombre())
+                                        : almacenEstadisticas.registrarDerrota(jugador.getNombre());
+                return;
+            } catch (IOException | IllegalArgumentException e) {
+                metricas.registrarError(e.getClass().getSimpleName());
+                vista.mostrarError("No se pudieron guardar las estadísticas: " + e.getMessage());
+            }
+        }
+        if (victoria) {
+            jugador.registrarVictoria();
+        } else {
+            jugador.registrarDerrota();
+        }
+    }
+    
+    /**
+     * Cierra el almacén de estadísticas al salir
+     */
+    private void cerrarAlmacenEstadisticas() {
+        if (almacenEstadisticas != null) {
+            try {
+                almacenEstadisticas.close();
+            } catch (IOException e) {
+                vista.mostrarError("Error al cerrar las estadísticas: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Prepara la medición de una partida nueva o cargada
+     * @param dificultad Dificultad de la partida, null si no se conoce
+     * @param clasificable true si la partida puede entrar en la clasificación
+     */
+    private void reiniciarCronometro(Dificultad dificultad, boolean clasificable) {
+        this.dificultadActual = dificultad;
+        this.partidaClasificable = clasificable && dificultad != null;
+        this.inicioPartidaNanos = 0;
+        this.clics = 0;
+    }
+    
+    /**
+     * El cronómetro arranca con la primera jugada, no al mostrar el tablero
+     */
+    private void iniciarCronometro() {
+        if (inicioPartidaNanos == 0) {
+            inicioPartidaNanos = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Muestra la duración y eficiencia de la partida y la registra en la clasificación
+     */
+    private void registrarEnClasificacion() {
+        long duracionMillis = inicioPartidaNanos == 0 ? 0 : (System.nanoTime() - inicioPartidaNanos) / 1_000_000;
+        ResultadoPartida resultado = new ResultadoPartida(jugador.getNombre(), dificultadActual, tablero.esVictoria(),
+                duracionMillis, clics, tablero.calcular3BV(), System.currentTimeMillis());
+        vista.mostrarMensaje(resultado.getResumen());
+        
+        if (!resultado.esVictoria() || tablaClasificacion == null) {
+            return;
+        }
+        if (!partidaClasificable) {
+            vista.mostrarMensaje("Esta partida no entra en la clasificación (partida cargada, sin adivinanzas, con pistas o con jugadas deshechas).");
+            return;
+        }
+        try {
+            int puesto = tablaClasificacion.registrar(resultado);
+            if (puesto > 0) {
+                vista.mostrarMensaje("¡Nuevo récord! Puesto " + puesto + " en " + dificultadActual + ".");
+            }
+        } catch (IOException e) {
+            metricas.registrarError(e.getClass().getSimpleName());
+            vista.mostrarError("No se pudo guardar la clasificación: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Muestra las clasificaciones de todas las dificultades
+     */
+    private void mostrarClasificaciones() {
+        if (tablaClasificacion == null) {
+            vista.mostrarError("La clasificación no está disponible.");
+            return;
+        }
+        for (Dificultad dificultad : Dificultad.values()) {
+            vista.mostrarClasificacion(dificultad, tablaClasificacion.getMejores(dificultad));
+        }
+    }
+    
+    /**
+     * Cierra el registro de la clasificación al salir
+     */
+    private void cerrarClasificacion() {
+        if (tablaClasificacion != null) {
+            try {
+                tablaClasificacion.close();
+            } catch (IOException e) {
+                vista.mostrarError("Error al cerrar la clasificación: " + e.getMessage());
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package controlador;
+
+import java.io.PrintStream;
+import java.util.Random;
+
+import modelo.Tablero;
+
+/**
+ * Controlador del modo sin interfaz (headless)
+ * Juega partidas con jugadas de una {@link FuenteMovimientos} sin dibujar el tablero,
+ * y solo muestra un resumen final con tiempos. Sirve para repetir partidas de
+ * regresión, medir rendimiento y enfrentar bots
+ */
+public class ControladorSinInterfaz {
+    private final FuenteMovimientos fuente;
+    private final int tamaño;
+    private final int numeroMinas;
+    private final Long semilla;
+    private final PrintStream salida;
+    
+    private int victorias;
+    private int derrotas;
+    private int sinTerminar;
+    private long jugadas;
+    private long nanosTotales;
+    
+    /**
+     * Constructor del controlador sin interfaz
+     * @param fuente Origen de las jugadas
+     * @param tamaño Tamaño de los tableros
+     * @param numeroMinas Minas de cada tablero
+     * @param semilla Semilla base (la partida i usa semilla + i) o null para tableros aleatorios
+     * @param salida Flujo donde se escribe el resumen
+     */
+    public ControladorSinInterfaz(FuenteMovimientos fuente, int tamaño, int numeroMinas,
+                                  Long semilla, PrintStream salida) {
+        this.fuente = fuente;
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.semilla = semilla;
+        this.salida = salida;
+    }
+    
+    /**
+     * Juega las partidas indicadas y muestra el resumen
+     * @param partidas Número de partidas a jugar
+     */
+    public void ejecutar(int partidas) {
+        Random generadorSemillas = new Random();
+        
+        long inicio = System.nanoTime();
+        for (int i = 0; i < partidas; i++) {
+            long semillaPartida = semilla != null ? semilla + i : generadorSemillas.nextLong();
+            jugarPartida(new Tablero(tamaño, numeroMinas, semillaPartida));
+        }
+        nanosTotales = System.nanoTime() - inicio;
+        
+        mostrarResumen(partidas);
+    }
+    
+    /**
+     * Juega una partida hasta que termina o la fuente se queda sin jugadas
+     */
+    private void jugarPartida(Tablero tablero) {
+        fuente.nuevaPartida(tablero);
+        
+        while (!tablero.estaTerminado()) {
+            int movimiento = fuente.siguienteMovimiento(tablero);
+            if (movimiento == FuenteMovimientos.FIN) {
+                break;
+            }
+            tablero.aplicarMovimiento(movimiento);
+            jugadas++;
+        }
+        
+        if (!tablero.estaTerminado()) {
+            sinTerminar++;
+        } else if (tablero.esVictoria()) {
+            victorias++;
+        } else {
+            derrotas++;
+        }
+    }
+    
+    /**
+     * Muestra el resumen final con resultados y tiempos
+     */
+    private void mostrarResumen(int partidas) {
+        double segundos = nanosTotales / 1e9;
+        
+        salida.println("=== RESUMEN SIN INTERFAZ ===");
+        salida.printf("Tablero: %dx%d con %d minas%n", tamaño, tamaño, numeroMinas);
+        salida.printf("Partidas: %d (victorias: %d, derrotas: %d, sin terminar: %d)%n",
+                partidas, victorias, derrotas, sinTerminar);
+        salida.printf("Jugadas aplicadas: %d%n", jugadas);
+        salida.printf("Tiempo total: %.3f s%n", segundos);
+        if (partidas > 0 && nanosTotales > 0) {
+            salida.printf("Rendimiento: %.0f partidas/s (%.2f µs por partida)%n",
+                    partidas / segundos, nanosTotales / 1e3 / partidas);
+        }
+    }
+    
+    public int getVictorias() {
+        return victorias;
+    }
+    
+    public int getDerrotas() {
+        return derrotas;
+    }
+    
+    public int getSinTerminar() {
+        return sinTerminar;
+    }
+}
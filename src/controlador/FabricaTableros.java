@@ -0,0 +1,286 @@
+package controlador;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import modelo.ConfiguracionTablero;
+import modelo.Tablero;
+import modelo.TableroDisperso;
+import modelo.TableroJugable;
+import solucionador.GeneradorSinAdivinanzas;
+
+/**
+ * Fábrica de tableros con reservas pregeneradas por configuración
+ * 
+ * Cada configuración tiene una cola acotada que rellenan hilos en segundo plano, así que
+ * un acierto es O(1) y no bloquea. Si la reserva está vacía (fallo) el tablero se crea en
+ * el momento: para las configuraciones normales es casi inmediato, porque las minas se
+ * colocan en el primer clic, pero un tablero sin adivinanzas se genera en el hilo que lo
+ * pide y puede tardar segundos. No se sustituye por uno normal porque la partida prometería
+ * algo que el tablero no cumple; precalentar las configuraciones que se van a pedir evita
+ * casi todos esos fallos. Las reservas que no se usan durante un tiempo se vacían para no
+ * retener memoria
+ */
+public class FabricaTableros {
+    private static final int CAPACIDAD_POR_DEFECTO = 4;
+    private static final long INACTIVIDAD_POR_DEFECTO_MS = 5 * 60 * 1000;
+    // Tableros desde 2048x2048 con menos de una mina por cada cien casillas se crean dispersos
+    private static final long CASILLAS_MINIMAS_DISPERSO = 1L << 22;
+    private static final int CASILLAS_POR_MINA_DISPERSO = 100;
+    
+    private final int capacidad;
+    private final long inactividadMaximaMs;
+    private final Map<ConfiguracionTablero, Reserva> reservas;
+    private final ExecutorService rellenadores;
+    private final ScheduledExecutorService limpiador;
+    private final GeneradorSinAdivinanzas generador;
+    private final Random random;
+    
+    private final LongAdder aciertos;
+    private final LongAdder fallos;
+    
+    /**
+     * Reserva de tableros de una configuración
+     */
+    private static class Reserva {
+        final ArrayBlockingQueue<Tablero> tableros;
+        final AtomicBoolean rellenando = new AtomicBoolean();
+        final LongAdder aciertos = new LongAdder();
+        final LongAdder fallos = new LongAdder();
+        volatile long ultimoUso = System.currentTimeMillis();
+        
+        Reserva(int capacidad) {
+            this.tableros = new ArrayBlockingQueue<>(capacidad);
+        }
+    }
+    
+    /**
+     * Constructor con capacidad y tiempo de inactividad personalizados
+     * @param capacidad Tableros máximos por configuración
+     * @param inactividadMaximaMs Tiempo sin uso tras el cual se vacía una reserva
+     * @param hilos Hilos de relleno en segundo plano
+     */
+    public FabricaTableros(int capacidad, long inactividadMaximaMs, int hilos) {
+        this.capacidad = capacidad;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.reservas = new ConcurrentHashMap<>();
+        this.rellenadores = Executors.newFixedThreadPool(hilos, hiloDemonio("fabrica-tableros"));
+        this.limpiador = Executors.newSingleThreadScheduledExecutor(hiloDemonio("fabrica-limpieza"));
+        this.generador = new GeneradorSinAdivinanzas(hilos);
+        this.random = new Random();
+        this.aciertos = new LongAdder();
+        this.fallos = new LongAdder();
+        
+        long periodo = Math.max(1, inactividadMaximaMs / 2);
+        limpiador.scheduleWithFixedDelay(this::vaciarReservasInactivas, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Constructor por defecto
+     */
+    public FabricaTableros() {
+        this(CAPACIDAD_POR_DEFECTO, INACTIVIDAD_POR_DEFECTO_MS, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+    
+    /**
+     * Obtiene un tablero de la configuración indicada sin esperar a los hilos de relleno
+     * Con la reserva vacía lo crea en el momento, lo que para un tablero sin adivinanzas
+     * bloquea mientras se genera; en ambos casos la reserva se vuelve a llenar en segundo plano
+     * @param configuracion Configuración del tablero
+     * @return Tablero listo para jugar
+     */
+    public Tablero obtener(ConfiguracionTablero configuracion) {
+        Reserva reserva = reservas.computeIfAbsent(configuracion, c -> new Reserva(capacidad));
+        reserva.ultimoUso = System.currentTimeMillis();
+        
+        Tablero tablero = reserva.tableros.poll();
+        if (tablero != null) {
+            aciertos.increment();
+            reserva.aciertos.increment();
+        } else {
+            fallos.increment();
+            reserva.fallos.increment();
+            tablero = crear(configuracion);
+        }
+        
+        programarRelleno(configuracion, reserva);
+        return tablero;
+    }
+    
+    /**
+     * Obtiene un tablero de la configuración indicada con la representación que le conviene
+     * Los tableros enormes con muy pocas minas se crean dispersos en el momento, sin reserva,
+     * porque solo guardan sus minas y hasta el primer clic no colocan ninguna; el resto se
+     * obtienen como en {@link #obtener(ConfiguracionTablero)}. Es para quien use el tablero como
+     * biblioteca: el controlador sigue pidiendo {@link Tablero} con {@link #obtener(ConfiguracionTablero)}
+     * @param configuracion Configuración del tablero
+     * @return Tablero listo para jugar
+     */
+    public TableroJugable obtenerJugable(ConfiguracionTablero configuracion) {
+        if (!esDispersa(configuracion)) {
+            return obtener(configuracion);
+        }
+        return TableroDisperso.conPrimerClicSeguro(configuracion.getTamaño(), configuracion.getNumeroMinas(),
+                siguienteSemilla());
+    }
+    
+    /**
+     * Indica si una configuración se juega con {@link TableroDisperso}
+     * @param configuracion Configuración del tablero
+     * @return true si el tablero es enorme, tiene menos de un 1% de minas y admite adivinanzas
+     */
+    public static boolean esDispersa(ConfiguracionTablero configuracion) {
+        long casillas = (long) configuracion.getTamaño() * configuracion.getTamaño();
+        return !configuracion.esSinAdivinanzas() && casillas >= CASILLAS_MINIMAS_DISPERSO
+                && (long) configuracion.getNumeroMinas() * CASILLAS_POR_MINA_DISPERSO < casillas;
+    }
+    
+    /**
+     * Empieza a llenar la reserva de una configuración antes de que se pida
+     * @param configuracion Configuración a precalentar
+     */
+    public void precalentar(ConfiguracionTablero configuracion) {
+        Reserva reserva = reservas.computeIfAbsent(configuracion, c -> new Reserva(capacidad));
+        reserva.ultimoUso = System.currentTimeMillis();
+        programarRelleno(configuracion, reserva);
+    }
+    
+    /**
+     * Lanza un relleno en segundo plano si no hay uno en curso para esa reserva
+     */
+    private void programarRelleno(ConfiguracionTablero configuracion, Reserva reserva) {
+        if (reserva.tableros.remainingCapacity() == 0 || !reserva.rellenando.compareAndSet(false, true)) {
+            return;
+        }
+        rellenadores.execute(() -> {
+            try {
+                while (reserva.tableros.remainingCapacity() > 0 && !estaInactiva(reserva)) {
+                    if (!reserva.tableros.offer(crear(configuracion))) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Al cerrar la fábrica se corta el relleno en curso: no es un error
+                if (!rellenadores.isShutdown()) {
+                    System.err.println("Error al pregenerar tableros " + configuracion + ": " + e.getMessage());
+                }
+            } finally {
+                reserva.rellenando.set(false);
+            }
+        });
+    }
+    
+    /**
+     * Crea un tablero nuevo de la configuración indicada
+     */
+    private Tablero crear(ConfiguracionTablero configuracion) {
+        long semilla = siguienteSemilla();
+        
+        if (!configuracion.esSinAdivinanzas()) {
+            // Las minas se colocan en el primer clic, que así nunca pierde
+            return Tablero.conPrimerClicSeguro(configuracion.getTamaño(), configuracion.getNumeroMinas(), semilla);
+        }
+        
+        int centro = configuracion.getTamaño() / 2;
+        try {
+            return generador.generar(configuracion.getTamaño(), configuracion.getNumeroMinas(),
+                    semilla, centro, centro);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación de tablero interrumpida");
+        }
+    }
+    
+    private long siguienteSemilla() {
+        synchronized (random) {
+            return random.nextLong();
+        }
+    }
+    
+    /**
+     * Vacía y elimina las reservas que llevan demasiado tiempo sin usarse
+     */
+    private void vaciarReservasInactivas() {
+        reservas.entrySet().removeIf(entrada -> {
+            if (estaInactiva(entrada.getValue())) {
+                entrada.getValue().tableros.clear();
+                return true;
+            }
+            return false;
+        });
+    }
+    
+    private boolean estaInactiva(Reserva reserva) {
+        return System.currentTimeMillis() - reserva.ultimoUso > inactividadMaximaMs;
+    }
+    
+    /**
+     * Obtiene la proporción de peticiones servidas desde una reserva
+     * @return Tasa de aciertos entre 0 y 1
+     */
+    public double getTasaAciertos() {
+        long total = aciertos.sum() + fallos.sum();
+        return total == 0 ? 0.0 : (double) aciertos.sum() / total;
+    }
+    
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+    
+    public long getFallos() {
+        return fallos.sum();
+    }
+    
+    /**
+     * Obtiene cuántos tableros de una configuración esperan en su reserva
+     * @param configuracion Configuración del tablero
+     * @return Tableros disponibles, 0 si no hay reserva
+     */
+    public int getDisponibles(ConfiguracionTablero configuracion) {
+        Reserva reserva = reservas.get(configuracion);
+        return reserva == null ? 0 : reserva.tableros.size();
+    }
+    
+    /**
+     * Obtiene un resumen de las métricas de cada reserva
+     * @return String con aciertos, fallos y tableros disponibles por configuración
+     */
+    public String getMetricas() {
+        StringBuilder texto = new StringBuilder(String.format("Reservas de tableros: %d aciertos, %d fallos (%.1f%%)",
+                getAciertos(), getFallos(), getTasaAciertos() * 100));
+        for (Map.Entry<ConfiguracionTablero, Reserva> entrada : reservas.entrySet()) {
+            Reserva reserva = entrada.getValue();
+            texto.append(String.format("%n  %s: %d disponibles, %d aciertos, %d fallos", entrada.getKey(),
+                    reserva.tableros.size(), reserva.aciertos.sum(), reserva.fallos.sum()));
+        }
+        return texto.toString();
+    }
+    
+    /**
+     * Detiene los hilos de relleno y limpieza
+     */
+    public void cerrar() {
+        rellenadores.shutdownNow();
+        limpiador.shutdownNow();
+        generador.cerrar();
+        reservas.clear();
+    }
+    
+    private static ThreadFactory hiloDemonio(String nombre) {
+        return tarea -> {
+            Thread hilo = new Thread(tarea, nombre);
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package controlador;
+
+import modelo.Tablero;
+
+/**
+ * Origen de jugadas para el modo sin interfaz
+ * Permite alimentar partidas desde archivos, tuberías o código (bots)
+ */
+public interface FuenteMovimientos {
+    /**
+     * Valor devuelto cuando la fuente no tiene más jugadas para la partida actual
+     */
+    int FIN = -1;
+    
+    /**
+     * Prepara la fuente para una nueva partida
+     * @param tablero El tablero de la nueva partida
+     */
+    default void nuevaPartida(Tablero tablero) {
+    }
+    
+    /**
+     * Obtiene la siguiente jugada codificada con {@link modelo.Movimiento}
+     * @param tablero El tablero sobre el que se jugará
+     * @return Jugada codificada o {@link #FIN} si no quedan jugadas
+     */
+    int siguienteMovimiento(Tablero tablero);
+}
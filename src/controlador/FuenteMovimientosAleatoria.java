@@ -0,0 +1,70 @@
+package controlador;
+
+import java.util.Random;
+
+import modelo.Movimiento;
+import modelo.Tablero;
+
+/**
+ * Fuente de jugadas que descubre casillas tapadas al azar
+ * Sirve como bot mínimo para medir el rendimiento del modo sin interfaz
+ * 
+ * Al empezar cada partida guarda los índices de las casillas tapadas y los va sacando en
+ * orden aleatorio (Fisher-Yates por pasos), así que cada jugada cuesta O(1) amortizado en
+ * vez de recorrer el tablero; las que ya destapó una expansión se saltan al salir
+ */
+public class FuenteMovimientosAleatoria implements FuenteMovimientos {
+    private final Random random;
+    
+    // Índices de casillas pendientes de elegir; las primeras 'restantes' aún no han salido
+    private int[] casillas;
+    private int restantes;
+    private Tablero tableroActual;
+    
+    /**
+     * Constructor con semilla para obtener partidas reproducibles
+     * @param semilla Semilla del generador aleatorio
+     */
+    public FuenteMovimientosAleatoria(long semilla) {
+        this.random = new Random(semilla);
+    }
+    
+    @Override
+    public void nuevaPartida(Tablero tablero) {
+        int total = tablero.getTamaño() * tablero.getTamaño();
+        if (casillas == null || casillas.length < total) {
+            casillas = new int[total];
+        }
+        restantes = 0;
+        for (int indice = 0; indice < total; indice++) {
+            if (!tablero.getCasilla(indice / tablero.getTamaño(), indice % tablero.getTamaño()).estaDescubierta()) {
+                casillas[restantes++] = indice;
+            }
+        }
+        tableroActual = tablero;
+    }
+    
+    @Override
+    public int siguienteMovimiento(Tablero tablero) {
+        if (tablero != tableroActual) {
+            nuevaPartida(tablero);
+        }
+        if (tablero.estaTerminado()) {
+            return FIN;
+        }
+        
+        int tamaño = tablero.getTamaño();
+        while (restantes > 0) {
+            int elegida = random.nextInt(restantes);
+            int indice = casillas[elegida];
+            casillas[elegida] = casillas[--restantes];
+            casillas[restantes] = indice;
+            int fila = indice / tamaño;
+            int columna = indice % tamaño;
+            if (!tablero.getCasilla(fila, columna).estaDescubierta()) {
+                return Movimiento.descubrir(fila, columna, tamaño);
+            }
+        }
+        return FIN;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package controlador;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import modelo.ListaEnteros;
+import modelo.Movimiento;
+import modelo.Tablero;
+
+/**
+ * Fuente de jugadas leídas de un texto con una jugada por línea
+ * Usa el mismo formato que la consola (A5 para descubrir, MA5 para marcar);
+ * las líneas vacías y las que empiezan con '#' se ignoran
+ * 
+ * Las jugadas se leen una sola vez, comprobando que caigan dentro del tablero, y se
+ * repiten en cada partida
+ */
+public class FuenteMovimientosTexto implements FuenteMovimientos {
+    // Cada jugada ocupa tres posiciones: fila, columna y tipo
+    private final ListaEnteros jugadas;
+    private final int tamaño;
+    private int posicion;
+    
+    /**
+     * Constructor que lee todas las jugadas del origen
+     * @param origen Texto con las jugadas (archivo o entrada estándar)
+     * @param tamaño Tamaño de los tableros en los que se jugarán
+     * @throws IOException Si ocurre un error de lectura o una jugada es inválida o cae fuera del tablero
+     */
+    public FuenteMovimientosTexto(Reader origen, int tamaño) throws IOException {
+        this.jugadas = new ListaEnteros();
+        this.tamaño = tamaño;
+        
+        BufferedReader lector = new BufferedReader(origen);
+        String linea;
+        int numeroLinea = 0;
+        while ((linea = lector.readLine()) != null) {
+            numeroLinea++;
+            linea = linea.trim().toUpperCase();
+            if (linea.isEmpty() || linea.startsWith("#")) {
+                continue;
+            }
+            
+            int tipo = Movimiento.DESCUBRIR;
+            if (linea.startsWith("M") && linea.length() >= 3) {
+                tipo = Movimiento.MARCAR;
+                linea = linea.substring(1);
+            }
+            
+            try {
+                int[] coordenada = ControladorJuego.parsearCoordenada(linea, tamaño);
+                jugadas.agregar(coordenada[0]);
+                jugadas.agregar(coordenada[1]);
+                jugadas.agregar(tipo);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Jugada inválida en la línea " + numeroLinea + ": " + linea);
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Jugada fuera del tablero en la línea " + numeroLinea + ": " + linea
+                        + " (" + ControladorJuego.describirRango(tamaño) + ")");
+            }
+        }
+    }
+    
+    @Override
+    public void nuevaPartida(Tablero tablero) {
+        if (tablero.getTamaño() != tamaño) {
+            throw new IllegalArgumentException("Las jugadas son para tableros de " + tamaño + "x" + tamaño);
+        }
+        posicion = 0;
+    }
+    
+    @Override
+    public int siguienteMovimiento(Tablero tablero) {
+        if (posicion >= jugadas.tamaño()) {
+            return FIN;
+        }
+        
+        int fila = jugadas.obtener(posicion);
+        int columna = jugadas.obtener(posicion + 1);
+        int tipo = jugadas.obtener(posicion + 2);
+        posicion += 3;
+        
+        return tipo == Movimiento.MARCAR
+                ? Movimiento.marcar(fila, columna, tamaño)
+                : Movimiento.descubrir(fila, columna, tamaño);
+    }
+    
+    /**
+     * Obtiene el número de jugadas leídas
+     * @return Número de jugadas por partida
+     */
+    public int getNumeroJugadas() {
+        return jugadas.tamaño() / 3;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package eventos;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Herramienta que lee una grabación de Java Flight Recorder y resume los eventos del juego
+ * Uso: java -cp bin eventos.AnalizadorJfr grabacion.jfr
+ */
+public class AnalizadorJfr {
+    public static final String PREFIJO = "buscaminas.";
+    
+    /**
+     * Resume los eventos del juego de una grabación
+     * @param grabacion Archivo .jfr
+     * @return Resumen por tipo de evento, ordenado por nombre
+     * @throws IOException Si no se puede leer la grabación
+     */
+    public static Map<String, ResumenEvento> analizar(Path grabacion) throws IOException {
+        Map<String, ResumenEvento> resumenes = new TreeMap<>();
+        try (RecordingFile archivo = new RecordingFile(grabacion)) {
+            while (archivo.hasMoreEvents()) {
+                RecordedEvent evento = archivo.readEvent();
+                String nombre = evento.getEventType().getName();
+                if (!nombre.startsWith(PREFIJO)) {
+                    continue;
+                }
+                
+                ResumenEvento resumen = resumenes.get(nombre);
+                if (resumen == null) {
+                    resumen = new ResumenEvento(nombre.substring(PREFIJO.length()));
+                    resumenes.put(nombre, resumen);
+                }
+                resumen.agregar(evento.getDuration().toNanos(), campo(evento, "casillas"), campo(evento, "bytes"));
+            }
+        }
+        return resumenes;
+    }
+    
+    /**
+     * Lee un campo numérico si el evento lo tiene
+     */
+    private static long campo(RecordedEvent evento, String nombre) {
+        return evento.hasField(nombre) ? evento.getLong(nombre) : 0;
+    }
+    
+    /**
+     * Punto de entrada de la herramienta
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Uso: java -cp bin eventos.AnalizadorJfr <grabacion.jfr>");
+            System.exit(2);
+        }
+        
+        try {
+            Map<String, ResumenEvento> resumenes = analizar(Paths.get(args[0]));
+            if (resumenes.isEmpty()) {
+                System.out.println("La grabación no contiene eventos del juego.");
+                return;
+            }
+            System.out.println("=== EVENTOS DEL JUEGO ===");
+            for (ResumenEvento resumen : resumenes.values()) {
+                System.out.println(resumen);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer la grabación: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Carga de una partida; es poco frecuente y se registra siempre
+ */
+@Name("buscaminas.Carga")
+@Label("Cargar partida")
+@Description("Lectura de la partida desde disco")
+@Category("Buscaminas")
+@Threshold("0 ms")
+@StackTrace(true)
+public class EventoCarga extends Event {
+    
+    @Label("Ruta")
+    public String ruta;
+    
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Descubrimiento de una casilla por el jugador o un bot
+ */
+@Name("buscaminas.Descubrir")
+@Label("Descubrir casilla")
+@Description("Descubrimiento de una casilla, incluida su expansión")
+@Category("Buscaminas")
+@Threshold("1 ms")
+@StackTrace(false)
+public class EventoDescubrir extends Event {
+    
+    @Label("Fila")
+    public int fila;
+    
+    @Label("Columna")
+    public int columna;
+    
+    @Label("Casillas abiertas")
+    public int casillas;
+    
+    @Label("Mina")
+    public boolean mina;
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Expansión automática de una región de casillas vacías
+ */
+@Name("buscaminas.Expansion")
+@Label("Expansión de casillas vacías")
+@Description("Apertura recursiva de una región sin minas adyacentes")
+@Category("Buscaminas")
+@Threshold("100 us")
+@StackTrace(false)
+public class EventoExpansion extends Event {
+    
+    @Label("Casillas abiertas")
+    public int casillas;
+}
\ No newline at end of file
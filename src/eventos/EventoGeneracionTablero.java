@@ -0,0 +1,37 @@
+package eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Generación de un tablero, aleatorio o sin adivinanzas
+ */
+@Name("buscaminas.GeneracionTablero")
+@Label("Generación de tablero")
+@Description("Colocación de minas y cálculo de contadores")
+@Category("Buscaminas")
+@Threshold("1 ms")
+@StackTrace(false)
+public class EventoGeneracionTablero extends Event {
+    
+    @Label("Tamaño")
+    public int tamaño;
+    
+    @Label("Minas")
+    public int minas;
+    
+    @Label("Semilla")
+    public long semilla;
+    
+    @Label("Sin adivinanzas")
+    public boolean sinAdivinanzas;
+    
+    @Label("Candidatos")
+    @Description("Tableros probados hasta encontrar uno válido")
+    public int candidatos;
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Barrido de archivos temporales tras cada guardado
+ */
+@Name("buscaminas.LimpiezaTemporales")
+@Label("Limpieza de temporales")
+@Description("Barrido de archivos temporales del directorio de guardado")
+@Category("Buscaminas")
+@Threshold("0 ms")
+@StackTrace(false)
+public class EventoLimpiezaTemporales extends Event {
+    
+    @Label("Directorio")
+    public String directorio;
+    
+    @Label("Archivos eliminados")
+    public int eliminados;
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Cambio de una bandera
+ */
+@Name("buscaminas.Marcar")
+@Label("Marcar casilla")
+@Description("Colocación o retirada de una bandera")
+@Category("Buscaminas")
+@Threshold("100 us")
+@StackTrace(false)
+public class EventoMarcar extends Event {
+    
+    @Label("Fila")
+    public int fila;
+    
+    @Label("Columna")
+    public int columna;
+    
+    @Label("Marcada")
+    public boolean marcada;
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Dibujado de un fotograma del tablero; el umbral es un fotograma a 60 Hz
+ */
+@Name("buscaminas.Render")
+@Label("Dibujado del tablero")
+@Description("Dibujado completo del tablero en la vista")
+@Category("Buscaminas")
+@Threshold("16 ms")
+@StackTrace(false)
+public class EventoRender extends Event {
+    
+    @Label("Tamaño")
+    public int tamaño;
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package eventos;
+
+import metricas.HistogramaLatencia;
+
+/**
+ * Resumen de todas las apariciones de un tipo de evento en una grabación
+ */
+public class ResumenEvento {
+    private final String nombre;
+    private final HistogramaLatencia duraciones;
+    private long casillas;
+    private long bytes;
+    
+    /**
+     * Constructor de un resumen vacío
+     * @param nombre Nombre del tipo de evento
+     */
+    public ResumenEvento(String nombre) {
+        this.nombre = nombre;
+        this.duraciones = new HistogramaLatencia();
+    }
+    
+    /**
+     * Agrega una aparición del evento
+     * @param nanos Duración en nanosegundos
+     * @param casillas Casillas afectadas, 0 si el evento no tiene ese campo
+     * @param bytes Bytes escritos o leídos, 0 si el evento no tiene ese campo
+     */
+    void agregar(long nanos, long casillas, long bytes) {
+        duraciones.registrar(nanos);
+        this.casillas += casillas;
+        this.bytes += bytes;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public long getCuenta() {
+        return duraciones.getCuenta();
+    }
+    
+    public HistogramaLatencia getDuraciones() {
+        return duraciones;
+    }
+    
+    public long getCasillas() {
+        return casillas;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder(String.format("%-32s %7d  media %9.1f µs  p50 %7d µs  p99 %7d µs  máx %7d µs",
+                nombre, getCuenta(), duraciones.getMedia() / 1000, duraciones.getPercentil(50) / 1000,
+                duraciones.getPercentil(99) / 1000, duraciones.getMaximo() / 1000));
+        if (casillas > 0) {
+            texto.append(String.format("  casillas %d (%.1f/evento)", casillas, (double) casillas / getCuenta()));
+        }
+        if (bytes > 0) {
+            texto.append(String.format("  bytes %d", bytes));
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de cubetas fijas con precisión logarítmica
+ * Cada potencia de dos se divide en 8 subcubetas, así el error relativo
+ * queda por debajo del 12,5 %. Registrar un valor no reserva memoria
+ * y puede hacerse desde varios hilos sin bloqueos
+ */
+public class HistogramaLatencia {
+    private static final int BITS_SUBCUBETA = 3;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int NUMERO_CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+    
+    private final AtomicLongArray cuentas;
+    private final LongAdder total;
+    private final LongAdder suma;
+    private final AtomicLong maximo;
+    
+    /**
+     * Constructor del histograma vacío
+     */
+    public HistogramaLatencia() {
+        this.cuentas = new AtomicLongArray(NUMERO_CUBETAS);
+        this.total = new LongAdder();
+        this.suma = new LongAdder();
+        this.maximo = new AtomicLong();
+    }
+    
+    /**
+     * Registra un valor; los negativos cuentan como cero
+     * @param valor Valor a registrar
+     */
+    public void registrar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        cuentas.incrementAndGet(indiceCubeta(valor));
+        total.increment();
+        suma.add(valor);
+        
+        long actual = maximo.get();
+        while (valor > actual && !maximo.compareAndSet(actual, valor)) {
+            actual = maximo.get();
+        }
+    }
+    
+    /**
+     * Cubeta de un valor: los menores que 8 tienen la suya propia, el resto
+     * se agrupa por exponente y los 3 bits siguientes al más significativo
+     */
+    static int indiceCubeta(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int subcubeta = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + subcubeta;
+    }
+    
+    /**
+     * Menor valor que cae en una cubeta
+     */
+    static long limiteInferior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS - 1 + BITS_SUBCUBETA;
+        long subcubeta = indice % SUBCUBETAS;
+        return (SUBCUBETAS + subcubeta) << (exponente - BITS_SUBCUBETA);
+    }
+    
+    /**
+     * Mayor valor que cae en una cubeta
+     */
+    static long limiteSuperior(int indice) {
+        return indice + 1 < NUMERO_CUBETAS ? limiteInferior(indice + 1) - 1 : Long.MAX_VALUE;
+    }
+    
+    /**
+     * Valor por debajo del cual queda el percentil indicado
+     * Devuelve el límite superior de la cubeta, acotado por el máximo registrado
+     * @param percentil Percentil entre 0 y 100
+     * @return Valor aproximado del percentil, 0 si no hay registros
+     */
+    public long getPercentil(double percentil) {
+        long cuenta = total.sum();
+        if (cuenta == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(cuenta * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < NUMERO_CUBETAS; i++) {
+            acumulado += cuentas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+    
+    public long getCuenta() {
+        return total.sum();
+    }
+    
+    public long getMaximo() {
+        return maximo.get();
+    }
+    
+    public double getMedia() {
+        long cuenta = total.sum();
+        return cuenta == 0 ? 0 : (double) suma.sum() / cuenta;
+    }
+    
+    /**
+     * Vacía el histograma
+     * Los registros concurrentes con el reinicio pueden perderse
+     */
+    public void reiniciar() {
+        for (int i = 0; i < NUMERO_CUBETAS; i++) {
+            cuentas.set(i, 0);
+        }
+        total.reset();
+        suma.reset();
+        maximo.set(0);
+    }
+}
@@ -0,0 +1,290 @@
+package metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de ejecución del juego: jugadas, descubrimientos, renderizado,
+ * guardado, carga y errores
+ * Registrar es barato y no bloquea; las lecturas agregan bajo demanda
+ */
+public class MetricasJuego implements MetricasJuegoMBean {
+    public static final String NOMBRE_JMX = "buscaminas:type=MetricasJuego";
+    
+    private static final MetricasJuego INSTANCIA = new MetricasJuego();
+    
+    private final LongAdder movimientos;
+    private final HistogramaLatencia latenciaDescubrir;
+    private final HistogramaLatencia casillasPorDescubrimiento;
+    private final HistogramaLatencia latenciaRender;
+    private final HistogramaLatencia duracionGuardado;
+    private final HistogramaLatencia duracionCarga;
+    private final LongAdder bytesGuardados;
+    private final LongAdder bytesCargados;
+    private final ConcurrentHashMap<String, LongAdder> errores;
+    private volatile long inicioNanos;
+    
+    /**
+     * Constructor de un conjunto de métricas vacío
+     */
+    public MetricasJuego() {
+        this.movimientos = new LongAdder();
+        this.latenciaDescubrir = new HistogramaLatencia();
+        this.casillasPorDescubrimiento = new HistogramaLatencia();
+        this.latenciaRender = new HistogramaLatencia();
+        this.duracionGuardado = new HistogramaLatencia();
+        this.duracionCarga = new HistogramaLatencia();
+        this.bytesGuardados = new LongAdder();
+        this.bytesCargados = new LongAdder();
+        this.errores = new ConcurrentHashMap<>();
+        this.inicioNanos = System.nanoTime();
+    }
+    
+    /**
+     * Métricas compartidas por todo el proceso
+     * @return La instancia global
+     */
+    public static MetricasJuego getInstancia() {
+        return INSTANCIA;
+    }
+    
+    /**
+     * Publica la instancia global en el servidor JMX de la plataforma
+     * Llamarlo más de una vez no tiene efecto
+     */
+    public static synchronized void registrarEnJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(INSTANCIA, nombre);
+            }
+        } catch (JMException e) {
+            System.err.println("Error al registrar las métricas en JMX: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Registra una jugada del usuario (descubrir o marcar)
+     */
+    public void registrarMovimiento() {
+        movimientos.increment();
+    }
+    
+    /**
+     * Registra un descubrimiento de casilla
+     * @param nanos Duración en nanosegundos
+     * @param casillas Casillas abiertas, incluida la expansión
+     */
+    public void registrarDescubrimiento(long nanos, int casillas) {
+        latenciaDescubrir.registrar(nanos);
+        casillasPorDescubrimiento.registrar(casillas);
+    }
+    
+    /**
+     * Registra el dibujado de un tablero
+     * @param nanos Duración en nanosegundos
+     */
+    public void registrarRender(long nanos) {
+        latenciaRender.registrar(nanos);
+    }
+    
+    /**
+     * Registra un guardado de partida
+     * @param nanos Duración en nanosegundos
+     * @param bytes Tamaño del archivo escrito
+     */
+    public void registrarGuardado(long nanos, long bytes) {
+        duracionGuardado.registrar(nanos);
+        bytesGuardados.add(bytes);
+    }
+    
+    /**
+     * Registra una carga de partida
+     * @param nanos Duración en nanosegundos
+     * @param bytes Tamaño del archivo leído
+     */
+    public void registrarCarga(long nanos, long bytes) {
+        duracionCarga.registrar(nanos);
+        bytesCargados.add(bytes);
+    }
+    
+    /**
+     * Registra un error por su tipo
+     * Solo el primer error de cada tipo reserva memoria
+     * @param tipo Tipo de error, normalmente el nombre de la excepción
+     */
+    public void registrarError(String tipo) {
+        LongAdder contador = errores.get(tipo);
+        if (contador == null) {
+            LongAdder nuevo = new LongAdder();
+            contador = errores.putIfAbsent(tipo, nuevo);
+            if (contador == null) {
+                contador = nuevo;
+            }
+        }
+        contador.increment();
+    }
+    
+    public HistogramaLatencia getLatenciaDescubrir() {
+        return latenciaDescubrir;
+    }
+    
+    public HistogramaLatencia getCasillasPorDescubrimiento() {
+        return casillasPorDescubrimiento;
+    }
+    
+    public HistogramaLatencia getLatenciaRender() {
+        return latenciaRender;
+    }
+    
+    @Override
+    public long getMovimientos() {
+        return movimientos.sum();
+    }
+    
+    @Override
+    public double getMovimientosPorSegundo() {
+        double segundos = (System.nanoTime() - inicioNanos) / 1e9;
+        return segundos <= 0 ? 0 : movimientos.sum() / segundos;
+    }
+    
+    @Override
+    public long getDescubrimientos() {
+        return latenciaDescubrir.getCuenta();
+    }
+    
+    @Override
+    public long getDescubrirP50Micros() {
+        return micros(latenciaDescubrir.getPercentil(50));
+    }
+    
+    @Override
+    public long getDescubrirP99Micros() {
+        return micros(latenciaDescubrir.getPercentil(99));
+    }
+    
+    @Override
+    public long getDescubrirMaximoMicros() {
+        return micros(latenciaDescubrir.getMaximo());
+    }
+    
+    @Override
+    public double getCasillasPorDescubrimientoMedia() {
+        return casillasPorDescubrimiento.getMedia();
+    }
+    
+    @Override
+    public long getCasillasPorDescubrimientoMaximo() {
+        return casillasPorDescubrimiento.getMaximo();
+    }
+    
+    @Override
+    public long getRenderP50Micros() {
+        return micros(latenciaRender.getPercentil(50));
+    }
+    
+    @Override
+    public long getRenderP99Micros() {
+        return micros(latenciaRender.getPercentil(99));
+    }
+    
+    @Override
+    public long getGuardados() {
+        return duracionGuardado.getCuenta();
+    }
+    
+    @Override
+    public long getBytesGuardados() {
+        return bytesGuardados.sum();
+    }
+    
+    @Override
+    public long getGuardadoP99Micros() {
+        return micros(duracionGuardado.getPercentil(99));
+    }
+    
+    @Override
+    public long getCargas() {
+        return duracionCarga.getCuenta();
+    }
+    
+    @Override
+    public long getBytesCargados() {
+        return bytesCargados.sum();
+    }
+    
+    @Override
+    public long getCargaP99Micros() {
+        return micros(duracionCarga.getPercentil(99));
+    }
+    
+    @Override
+    public long getErrores() {
+        long total = 0;
+        for (LongAdder contador : errores.values()) {
+            total += contador.sum();
+        }
+        return total;
+    }
+    
+    @Override
+    public Map<String, Long> getErroresPorTipo() {
+        Map<String, Long> resultado = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entrada : errores.entrySet()) {
+            resultado.put(entrada.getKey(), entrada.getValue().sum());
+        }
+        return resultado;
+    }
+    
+    @Override
+    public void reiniciar() {
+        movimientos.reset();
+        latenciaDescubrir.reiniciar();
+        casillasPorDescubrimiento.reiniciar();
+        latenciaRender.reiniciar();
+        duracionGuardado.reiniciar();
+        duracionCarga.reiniciar();
+        bytesGuardados.reset();
+        bytesCargados.reset();
+        errores.clear();
+        inicioNanos = System.nanoTime();
+    }
+    
+    /**
+     * Genera un resumen legible de las métricas
+     * @return Texto con una métrica por línea
+     */
+    public String generarInforme() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format("Jugadas: %d (%.2f/s)%n", getMovimientos(), getMovimientosPorSegundo()));
+        texto.append(String.format("Descubrir: %d veces, p50 %d µs, p99 %d µs, máx %d µs%n",
+                getDescubrimientos(), getDescubrirP50Micros(), getDescubrirP99Micros(), getDescubrirMaximoMicros()));
+        texto.append(String.format("Casillas por descubrimiento: media %.1f, máx %d%n",
+                getCasillasPorDescubrimientoMedia(), getCasillasPorDescubrimientoMaximo()));
+        texto.append(String.format("Dibujado: %d veces, p50 %d µs, p99 %d µs%n",
+                latenciaRender.getCuenta(), getRenderP50Micros(), getRenderP99Micros()));
+        texto.append(String.format("Guardado: %d veces, %d bytes, p99 %d µs%n",
+                getGuardados(), getBytesGuardados(), getGuardadoP99Micros()));
+        texto.append(String.format("Carga: %d veces, %d bytes, p99 %d µs%n",
+                getCargas(), getBytesCargados(), getCargaP99Micros()));
+        texto.append("Errores: ").append(getErrores());
+        Map<String, Long> porTipo = getErroresPorTipo();
+        if (!porTipo.isEmpty()) {
+            texto.append(' ').append(porTipo);
+        }
+        return texto.toString();
+    }
+    
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,48 @@
+package metricas;
+
+import java.util.Map;
+
+/**
+ * Interfaz JMX de las métricas del juego
+ * Los tiempos se publican en microsegundos
+ */
+public interface MetricasJuegoMBean {
+    
+    long getMovimientos();
+    
+    double getMovimientosPorSegundo();
+    
+    long getDescubrimientos();
+    
+    long getDescubrirP50Micros();
+    
+    long getDescubrirP99Micros();
+    
+    long getDescubrirMaximoMicros();
+    
+    double getCasillasPorDescubrimientoMedia();
+    
+    long getCasillasPorDescubrimientoMaximo();
+    
+    long getRenderP50Micros();
+    
+    long getRenderP99Micros();
+    
+    long getGuardados();
+    
+    long getBytesGuardados();
+    
+    long getGuardadoP99Micros();
+    
+    long getCargas();
+    
+    long getBytesCargados();
+    
+    long getCargaP99Micros();
+    
+    long getErrores();
+    
+    Map<String, Long> getErroresPorTipo();
+    
+    void reiniciar();
+}
@@ -1,10 +1,14 @@
 package modelo;
 
+import java.io.Serializable;
+
 /**
  * Representa una casilla individual del tablero de Buscaminas
  * Implementa encapsulamiento para gestionar el estado de cada casilla
  */
-public class Casilla {
+public class Casilla implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
     private boolean tieneMina;
     private boolean descubierta;
     private boolean marcada;
@@ -54,6 +58,23 @@ public class Casilla {
         this.minasAdyacentes = minas;
     }
     
+    /**
+     * Vuelve a tapar la casilla al deshacer una jugada
+     */
+    void ocultar() {
+        this.descubierta = false;
+    }
+    
+    /**
+     * Devuelve la casilla a su estado inicial para reutilizarla en otra partida
+     */
+    void reiniciar() {
+        this.tieneMina = false;
+        this.descubierta = false;
+        this.marcada = false;
+        this.minasAdyacentes = 0;
+    }
+    
     /**
      * Obtiene la representación visual de la casilla
      * @return String que representa el estado visual de la casilla
@@ -0,0 +1,68 @@
+package modelo;
+
+/**
+ * Configuración con la que se crea un tablero
+ * Es inmutable y se puede usar como clave (por ejemplo, en reservas de tableros)
+ */
+public final class ConfiguracionTablero {
+    private final int tamaño;
+    private final int numeroMinas;
+    private final boolean sinAdivinanzas;
+    
+    /**
+     * Constructor de la configuración
+     * @param tamaño Número de filas y columnas
+     * @param numeroMinas Número de minas
+     * @param sinAdivinanzas true si el tablero debe poder resolverse sin adivinar
+     */
+    public ConfiguracionTablero(int tamaño, int numeroMinas, boolean sinAdivinanzas) {
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.sinAdivinanzas = sinAdivinanzas;
+    }
+    
+    /**
+     * Crea la configuración de una dificultad predefinida
+     * @param dificultad Dificultad predefinida
+     * @param sinAdivinanzas true si el tablero debe poder resolverse sin adivinar
+     * @return Configuración equivalente
+     */
+    public static ConfiguracionTablero de(Dificultad dificultad, boolean sinAdivinanzas) {
+        return new ConfiguracionTablero(dificultad.getTamaño(), dificultad.getNumeroMinas(), sinAdivinanzas);
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public int getNumeroMinas() {
+        return numeroMinas;
+    }
+    
+    public boolean esSinAdivinanzas() {
+        return sinAdivinanzas;
+    }
+    
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof ConfiguracionTablero)) {
+            return false;
+        }
+        ConfiguracionTablero configuracion = (ConfiguracionTablero) otro;
+        return tamaño == configuracion.tamaño && numeroMinas == configuracion.numeroMinas
+                && sinAdivinanzas == configuracion.sinAdivinanzas;
+    }
+    
+    @Override
+    public int hashCode() {
+        return (tamaño * 31 + numeroMinas) * 2 + (sinAdivinanzas ? 1 : 0);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%dx%d/%d%s", tamaño, tamaño, numeroMinas, sinAdivinanzas ? " sin adivinanzas" : "");
+    }
+}
@@ -0,0 +1,117 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de long no negativos con direccionamiento abierto y sondeo lineal
+ * Evita el boxing de Long al guardar índices de casillas de tableros enormes
+ */
+final class ConjuntoLargos {
+    private static final long VACIO = -1L;
+    
+    private long[] tabla;
+    private int tamaño;
+    
+    /**
+     * Constructor con capacidad inicial
+     * @param capacidad Número de valores que caben sin agrandar la tabla
+     */
+    ConjuntoLargos(int capacidad) {
+        int celdas = Integer.highestOneBit(Math.max(capacidad, 4) * 2 - 1) * 2;
+        this.tabla = new long[celdas];
+        Arrays.fill(tabla, VACIO);
+    }
+    
+    /**
+     * Agrega un valor
+     * @return true si el valor no estaba
+     */
+    boolean agregar(long valor) {
+        int posicion = buscar(tabla, valor);
+        if (tabla[posicion] == valor) {
+            return false;
+        }
+        tabla[posicion] = valor;
+        if (++tamaño * 2 > tabla.length) {
+            agrandar();
+        }
+        return true;
+    }
+    
+    boolean contiene(long valor) {
+        return tabla[buscar(tabla, valor)] == valor;
+    }
+    
+    /**
+     * Quita un valor desplazando hacia atrás los que lo siguen en su racha
+     * @return true si el valor estaba
+     */
+    boolean quitar(long valor) {
+        int mascara = tabla.length - 1;
+        int hueco = buscar(tabla, valor);
+        if (tabla[hueco] != valor) {
+            return false;
+        }
+        int siguiente = hueco;
+        while (true) {
+            siguiente = (siguiente + 1) & mascara;
+            long actual = tabla[siguiente];
+            if (actual == VACIO) {
+                break;
+            }
+            // Mover el valor al hueco si su posición ideal no está entre el hueco y él
+            int ideal = posicionIdeal(actual, mascara);
+            if (((siguiente - ideal) & mascara) >= ((siguiente - hueco) & mascara)) {
+                tabla[hueco] = actual;
+                hueco = siguiente;
+            }
+        }
+        tabla[hueco] = VACIO;
+        tamaño--;
+        return true;
+    }
+    
+    int tamaño() {
+        return tamaño;
+    }
+    
+    /**
+     * Vacía el conjunto conservando la capacidad reservada
+     */
+    void limpiar() {
+        Arrays.fill(tabla, VACIO);
+        tamaño = 0;
+    }
+    
+    long getBytesAproximados() {
+        return 8L * tabla.length;
+    }
+    
+    private void agrandar() {
+        long[] anterior = tabla;
+        tabla = new long[anterior.length * 2];
+        Arrays.fill(tabla, VACIO);
+        for (long valor : anterior) {
+            if (valor != VACIO) {
+                tabla[buscar(tabla, valor)] = valor;
+            }
+        }
+    }
+    
+    /**
+     * Posición del valor, o del hueco donde iría si no está
+     */
+    private static int buscar(long[] tabla, long valor) {
+        int mascara = tabla.length - 1;
+        int posicion = posicionIdeal(valor, mascara);
+        while (tabla[posicion] != VACIO && tabla[posicion] != valor) {
+            posicion = (posicion + 1) & mascara;
+        }
+        return posicion;
+    }
+    
+    private static int posicionIdeal(long valor, int mascara) {
+        long mezcla = valor * 0x9E3779B97F4A7C15L;
+        return (int) (mezcla ^ (mezcla >>> 32)) & mascara;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package modelo;
+
+/**
+ * Configuraciones predefinidas de tablero
+ * Mantienen densidades de minas similares a las del Buscaminas clásico en tableros cuadrados
+ */
+public enum Dificultad {
+    PRINCIPIANTE(10, 10),
+    INTERMEDIO(16, 40),
+    EXPERTO(22, 99);
+    
+    private final int tamaño;
+    private final int numeroMinas;
+    
+    Dificultad(int tamaño, int numeroMinas) {
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public int getNumeroMinas() {
+        return numeroMinas;
+    }
+    
+    /**
+     * Crea un tablero reproducible con esta configuración
+     * @param semilla Semilla para la colocación de minas
+     * @return Tablero nuevo
+     */
+    public Tablero crearTablero(long semilla) {
+        return new Tablero(tamaño, numeroMinas, semilla);
+    }
+}
@@ -0,0 +1,10 @@
+package modelo;
+
+/**
+ * Estados posibles de una partida
+ */
+public enum EstadoJuego {
+    EN_CURSO,
+    VICTORIA,
+    DERROTA
+}
@@ -0,0 +1,281 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Pila acotada de deltas de jugadas para deshacer y rehacer
+ * 
+ * Cada entrada guarda solo lo que cambió su jugada: la casilla jugada, el estado
+ * del juego antes y después, la variación del contador de descubiertas y las
+ * casillas reveladas como tramos [inicio, longitud] de índices consecutivos.
+ * Una expansión grande ocupa lo que ocupan sus filas, no el tablero entero.
+ * 
+ * Todas las entradas viven en un único arreglo de enteros. Al superar la profundidad
+ * o el límite de enteros se descartan las más antiguas, y el hueco que dejan se
+ * compacta cuando supera la mitad del arreglo
+ */
+public final class HistorialJugadas {
+    public static final int TIPO_DESCUBRIR = Movimiento.DESCUBRIR;
+    public static final int TIPO_MARCAR = Movimiento.MARCAR;
+    
+    // Distribución de una entrada: cabecera, celda, delta de descubiertas, número de tramos, tramos
+    private static final int CABECERA = 0;
+    private static final int CELDA = 1;
+    private static final int DELTA = 2;
+    private static final int TRAMOS = 3;
+    private static final int DATOS_FIJOS = 4;
+    private static final EstadoJuego[] ESTADOS = EstadoJuego.values();
+    
+    private final int profundidadMaxima;
+    private final int enterosMaximos;
+    
+    private int[] datos;
+    private int finDatos;
+    private int[] desplazamientos;
+    private int primera;
+    private int cursor;
+    private int total;
+    
+    // Jugada en curso
+    private final ListaEnteros celdasEnCurso;
+    private boolean grabando;
+    private int tipoEnCurso;
+    private int celdaEnCurso;
+    private EstadoJuego estadoAntes;
+    
+    /**
+     * Constructor del historial
+     * @param profundidadMaxima Jugadas que se pueden deshacer como máximo
+     * @param enterosMaximos Memoria máxima en enteros; las entradas antiguas se descartan al superarla
+     */
+    public HistorialJugadas(int profundidadMaxima, int enterosMaximos) {
+        if (profundidadMaxima < 1 || enterosMaximos < DATOS_FIJOS) {
+            throw new IllegalArgumentException("Límites de historial inválidos");
+        }
+        this.profundidadMaxima = profundidadMaxima;
+        this.enterosMaximos = enterosMaximos;
+        this.datos = new int[64];
+        this.desplazamientos = new int[16];
+        this.celdasEnCurso = new ListaEnteros();
+    }
+    
+    /**
+     * Empieza a registrar una jugada
+     * @param tipo {@link #TIPO_DESCUBRIR} o {@link #TIPO_MARCAR}
+     * @param celda Índice de la casilla jugada
+     * @param estado Estado del juego antes de la jugada
+     */
+    void iniciarJugada(int tipo, int celda, EstadoJuego estado) {
+        grabando = true;
+        tipoEnCurso = tipo;
+        celdaEnCurso = celda;
+        estadoAntes = estado;
+        celdasEnCurso.limpiar();
+    }
+    
+    /**
+     * Anota una casilla revelada por la jugada en curso
+     */
+    void anotarDescubierta(int indice) {
+        if (grabando) {
+            celdasEnCurso.agregar(indice);
+        }
+    }
+    
+    /**
+     * Cierra la jugada en curso y la apila, descartando lo que hubiera para rehacer
+     * @param estadoDespues Estado del juego tras la jugada
+     * @param deltaDescubiertas Variación del contador de casillas descubiertas
+     */
+    void cerrarJugada(EstadoJuego estadoDespues, int deltaDescubiertas) {
+        grabando = false;
+        int[] celdas = celdasEnCurso.aArreglo();
+        Arrays.sort(celdas);
+        
+        // Contar tramos de índices consecutivos
+        int tramos = 0;
+        for (int i = 0; i < celdas.length; i++) {
+            if (i == 0 || celdas[i] != celdas[i - 1] + 1) {
+                tramos++;
+            }
+        }
+        
+        // Lo que quedaba por rehacer deja de ser válido
+        finDatos = inicioEntrada(cursor);
+        total = cursor;
+        
+        int longitud = DATOS_FIJOS + 2 * tramos;
+        asegurarCapacidad(longitud);
+        int base = finDatos;
+        datos[base + CABECERA] = tipoEnCurso | estadoAntes.ordinal() << 1 | estadoDespues.ordinal() << 3;
+        datos[base + CELDA] = celdaEnCurso;
+        datos[base + DELTA] = deltaDescubiertas;
+        datos[base + TRAMOS] = tramos;
+        int escritura = base + DATOS_FIJOS;
+        for (int i = 0; i < celdas.length; i++) {
+            if (i == 0 || celdas[i] != celdas[i - 1] + 1) {
+                datos[escritura] = celdas[i];
+                datos[escritura + 1] = 1;
+                escritura += 2;
+            } else {
+                datos[escritura - 1]++;
+            }
+        }
+        
+        if (total == desplazamientos.length) {
+            desplazamientos = Arrays.copyOf(desplazamientos, total * 2);
+        }
+        desplazamientos[total++] = base;
+        finDatos = base + longitud;
+        cursor = total;
+        
+        // Respetar los límites descartando las jugadas más antiguas
+        while (primera < cursor - 1
+                && (cursor - primera > profundidadMaxima || finDatos - desplazamientos[primera] > enterosMaximos)) {
+            primera++;
+        }
+        if (cursor - primera > profundidadMaxima || finDatos - desplazamientos[primera] > enterosMaximos) {
+            primera = cursor; // Ni siquiera la última cabe: no se puede deshacer
+        }
+        compactarSiConviene();
+    }
+    
+    /**
+     * Cancela la jugada en curso sin apilarla (no cambió nada)
+     */
+    void cancelarJugada() {
+        grabando = false;
+    }
+    
+    private int inicioEntrada(int entrada) {
+        return entrada < total ? desplazamientos[entrada] : finDatos;
+    }
+    
+    private void asegurarCapacidad(int longitud) {
+        if (finDatos + longitud > datos.length) {
+            compactar();
+            if (finDatos + longitud > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, finDatos + longitud));
+            }
+        }
+    }
+    
+    /**
+     * Compacta cuando el hueco de las entradas descartadas supera la mitad del arreglo
+     */
+    private void compactarSiConviene() {
+        if (inicioEntrada(primera) > datos.length / 2) {
+            compactar();
+        }
+    }
+    
+    /**
+     * Mueve las entradas vivas al principio del arreglo y libera la memoria sobrante
+     */
+    private void compactar() {
+        int desde = inicioEntrada(primera);
+        if (desde == 0 && primera == 0) {
+            return;
+        }
+        int vivos = finDatos - desde;
+        System.arraycopy(datos, desde, datos, 0, vivos);
+        int entradas = total - primera;
+        for (int i = 0; i < entradas; i++) {
+            desplazamientos[i] = desplazamientos[primera + i] - desde;
+        }
+        total -= primera;
+        cursor -= primera;
+        primera = 0;
+        finDatos = vivos;
+        
+        // Devolver memoria si el arreglo quedó muy grande tras descartar entradas
+        if (datos.length > 64 && vivos < datos.length / 4) {
+            datos = Arrays.copyOf(datos, Math.max(64, vivos * 2));
+        }
+    }
+    
+    /**
+     * Entrada que se desharía a continuación; retrocede el cursor
+     * @return Identificador de la entrada, o -1 si no hay nada que deshacer
+     */
+    int retroceder() {
+        return cursor > primera ? --cursor : -1;
+    }
+    
+    /**
+     * Entrada que se reharía a continuación; avanza el cursor
+     * @return Identificador de la entrada, o -1 si no hay nada que rehacer
+     */
+    int avanzar() {
+        return cursor < total ? cursor++ : -1;
+    }
+    
+    int tipo(int entrada) {
+        return datos[desplazamientos[entrada] + CABECERA] & 1;
+    }
+    
+    EstadoJuego estadoAntes(int entrada) {
+        return ESTADOS[datos[desplazamientos[entrada] + CABECERA] >>> 1 & 3];
+    }
+    
+    EstadoJuego estadoDespues(int entrada) {
+        return ESTADOS[datos[desplazamientos[entrada] + CABECERA] >>> 3 & 3];
+    }
+    
+    int celda(int entrada) {
+        return datos[desplazamientos[entrada] + CELDA];
+    }
+    
+    int deltaDescubiertas(int entrada) {
+        return datos[desplazamientos[entrada] + DELTA];
+    }
+    
+    int numeroTramos(int entrada) {
+        return datos[desplazamientos[entrada] + TRAMOS];
+    }
+    
+    int inicioTramo(int entrada, int tramo) {
+        return datos[desplazamientos[entrada] + DATOS_FIJOS + 2 * tramo];
+    }
+    
+    int longitudTramo(int entrada, int tramo) {
+        return datos[desplazamientos[entrada] + DATOS_FIJOS + 2 * tramo + 1];
+    }
+    
+    /**
+     * Vacía el historial
+     */
+    public void limpiar() {
+        primera = 0;
+        cursor = 0;
+        total = 0;
+        finDatos = 0;
+        grabando = false;
+    }
+    
+    public boolean puedeDeshacer() {
+        return cursor > primera;
+    }
+    
+    public boolean puedeRehacer() {
+        return cursor < total;
+    }
+    
+    /**
+     * Jugadas que se pueden deshacer
+     */
+    public int getProfundidad() {
+        return cursor - primera;
+    }
+    
+    public int getProfundidadMaxima() {
+        return profundidadMaxima;
+    }
+    
+    /**
+     * Enteros ocupados por las entradas vivas, incluidas las que se pueden rehacer
+     */
+    public int getEnterosUsados() {
+        return finDatos - inicioEntrada(primera);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+package modelo;
+
+/**
+ * Índice de las zonas vacías del tablero y de su borde numerado
+ * 
+ * Se construye una vez por tablero generado: una pasada etiqueta con unión-búsqueda
+ * las casillas sin mina ni minas adyacentes (vecinas según la topología) y otra reparte en listas
+ * contiguas las casillas de cada zona junto con las numeradas que la rodean. Descubrir
+ * una casilla vacía revela su lista directamente, sin volver a mirar vecinas, y el 3BV
+ * sale de contar zonas y casillas numeradas sueltas
+ */
+final class IndiceRegiones {
+    private final int[] region;
+    private final int[] inicio;
+    private final int[] celdas;
+    private final int valor3BV;
+    
+    private IndiceRegiones(int[] region, int[] inicio, int[] celdas, int valor3BV) {
+        this.region = region;
+        this.inicio = inicio;
+        this.celdas = celdas;
+        this.valor3BV = valor3BV;
+    }
+    
+    /**
+     * Etiqueta las zonas vacías de un tablero con las minas ya colocadas
+     */
+    static IndiceRegiones construir(Casilla[] casillas, Topologia topologia) {
+        int total = casillas.length;
+        int[] padre = new int[total];
+        for (int indice = 0; indice < total; indice++) {
+            Casilla casilla = casillas[indice];
+            padre[indice] = casilla.tieneMina() || casilla.getMinasAdyacentes() != 0 ? -1 : indice;
+        }
+        
+        // Unir cada casilla vacía con sus vecinas vacías ya visitadas (de índice menor)
+        for (int indice = 0; indice < total; indice++) {
+            if (padre[indice] < 0) {
+                continue;
+            }
+            for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+                int vecina = topologia.getVecina(k);
+                if (vecina < indice) {
+                    unir(padre, indice, vecina);
+                }
+            }
+        }
+        
+        // Numerar las zonas por orden de aparición
+        int[] region = new int[total];
+        int regiones = 0;
+        for (int indice = 0; indice < total; indice++) {
+            if (padre[indice] < 0) {
+                region[indice] = -1;
+            } else {
+                int raiz = raiz(padre, indice);
+                region[indice] = raiz == indice ? regiones++ : region[raiz];
+            }
+        }
+        
+        // Contar las casillas de cada zona (con su borde) y las numeradas sin zona
+        int[] inicio = new int[regiones + 1];
+        int[] vistas = new int[topologia.getGradoMaximo()];
+        int sueltas = 0;
+        for (int indice = 0; indice < total; indice++) {
+            if (region[indice] >= 0) {
+                inicio[region[indice] + 1]++;
+            } else if (!casillas[indice].tieneMina()) {
+                int n = regionesVecinas(region, topologia, indice, vistas);
+                for (int i = 0; i < n; i++) {
+                    inicio[vistas[i] + 1]++;
+                }
+                if (n == 0) {
+                    sueltas++;
+                }
+            }
+        }
+        for (int r = 0; r < regiones; r++) {
+            inicio[r + 1] += inicio[r];
+        }
+        
+        // Repartir las casillas; cada lista queda en orden de índice
+        int[] celdas = new int[inicio[regiones]];
+        int[] siguiente = new int[regiones];
+        System.arraycopy(inicio, 0, siguiente, 0, regiones);
+        for (int indice = 0; indice < total; indice++) {
+            if (region[indice] >= 0) {
+                celdas[siguiente[region[indice]]++] = indice;
+            } else if (!casillas[indice].tieneMina()) {
+                int n = regionesVecinas(region, topologia, indice, vistas);
+                for (int i = 0; i < n; i++) {
+                    celdas[siguiente[vistas[i]]++] = indice;
+                }
+            }
+        }
+        return new IndiceRegiones(region, inicio, celdas, regiones + sueltas);
+    }
+    
+    /**
+     * Anota las zonas distintas que tocan una casilla numerada
+     * @return Número de zonas distintas
+     */
+    private static int regionesVecinas(int[] region, Topologia topologia, int indice, int[] vistas) {
+        int n = 0;
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            int r = region[topologia.getVecina(k)];
+            if (r >= 0) {
+                boolean repetida = false;
+                for (int i = 0; i < n && !repetida; i++) {
+                    repetida = vistas[i] == r;
+                }
+                if (!repetida) {
+                    vistas[n++] = r;
+                }
+            }
+        }
+        return n;
+    }
+    
+    private static void unir(int[] padre, int a, int b) {
+        if (padre[b] < 0) {
+            return;
+        }
+        int ra = raiz(padre, a);
+        int rb = raiz(padre, b);
+        // La raíz es siempre el menor índice, así que la zona se numera por su primera casilla
+        if (ra < rb) {
+            padre[rb] = ra;
+        } else if (rb < ra) {
+            padre[ra] = rb;
+        }
+    }
+    
+    private static int raiz(int[] padre, int indice) {
+        while (padre[indice] != indice) {
+            padre[indice] = padre[padre[indice]];
+            indice = padre[indice];
+        }
+        return indice;
+    }
+    
+    /**
+     * Obtiene la zona vacía de una casilla
+     * @return Número de zona, o -1 si la casilla tiene mina o minas adyacentes
+     */
+    int getRegion(int indice) {
+        return region[indice];
+    }
+    
+    /**
+     * Posición en {@link #getCelda(int)} de la primera casilla de una zona
+     */
+    int inicio(int region) {
+        return inicio[region];
+    }
+    
+    /**
+     * Posición siguiente a la última casilla de una zona
+     */
+    int fin(int region) {
+        return inicio[region + 1];
+    }
+    
+    int getCelda(int posicion) {
+        return celdas[posicion];
+    }
+    
+    int getNumeroRegiones() {
+        return inicio.length - 1;
+    }
+    
+    int getValor3BV() {
+        return valor3BV;
+    }
+}
\ No newline at end of file
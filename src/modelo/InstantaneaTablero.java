@@ -0,0 +1,141 @@
+package modelo;
+
+/**
+ * Vista inmutable y consistente de lo que se ve del tablero en una versión concreta
+ * 
+ * Solo contiene el estado visible: las casillas tapadas no revelan si tienen mina.
+ * Comparte con el tablero las páginas que no han cambiado desde que se tomó, así que
+ * obtenerla no copia nada, y se puede leer desde cualquier hilo sin bloqueos mientras
+ * el tablero sigue jugando: el tablero nunca modifica una página publicada
+ */
+public final class InstantaneaTablero {
+    // Codificación de cada casilla en un byte
+    public static final int DESCUBIERTA = 1;
+    public static final int MARCADA = 2;
+    public static final int MINA = 4;
+    public static final int DESPLAZAMIENTO_ADYACENTES = 3;
+    
+    private final long version;
+    private final int tamaño;
+    private final int numeroMinas;
+    private final byte[][] paginas;
+    private final EstadoJuego estado;
+    private final int casillasDescubiertas;
+    private final int banderas;
+    
+    InstantaneaTablero(long version, int tamaño, int numeroMinas, byte[][] paginas,
+                       EstadoJuego estado, int casillasDescubiertas, int banderas) {
+        this.version = version;
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.paginas = paginas;
+        this.estado = estado;
+        this.casillasDescubiertas = casillasDescubiertas;
+        this.banderas = banderas;
+    }
+    
+    /**
+     * Crea una instantánea a partir de los bytes de todas las casillas
+     * Sirve para reconstruir en otro proceso un tablero recibido por la red
+     * @param version Versión del tablero
+     * @param tamaño Tamaño del tablero
+     * @param numeroMinas Minas del tablero
+     * @param codigos Byte de cada casilla (ver {@link #getCodigo(int)}); se copia
+     * @param estado Estado del juego
+     * @param casillasDescubiertas Contador de casillas descubiertas
+     * @param banderas Banderas colocadas
+     * @return Instantánea nueva
+     */
+    public static InstantaneaTablero desdeCodigos(long version, int tamaño, int numeroMinas, byte[] codigos,
+                                                  EstadoJuego estado, int casillasDescubiertas, int banderas) {
+        if (codigos.length != tamaño * tamaño) {
+            throw new IllegalArgumentException("Se esperaban " + tamaño * tamaño + " casillas");
+        }
+        byte[][] paginas = new byte[(codigos.length + PaginasTablero.MASCARA_PAGINA) >>> PaginasTablero.BITS_PAGINA][];
+        for (int pagina = 0; pagina < paginas.length; pagina++) {
+            paginas[pagina] = new byte[1 << PaginasTablero.BITS_PAGINA];
+            int inicio = pagina << PaginasTablero.BITS_PAGINA;
+            System.arraycopy(codigos, inicio, paginas[pagina], 0, Math.min(paginas[pagina].length, codigos.length - inicio));
+        }
+        return new InstantaneaTablero(version, tamaño, numeroMinas, paginas, estado, casillasDescubiertas, banderas);
+    }
+    
+    /**
+     * Obtiene el byte de una casilla: bit 0 descubierta, bit 1 marcada, bit 2 mina
+     * (solo si está descubierta) y minas adyacentes desde el bit 3
+     * Se lee sin signo: con las 26 vecinas de las capas el código llega a 215
+     * @param indice Índice de la casilla (fila * tamaño + columna)
+     * @return Código de la casilla, entre 0 y 255
+     */
+    public int getCodigo(int indice) {
+        return paginas[indice >>> PaginasTablero.BITS_PAGINA][indice & PaginasTablero.MASCARA_PAGINA] & 0xFF;
+    }
+    
+    public boolean estaDescubierta(int fila, int columna) {
+        return (getCodigo(fila * tamaño + columna) & DESCUBIERTA) != 0;
+    }
+    
+    public boolean estaMarcada(int fila, int columna) {
+        return (getCodigo(fila * tamaño + columna) & MARCADA) != 0;
+    }
+    
+    /**
+     * Indica si una casilla descubierta tiene mina (de las tapadas no se sabe)
+     */
+    public boolean tieneMinaDescubierta(int fila, int columna) {
+        return (getCodigo(fila * tamaño + columna) & MINA) != 0;
+    }
+    
+    /**
+     * Obtiene las minas adyacentes de una casilla descubierta (0 si está tapada)
+     */
+    public int getMinasAdyacentes(int fila, int columna) {
+        return getCodigo(fila * tamaño + columna) >>> DESPLAZAMIENTO_ADYACENTES;
+    }
+    
+    /**
+     * Obtiene la representación visual de una casilla, igual que {@link Casilla#getRepresentacion()}
+     */
+    public String getRepresentacion(int fila, int columna) {
+        int codigo = getCodigo(fila * tamaño + columna);
+        if ((codigo & DESCUBIERTA) == 0) {
+            return (codigo & MARCADA) != 0 ? "X" : " ";
+        }
+        if ((codigo & MINA) != 0) {
+            return "*";
+        }
+        int adyacentes = codigo >>> DESPLAZAMIENTO_ADYACENTES;
+        return adyacentes == 0 ? "V" : String.valueOf(adyacentes);
+    }
+    
+    /**
+     * Obtiene la versión del tablero; crece con cada jugada publicada
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public int getNumeroMinas() {
+        return numeroMinas;
+    }
+    
+    public EstadoJuego getEstado() {
+        return estado;
+    }
+    
+    public int getCasillasDescubiertas() {
+        return casillasDescubiertas;
+    }
+    
+    public int getBanderas() {
+        return banderas;
+    }
+    
+    public int getMinasRestantes() {
+        return numeroMinas - banderas;
+    }
+}
\ No newline at end of file
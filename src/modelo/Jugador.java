@@ -25,6 +25,20 @@ public class Jugador implements Serializable {
         this.partidasPerdidas = 0;
     }
     
+    /**
+     * Constructor de un jugador con estadísticas previas
+     * @param nombre Nombre del jugador
+     * @param partidasJugadas Partidas jugadas
+     * @param partidasGanadas Partidas ganadas
+     * @param partidasPerdidas Partidas perdidas
+     */
+    public Jugador(String nombre, int partidasJugadas, int partidasGanadas, int partidasPerdidas) {
+        this.nombre = nombre;
+        this.partidasJugadas = partidasJugadas;
+        this.partidasGanadas = partidasGanadas;
+        this.partidasPerdidas = partidasPerdidas;
+    }
+    
     /**
      * Constructor por defecto
      */
@@ -0,0 +1,85 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Lista dinámica de enteros primitivos
+ * Evita el boxing de Integer al acumular índices de casillas
+ */
+public final class ListaEnteros {
+    private int[] datos;
+    private int tamaño;
+    
+    /**
+     * Constructor con capacidad inicial
+     * @param capacidad Capacidad inicial de la lista
+     */
+    public ListaEnteros(int capacidad) {
+        this.datos = new int[Math.max(capacidad, 4)];
+        this.tamaño = 0;
+    }
+    
+    /**
+     * Constructor por defecto
+     */
+    public ListaEnteros() {
+        this(16);
+    }
+    
+    /**
+     * Agrega un valor al final de la lista
+     * @param valor Valor a agregar
+     */
+    public void agregar(int valor) {
+        if (tamaño == datos.length) {
+            datos = Arrays.copyOf(datos, tamaño * 2);
+        }
+        datos[tamaño++] = valor;
+    }
+    
+    /**
+     * Obtiene el valor en una posición
+     * @param posicion Posición del valor
+     * @return Valor almacenado
+     */
+    public int obtener(int posicion) {
+        if (posicion >= tamaño) {
+            throw new IndexOutOfBoundsException("Posición " + posicion + " fuera de la lista");
+        }
+        return datos[posicion];
+    }
+    
+    /**
+     * Elimina y devuelve el último valor de la lista
+     * @return Último valor
+     */
+    public int quitarUltimo() {
+        if (tamaño == 0) {
+            throw new IndexOutOfBoundsException("La lista está vacía");
+        }
+        return datos[--tamaño];
+    }
+    
+    public int tamaño() {
+        return tamaño;
+    }
+    
+    public boolean estaVacia() {
+        return tamaño == 0;
+    }
+    
+    /**
+     * Vacía la lista conservando la capacidad reservada
+     */
+    public void limpiar() {
+        tamaño = 0;
+    }
+    
+    /**
+     * Copia el contenido a un arreglo del tamaño exacto
+     * @return Arreglo con los valores de la lista
+     */
+    public int[] aArreglo() {
+        return Arrays.copyOf(datos, tamaño);
+    }
+}
@@ -0,0 +1,368 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de long no negativos guardado como un mapa de bits comprimido por bloques
+ * 
+ * Los valores se reparten en bloques de 65536 según sus bits altos, como en los mapas
+ * de bits Roaring. Cada bloque con algún valor usa la forma que menos ocupa:
+ * 
+ * - Arreglo: los 16 bits bajos de hasta 4096 valores, ordenados
+ * - Mapa: 1024 long con un bit por valor (8 KB), para bloques con muchos valores sueltos
+ * - Tramos: pares (inicio, longitud - 1) de valores consecutivos, para zonas compactas
+ * 
+ * Los bloques sin valores no ocupan nada, así que la memoria crece con lo que se guarda y
+ * con lo fragmentado que está, no con el rango de los valores. Los bloques que reciben
+ * muchos valores seguidos pasan a mapa, donde agregar cuesta lo mismo siempre, y
+ * {@link #compactar()} los devuelve al terminar la tanda a la forma que menos ocupe.
+ * Solo admite agregar: las casillas descubiertas no se vuelven a tapar salvo al reiniciar,
+ * que vacía el mapa entero
+ */
+final class MapaBitsComprimido {
+    private static final int MAXIMO_ARREGLO = 4096;
+    private static final int MAXIMO_TRAMOS = 2047;
+    // Con más valores o tramos insertar desplaza demasiado y se agrega en un mapa
+    private static final int VALORES_EN_ESCRITURA = 256;
+    private static final int TRAMOS_EN_ESCRITURA = 64;
+    private static final int PALABRAS_MAPA = 1024;
+    
+    private static final byte ARREGLO = 0;
+    private static final byte MAPA = 1;
+    private static final byte TRAMOS = 2;
+    
+    /**
+     * Valores de un bloque de 65536 en una de las tres formas
+     */
+    private static final class Bloque {
+        byte forma = ARREGLO;
+        // Valores del arreglo o pares de los tramos
+        char[] valores = new char[4];
+        long[] bits;
+        int cardinalidad;
+        int tramos;
+        // Mapa con valores agregados desde la última compactación
+        boolean modificado;
+    }
+    
+    // Bloques ordenados por sus bits altos
+    private long[] claves = new long[4];
+    private Bloque[] bloques = new Bloque[4];
+    private int numeroBloques;
+    private long cardinalidad;
+    private int mapasModificados;
+    // Último bloque usado: las expansiones agregan casi siempre en el mismo
+    private int ultimo = -1;
+    
+    /**
+     * Agrega un valor
+     * @return true si el valor no estaba
+     */
+    boolean agregar(long valor) {
+        int posicion = buscarBloque(valor >>> 16);
+        if (posicion < 0) {
+            posicion = -posicion - 1;
+            insertarBloque(posicion, valor >>> 16);
+        }
+        ultimo = posicion;
+        Bloque bloque = bloques[posicion];
+        char bajo = (char) valor;
+        boolean nuevo;
+        switch (bloque.forma) {
+            case MAPA:
+                nuevo = agregarEnMapa(bloque, bajo);
+                break;
+            case TRAMOS:
+                nuevo = agregarEnTramos(bloque, bajo);
+                break;
+            default:
+                nuevo = agregarEnArreglo(bloque, bajo);
+                break;
+        }
+        if (nuevo) {
+            cardinalidad++;
+        }
+        return nuevo;
+    }
+    
+    boolean contiene(long valor) {
+        int posicion = buscarBloque(valor >>> 16);
+        if (posicion < 0) {
+            return false;
+        }
+        ultimo = posicion;
+        Bloque bloque = bloques[posicion];
+        char bajo = (char) valor;
+        switch (bloque.forma) {
+            case MAPA:
+                return (bloque.bits[bajo >>> 6] & (1L << bajo)) != 0;
+            case TRAMOS:
+                return buscarTramo(bloque, bajo) >= 0;
+            default:
+                return Arrays.binarySearch(bloque.valores, 0, bloque.cardinalidad, bajo) >= 0;
+        }
+    }
+    
+    long getCardinalidad() {
+        return cardinalidad;
+    }
+    
+    int getNumeroBloques() {
+        return numeroBloques;
+    }
+    
+    /**
+     * Vacía el mapa y libera todos los bloques
+     */
+    void limpiar() {
+        Arrays.fill(bloques, 0, numeroBloques, null);
+        numeroBloques = 0;
+        cardinalidad = 0;
+        mapasModificados = 0;
+        ultimo = -1;
+    }
+    
+    /**
+     * Pasa a arreglo o a tramos los mapas modificados que ocupen menos así
+     * Conviene llamarlo al terminar una tanda de agregados, como una expansión: a mitad
+     * de tanda los bloques están fragmentados y al final suelen ser filas casi enteras
+     */
+    void compactar() {
+        if (mapasModificados == 0) {
+            return;
+        }
+        mapasModificados = 0;
+        for (int i = 0; i < numeroBloques; i++) {
+            Bloque bloque = bloques[i];
+            if (bloque.forma == MAPA && bloque.modificado) {
+                bloque.modificado = false;
+                compactarBloque(bloque);
+            }
+        }
+    }
+    
+    /**
+     * Estima la memoria ocupada por los bloques y sus índices
+     */
+    long getBytesAproximados() {
+        long bytes = 12L * claves.length;
+        for (int i = 0; i < numeroBloques; i++) {
+            Bloque bloque = bloques[i];
+            bytes += 32 + 2L * bloque.valores.length + (bloque.bits != null ? 8L * bloque.bits.length : 0);
+        }
+        return bytes;
+    }
+    
+    /**
+     * Busca el bloque de unos bits altos, mirando primero el último usado
+     * @return Posición del bloque, o -(posición de inserción) - 1 si no existe
+     */
+    private int buscarBloque(long clave) {
+        if (ultimo >= 0 && ultimo < numeroBloques && claves[ultimo] == clave) {
+            return ultimo;
+        }
+        return Arrays.binarySearch(claves, 0, numeroBloques, clave);
+    }
+    
+    private void insertarBloque(int posicion, long clave) {
+        if (numeroBloques == claves.length) {
+            claves = Arrays.copyOf(claves, numeroBloques * 2);
+            bloques = Arrays.copyOf(bloques, numeroBloques * 2);
+        }
+        System.arraycopy(claves, posicion, claves, posicion + 1, numeroBloques - posicion);
+        System.arraycopy(bloques, posicion, bloques, posicion + 1, numeroBloques - posicion);
+        claves[posicion] = clave;
+        bloques[posicion] = new Bloque();
+        numeroBloques++;
+    }
+    
+    /**
+     * Inserta en el arreglo ordenado; con muchos valores el bloque pasa a mapa hasta la
+     * siguiente compactación
+     */
+    private boolean agregarEnArreglo(Bloque bloque, char bajo) {
+        int posicion = Arrays.binarySearch(bloque.valores, 0, bloque.cardinalidad, bajo);
+        if (posicion >= 0) {
+            return false;
+        }
+        if (bloque.cardinalidad >= VALORES_EN_ESCRITURA) {
+            long[] bits = new long[PALABRAS_MAPA];
+            for (int i = 0; i < bloque.cardinalidad; i++) {
+                bits[bloque.valores[i] >>> 6] |= 1L << bloque.valores[i];
+            }
+            pasarAMapa(bloque, bits);
+            return agregarEnMapa(bloque, bajo);
+        }
+        posicion = -posicion - 1;
+        if (bloque.cardinalidad == bloque.valores.length) {
+            bloque.valores = Arrays.copyOf(bloque.valores, bloque.cardinalidad * 2);
+        }
+        System.arraycopy(bloque.valores, posicion, bloque.valores, posicion + 1, bloque.cardinalidad - posicion);
+        bloque.valores[posicion] = bajo;
+        bloque.cardinalidad++;
+        return true;
+    }
+    
+    private boolean agregarEnMapa(Bloque bloque, char bajo) {
+        long bit = 1L << bajo;
+        if ((bloque.bits[bajo >>> 6] & bit) != 0) {
+            return false;
+        }
+        bloque.bits[bajo >>> 6] |= bit;
+        bloque.cardinalidad++;
+        if (!bloque.modificado) {
+            bloque.modificado = true;
+            mapasModificados++;
+        }
+        return true;
+    }
+    
+    private void pasarAMapa(Bloque bloque, long[] bits) {
+        bloque.forma = MAPA;
+        bloque.bits = bits;
+        bloque.valores = new char[0];
+        if (!bloque.modificado) {
+            bloque.modificado = true;
+            mapasModificados++;
+        }
+    }
+    
+    /**
+     * Deja un mapa en la forma que menos ocupa: arreglo, tramos o el propio mapa
+     */
+    private static void compactarBloque(Bloque bloque) {
+        long[] bits = bloque.bits;
+        int tramos = contarTramos(bits);
+        if (bloque.cardinalidad <= MAXIMO_ARREGLO && bloque.cardinalidad <= 2 * tramos) {
+            char[] valores = new char[Math.max(bloque.cardinalidad, 4)];
+            int n = 0;
+            for (int valor = siguienteBit(bits, 0, true); valor >= 0 && n < bloque.cardinalidad;
+                    valor = valor < 65535 ? siguienteBit(bits, valor + 1, true) : -1) {
+                valores[n++] = (char) valor;
+            }
+            bloque.forma = ARREGLO;
+            bloque.valores = valores;
+            bloque.bits = null;
+            return;
+        }
+        if (tramos > MAXIMO_TRAMOS) {
+            return;
+        }
+        char[] pares = new char[Math.max(2 * tramos, 4)];
+        int n = 0;
+        int valor = 0;
+        while (valor < 65536) {
+            int inicio = siguienteBit(bits, valor, true);
+            if (inicio < 0) {
+                break;
+            }
+            int fin = siguienteBit(bits, inicio, false);
+            fin = fin < 0 ? 65536 : fin;
+            pares[n++] = (char) inicio;
+            pares[n++] = (char) (fin - inicio - 1);
+            valor = fin;
+        }
+        bloque.forma = TRAMOS;
+        bloque.valores = pares;
+        bloque.tramos = n / 2;
+        bloque.bits = null;
+    }
+    
+    /**
+     * Cuenta los tramos de bits a 1: cada uno empieza en un 1 con un 0 antes
+     */
+    private static int contarTramos(long[] bits) {
+        int tramos = 0;
+        long anterior = 0;
+        for (long palabra : bits) {
+            tramos += Long.bitCount(palabra & ~((palabra << 1) | (anterior >>> 63)));
+            anterior = palabra;
+        }
+        return tramos;
+    }
+    
+    /**
+     * Primera posición desde una dada con el bit buscado
+     * @return Posición, o -1 si no hay ninguna
+     */
+    private static int siguienteBit(long[] bits, int desde, boolean uno) {
+        int palabra = desde >>> 6;
+        long actual = (uno ? bits[palabra] : ~bits[palabra]) & (-1L << desde);
+        while (actual == 0) {
+            if (++palabra == PALABRAS_MAPA) {
+                return -1;
+            }
+            actual = uno ? bits[palabra] : ~bits[palabra];
+        }
+        return palabra * 64 + Long.numberOfTrailingZeros(actual);
+    }
+    
+    /**
+     * Busca el tramo que contiene un valor
+     * @return Número de tramo, o -(número del primer tramo posterior) - 1 si no está en ninguno
+     */
+    private static int buscarTramo(Bloque bloque, char bajo) {
+        char[] pares = bloque.valores;
+        int bajoTramo = 0;
+        int altoTramo = bloque.tramos - 1;
+        while (bajoTramo <= altoTramo) {
+            int medio = (bajoTramo + altoTramo) >>> 1;
+            int inicio = pares[2 * medio];
+            if (bajo < inicio) {
+                altoTramo = medio - 1;
+            } else if (bajo > inicio + pares[2 * medio + 1]) {
+                bajoTramo = medio + 1;
+            } else {
+                return medio;
+            }
+        }
+        return -bajoTramo - 1;
+    }
+    
+    /**
+     * Alarga un tramo vecino, une dos tramos o abre uno nuevo; con muchos tramos el
+     * bloque pasa a mapa hasta la siguiente compactación
+     */
+    private boolean agregarEnTramos(Bloque bloque, char bajo) {
+        int siguiente = buscarTramo(bloque, bajo);
+        if (siguiente >= 0) {
+            return false;
+        }
+        siguiente = -siguiente - 1;
+        char[] pares = bloque.valores;
+        if (bloque.tramos >= TRAMOS_EN_ESCRITURA) {
+            long[] bits = new long[PALABRAS_MAPA];
+            for (int t = 0; t < bloque.tramos; t++) {
+                for (int v = pares[2 * t]; v <= pares[2 * t] + pares[2 * t + 1]; v++) {
+                    bits[v >>> 6] |= 1L << v;
+                }
+            }
+            pasarAMapa(bloque, bits);
+            return agregarEnMapa(bloque, bajo);
+        }
+        int anterior = siguiente - 1;
+        boolean pegaAnterior = anterior >= 0 && pares[2 * anterior] + pares[2 * anterior + 1] + 1 == bajo;
+        boolean pegaSiguiente = siguiente < bloque.tramos && pares[2 * siguiente] == bajo + 1;
+        if (pegaAnterior && pegaSiguiente) {
+            pares[2 * anterior + 1] += pares[2 * siguiente + 1] + 2;
+            System.arraycopy(pares, 2 * siguiente + 2, pares, 2 * siguiente, 2 * (bloque.tramos - siguiente - 1));
+            bloque.tramos--;
+        } else if (pegaAnterior) {
+            pares[2 * anterior + 1]++;
+        } else if (pegaSiguiente) {
+            pares[2 * siguiente] = bajo;
+            pares[2 * siguiente + 1]++;
+        } else {
+            if (2 * bloque.tramos + 2 > pares.length) {
+                pares = Arrays.copyOf(pares, Math.max(4, pares.length * 2));
+                bloque.valores = pares;
+            }
+            System.arraycopy(pares, 2 * siguiente, pares, 2 * siguiente + 2, 2 * (bloque.tramos - siguiente));
+            pares[2 * siguiente] = bajo;
+            pares[2 * siguiente + 1] = 0;
+            bloque.tramos++;
+        }
+        bloque.cardinalidad++;
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,311 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Motor del tablero por palabras de bits
+ * 
+ * Guarda minas, casillas descubiertas y banderas como filas de long, 64 columnas por
+ * palabra. Los contadores de minas adyacentes de todo el tablero se obtienen sumando las
+ * ocho vecindades desplazadas con sumadores de bits, palabra a palabra, en lugar de
+ * recorrer las vecinas de cada mina. La expansión de una zona vacía dilata palabras
+ * enteras dentro de la máscara de casillas sin minas adyacentes, sin comprobar límites
+ * casilla a casilla.
+ * 
+ * Lo mantiene el propio tablero: cada casilla descubierta, tapada o marcada se refleja aquí
+ */
+final class MotorBitboard {
+    private final int tamaño;
+    private final int palabras;
+    private final long mascaraUltima;
+    private final long[] minas;
+    private final long[] descubiertas;
+    private final long[] marcadas;
+    // Casillas sin mina y sin minas adyacentes; solo cambia al colocar las minas
+    private final long[] ceros;
+    
+    // Espacio de trabajo reutilizado entre llamadas
+    private final long[][] sumas;
+    private final long[] zona;
+    private final ListaEnteros reveladas;
+    
+    MotorBitboard(int tamaño) {
+        this.tamaño = tamaño;
+        this.palabras = (tamaño + 63) >>> 6;
+        this.mascaraUltima = (tamaño & 63) == 0 ? -1L : (1L << (tamaño & 63)) - 1;
+        this.minas = new long[tamaño * palabras];
+        this.descubiertas = new long[tamaño * palabras];
+        this.marcadas = new long[tamaño * palabras];
+        this.ceros = new long[tamaño * palabras];
+        this.sumas = new long[4][palabras];
+        this.zona = new long[tamaño * palabras];
+        this.reveladas = new ListaEnteros();
+    }
+    
+    /**
+     * Copia el estado de las casillas y calcula los contadores de minas adyacentes
+     */
+    void cargar(Casilla[][] matriz) {
+        limpiar();
+        for (int fila = 0; fila < tamaño; fila++) {
+            for (int columna = 0; columna < tamaño; columna++) {
+                int palabra = fila * palabras + (columna >>> 6);
+                long bit = 1L << columna;
+                Casilla casilla = matriz[fila][columna];
+                if (casilla.tieneMina()) {
+                    minas[palabra] |= bit;
+                }
+                if (casilla.estaDescubierta()) {
+                    descubiertas[palabra] |= bit;
+                }
+                if (casilla.estaMarcada()) {
+                    marcadas[palabra] |= bit;
+                }
+            }
+        }
+        calcularContadores(matriz);
+    }
+    
+    /**
+     * Vacía el tablero de bits antes de colocar las minas de una partida nueva
+     */
+    void limpiar() {
+        Arrays.fill(minas, 0L);
+        Arrays.fill(descubiertas, 0L);
+        Arrays.fill(marcadas, 0L);
+    }
+    
+    void colocarMina(int fila, int columna) {
+        minas[fila * palabras + (columna >>> 6)] |= 1L << columna;
+    }
+    
+    /**
+     * Calcula a la vez los contadores de minas adyacentes de todo el tablero
+     * Solo escribe en las casillas los contadores distintos de cero: las casillas llegan
+     * recién reiniciadas (a cero) o ya con su contador correcto
+     */
+    void calcularContadores(Casilla[][] matriz) {
+        for (int fila = 0; fila < tamaño; fila++) {
+            contarFila(fila);
+            for (int w = 0; w < palabras; w++) {
+                long mina = minas[fila * palabras + w];
+                long b0 = sumas[0][w];
+                long b1 = sumas[1][w];
+                long b2 = sumas[2][w];
+                long b3 = sumas[3][w];
+                ceros[fila * palabras + w] = ~(b0 | b1 | b2 | b3) & ~mina & mascara(w);
+                
+                long conMinas = (b0 | b1 | b2 | b3) & ~mina & mascara(w);
+                while (conMinas != 0) {
+                    int bit = Long.numberOfTrailingZeros(conMinas);
+                    int cuenta = (int) ((b0 >>> bit & 1) | (b1 >>> bit & 1) << 1 | (b2 >>> bit & 1) << 2 | (b3 >>> bit & 1) << 3);
+                    matriz[fila][(w << 6) + bit].setMinasAdyacentes(cuenta);
+                    conMinas &= conMinas - 1;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Suma en los planos de bits las minas vecinas de cada casilla de una fila
+     * Cada plano guarda un bit del contador (0 a 8) de 64 casillas a la vez
+     */
+    private void contarFila(int fila) {
+        for (long[] plano : sumas) {
+            Arrays.fill(plano, 0L);
+        }
+        for (int f = Math.max(0, fila - 1); f <= Math.min(tamaño - 1, fila + 1); f++) {
+            int base = f * palabras;
+            for (int w = 0; w < palabras; w++) {
+                long m = minas[base + w];
+                long anterior = w > 0 ? minas[base + w - 1] : 0L;
+                long siguiente = w + 1 < palabras ? minas[base + w + 1] : 0L;
+                sumar(w, m << 1 | anterior >>> 63);
+                sumar(w, m >>> 1 | siguiente << 63);
+                if (f != fila) {
+                    sumar(w, m);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Suma un bit a cada contador de una palabra con un sumador en cascada
+     */
+    private void sumar(int w, long x) {
+        long acarreo = sumas[0][w] & x;
+        sumas[0][w] ^= x;
+        long siguiente = sumas[1][w] & acarreo;
+        sumas[1][w] ^= acarreo;
+        acarreo = sumas[2][w] & siguiente;
+        sumas[2][w] ^= siguiente;
+        sumas[3][w] |= acarreo;
+    }
+    
+    /**
+     * Calcula las casillas que revela descubrir una casilla sin minas adyacentes
+     * 
+     * Primero hace crecer la zona vacía desde la casilla, en pasadas de arriba abajo y de
+     * abajo arriba, solo por casillas con contador cero que no estén descubiertas ni
+     * marcadas; luego la dilata una vez para añadir su borde numerado
+     * @return Índices de las casillas que hay que revelar (sin la inicial), de menor a mayor;
+     *         la lista se reutiliza en la siguiente llamada
+     */
+    ListaEnteros expandir(int fila, int columna) {
+        reveladas.limpiar();
+        zona[fila * palabras + (columna >>> 6)] |= 1L << columna;
+        int primera = fila;
+        int ultima = fila;
+        
+        boolean cambio = true;
+        while (cambio) {
+            cambio = false;
+            for (int f = primera; f <= Math.min(tamaño - 1, ultima + 1); f++) {
+                if (crecerFila(f)) {
+                    cambio = true;
+                    ultima = Math.max(ultima, f);
+                }
+            }
+            for (int f = ultima; f >= Math.max(0, primera - 1); f--) {
+                if (crecerFila(f)) {
+                    cambio = true;
+                    primera = Math.min(primera, f);
+                }
+            }
+        }
+        
+        for (int f = Math.max(0, primera - 1); f <= Math.min(tamaño - 1, ultima + 1); f++) {
+            for (int w = 0; w < palabras; w++) {
+                long nuevas = vecindad(f, w) & libres(f, w);
+                while (nuevas != 0) {
+                    reveladas.agregar(f * tamaño + (w << 6) + Long.numberOfTrailingZeros(nuevas));
+                    nuevas &= nuevas - 1;
+                }
+            }
+        }
+        for (int f = primera; f <= ultima; f++) {
+            Arrays.fill(zona, f * palabras, (f + 1) * palabras, 0L);
+        }
+        return reveladas;
+    }
+    
+    /**
+     * Añade a la zona las casillas vacías de una fila que tocan la zona, y después
+     * sus tramos horizontales completos
+     * @return true si la fila creció
+     */
+    private boolean crecerFila(int fila) {
+        int base = fila * palabras;
+        boolean creció = false;
+        for (int w = 0; w < palabras; w++) {
+            long nuevas = vecindad(fila, w) & libres(fila, w) & ceros[base + w] & ~zona[base + w];
+            if (nuevas != 0) {
+                zona[base + w] |= nuevas;
+                creció = true;
+            }
+        }
+        if (!creció) {
+            return false;
+        }
+        
+        // Rellenar tramos: de izquierda a derecha y de vuelta, pasando el acarreo entre palabras
+        for (int w = 0; w < palabras; w++) {
+            long vacias = libres(fila, w) & ceros[base + w];
+            if (w > 0 && zona[base + w - 1] < 0) {
+                zona[base + w] |= vacias & 1L;
+            }
+            zona[base + w] = rellenar(zona[base + w], vacias | zona[base + w]);
+        }
+        for (int w = palabras - 2; w >= 0; w--) {
+            long vacias = libres(fila, w) & ceros[base + w];
+            if ((zona[base + w + 1] & 1L) != 0) {
+                zona[base + w] |= vacias & Long.MIN_VALUE;
+            }
+            zona[base + w] = rellenar(zona[base + w], vacias | zona[base + w]);
+        }
+        return true;
+    }
+    
+    /**
+     * Extiende cada bit de x por los tramos contiguos de m en ambos sentidos
+     * Relleno ocluido en seis pasos por sentido
+     */
+    private static long rellenar(long x, long m) {
+        long arriba = x;
+        long ma = m;
+        arriba |= ma & (arriba << 1);
+        ma &= ma << 1;
+        arriba |= ma & (arriba << 2);
+        ma &= ma << 2;
+        arriba |= ma & (arriba << 4);
+        ma &= ma << 4;
+        arriba |= ma & (arriba << 8);
+        ma &= ma << 8;
+        arriba |= ma & (arriba << 16);
+        ma &= ma << 16;
+        arriba |= ma & (arriba << 32);
+        
+        long abajo = x;
+        long mb = m;
+        abajo |= mb & (abajo >>> 1);
+        mb &= mb >>> 1;
+        abajo |= mb & (abajo >>> 2);
+        mb &= mb >>> 2;
+        abajo |= mb & (abajo >>> 4);
+        mb &= mb >>> 4;
+        abajo |= mb & (abajo >>> 8);
+        mb &= mb >>> 8;
+        abajo |= mb & (abajo >>> 16);
+        mb &= mb >>> 16;
+        abajo |= mb & (abajo >>> 32);
+        return arriba | abajo;
+    }
+    
+    /**
+     * Casillas de una palabra que tocan la zona en alguna de las ocho direcciones (o están en ella)
+     */
+    private long vecindad(int fila, int w) {
+        long centro = 0L;
+        long anterior = 0L;
+        long siguiente = 0L;
+        for (int f = Math.max(0, fila - 1); f <= Math.min(tamaño - 1, fila + 1); f++) {
+            int indice = f * palabras + w;
+            centro |= zona[indice];
+            if (w > 0) {
+                anterior |= zona[indice - 1];
+            }
+            if (w + 1 < palabras) {
+                siguiente |= zona[indice + 1];
+            }
+        }
+        return centro | centro << 1 | anterior >>> 63 | centro >>> 1 | siguiente << 63;
+    }
+    
+    /**
+     * Casillas de una palabra que se pueden revelar: tapadas, sin mina y sin bandera
+     */
+    private long libres(int fila, int w) {
+        int indice = fila * palabras + w;
+        return ~(descubiertas[indice] | minas[indice] | marcadas[indice]) & mascara(w);
+    }
+    
+    private long mascara(int w) {
+        return w == palabras - 1 ? mascaraUltima : -1L;
+    }
+    
+    void descubrir(int indice) {
+        descubiertas[palabra(indice)] |= 1L << (indice % tamaño);
+    }
+    
+    void ocultar(int indice) {
+        descubiertas[palabra(indice)] &= ~(1L << (indice % tamaño));
+    }
+    
+    void alternarBandera(int indice) {
+        marcadas[palabra(indice)] ^= 1L << (indice % tamaño);
+    }
+    
+    private int palabra(int indice) {
+        return indice / tamaño * palabras + (indice % tamaño >>> 6);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package modelo;
+
+/**
+ * Codificación compacta de jugadas en un entero primitivo
+ * Permite aplicar muchas jugadas en lote sin crear objetos por jugada
+ * 
+ * Formato: (índice de casilla << 1) | tipo, con índice = fila * tamaño + columna
+ */
+public final class Movimiento {
+    public static final int DESCUBRIR = 0;
+    public static final int MARCAR = 1;
+    
+    private Movimiento() {
+    }
+    
+    /**
+     * Codifica una jugada de descubrir casilla
+     * @param fila Fila de la casilla
+     * @param columna Columna de la casilla
+     * @param tamaño Tamaño del tablero
+     * @return Jugada codificada
+     */
+    public static int descubrir(int fila, int columna, int tamaño) {
+        return ((fila * tamaño + columna) << 1) | DESCUBRIR;
+    }
+    
+    /**
+     * Codifica una jugada de marcar/desmarcar casilla
+     * @param fila Fila de la casilla
+     * @param columna Columna de la casilla
+     * @param tamaño Tamaño del tablero
+     * @return Jugada codificada
+     */
+    public static int marcar(int fila, int columna, int tamaño) {
+        return ((fila * tamaño + columna) << 1) | MARCAR;
+    }
+    
+    /**
+     * Obtiene el índice de casilla de una jugada codificada
+     */
+    public static int indice(int movimiento) {
+        return movimiento >>> 1;
+    }
+    
+    /**
+     * Obtiene el tipo (DESCUBRIR o MARCAR) de una jugada codificada
+     */
+    public static int tipo(int movimiento) {
+        return movimiento & 1;
+    }
+}
@@ -0,0 +1,40 @@
+package modelo;
+
+/**
+ * Observador de los cambios de un tablero
+ * Permite que otros componentes (pistas, espectadores, registros) sigan la partida
+ * de forma incremental sin recorrer el tablero completo tras cada jugada
+ */
+public interface ObservadorTablero {
+    /**
+     * Se invoca cada vez que se revela una casilla, incluidas las reveladas en cascada
+     * @param indice Índice de la casilla (fila * tamaño + columna)
+     */
+    void casillaDescubierta(int indice);
+    
+    /**
+     * Se invoca cuando una casilla se marca o desmarca
+     * @param indice Índice de la casilla (fila * tamaño + columna)
+     */
+    default void banderaCambiada(int indice) {
+    }
+    
+    /**
+     * Se invoca cuando una casilla vuelve a taparse al deshacer una jugada
+     * @param indice Índice de la casilla (fila * tamaño + columna)
+     */
+    default void casillaOcultada(int indice) {
+    }
+    
+    /**
+     * Se invoca al terminar cada jugada (también al deshacer o rehacer), con el tablero ya consistente
+     */
+    default void jugadaCompletada() {
+    }
+    
+    /**
+     * Se invoca cuando el tablero se reinicia para otra partida; las casillas cambian sin notificarse una a una
+     */
+    default void tableroReiniciado() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Estado visible del tablero dividido en páginas con copia en escritura
+ * 
+ * Cada página guarda un byte por casilla. Publicar una instantánea solo entrega
+ * el directorio de páginas actual y abre una generación nueva: a partir de ahí la
+ * primera escritura en una página la copia (y la primera escritura de la generación
+ * copia el directorio), de modo que las instantáneas publicadas nunca cambian.
+ * Las páginas escritas dentro de la misma generación se modifican en su sitio.
+ * 
+ * No hay cadena de versiones: cada instantánea solo apunta a sus páginas, así que una
+ * página sustituida se libera en cuanto deja de existir la última instantánea que la
+ * usa. Solo el hilo que juega escribe; los lectores solo leen la instantánea publicada
+ */
+final class PaginasTablero {
+    static final int BITS_PAGINA = 6;
+    static final int MASCARA_PAGINA = (1 << BITS_PAGINA) - 1;
+    
+    private final int tamaño;
+    private final int numeroMinas;
+    private byte[][] directorio;
+    private boolean directorioCompartido;
+    private final long[] generacionPagina;
+    private long generacion;
+    private boolean cambios;
+    private long paginasCopiadas;
+    private volatile InstantaneaTablero publicada;
+    
+    PaginasTablero(int tamaño, int numeroMinas) {
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        int paginas = (tamaño * tamaño + MASCARA_PAGINA) >>> BITS_PAGINA;
+        this.directorio = new byte[paginas][1 << BITS_PAGINA];
+        this.generacionPagina = new long[paginas];
+    }
+    
+    /**
+     * Escribe el byte visible de una casilla, copiando antes su página si está publicada
+     */
+    void escribir(int indice, int codigo) {
+        int pagina = indice >>> BITS_PAGINA;
+        if (directorio[pagina][indice & MASCARA_PAGINA] == codigo) {
+            return;
+        }
+        if (directorioCompartido) {
+            directorio = directorio.clone();
+            directorioCompartido = false;
+        }
+        if (generacionPagina[pagina] != generacion) {
+            directorio[pagina] = directorio[pagina].clone();
+            generacionPagina[pagina] = generacion;
+            paginasCopiadas++;
+        }
+        directorio[pagina][indice & MASCARA_PAGINA] = (byte) codigo;
+        cambios = true;
+    }
+    
+    /**
+     * Vuelve a escribir todas las páginas, por ejemplo al reiniciar el tablero
+     * Las páginas publicadas se sustituyen por páginas nuevas en lugar de copiarse
+     */
+    void reescribir(Tablero tablero) {
+        byte[][] nuevo = new byte[directorio.length][1 << BITS_PAGINA];
+        for (int indice = 0; indice < tamaño * tamaño; indice++) {
+            nuevo[indice >>> BITS_PAGINA][indice & MASCARA_PAGINA] =
+                    (byte) codificar(tablero.getCasilla(indice / tamaño, indice % tamaño));
+        }
+        directorio = nuevo;
+        directorioCompartido = false;
+        Arrays.fill(generacionPagina, generacion);
+        cambios = true;
+    }
+    
+    /**
+     * Publica el estado actual si cambió desde la última publicación; O(1)
+     */
+    void publicar(EstadoJuego estado, int casillasDescubiertas, int banderas) {
+        InstantaneaTablero anterior = publicada;
+        if (!cambios && anterior != null && anterior.getEstado() == estado
+                && anterior.getCasillasDescubiertas() == casillasDescubiertas && anterior.getBanderas() == banderas) {
+            return;
+        }
+        publicada = new InstantaneaTablero(generacion, tamaño, numeroMinas, directorio,
+                estado, casillasDescubiertas, banderas);
+        directorioCompartido = true;
+        generacion++;
+        cambios = false;
+    }
+    
+    /**
+     * Byte visible de una casilla: las tapadas solo muestran su bandera
+     */
+    static int codificar(Casilla casilla) {
+        if (!casilla.estaDescubierta()) {
+            return casilla.estaMarcada() ? InstantaneaTablero.MARCADA : 0;
+        }
+        return InstantaneaTablero.DESCUBIERTA
+                | (casilla.estaMarcada() ? InstantaneaTablero.MARCADA : 0)
+                | (casilla.tieneMina() ? InstantaneaTablero.MINA : 0)
+                | casilla.getMinasAdyacentes() << InstantaneaTablero.DESPLAZAMIENTO_ADYACENTES;
+    }
+    
+    InstantaneaTablero getPublicada() {
+        return publicada;
+    }
+    
+    /**
+     * Páginas copiadas por escrituras sobre páginas publicadas desde que se creó
+     */
+    long getPaginasCopiadas() {
+        return paginasCopiadas;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Estado completo de un tablero empaquetado en mapas de bits
+ * 
+ * Guarda tres planos de un bit por casilla (minas, descubiertas y marcadas) más los
+ * contadores que no se deducen de ellos. Un tablero de 30x30 ocupa 45 longs. Las
+ * repeticiones guardan uno cada pocas jugadas para saltar a cualquier punto sin
+ * reproducir la partida desde el principio
+ */
+public final class PuntoControl {
+    private final int jugada;
+    private final int casillasDescubiertas;
+    private final EstadoJuego estado;
+    private final boolean minasPendientes;
+    private final long[] planos;
+    
+    /**
+     * Constructor de un punto de control ya empaquetado
+     * @param jugada Número de jugadas aplicadas cuando se capturó
+     * @param casillasDescubiertas Contador de casillas descubiertas del tablero
+     * @param estado Estado del juego
+     * @param minasPendientes true si las minas aún no se habían colocado
+     * @param planos Minas, descubiertas y marcadas, uno tras otro, con (casillas + 63) / 64 palabras cada uno
+     */
+    public PuntoControl(int jugada, int casillasDescubiertas, EstadoJuego estado,
+                        boolean minasPendientes, long[] planos) {
+        if (planos.length % 3 != 0) {
+            throw new IllegalArgumentException("Los planos del punto de control están incompletos");
+        }
+        this.jugada = jugada;
+        this.casillasDescubiertas = casillasDescubiertas;
+        this.estado = estado;
+        this.minasPendientes = minasPendientes;
+        this.planos = planos;
+    }
+    
+    /**
+     * Captura el estado de un tablero
+     * @param tablero Tablero a capturar
+     * @param jugada Número de jugadas aplicadas hasta ahora
+     * @return Punto de control
+     */
+    public static PuntoControl capturar(Tablero tablero, int jugada) {
+        int tamaño = tablero.getTamaño();
+        int palabras = palabras(tamaño);
+        long[] planos = new long[3 * palabras];
+        
+        for (int indice = 0; indice < tamaño * tamaño; indice++) {
+            Casilla casilla = tablero.getCasilla(indice / tamaño, indice % tamaño);
+            long bit = 1L << indice;
+            if (casilla.tieneMina()) {
+                planos[indice >>> 6] |= bit;
+            }
+            if (casilla.estaDescubierta()) {
+                planos[palabras + (indice >>> 6)] |= bit;
+            }
+            if (casilla.estaMarcada()) {
+                planos[2 * palabras + (indice >>> 6)] |= bit;
+            }
+        }
+        return new PuntoControl(jugada, tablero.getCasillasDescubiertas(), tablero.getEstado(),
+                tablero.tieneMinasPendientes(), planos);
+    }
+    
+    /**
+     * Reconstruye un tablero en este estado
+     * @param tamaño Tamaño del tablero
+     * @param numeroMinas Minas del tablero
+     * @param semilla Semilla con la que se colocan las minas pendientes
+     * @return Tablero nuevo
+     */
+    public Tablero restaurar(int tamaño, int numeroMinas, long semilla) {
+        if (planos.length != 3 * palabras(tamaño)) {
+            throw new IllegalArgumentException("El punto de control no corresponde a un tablero de " + tamaño + "x" + tamaño);
+        }
+        if (minasPendientes) {
+            return Tablero.conPrimerClicSeguro(tamaño, numeroMinas, semilla);
+        }
+        int palabras = palabras(tamaño);
+        return Tablero.restaurar(tamaño, numeroMinas, semilla,
+                Arrays.copyOfRange(planos, 0, palabras),
+                Arrays.copyOfRange(planos, palabras, 2 * palabras),
+                Arrays.copyOfRange(planos, 2 * palabras, 3 * palabras),
+                casillasDescubiertas, estado);
+    }
+    
+    /**
+     * Indica si un tablero está exactamente en este estado
+     * @param tablero Tablero a comparar
+     * @return true si coinciden casillas, contadores y estado
+     */
+    public boolean coincideCon(Tablero tablero) {
+        PuntoControl actual = capturar(tablero, jugada);
+        return actual.casillasDescubiertas == casillasDescubiertas && actual.estado == estado
+                && actual.minasPendientes == minasPendientes && Arrays.equals(actual.planos, planos);
+    }
+    
+    private static int palabras(int tamaño) {
+        return (tamaño * tamaño + 63) / 64;
+    }
+    
+    public int getJugada() {
+        return jugada;
+    }
+    
+    public int getCasillasDescubiertas() {
+        return casillasDescubiertas;
+    }
+    
+    public EstadoJuego getEstado() {
+        return estado;
+    }
+    
+    public boolean tieneMinasPendientes() {
+        return minasPendientes;
+    }
+    
+    /**
+     * Obtiene una copia de los planos empaquetados
+     * @return Minas, descubiertas y marcadas, uno tras otro
+     */
+    public long[] getPlanos() {
+        return planos.clone();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grabación de una partida para volver a verla o compartirla
+ * 
+ * Guarda los parámetros del tablero, cada jugada codificada con {@link Movimiento} junto
+ * al instante en que se hizo y un {@link PuntoControl} cada cierto número de jugadas.
+ * El primer punto de control es el tablero inicial, de modo que también se pueden
+ * repetir partidas cargadas o tableros que no se obtienen solo a partir de la semilla
+ */
+public class Repeticion {
+    public static final int INTERVALO_POR_DEFECTO = 16;
+    
+    private final int tamaño;
+    private final int numeroMinas;
+    private final long semilla;
+    private final int intervalo;
+    private final long fechaInicio;
+    private final ListaEnteros movimientos;
+    private final ListaEnteros tiempos;
+    private final List<PuntoControl> puntosControl;
+    
+    // Jugadas descartadas al deshacer, por si se rehacen
+    private final ListaEnteros descartadas;
+    
+    /**
+     * Empieza a grabar una partida desde el estado actual del tablero
+     * @param tablero Tablero de la partida
+     * @param intervalo Jugadas entre dos puntos de control
+     */
+    public Repeticion(Tablero tablero, int intervalo) {
+        this(tablero.getTamaño(), tablero.getNumeroMinas(), tablero.getSemilla(), intervalo,
+                System.currentTimeMillis(), new int[0], new int[0],
+                Collections.singletonList(PuntoControl.capturar(tablero, 0)));
+    }
+    
+    /**
+     * Constructor de una repetición ya grabada
+     * @param tamaño Tamaño del tablero
+     * @param numeroMinas Minas del tablero
+     * @param semilla Semilla del tablero
+     * @param intervalo Jugadas entre dos puntos de control
+     * @param fechaInicio Instante de inicio en milisegundos desde la época
+     * @param movimientos Jugadas codificadas
+     * @param tiempos Milisegundos desde el inicio de cada jugada
+     * @param puntosControl Puntos de control en orden de jugada; el primero es el de la jugada 0
+     */
+    public Repeticion(int tamaño, int numeroMinas, long semilla, int intervalo, long fechaInicio,
+                      int[] movimientos, int[] tiempos, List<PuntoControl> puntosControl) {
+        if (intervalo < 1) {
+            throw new IllegalArgumentException("El intervalo entre puntos de control debe ser positivo");
+        }
+        if (movimientos.length != tiempos.length) {
+            throw new IllegalArgumentException("Cada jugada necesita su instante");
+        }
+        if (puntosControl.isEmpty() || puntosControl.get(0).getJugada() != 0) {
+            throw new IllegalArgumentException("Falta el punto de control inicial");
+        }
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.semilla = semilla;
+        this.intervalo = intervalo;
+        this.fechaInicio = fechaInicio;
+        this.movimientos = new ListaEnteros(Math.max(16, movimientos.length));
+        this.tiempos = new ListaEnteros(Math.max(16, tiempos.length));
+        for (int i = 0; i < movimientos.length; i++) {
+            this.movimientos.agregar(movimientos[i]);
+            this.tiempos.agregar(tiempos[i]);
+        }
+        this.puntosControl = new ArrayList<>(puntosControl);
+        this.descartadas = new ListaEnteros();
+    }
+    
+    /**
+     * Anota una jugada ya aplicada al tablero
+     * Cada {@code intervalo} jugadas, y al terminar la partida, se captura un punto de control
+     * @param movimiento Jugada codificada
+     * @param tablero Tablero tras aplicar la jugada
+     */
+    public void registrar(int movimiento, Tablero tablero) {
+        descartadas.limpiar();
+        anotar(movimiento, tablero);
+    }
+    
+    private void anotar(int movimiento, Tablero tablero) {
+        movimientos.agregar(movimiento);
+        tiempos.agregar((int) Math.min(Integer.MAX_VALUE, System.currentTimeMillis() - fechaInicio));
+        int jugadas = movimientos.tamaño();
+        if (jugadas % intervalo == 0 || tablero.estaTerminado()) {
+            puntosControl.add(PuntoControl.capturar(tablero, jugadas));
+        }
+    }
+    
+    /**
+     * Descarta la última jugada tras deshacerla en el tablero
+     * @param tablero Tablero tras deshacer la jugada
+     * @return true si había alguna jugada
+     */
+    public boolean descartarUltima(Tablero tablero) {
+        if (movimientos.estaVacia()) {
+            return false;
+        }
+        descartadas.agregar(movimientos.quitarUltimo());
+        tiempos.quitarUltimo();
+        int jugadas = movimientos.tamaño();
+        while (puntosControl.get(puntosControl.size() - 1).getJugada() > jugadas) {
+            puntosControl.remove(puntosControl.size() - 1);
+        }
+        if (jugadas == 0) {
+            // Deshacer el primer clic no retira las minas que colocó: el tablero inicial cambia
+            puntosControl.set(0, PuntoControl.capturar(tablero, 0));
+        }
+        return true;
+    }
+    
+    /**
+     * Vuelve a anotar la última jugada descartada tras rehacerla en el tablero
+     * @param tablero Tablero tras rehacer la jugada
+     * @return true si había alguna jugada descartada
+     */
+    public boolean restaurarUltima(Tablero tablero) {
+        if (descartadas.estaVacia()) {
+            return false;
+        }
+        anotar(descartadas.quitarUltimo(), tablero);
+        return true;
+    }
+    
+    /**
+     * Busca el último punto de control en o antes de una jugada
+     * @param jugada Número de jugadas aplicadas
+     * @return Punto de control más cercano por detrás
+     */
+    public PuntoControl puntoControlAnterior(int jugada) {
+        int bajo = 0;
+        int alto = puntosControl.size() - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (puntosControl.get(medio).getJugada() <= jugada) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return puntosControl.get(bajo);
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public int getNumeroMinas() {
+        return numeroMinas;
+    }
+    
+    public long getSemilla() {
+        return semilla;
+    }
+    
+    public int getIntervalo() {
+        return intervalo;
+    }
+    
+    public long getFechaInicio() {
+        return fechaInicio;
+    }
+    
+    /**
+     * Obtiene el número de jugadas grabadas
+     */
+    public int getNumeroJugadas() {
+        return movimientos.tamaño();
+    }
+    
+    /**
+     * Obtiene una jugada grabada
+     * @param jugada Posición de la jugada (desde 0)
+     * @return Jugada codificada
+     */
+    public int getMovimiento(int jugada) {
+        return movimientos.obtener(jugada);
+    }
+    
+    /**
+     * Obtiene el instante de una jugada
+     * @param jugada Posición de la jugada (desde 0)
+     * @return Milisegundos desde el inicio de la partida
+     */
+    public int getTiempo(int jugada) {
+        return tiempos.obtener(jugada);
+    }
+    
+    public List<PuntoControl> getPuntosControl() {
+        return Collections.unmodifiableList(puntosControl);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package modelo;
+
+import java.util.List;
+
+/**
+ * Reproduce una {@link Repeticion} jugada a jugada o saltando a cualquier punto
+ * 
+ * Para ir a una jugada se parte del punto de control más cercano por detrás y solo se
+ * aplican las jugadas que faltan hasta ella, como mucho el intervalo de la repetición.
+ * Si la posición actual ya está entre ese punto de control y el destino, se sigue desde ella
+ */
+public class ReproductorRepeticion {
+    private final Repeticion repeticion;
+    private Tablero tablero;
+    private int posicion;
+    
+    /**
+     * Constructor del reproductor; empieza en el tablero inicial
+     * @param repeticion Repetición a reproducir
+     */
+    public ReproductorRepeticion(Repeticion repeticion) {
+        this.repeticion = repeticion;
+        restaurar(repeticion.puntoControlAnterior(0));
+    }
+    
+    /**
+     * Salta a una jugada
+     * @param jugada Número de jugadas aplicadas en el destino (0 es el tablero inicial)
+     */
+    public void irA(int jugada) {
+        if (jugada < 0 || jugada > repeticion.getNumeroJugadas()) {
+            throw new IndexOutOfBoundsException("Jugada fuera de la repetición: " + jugada);
+        }
+        PuntoControl punto = repeticion.puntoControlAnterior(jugada);
+        if (posicion > jugada || posicion < punto.getJugada()) {
+            restaurar(punto);
+        }
+        while (posicion < jugada) {
+            tablero.aplicarMovimiento(repeticion.getMovimiento(posicion++));
+        }
+    }
+    
+    /**
+     * Avanza una jugada
+     * @return false si ya estaba al final
+     */
+    public boolean avanzar() {
+        if (posicion == repeticion.getNumeroJugadas()) {
+            return false;
+        }
+        tablero.aplicarMovimiento(repeticion.getMovimiento(posicion++));
+        return true;
+    }
+    
+    /**
+     * Retrocede una jugada
+     * @return false si ya estaba al principio
+     */
+    public boolean retroceder() {
+        if (posicion == 0) {
+            return false;
+        }
+        irA(posicion - 1);
+        return true;
+    }
+    
+    /**
+     * Reproduce la partida completa desde el principio a toda velocidad, sin esperas,
+     * comparando el tablero con cada punto de control grabado
+     * Sirve como prueba de regresión: si el motor cambia de comportamiento, la partida
+     * grabada deja de coincidir
+     * @return Jugada del primer punto de control que no coincide, o -1 si coinciden todos
+     */
+    public int avanceRapido() {
+        List<PuntoControl> puntos = repeticion.getPuntosControl();
+        restaurar(puntos.get(0));
+        int siguiente = 1;
+        int total = repeticion.getNumeroJugadas();
+        while (posicion < total) {
+            tablero.aplicarMovimiento(repeticion.getMovimiento(posicion++));
+            if (siguiente < puntos.size() && puntos.get(siguiente).getJugada() == posicion) {
+                if (!puntos.get(siguiente).coincideCon(tablero)) {
+                    return posicion;
+                }
+                siguiente++;
+            }
+        }
+        return -1;
+    }
+    
+    private void restaurar(PuntoControl punto) {
+        tablero = punto.restaurar(repeticion.getTamaño(), repeticion.getNumeroMinas(), repeticion.getSemilla());
+        posicion = punto.getJugada();
+    }
+    
+    /**
+     * Obtiene el tablero en la posición actual
+     * Después de saltar puede ser otro objeto, así que no conviene guardarlo
+     * @return Tablero actual
+     */
+    public Tablero getTablero() {
+        return tablero;
+    }
+    
+    /**
+     * Obtiene el número de jugadas aplicadas en la posición actual
+     */
+    public int getPosicion() {
+        return posicion;
+    }
+    
+    public Repeticion getRepeticion() {
+        return repeticion;
+    }
+}
\ No newline at end of file
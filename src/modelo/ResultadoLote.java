@@ -0,0 +1,47 @@
+package modelo;
+
+/**
+ * Cambios acumulados tras aplicar un lote de jugadas sobre el tablero
+ * Agrupa en un solo objeto lo que antes requería consultar el tablero jugada a jugada
+ */
+public class ResultadoLote {
+    private final int[] casillasDescubiertas;
+    private final int[] banderasAlternadas;
+    private final int movimientosAplicados;
+    private final EstadoJuego estado;
+    
+    /**
+     * Constructor del resultado
+     * @param casillasDescubiertas Índices de las casillas reveladas, en orden
+     * @param banderasAlternadas Índices de las casillas cuya marca cambió, en orden
+     * @param movimientosAplicados Jugadas procesadas antes de terminar el lote
+     * @param estado Estado del juego al finalizar el lote
+     */
+    public ResultadoLote(int[] casillasDescubiertas, int[] banderasAlternadas,
+                         int movimientosAplicados, EstadoJuego estado) {
+        this.casillasDescubiertas = casillasDescubiertas;
+        this.banderasAlternadas = banderasAlternadas;
+        this.movimientosAplicados = movimientosAplicados;
+        this.estado = estado;
+    }
+    
+    public int[] getCasillasDescubiertas() {
+        return casillasDescubiertas;
+    }
+    
+    public int[] getBanderasAlternadas() {
+        return banderasAlternadas;
+    }
+    
+    public int getMovimientosAplicados() {
+        return movimientosAplicados;
+    }
+    
+    public EstadoJuego getEstado() {
+        return estado;
+    }
+    
+    public boolean estaTerminado() {
+        return estado != EstadoJuego.EN_CURSO;
+    }
+}
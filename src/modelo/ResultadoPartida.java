@@ -0,0 +1,92 @@
+package modelo;
+
+import java.util.Comparator;
+
+/**
+ * Resultado de una partida terminada: duración, clics y eficiencia
+ * Es inmutable para poder compartirse entre sesiones sin copiarlo
+ */
+public class ResultadoPartida {
+    /**
+     * Orden de la clasificación: menor duración, después mayor eficiencia y después la más antigua
+     */
+    public static final Comparator<ResultadoPartida> ORDEN_CLASIFICACION =
+            Comparator.comparingLong(ResultadoPartida::getDuracionMillis)
+                      .thenComparing(Comparator.comparingDouble(ResultadoPartida::getEficiencia).reversed())
+                      .thenComparingLong(ResultadoPartida::getFechaMillis)
+                      .thenComparing(ResultadoPartida::getNombre);
+    
+    private final String nombre;
+    private final Dificultad dificultad;
+    private final boolean victoria;
+    private final long duracionMillis;
+    private final int clics;
+    private final int valor3BV;
+    private final long fechaMillis;
+    
+    /**
+     * Constructor del resultado
+     * @param nombre Nombre del jugador
+     * @param dificultad Dificultad de la partida
+     * @param victoria true si la partida se ganó
+     * @param duracionMillis Duración desde la primera jugada hasta el final
+     * @param clics Jugadas efectivas (descubrir y marcar)
+     * @param valor3BV 3BV del tablero
+     * @param fechaMillis Momento en que terminó la partida
+     */
+    public ResultadoPartida(String nombre, Dificultad dificultad, boolean victoria, long duracionMillis,
+                            int clics, int valor3BV, long fechaMillis) {
+        this.nombre = nombre;
+        this.dificultad = dificultad;
+        this.victoria = victoria;
+        this.duracionMillis = duracionMillis;
+        this.clics = clics;
+        this.valor3BV = valor3BV;
+        this.fechaMillis = fechaMillis;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public Dificultad getDificultad() {
+        return dificultad;
+    }
+    
+    public boolean esVictoria() {
+        return victoria;
+    }
+    
+    public long getDuracionMillis() {
+        return duracionMillis;
+    }
+    
+    public int getClics() {
+        return clics;
+    }
+    
+    public int getValor3BV() {
+        return valor3BV;
+    }
+    
+    public long getFechaMillis() {
+        return fechaMillis;
+    }
+    
+    /**
+     * Eficiencia en 3BV por segundo
+     * @return 3BV/s, o 0 si la duración es nula
+     */
+    public double getEficiencia() {
+        return duracionMillis <= 0 ? 0 : valor3BV * 1000.0 / duracionMillis;
+    }
+    
+    /**
+     * Resumen de la partida para mostrar al terminar
+     * La eficiencia solo tiene sentido si se despejó el tablero completo
+     */
+    public String getResumen() {
+        String resumen = String.format("Tiempo: %.1f s%nClics: %d%n3BV: %d", duracionMillis / 1000.0, clics, valor3BV);
+        return victoria ? resumen + String.format(" (%.2f 3BV/s)", getEficiencia()) : resumen;
+    }
+}
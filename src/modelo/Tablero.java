@@ -1,106 +1,354 @@
 package modelo;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
+import eventos.EventoDescubrir;
+import eventos.EventoExpansion;
+import eventos.EventoGeneracionTablero;
+import eventos.EventoMarcar;
 import excepciones.CasillaYaDescubiertaException;
 
 /**
  * Representa el tablero del juego Buscaminas
  * Gestiona la matriz de casillas y la lógica del juego
  */
-public class Tablero implements Serializable {
+public class Tablero implements Serializable, TableroJugable {
     private static final long serialVersionUID = 1L;
-    private static final int TAMAÑO = 10;
-    private static final int NUMERO_MINAS = 10;
+    private static final int TAMAÑO_POR_DEFECTO = 10;
+    private static final int MINAS_POR_DEFECTO = 10;
     
+    private final int tamaño;
+    private final int numeroMinas;
+    private long semilla;
     private Casilla[][] matriz;
+    
+    // Forma del tablero y vecinas de cada casilla (null en partidas guardadas sin ella: cuadrícula)
+    private Topologia topologia;
+    
+    // Las mismas casillas que la matriz, por índice, para recorrer las listas de vecinas
+    private transient Casilla[] casillas;
     private int casillasDescubiertas;
     private boolean juegoTerminado;
     private boolean victoria;
     
+    // Minas diferidas hasta el primer descubrimiento (false en tableros normales y guardados antiguos)
+    private boolean minasPendientes;
+    
+    // Registro de cambios mientras se aplica un lote (null fuera de lotes)
+    private transient ListaEnteros registroDescubiertas;
+    private transient ListaEnteros registroBanderas;
+    
+    // Contadores y frontera mantenidos jugada a jugada (se reconstruyen al deserializar)
+    private transient int banderas;
+    private transient long[] frontera;
+    private transient int tamañoFrontera;
+    
+    // Observadores de cambios (no se guardan con la partida)
+    private transient List<ObservadorTablero> observadores;
+    
+    // Historial para deshacer y rehacer (null si no se activó; no se guarda con la partida)
+    private transient HistorialJugadas historial;
+    
+    // Estado visible con copia en escritura para lectores de otros hilos (null si no se activó)
+    private transient PaginasTablero paginas;
+    
+    // Zonas vacías etiquetadas de la partida actual (se construye al necesitarse)
+    private transient IndiceRegiones regiones;
+    
+    // Motor por palabras de bits para contadores y expansiones (null con el motor escalar)
+    private transient MotorBitboard motor;
+    
     /**
-     * Constructor del tablero
+     * Constructor del tablero con la configuración clásica de 10x10 y 10 minas
      */
     public Tablero() {
-        this.matriz = new Casilla[TAMAÑO][TAMAÑO];
+        this(TAMAÑO_POR_DEFECTO, MINAS_POR_DEFECTO);
+    }
+    
+    /**
+     * Constructor de un tablero de tamaño y número de minas personalizados
+     * @param tamaño Número de filas y columnas
+     * @param numeroMinas Número de minas a colocar
+     */
+    public Tablero(int tamaño, int numeroMinas) {
+        this(tamaño, numeroMinas, new Random().nextLong());
+    }
+    
+    /**
+     * Constructor de un tablero reproducible a partir de una semilla
+     * @param tamaño Número de filas y columnas
+     * @param numeroMinas Número de minas a colocar
+     * @param semilla Semilla para la colocación de minas
+     */
+    public Tablero(int tamaño, int numeroMinas, long semilla) {
+        this(tamaño, numeroMinas, semilla, -1, -1);
+    }
+    
+    /**
+     * Constructor de un tablero reproducible con una casilla inicial segura
+     * No se colocan minas en la casilla inicial ni en sus vecinas, así que
+     * descubrirla abre siempre una zona vacía
+     * @param tamaño Número de filas y columnas
+     * @param numeroMinas Número de minas a colocar
+     * @param semilla Semilla para la colocación de minas
+     * @param filaSegura Fila de la casilla inicial (-1 si no hay zona segura)
+     * @param columnaSegura Columna de la casilla inicial (-1 si no hay zona segura)
+     */
+    public Tablero(int tamaño, int numeroMinas, long semilla, int filaSegura, int columnaSegura) {
+        this(Topologia.cuadricula(tamaño), numeroMinas, semilla, filaSegura, columnaSegura, false);
+    }
+    
+    /**
+     * Constructor de un tablero con otra forma: toroide, hexágonos o capas apiladas
+     * La zona segura es la casilla inicial y sus vecinas en esa forma
+     * @param topologia Forma del tablero; su tamaño es el del tablero
+     * @param numeroMinas Número de minas a colocar
+     * @param semilla Semilla para la colocación de minas
+     * @param filaSegura Fila de la casilla inicial (-1 si no hay zona segura)
+     * @param columnaSegura Columna de la casilla inicial (-1 si no hay zona segura)
+     */
+    public Tablero(Topologia topologia, int numeroMinas, long semilla, int filaSegura, int columnaSegura) {
+        this(topologia, numeroMinas, semilla, filaSegura, columnaSegura, false);
+    }
+    
+    /**
+     * Constructor común; con minas diferidas solo reserva las casillas
+     */
+    private Tablero(Topologia topologia, int numeroMinas, long semilla, int filaSegura, int columnaSegura,
+                    boolean diferirMinas) {
+        int tamaño = topologia.getTamaño();
+        int zonaSegura = diferirMinas
+                ? Math.min(topologia.getGradoMaximo() + 1, tamaño * tamaño)
+                : tamañoZonaSegura(topologia, filaSegura, columnaSegura);
+        if (numeroMinas < 0 || numeroMinas > tamaño * tamaño - zonaSegura) {
+            throw new IllegalArgumentException("Número de minas inválido para un tablero de " + tamaño + "x" + tamaño);
+        }
+        
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.semilla = semilla;
+        this.matriz = new Casilla[tamaño][tamaño];
+        this.topologia = topologia;
         this.casillasDescubiertas = 0;
         this.juegoTerminado = false;
         this.victoria = false;
+        this.minasPendientes = diferirMinas;
+        this.frontera = new long[(tamaño * tamaño + 63) / 64];
         inicializarTablero();
-        colocarMinas();
-        calcularMinasAdyacentes();
+        if (!diferirMinas) {
+            colocarMinas(filaSegura, columnaSegura);
+        }
+    }
+    
+    /**
+     * Crea un tablero cuyas minas se colocan al descubrir la primera casilla
+     * La primera casilla descubierta y sus vecinas nunca tienen mina, y hasta entonces
+     * el tablero solo reserva memoria. Con la misma semilla y la misma primera casilla
+     * el tablero resultante es siempre el mismo
+     * @param tamaño Número de filas y columnas
+     * @param numeroMinas Número de minas a colocar
+     * @param semilla Semilla para la colocación de minas
+     * @return Tablero sin minas colocadas todavía
+     */
+    public static Tablero conPrimerClicSeguro(int tamaño, int numeroMinas, long semilla) {
+        return new Tablero(Topologia.cuadricula(tamaño), numeroMinas, semilla, -1, -1, true);
+    }
+    
+    /**
+     * Reconstruye un tablero a partir de sus planos de bits (ver {@link PuntoControl})
+     * Los contadores de minas adyacentes y la frontera se recalculan
+     */
+    static Tablero restaurar(int tamaño, int numeroMinas, long semilla, long[] minas, long[] descubiertas,
+                             long[] marcadas, int casillasDescubiertas, EstadoJuego estado) {
+        // Se parte de un tablero normal y se sustituyen sus minas por las guardadas
+        Tablero tablero = new Tablero(tamaño, numeroMinas, semilla);
+        for (int indice = 0; indice < tamaño * tamaño; indice++) {
+            tablero.casillas[indice].reiniciar();
+        }
+        for (int indice = 0; indice < tamaño * tamaño; indice++) {
+            if ((minas[indice >>> 6] & (1L << indice)) != 0) {
+                tablero.casillas[indice].colocarMina();
+                tablero.casillas[indice].setMinasAdyacentes(0);
+                tablero.sumarMinaAVecinas(indice);
+            }
+        }
+        for (int indice = 0; indice < tamaño * tamaño; indice++) {
+            // Al perder se revelan también las minas marcadas, que conservan su bandera
+            long bit = 1L << indice;
+            if ((marcadas[indice >>> 6] & bit) != 0) {
+                tablero.casillas[indice].marcar();
+                tablero.banderas++;
+            }
+            if ((descubiertas[indice >>> 6] & bit) != 0) {
+                tablero.casillas[indice].descubrir();
+                tablero.registrarDescubierta(indice);
+            }
+        }
+        tablero.casillasDescubiertas = casillasDescubiertas;
+        tablero.restaurarEstado(estado);
+        return tablero;
+    }
+    
+    /**
+     * Cuenta las casillas de la zona segura (la casilla inicial y sus vecinas)
+     * Sin zona segura se exige al menos una casilla libre
+     */
+    private static int tamañoZonaSegura(Topologia topologia, int filaSegura, int columnaSegura) {
+        if (filaSegura < 0) {
+            return 1;
+        }
+        return topologia.getGrado(filaSegura * topologia.getTamaño() + columnaSegura) + 1;
+    }
+    
+    /**
+     * Reinicia el tablero para una nueva partida reutilizando las casillas existentes
+     * Evita reservar memoria cuando se juegan muchas partidas seguidas (simulaciones, bots)
+     * @param nuevaSemilla Semilla para la nueva colocación de minas
+     */
+    public void reiniciar(long nuevaSemilla) {
+        reiniciar(nuevaSemilla, -1, -1);
+    }
+    
+    /**
+     * Reinicia el tablero con una casilla inicial segura reutilizando las casillas existentes
+     * @param nuevaSemilla Semilla para la nueva colocación de minas
+     * @param filaSegura Fila de la casilla inicial (-1 si no hay zona segura)
+     * @param columnaSegura Columna de la casilla inicial (-1 si no hay zona segura)
+     */
+    public void reiniciar(long nuevaSemilla, int filaSegura, int columnaSegura) {
+        for (int i = 0; i < tamaño; i++) {
+            for (int j = 0; j < tamaño; j++) {
+                matriz[i][j].reiniciar();
+            }
+        }
+        this.semilla = nuevaSemilla;
+        this.casillasDescubiertas = 0;
+        this.juegoTerminado = false;
+        this.victoria = false;
+        this.minasPendientes = false;
+        this.banderas = 0;
+        this.tamañoFrontera = 0;
+        Arrays.fill(frontera, 0L);
+        if (historial != null) {
+            historial.limpiar();
+        }
+        if (motor != null) {
+            motor.limpiar();
+        }
+        colocarMinas(filaSegura, columnaSegura);
+        if (paginas != null) {
+            paginas.reescribir(this);
+        }
+        if (observadores != null) {
+            for (ObservadorTablero observador : observadores) {
+                observador.tableroReiniciado();
+            }
+        }
+        finalizarJugada();
     }
     
     /**
      * Inicializa todas las casillas del tablero
      */
     private void inicializarTablero() {
-        for (int i = 0; i < TAMAÑO; i++) {
-            for (int j = 0; j < TAMAÑO; j++) {
+        for (int i = 0; i < tamaño; i++) {
+            for (int j = 0; j < tamaño; j++) {
                 matriz[i][j] = new Casilla();
             }
         }
+        indexarCasillas();
+    }
+    
+    private void indexarCasillas() {
+        casillas = new Casilla[tamaño * tamaño];
+        for (int indice = 0; indice < casillas.length; indice++) {
+            casillas[indice] = matriz[indice / tamaño][indice % tamaño];
+        }
     }
     
     /**
-     * Coloca las minas aleatoriamente en el tablero
+     * Coloca las minas aleatoriamente en el tablero, fuera de la zona segura si la hay
+     * Los contadores de minas adyacentes se actualizan al colocar cada mina, de modo que
+     * el coste depende del número de minas y no del tamaño del tablero
      */
-    private void colocarMinas() {
-        Random random = new Random();
+    private void colocarMinas(int filaSegura, int columnaSegura) {
+        EventoGeneracionTablero evento = new EventoGeneracionTablero();
+        evento.begin();
+        Random random = new Random(semilla);
+        int segura = filaSegura >= 0 ? filaSegura * tamaño + columnaSegura : -1;
         int minasColocadas = 0;
         
-        while (minasColocadas < NUMERO_MINAS) {
-            int fila = random.nextInt(TAMAÑO);
-            int columna = random.nextInt(TAMAÑO);
+        while (minasColocadas < numeroMinas) {
+            int fila = random.nextInt(tamaño);
+            int columna = random.nextInt(tamaño);
+            int indice = fila * tamaño + columna;
+            boolean enZonaSegura = segura >= 0 && (indice == segura || topologia.sonVecinas(segura, indice));
             
-            if (!matriz[fila][columna].tieneMina()) {
-                matriz[fila][columna].colocarMina();
+            if (!enZonaSegura && !casillas[indice].tieneMina()) {
+                casillas[indice].colocarMina();
+                casillas[indice].setMinasAdyacentes(0);
+                if (motor != null) {
+                    motor.colocarMina(fila, columna);
+                } else {
+                    sumarMinaAVecinas(indice);
+                }
                 minasColocadas++;
             }
         }
+        if (motor != null) {
+            // Todos los contadores de una vez, por palabras
+            motor.calcularContadores(matriz);
+        }
+        regiones = null;
+        
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.tamaño = tamaño;
+            evento.minas = numeroMinas;
+            evento.semilla = semilla;
+            evento.candidatos = 1;
+            evento.commit();
+        }
     }
     
     /**
-     * Calcula el número de minas adyacentes para cada casilla
+     * Incrementa el contador de minas adyacentes de las vecinas sin mina de una casilla
+     * En la cuadrícula las vecinas se calculan en vez de leerse: las minas caen al azar
+     * y en tableros grandes leer sus listas falla en la caché en cada mina
      */
-    private void calcularMinasAdyacentes() {
-        for (int i = 0; i < TAMAÑO; i++) {
-            for (int j = 0; j < TAMAÑO; j++) {
-                if (!matriz[i][j].tieneMina()) {
-                    int minas = contarMinasAdyacentes(i, j);
-                    matriz[i][j].setMinasAdyacentes(minas);
+    private void sumarMinaAVecinas(int indice) {
+        if (topologia.getTipo() == Topologia.Tipo.CUADRICULA) {
+            int fila = indice / tamaño;
+            int columna = indice % tamaño;
+            for (int f = Math.max(0, fila - 1); f <= Math.min(tamaño - 1, fila + 1); f++) {
+                for (int c = Math.max(0, columna - 1); c <= Math.min(tamaño - 1, columna + 1); c++) {
+                    Casilla vecina = casillas[f * tamaño + c];
+                    if (!vecina.tieneMina()) {
+                        vecina.setMinasAdyacentes(vecina.getMinasAdyacentes() + 1);
+                    }
                 }
             }
+            return;
         }
-    }
-    
-    /**
-     * Cuenta las minas adyacentes a una posición específica
-     */
-    private int contarMinasAdyacentes(int fila, int columna) {
-        int contador = 0;
-        
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                int nuevaFila = fila + i;
-                int nuevaColumna = columna + j;
-                
-                if (esValida(nuevaFila, nuevaColumna) && 
-                    matriz[nuevaFila][nuevaColumna].tieneMina()) {
-                    contador++;
-                }
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            Casilla vecina = casillas[topologia.getVecina(k)];
+            if (!vecina.tieneMina()) {
+                vecina.setMinasAdyacentes(vecina.getMinasAdyacentes() + 1);
             }
         }
-        
-        return contador;
     }
     
     /**
      * Verifica si una posición es válida en el tablero
      */
     private boolean esValida(int fila, int columna) {
-        return fila >= 0 && fila < TAMAÑO && columna >= 0 && columna < TAMAÑO;
+        return fila >= 0 && fila < tamaño && columna >= 0 && columna < tamaño;
     }
     
     /**
@@ -110,6 +358,9 @@ public class Tablero implements Serializable {
         if (!esValida(fila, columna)) {
             throw new ArrayIndexOutOfBoundsException("Posición fuera del tablero");
         }
+        if (juegoTerminado) {
+            return; // La partida ya terminó
+        }
         
         Casilla casilla = matriz[fila][columna];
         
@@ -121,8 +372,22 @@ public class Tablero implements Serializable {
             return; // No se puede descubrir una casilla marcada
         }
         
+        EventoDescubrir evento = new EventoDescubrir();
+        evento.begin();
+        int descubiertasAntes = casillasDescubiertas;
+        if (historial != null) {
+            historial.iniciarJugada(HistorialJugadas.TIPO_DESCUBRIR, fila * tamaño + columna, getEstado());
+        }
+        
+        if (minasPendientes) {
+            // Primer descubrimiento: colocar las minas lejos de esta casilla
+            minasPendientes = false;
+            colocarMinas(fila, columna);
+        }
+        
         casilla.descubrir();
         casillasDescubiertas++;
+        registrarDescubierta(fila * tamaño + columna);
         
         if (casilla.tieneMina()) {
             juegoTerminado = true;
@@ -130,60 +395,565 @@ public class Tablero implements Serializable {
             revelarTodasLasMinas();
         } else if (casilla.getMinasAdyacentes() == 0) {
             // Revelar automáticamente casillas adyacentes vacías
-            revelarCasillasVacias(fila, columna);
+            EventoExpansion expansion = new EventoExpansion();
+            expansion.begin();
+            if (motor != null) {
+                revelarZonaVacia(fila, columna);
+            } else if (!revelarRegion(fila, columna)) {
+                revelarCasillasVacias(fila * tamaño + columna);
+            }
+            expansion.end();
+            if (expansion.shouldCommit()) {
+                expansion.casillas = casillasDescubiertas - descubiertasAntes;
+                expansion.commit();
+            }
         }
         
-        // Verificar condición de victoria
-        if (casillasDescubiertas == (TAMAÑO * TAMAÑO - NUMERO_MINAS)) {
+        // Verificar condición de victoria (la mina pisada también cuenta como descubierta)
+        if (!juegoTerminado && casillasDescubiertas == (tamaño * tamaño - numeroMinas)) {
             juegoTerminado = true;
             victoria = true;
         }
+        if (historial != null) {
+            historial.cerrarJugada(getEstado(), casillasDescubiertas - descubiertasAntes);
+        }
+        finalizarJugada();
+        
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.fila = fila;
+            evento.columna = columna;
+            evento.casillas = casillasDescubiertas - descubiertasAntes;
+            evento.mina = casilla.tieneMina();
+            evento.commit();
+        }
     }
     
     /**
      * Revela automáticamente las casillas vacías adyacentes
+     * Usa una pila explícita de pares (casilla, siguiente vecina) en lugar de recursión:
+     * en un tablero grande cuya región cortó una bandera la recursión desbordaría la pila
+     * de llamadas. Visita las casillas en el mismo orden que la versión recursiva
      */
-    private void revelarCasillasVacias(int fila, int columna) {
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                int nuevaFila = fila + i;
-                int nuevaColumna = columna + j;
+    private void revelarCasillasVacias(int indice) {
+        ListaEnteros pila = new ListaEnteros();
+        pila.agregar(indice);
+        pila.agregar(topologia.inicio(indice));
+        while (!pila.estaVacia()) {
+            int k = pila.quitarUltimo();
+            int actual = pila.quitarUltimo();
+            if (k == topologia.fin(actual)) {
+                continue;
+            }
+            pila.agregar(actual);
+            pila.agregar(k + 1);
+            
+            int vecina = topologia.getVecina(k);
+            Casilla casilla = casillas[vecina];
+            if (!casilla.estaDescubierta() && !casilla.tieneMina() && !casilla.estaMarcada()) {
+                casilla.descubrir();
+                casillasDescubiertas++;
+                registrarDescubierta(vecina);
                 
-                if (esValida(nuevaFila, nuevaColumna)) {
-                    Casilla casilla = matriz[nuevaFila][nuevaColumna];
-                    
-                    if (!casilla.estaDescubierta() && !casilla.tieneMina() && !casilla.estaMarcada()) {
-                        casilla.descubrir();
-                        casillasDescubiertas++;
-                        
-                        if (casilla.getMinasAdyacentes() == 0) {
-                            revelarCasillasVacias(nuevaFila, nuevaColumna);
-                        }
-                    }
+                if (casilla.getMinasAdyacentes() == 0) {
+                    pila.agregar(vecina);
+                    pila.agregar(topologia.inicio(vecina));
                 }
             }
         }
     }
     
+    /**
+     * Revela la región precalculada de una casilla vacía, sin mirar vecinas
+     * Solo vale si la región está intacta: sin banderas y sin otras casillas vacías ya
+     * descubiertas (una bandera pudo cortar una expansión anterior). Entonces revela
+     * exactamente lo mismo que {@link #revelarCasillasVacias(int)}
+     * @return false si la región no está intacta y hay que expandir casilla a casilla
+     */
+    private boolean revelarRegion(int fila, int columna) {
+        IndiceRegiones indice = getRegiones();
+        int origen = fila * tamaño + columna;
+        int region = indice.getRegion(origen);
+        int fin = indice.fin(region);
+        for (int i = indice.inicio(region); i < fin; i++) {
+            int celda = indice.getCelda(i);
+            Casilla casilla = casillas[celda];
+            if (casilla.estaMarcada()
+                    || celda != origen && casilla.estaDescubierta() && indice.getRegion(celda) == region) {
+                return false;
+            }
+        }
+        for (int i = indice.inicio(region); i < fin; i++) {
+            int celda = indice.getCelda(i);
+            Casilla casilla = casillas[celda];
+            if (!casilla.estaDescubierta()) {
+                casilla.descubrir();
+                casillasDescubiertas++;
+                registrarDescubierta(celda);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Revela de una vez la zona vacía que calcula el motor por palabras de bits
+     * Revela las mismas casillas que {@link #revelarCasillasVacias(int)}
+     */
+    private void revelarZonaVacia(int fila, int columna) {
+        ListaEnteros zona = motor.expandir(fila, columna);
+        for (int i = 0; i < zona.tamaño(); i++) {
+            int indice = zona.obtener(i);
+            casillas[indice].descubrir();
+            casillasDescubiertas++;
+            registrarDescubierta(indice);
+        }
+    }
+    
     /**
      * Revela todas las minas al finalizar el juego
      */
     private void revelarTodasLasMinas() {
-        for (int i = 0; i < TAMAÑO; i++) {
-            for (int j = 0; j < TAMAÑO; j++) {
-                if (matriz[i][j].tieneMina()) {
-                    matriz[i][j].descubrir();
-                }
+        for (int indice = 0; indice < casillas.length; indice++) {
+            if (casillas[indice].tieneMina() && !casillas[indice].estaDescubierta()) {
+                casillas[indice].descubrir();
+                registrarDescubierta(indice);
             }
         }
     }
     
+    /**
+     * Calcula el 3BV del tablero: el mínimo de clics necesarios para ganar sin marcar
+     * Cuenta cada región de casillas vacías (con su borde numerado) como un clic,
+     * más cada casilla numerada que no toca ninguna región vacía. Sale del índice de
+     * regiones, que se construye una sola vez por tablero generado
+     * @return Valor 3BV del tablero, o 0 si las minas siguen pendientes de colocar
+     */
+    public int calcular3BV() {
+        return minasPendientes ? 0 : getRegiones().getValor3BV();
+    }
+    
+    /**
+     * Obtiene el número de regiones vacías del tablero (cada una se abre con un clic)
+     * @return Número de regiones, o 0 si las minas siguen pendientes de colocar
+     */
+    public int getNumeroRegionesVacias() {
+        return minasPendientes ? 0 : getRegiones().getNumeroRegiones();
+    }
+    
+    private IndiceRegiones getRegiones() {
+        if (regiones == null) {
+            regiones = IndiceRegiones.construir(casillas, topologia);
+        }
+        return regiones;
+    }
+    
+    /**
+     * Actualiza la frontera tras revelar una casilla y la anota si hay un lote en curso
+     * La casilla sale de la frontera y sus vecinas tapadas entran en ella: O(1) por casilla
+     */
+    private void registrarDescubierta(int indice) {
+        if (registroDescubiertas != null) {
+            registroDescubiertas.agregar(indice);
+        }
+        if (motor != null) {
+            motor.descubrir(indice);
+        }
+        if (historial != null) {
+            historial.anotarDescubierta(indice);
+        }
+        if (paginas != null) {
+            paginas.escribir(indice, PaginasTablero.codificar(casillas[indice]));
+        }
+        if (observadores != null) {
+            for (ObservadorTablero observador : observadores) {
+                observador.casillaDescubierta(indice);
+            }
+        }
+        
+        if ((frontera[indice >>> 6] & (1L << indice)) != 0) {
+            frontera[indice >>> 6] &= ~(1L << indice);
+            tamañoFrontera--;
+        }
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            int vecina = topologia.getVecina(k);
+            if (!casillas[vecina].estaDescubierta() && (frontera[vecina >>> 6] & (1L << vecina)) == 0) {
+                frontera[vecina >>> 6] |= 1L << vecina;
+                tamañoFrontera++;
+            }
+        }
+    }
+    
+    /**
+     * Reconstruye los contadores y la frontera, que no se guardan al serializar
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        
+        if (topologia == null) {
+            topologia = Topologia.cuadricula(tamaño);
+        }
+        indexarCasillas();
+        frontera = new long[(tamaño * tamaño + 63) / 64];
+        banderas = 0;
+        tamañoFrontera = 0;
+        for (int indice = 0; indice < casillas.length; indice++) {
+            if (casillas[indice].estaDescubierta()) {
+                registrarDescubierta(indice);
+            } else if (casillas[indice].estaMarcada()) {
+                banderas++;
+            }
+        }
+    }
+    
+    /**
+     * Aplica en orden un lote de jugadas codificadas con {@link Movimiento}
+     * Se detiene en cuanto el juego termina; las jugadas sobre casillas ya
+     * descubiertas se ignoran en lugar de interrumpir el lote
+     * @param movimientos Jugadas codificadas
+     * @return Cambios acumulados de todo el lote
+     */
+    public ResultadoLote aplicarMovimientos(int[] movimientos) {
+        ListaEnteros descubiertas = new ListaEnteros();
+        ListaEnteros banderas = new ListaEnteros();
+        int aplicados = 0;
+        
+        registroDescubiertas = descubiertas;
+        registroBanderas = banderas;
+        try {
+            for (int i = 0; i < movimientos.length && !juegoTerminado; i++) {
+                aplicarMovimiento(movimientos[i]);
+                aplicados++;
+            }
+        } finally {
+            registroDescubiertas = null;
+            registroBanderas = null;
+        }
+        
+        return new ResultadoLote(descubiertas.aArreglo(), banderas.aArreglo(), aplicados, getEstado());
+    }
+    
+    /**
+     * Aplica una sola jugada codificada con {@link Movimiento}
+     * A diferencia de {@link #descubrirCasilla(int, int)}, una jugada sobre una
+     * casilla ya descubierta no lanza excepción
+     * @param movimiento Jugada codificada
+     * @return true si la jugada modificó el tablero
+     */
+    public boolean aplicarMovimiento(int movimiento) {
+        int indice = Movimiento.indice(movimiento);
+        if (indice >= tamaño * tamaño) {
+            throw new ArrayIndexOutOfBoundsException("Posición fuera del tablero");
+        }
+        
+        int fila = indice / tamaño;
+        int columna = indice % tamaño;
+        Casilla casilla = matriz[fila][columna];
+        
+        if (juegoTerminado || casilla.estaDescubierta()) {
+            return false;
+        }
+        
+        if (Movimiento.tipo(movimiento) == Movimiento.MARCAR) {
+            marcarCasilla(fila, columna);
+            return true;
+        }
+        
+        try {
+            descubrirCasilla(fila, columna);
+        } catch (CasillaYaDescubiertaException e) {
+            // No ocurre: la casilla se comprobó antes de descubrirla
+        }
+        return casilla.estaDescubierta();
+    }
+    
     /**
      * Marca o desmarca una casilla
      */
     public void marcarCasilla(int fila, int columna) {
-        if (esValida(fila, columna) && !matriz[fila][columna].estaDescubierta()) {
-            matriz[fila][columna].marcar();
+        if (esValida(fila, columna) && !juegoTerminado && !matriz[fila][columna].estaDescubierta()) {
+            EventoMarcar evento = new EventoMarcar();
+            evento.begin();
+            if (historial != null) {
+                historial.iniciarJugada(HistorialJugadas.TIPO_MARCAR, fila * tamaño + columna, getEstado());
+            }
+            alternarBandera(fila, columna);
+            if (historial != null) {
+                historial.cerrarJugada(getEstado(), 0);
+            }
+            finalizarJugada();
+            
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.fila = fila;
+                evento.columna = columna;
+                evento.marcada = matriz[fila][columna].estaMarcada();
+                evento.commit();
+            }
+        }
+    }
+    
+    /**
+     * Pone o quita la bandera de una casilla tapada y lo notifica
+     */
+    private void alternarBandera(int fila, int columna) {
+        matriz[fila][columna].marcar();
+        banderas += matriz[fila][columna].estaMarcada() ? 1 : -1;
+        if (motor != null) {
+            motor.alternarBandera(fila * tamaño + columna);
+        }
+        if (paginas != null) {
+            paginas.escribir(fila * tamaño + columna, PaginasTablero.codificar(matriz[fila][columna]));
+        }
+        if (registroBanderas != null) {
+            registroBanderas.agregar(fila * tamaño + columna);
+        }
+        if (observadores != null) {
+            for (ObservadorTablero observador : observadores) {
+                observador.banderaCambiada(fila * tamaño + columna);
+            }
+        }
+    }
+    
+    /**
+     * Activa el historial para deshacer y rehacer jugadas
+     * Por defecto la memoria se limita a dos tableros completos de tramos más
+     * la cabecera de cada jugada
+     * @param profundidad Jugadas que se pueden deshacer como máximo
+     */
+    public void activarHistorial(int profundidad) {
+        activarHistorial(profundidad, 2 * tamaño * tamaño + 8 * profundidad);
+    }
+    
+    /**
+     * Activa el historial para deshacer y rehacer jugadas con un límite de memoria
+     * Solo se registran las jugadas posteriores a la activación
+     * @param profundidad Jugadas que se pueden deshacer como máximo
+     * @param enterosMaximos Enteros que puede ocupar el historial
+     */
+    public void activarHistorial(int profundidad, int enterosMaximos) {
+        historial = new HistorialJugadas(profundidad, enterosMaximos);
+    }
+    
+    /**
+     * Deshace la última jugada registrada
+     * Las casillas que reveló vuelven a taparse y el estado del juego vuelve al anterior,
+     * aunque la jugada hubiera terminado la partida. Si era el primer descubrimiento de un
+     * tablero con minas diferidas, las minas siguen donde se colocaron
+     * @return true si había una jugada que deshacer
+     */
+    public boolean deshacer() {
+        int entrada = historial != null ? historial.retroceder() : -1;
+        if (entrada < 0) {
+            return false;
+        }
+        
+        if (historial.tipo(entrada) == HistorialJugadas.TIPO_MARCAR) {
+            int celda = historial.celda(entrada);
+            alternarBandera(celda / tamaño, celda % tamaño);
+        } else {
+            int tramos = historial.numeroTramos(entrada);
+            for (int t = 0; t < tramos; t++) {
+                int inicio = historial.inicioTramo(entrada, t);
+                int fin = inicio + historial.longitudTramo(entrada, t);
+                for (int indice = inicio; indice < fin; indice++) {
+                    casillas[indice].ocultar();
+                    if (motor != null) {
+                        motor.ocultar(indice);
+                    }
+                    if (paginas != null) {
+                        paginas.escribir(indice, PaginasTablero.codificar(casillas[indice]));
+                    }
+                    if (observadores != null) {
+                        for (ObservadorTablero observador : observadores) {
+                            observador.casillaOcultada(indice);
+                        }
+                    }
+                }
+            }
+            // Con todas las casillas ya tapadas, revisar la frontera solo alrededor de ellas
+            for (int t = 0; t < tramos; t++) {
+                int inicio = historial.inicioTramo(entrada, t);
+                int fin = inicio + historial.longitudTramo(entrada, t);
+                for (int indice = inicio; indice < fin; indice++) {
+                    revisarFronteraAlrededor(indice);
+                }
+            }
+            casillasDescubiertas -= historial.deltaDescubiertas(entrada);
+        }
+        restaurarEstado(historial.estadoAntes(entrada));
+        finalizarJugada();
+        return true;
+    }
+    
+    /**
+     * Vuelve a aplicar la última jugada deshecha
+     * @return true si había una jugada que rehacer
+     */
+    public boolean rehacer() {
+        int entrada = historial != null ? historial.avanzar() : -1;
+        if (entrada < 0) {
+            return false;
+        }
+        
+        if (historial.tipo(entrada) == HistorialJugadas.TIPO_MARCAR) {
+            int celda = historial.celda(entrada);
+            alternarBandera(celda / tamaño, celda % tamaño);
+        } else {
+            int tramos = historial.numeroTramos(entrada);
+            for (int t = 0; t < tramos; t++) {
+                int inicio = historial.inicioTramo(entrada, t);
+                int fin = inicio + historial.longitudTramo(entrada, t);
+                for (int indice = inicio; indice < fin; indice++) {
+                    casillas[indice].descubrir();
+                    registrarDescubierta(indice);
+                }
+            }
+            casillasDescubiertas += historial.deltaDescubiertas(entrada);
+        }
+        restaurarEstado(historial.estadoDespues(entrada));
+        finalizarJugada();
+        return true;
+    }
+    
+    /**
+     * Indica si hay alguna jugada que deshacer
+     */
+    public boolean puedeDeshacer() {
+        return historial != null && historial.puedeDeshacer();
+    }
+    
+    /**
+     * Indica si hay alguna jugada deshecha que rehacer
+     */
+    public boolean puedeRehacer() {
+        return historial != null && historial.puedeRehacer();
+    }
+    
+    /**
+     * Obtiene el historial de jugadas
+     * @return Historial, o null si no se activó
+     */
+    public HistorialJugadas getHistorial() {
+        return historial;
+    }
+    
+    /**
+     * Cambia al motor por palabras de bits
+     * Guarda minas, casillas descubiertas y banderas en filas de long: los contadores de
+     * minas adyacentes se calculan para todo el tablero con sumadores de bits y las zonas
+     * vacías se revelan dilatando palabras enteras. El resultado es el mismo que con el
+     * motor escalar; compensa en tableros grandes y en simulaciones que reinician mucho.
+     * Solo está disponible con la cuadrícula clásica
+     */
+    public void activarMotorBitboard() {
+        if (topologia.getTipo() != Topologia.Tipo.CUADRICULA) {
+            throw new IllegalStateException("El motor por palabras de bits solo admite la cuadrícula");
+        }
+        if (motor == null) {
+            motor = new MotorBitboard(tamaño);
+            motor.cargar(matriz);
+        }
+    }
+    
+    /**
+     * Indica si el tablero usa el motor por palabras de bits
+     */
+    public boolean usaMotorBitboard() {
+        return motor != null;
+    }
+    
+    /**
+     * Activa las instantáneas del estado visible para lectores de otros hilos
+     * Después de cada jugada completa se publica una instantánea nueva; mientras se
+     * aplica una jugada los lectores siguen viendo la anterior. Debe activarse antes
+     * de compartir el tablero con otros hilos
+     */
+    public void activarInstantaneas() {
+        if (paginas == null) {
+            paginas = new PaginasTablero(tamaño, numeroMinas);
+            paginas.reescribir(this);
+            publicarInstantanea();
+        }
+    }
+    
+    /**
+     * Obtiene la última instantánea publicada; se puede llamar desde cualquier hilo sin bloqueos
+     * @return Instantánea de la última jugada completa, o null si no se activaron
+     */
+    public InstantaneaTablero getInstantanea() {
+        PaginasTablero actuales = paginas;
+        return actuales != null ? actuales.getPublicada() : null;
+    }
+    
+    private void publicarInstantanea() {
+        if (paginas != null) {
+            paginas.publicar(getEstado(), casillasDescubiertas, banderas);
+        }
+    }
+    
+    /**
+     * Publica la instantánea y avisa a los observadores de que la jugada terminó
+     */
+    private void finalizarJugada() {
+        publicarInstantanea();
+        if (observadores != null) {
+            for (ObservadorTablero observador : observadores) {
+                observador.jugadaCompletada();
+            }
+        }
+    }
+    
+    private void restaurarEstado(EstadoJuego estado) {
+        juegoTerminado = estado != EstadoJuego.EN_CURSO;
+        victoria = estado == EstadoJuego.VICTORIA;
+    }
+    
+    /**
+     * Recalcula la pertenencia a la frontera de una casilla y sus vecinas
+     */
+    private void revisarFronteraAlrededor(int indice) {
+        revisarFrontera(indice);
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            revisarFrontera(topologia.getVecina(k));
+        }
+    }
+    
+    /**
+     * Una casilla está en la frontera si está tapada y tiene alguna vecina descubierta
+     */
+    private void revisarFrontera(int indice) {
+        boolean enFrontera = false;
+        if (!casillas[indice].estaDescubierta()) {
+            for (int k = topologia.inicio(indice); k < topologia.fin(indice) && !enFrontera; k++) {
+                enFrontera = casillas[topologia.getVecina(k)].estaDescubierta();
+            }
+        }
+        
+        boolean estaba = (frontera[indice >>> 6] & (1L << indice)) != 0;
+        if (enFrontera != estaba) {
+            frontera[indice >>> 6] ^= 1L << indice;
+            tamañoFrontera += enFrontera ? 1 : -1;
+        }
+    }
+    
+    /**
+     * Registra un observador de los cambios del tablero
+     * @param observador Observador a notificar
+     */
+    public void agregarObservador(ObservadorTablero observador) {
+        if (observadores == null) {
+            observadores = new ArrayList<>();
+        }
+        observadores.add(observador);
+    }
+    
+    /**
+     * Elimina un observador registrado
+     * @param observador Observador a quitar
+     */
+    public void quitarObservador(ObservadorTablero observador) {
+        if (observadores != null) {
+            observadores.remove(observador);
         }
     }
     
@@ -192,6 +962,22 @@ public class Tablero implements Serializable {
         return matriz[fila][columna];
     }
     
+    public boolean estaDescubierta(int fila, int columna) {
+        return matriz[fila][columna].estaDescubierta();
+    }
+    
+    public boolean estaMarcada(int fila, int columna) {
+        return matriz[fila][columna].estaMarcada();
+    }
+    
+    public boolean tieneMina(int fila, int columna) {
+        return matriz[fila][columna].tieneMina();
+    }
+    
+    public int getMinasAdyacentes(int fila, int columna) {
+        return matriz[fila][columna].getMinasAdyacentes();
+    }
+    
     public boolean estaTerminado() {
         return juegoTerminado;
     }
@@ -200,8 +986,92 @@ public class Tablero implements Serializable {
         return victoria;
     }
     
+    public EstadoJuego getEstado() {
+        if (!juegoTerminado) {
+            return EstadoJuego.EN_CURSO;
+        }
+        return victoria ? EstadoJuego.VICTORIA : EstadoJuego.DERROTA;
+    }
+    
     public int getTamaño() {
-        return TAMAÑO;
+        return tamaño;
+    }
+    
+    /**
+     * Obtiene la forma del tablero, con las vecinas de cada casilla
+     */
+    public Topologia getTopologia() {
+        return topologia;
+    }
+    
+    public int getNumeroMinas() {
+        return numeroMinas;
+    }
+    
+    public long getSemilla() {
+        return semilla;
+    }
+    
+    /**
+     * Obtiene el número de casillas marcadas con bandera
+     * @return Banderas colocadas
+     */
+    public int getBanderas() {
+        return banderas;
+    }
+    
+    /**
+     * Obtiene el contador de minas restantes (minas menos banderas), como en el juego clásico
+     * Puede ser negativo si se colocan más banderas que minas
+     * @return Minas restantes
+     */
+    public int getMinasRestantes() {
+        return numeroMinas - banderas;
+    }
+    
+    /**
+     * Obtiene el número de casillas tapadas (marcadas o no) junto a alguna casilla descubierta
+     * @return Tamaño de la frontera
+     */
+    public int getTamañoFrontera() {
+        return tamañoFrontera;
+    }
+    
+    /**
+     * Indica si una casilla pertenece a la frontera
+     * @param fila Fila de la casilla
+     * @param columna Columna de la casilla
+     * @return true si está tapada y tiene alguna vecina descubierta
+     */
+    public boolean esFrontera(int fila, int columna) {
+        int indice = fila * tamaño + columna;
+        return (frontera[indice >>> 6] & (1L << indice)) != 0;
+    }
+    
+    /**
+     * Obtiene los índices (fila * tamaño + columna) de las casillas de la frontera
+     * Recorre el mapa de bits por palabras, sin consultar las casillas
+     * @return Índices de la frontera en orden creciente
+     */
+    public int[] getFrontera() {
+        int[] indices = new int[tamañoFrontera];
+        int n = 0;
+        for (int palabra = 0; palabra < frontera.length; palabra++) {
+            long bits = frontera[palabra];
+            while (bits != 0) {
+                indices[n++] = (palabra << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return indices;
+    }
+    
+    /**
+     * Indica si las minas siguen pendientes de colocar hasta el primer descubrimiento
+     * @return true si todavía no se han colocado las minas
+     */
+    public boolean tieneMinasPendientes() {
+        return minasPendientes;
     }
     
     public int getCasillasDescubiertas() {
@@ -0,0 +1,376 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import excepciones.CasillaYaDescubiertaException;
+
+/**
+ * Tablero para tableros enormes con muy pocas minas, sin estado por casilla
+ * 
+ * Las minas y las banderas se guardan como índices (fila * tamaño + columna, en long) en
+ * conjuntos con direccionamiento abierto, y las casillas descubiertas en un mapa de bits
+ * comprimido por bloques. Los contadores de minas adyacentes no se guardan: se calculan
+ * al pedirse mirando las ocho vecinas en el conjunto de minas, con una caché pequeña para
+ * las consultas repetidas de la vista y un conjunto de cuadros de 16x16 con minas que
+ * descarta de una vez las casillas lejos de todas. Así la memoria crece con las minas y con la zona
+ * descubierta, no con el área del tablero: uno de 100000x100000 con 10000 minas ocupa
+ * unos cientos de KB mientras no se descubra casi todo.
+ * 
+ * Con la misma semilla y la misma zona segura las minas quedan en las mismas casillas que
+ * en {@link Tablero}, y descubrir y marcar siguen las mismas reglas de la cuadrícula. Ambos
+ * se juegan a través de {@link TableroJugable}, y
+ * {@link controlador.FabricaTableros#obtenerJugable} elige este para las configuraciones dispersas
+ * 
+ * De momento solo se usa como biblioteca: el controlador, el modo sin interfaz y el simulador
+ * juegan con {@link Tablero}, porque las vistas pintan todas las casillas y {@link Movimiento}
+ * codifica el índice de la casilla en un int
+ */
+public final class TableroDisperso implements TableroJugable {
+    // Entradas de la caché de contadores, potencia de dos
+    private static final int TAMAÑO_CACHE = 1024;
+    // Lado (en bits de desplazamiento) de los cuadros de 16x16 casillas con alguna mina
+    private static final int BITS_CUADRO = 4;
+    
+    private final int tamaño;
+    private final int numeroMinas;
+    private final long totalCasillas;
+    private long semilla;
+    private final ConjuntoLargos minas;
+    // Cuadros con alguna mina: una casilla cuyas vecinas caen en cuadros sin minas vale 0
+    private final ConjuntoLargos cuadrosConMinas;
+    private final ConjuntoLargos banderas;
+    private final MapaBitsComprimido descubiertas;
+    private boolean juegoTerminado;
+    private boolean victoria;
+    
+    // Minas diferidas hasta el primer descubrimiento
+    private boolean minasPendientes;
+    
+    // Caché directa de contadores: índice de la casilla (-1 si vacía) y su contador
+    private final long[] clavesCache;
+    private final byte[] contadoresCache;
+    
+    // Cola circular de casillas vacías pendientes de expandir (potencia de dos), reutilizada
+    private long[] pendientes;
+    
+    /**
+     * Constructor de un tablero disperso con una casilla inicial segura
+     * @param tamaño Número de filas y columnas
+     * @param numeroMinas Número de minas a colocar
+     * @param semilla Semilla para la colocación de minas
+     * @param filaSegura Fila de la casilla inicial (-1 si no hay zona segura)
+     * @param columnaSegura Columna de la casilla inicial (-1 si no hay zona segura)
+     */
+    public TableroDisperso(int tamaño, int numeroMinas, long semilla, int filaSegura, int columnaSegura) {
+        this(tamaño, numeroMinas, semilla, filaSegura, columnaSegura, false);
+    }
+    
+    /**
+     * Crea un tablero disperso cuyas minas se colocan al descubrir la primera casilla,
+     * como {@link Tablero#conPrimerClicSeguro(int, int, long)}
+     * @param tamaño Número de filas y columnas
+     * @param numeroMinas Número de minas a colocar
+     * @param semilla Semilla para la colocación de minas
+     * @return Tablero sin minas colocadas todavía
+     */
+    public static TableroDisperso conPrimerClicSeguro(int tamaño, int numeroMinas, long semilla) {
+        return new TableroDisperso(tamaño, numeroMinas, semilla, -1, -1, true);
+    }
+    
+    /**
+     * Constructor común; con minas diferidas no coloca ninguna todavía
+     */
+    private TableroDisperso(int tamaño, int numeroMinas, long semilla, int filaSegura, int columnaSegura,
+                            boolean diferirMinas) {
+        if (tamaño < 1) {
+            throw new IllegalArgumentException("El tamaño del tablero debe ser positivo");
+        }
+        long zonaSegura = diferirMinas ? Math.min(9, (long) tamaño * tamaño) : filaSegura >= 0
+                ? (long) (Math.min(tamaño - 1, filaSegura + 1) - Math.max(0, filaSegura - 1) + 1)
+                        * (Math.min(tamaño - 1, columnaSegura + 1) - Math.max(0, columnaSegura - 1) + 1)
+                : 0;
+        this.totalCasillas = (long) tamaño * tamaño;
+        if (numeroMinas < 0 || numeroMinas > totalCasillas - zonaSegura) {
+            throw new IllegalArgumentException("Número de minas inválido para un tablero de " + tamaño + "x" + tamaño);
+        }
+        
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.minas = new ConjuntoLargos(numeroMinas);
+        this.cuadrosConMinas = new ConjuntoLargos(numeroMinas);
+        this.banderas = new ConjuntoLargos(16);
+        this.descubiertas = new MapaBitsComprimido();
+        this.clavesCache = new long[TAMAÑO_CACHE];
+        this.contadoresCache = new byte[TAMAÑO_CACHE];
+        this.pendientes = new long[64];
+        this.semilla = semilla;
+        Arrays.fill(clavesCache, -1L);
+        this.minasPendientes = diferirMinas;
+        if (!diferirMinas) {
+            colocarMinas(filaSegura, columnaSegura);
+        }
+    }
+    
+    /**
+     * Reinicia el tablero para una nueva partida conservando la memoria reservada
+     * @param nuevaSemilla Semilla para la nueva colocación de minas
+     * @param filaSegura Fila de la casilla inicial (-1 si no hay zona segura)
+     * @param columnaSegura Columna de la casilla inicial (-1 si no hay zona segura)
+     */
+    public void reiniciar(long nuevaSemilla, int filaSegura, int columnaSegura) {
+        this.semilla = nuevaSemilla;
+        this.juegoTerminado = false;
+        this.victoria = false;
+        this.minasPendientes = false;
+        minas.limpiar();
+        cuadrosConMinas.limpiar();
+        banderas.limpiar();
+        descubiertas.limpiar();
+        Arrays.fill(clavesCache, -1L);
+        colocarMinas(filaSegura, columnaSegura);
+    }
+    
+    /**
+     * Coloca las minas con la misma secuencia aleatoria que {@link Tablero}
+     */
+    private void colocarMinas(int filaSegura, int columnaSegura) {
+        Random random = new Random(semilla);
+        while (minas.tamaño() < numeroMinas) {
+            int fila = random.nextInt(tamaño);
+            int columna = random.nextInt(tamaño);
+            boolean enZonaSegura = filaSegura >= 0
+                    && Math.abs(fila - filaSegura) <= 1 && Math.abs(columna - columnaSegura) <= 1;
+            if (!enZonaSegura && minas.agregar(indice(fila, columna))) {
+                cuadrosConMinas.agregar(cuadro(fila, columna));
+            }
+        }
+    }
+    
+    private long indice(int fila, int columna) {
+        return (long) fila * tamaño + columna;
+    }
+    
+    private long cuadro(int fila, int columna) {
+        return (long) (fila >> BITS_CUADRO) * ((tamaño >> BITS_CUADRO) + 1) + (columna >> BITS_CUADRO);
+    }
+    
+    private boolean esValida(int fila, int columna) {
+        return fila >= 0 && fila < tamaño && columna >= 0 && columna < tamaño;
+    }
+    
+    /**
+     * Descubre una casilla en la posición especificada
+     * Una casilla sin minas adyacentes expande su zona vacía como en {@link Tablero}
+     */
+    public void descubrirCasilla(int fila, int columna) throws CasillaYaDescubiertaException {
+        if (!esValida(fila, columna)) {
+            throw new ArrayIndexOutOfBoundsException("Posición fuera del tablero");
+        }
+        if (juegoTerminado) {
+            return; // La partida ya terminó
+        }
+        if (minasPendientes) {
+            // Primer descubrimiento: colocar las minas lejos de esta casilla
+            minasPendientes = false;
+            colocarMinas(fila, columna);
+        }
+        if (estaDescubierta(fila, columna)) {
+            throw new CasillaYaDescubiertaException("La casilla ya está descubierta");
+        }
+        long indice = indice(fila, columna);
+        if (banderas.contiene(indice)) {
+            return; // No se puede descubrir una casilla marcada
+        }
+        
+        descubiertas.agregar(indice);
+        if (minas.contiene(indice)) {
+            juegoTerminado = true;
+            victoria = false;
+        } else if (contarMinasAdyacentes(fila, columna) == 0) {
+            revelarCasillasVacias(indice);
+        }
+        descubiertas.compactar();
+        if (!juegoTerminado && descubiertas.getCardinalidad() == totalCasillas - numeroMinas) {
+            juegoTerminado = true;
+            victoria = true;
+        }
+    }
+    
+    /**
+     * Expande una zona vacía por anchura con una cola circular: en un tablero enorme la
+     * recursión desbordaría la pila de llamadas, y la cola solo guarda el borde que avanza
+     * (del orden del lado de la zona) en vez de todas sus casillas
+     */
+    private void revelarCasillasVacias(long origen) {
+        int mascara = pendientes.length - 1;
+        int cabeza = 0;
+        int n = 1;
+        pendientes[0] = origen;
+        while (n > 0) {
+            long actual = pendientes[cabeza];
+            cabeza = (cabeza + 1) & mascara;
+            n--;
+            int fila = (int) (actual / tamaño);
+            int columna = (int) (actual % tamaño);
+            for (int f = Math.max(0, fila - 1); f <= Math.min(tamaño - 1, fila + 1); f++) {
+                for (int c = Math.max(0, columna - 1); c <= Math.min(tamaño - 1, columna + 1); c++) {
+                    // Las vecinas de una casilla vacía nunca tienen mina
+                    long vecina = indice(f, c);
+                    if (banderas.tamaño() > 0 && banderas.contiene(vecina) || !descubiertas.agregar(vecina)) {
+                        continue;
+                    }
+                    if (contarMinasAdyacentes(f, c) == 0) {
+                        if (n == pendientes.length) {
+                            pendientes = agrandarCola(cabeza);
+                            cabeza = 0;
+                            mascara = pendientes.length - 1;
+                        }
+                        pendientes[(cabeza + n) & mascara] = vecina;
+                        n++;
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Duplica la cola llena dejando sus elementos en orden desde el principio
+     */
+    private long[] agrandarCola(int cabeza) {
+        long[] cola = new long[pendientes.length * 2];
+        System.arraycopy(pendientes, cabeza, cola, 0, pendientes.length - cabeza);
+        System.arraycopy(pendientes, 0, cola, pendientes.length - cabeza, cabeza);
+        return cola;
+    }
+    
+    /**
+     * Pone o quita la bandera de una casilla tapada
+     */
+    public void marcarCasilla(int fila, int columna) {
+        if (esValida(fila, columna) && !juegoTerminado && !estaDescubierta(fila, columna)) {
+            long indice = indice(fila, columna);
+            if (!banderas.quitar(indice)) {
+                banderas.agregar(indice);
+            }
+        }
+    }
+    
+    /**
+     * Cuenta las minas de las ocho vecinas, pasando primero por la caché
+     * Casi siempre las vecinas caen en uno o dos cuadros sin minas y basta con mirar esos
+     * cuadros en vez de las ocho casillas
+     */
+    private int contarMinasAdyacentes(int fila, int columna) {
+        int primeraFila = Math.max(0, fila - 1);
+        int ultimaFila = Math.min(tamaño - 1, fila + 1);
+        int primeraColumna = Math.max(0, columna - 1);
+        int ultimaColumna = Math.min(tamaño - 1, columna + 1);
+        if (!hayMinasEnCuadros(primeraFila, ultimaFila, primeraColumna, ultimaColumna)) {
+            return 0;
+        }
+        long indice = indice(fila, columna);
+        int ranura = (int) (indice ^ (indice >>> 20)) & (TAMAÑO_CACHE - 1);
+        if (clavesCache[ranura] == indice) {
+            return contadoresCache[ranura];
+        }
+        int cuenta = 0;
+        for (int f = primeraFila; f <= ultimaFila; f++) {
+            for (int c = primeraColumna; c <= ultimaColumna; c++) {
+                if ((f != fila || c != columna) && minas.contiene(indice(f, c))) {
+                    cuenta++;
+                }
+            }
+        }
+        clavesCache[ranura] = indice;
+        contadoresCache[ranura] = (byte) cuenta;
+        return cuenta;
+    }
+    
+    private boolean hayMinasEnCuadros(int primeraFila, int ultimaFila, int primeraColumna, int ultimaColumna) {
+        for (int f = primeraFila >> BITS_CUADRO; f <= ultimaFila >> BITS_CUADRO; f++) {
+            for (int c = primeraColumna >> BITS_CUADRO; c <= ultimaColumna >> BITS_CUADRO; c++) {
+                if (cuadrosConMinas.contiene(cuadro(f << BITS_CUADRO, c << BITS_CUADRO))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Obtiene el número de minas en las casillas vecinas
+     */
+    public int getMinasAdyacentes(int fila, int columna) {
+        if (!esValida(fila, columna)) {
+            throw new ArrayIndexOutOfBoundsException("Posición fuera del tablero");
+        }
+        return contarMinasAdyacentes(fila, columna);
+    }
+    
+    public boolean tieneMina(int fila, int columna) {
+        return esValida(fila, columna) && minas.contiene(indice(fila, columna));
+    }
+    
+    /**
+     * Indica si una casilla está descubierta; al perder, todas las minas lo están
+     */
+    public boolean estaDescubierta(int fila, int columna) {
+        if (!esValida(fila, columna)) {
+            return false;
+        }
+        long indice = indice(fila, columna);
+        return descubiertas.contiene(indice) || juegoTerminado && !victoria && minas.contiene(indice);
+    }
+    
+    public boolean estaMarcada(int fila, int columna) {
+        return esValida(fila, columna) && banderas.contiene(indice(fila, columna));
+    }
+    
+    /**
+     * Obtiene el número de casillas descubiertas por el jugador (incluida la mina pisada)
+     */
+    public long getCasillasDescubiertas() {
+        return descubiertas.getCardinalidad();
+    }
+    
+    /**
+     * Estima la memoria del tablero: minas, banderas, casillas descubiertas y caché
+     * @return Bytes aproximados, sin contar las cabeceras de los objetos
+     */
+    public long getBytesAproximados() {
+        return minas.getBytesAproximados() + cuadrosConMinas.getBytesAproximados() + banderas.getBytesAproximados() + descubiertas.getBytesAproximados()
+                + 9L * TAMAÑO_CACHE + 8L * pendientes.length;
+    }
+    
+    public EstadoJuego getEstado() {
+        if (!juegoTerminado) {
+            return EstadoJuego.EN_CURSO;
+        }
+        return victoria ? EstadoJuego.VICTORIA : EstadoJuego.DERROTA;
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public int getNumeroMinas() {
+        return numeroMinas;
+    }
+    
+    public long getSemilla() {
+        return semilla;
+    }
+    
+    public int getBanderas() {
+        return banderas.tamaño();
+    }
+    
+    public boolean estaTerminado() {
+        return juegoTerminado;
+    }
+    
+    public boolean esVictoria() {
+        return victoria;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package modelo;
+
+import excepciones.CasillaYaDescubiertaException;
+
+/**
+ * Operaciones de juego comunes a los tableros con estado por casilla ({@link Tablero})
+ * y a los dispersos para tableros enormes con pocas minas ({@link TableroDisperso})
+ * Una vez terminada la partida, descubrir y marcar no cambian el tablero
+ */
+public interface TableroJugable {
+    /**
+     * Descubre una casilla; si no tiene minas adyacentes expande su zona vacía
+     * @param fila Fila de la casilla
+     * @param columna Columna de la casilla
+     * @throws CasillaYaDescubiertaException Si la casilla ya estaba descubierta
+     */
+    void descubrirCasilla(int fila, int columna) throws CasillaYaDescubiertaException;
+    
+    /**
+     * Pone o quita la bandera de una casilla tapada
+     * @param fila Fila de la casilla
+     * @param columna Columna de la casilla
+     */
+    void marcarCasilla(int fila, int columna);
+    
+    boolean estaDescubierta(int fila, int columna);
+    
+    boolean estaMarcada(int fila, int columna);
+    
+    boolean tieneMina(int fila, int columna);
+    
+    /**
+     * Obtiene el número de minas en las casillas vecinas
+     */
+    int getMinasAdyacentes(int fila, int columna);
+    
+    EstadoJuego getEstado();
+    
+    boolean estaTerminado();
+    
+    boolean esVictoria();
+    
+    int getTamaño();
+    
+    int getNumeroMinas();
+    
+    long getSemilla();
+    
+    int getBanderas();
+}
\ No newline at end of file
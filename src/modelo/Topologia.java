@@ -0,0 +1,269 @@
+package modelo;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+/**
+ * Forma en que se conectan las casillas de un tablero de tamaño x tamaño
+ * 
+ * Al crearse calcula la lista de vecinas de cada casilla en formato compacto: las vecinas
+ * de la casilla i (índice fila * tamaño + columna) son getVecina(k) para k entre inicio(i)
+ * y fin(i). Contar minas, expandir zonas vacías, mantener la frontera y resolver recorren
+ * esas listas, sin comprobar límites ni saber qué forma tiene el tablero.
+ * 
+ * - Cuadrícula: las ocho vecinas clásicas dentro del tablero
+ * - Toroide: las ocho vecinas, saliendo por un borde y entrando por el contrario
+ * - Hexagonal: seis vecinas, con las filas impares desplazadas media casilla a la derecha
+ * - Capas: las filas se reparten en capas apiladas de tamaño / capas filas, y cada casilla
+ *   tiene hasta 26 vecinas en su capa y en las capas de encima y de debajo
+ * 
+ * Las listas no se guardan al serializar: se vuelven a calcular a partir del tipo
+ */
+public final class Topologia implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Formas de tablero disponibles
+     */
+    public enum Tipo {
+        CUADRICULA, TOROIDE, HEXAGONAL, CAPAS
+    }
+    
+    // Última cuadrícula creada: muchas partidas seguidas del mismo tamaño comparten sus listas
+    private static volatile Topologia ultimaCuadricula;
+    
+    private final Tipo tipo;
+    private final int tamaño;
+    private final int capas;
+    
+    // Vecinas de i en vecinas[inicioVecinas[i] .. inicioVecinas[i + 1])
+    private transient int[] inicioVecinas;
+    private transient int[] vecinas;
+    private transient int gradoMaximo;
+    
+    private Topologia(Tipo tipo, int tamaño, int capas) {
+        if (tamaño < 1) {
+            throw new IllegalArgumentException("El tamaño del tablero debe ser positivo");
+        }
+        this.tipo = tipo;
+        this.tamaño = tamaño;
+        this.capas = capas;
+        construir();
+    }
+    
+    /**
+     * Cuadrícula clásica con ocho vecinas, la de todos los tableros por defecto
+     * @param tamaño Número de filas y columnas
+     */
+    public static Topologia cuadricula(int tamaño) {
+        Topologia ultima = ultimaCuadricula;
+        if (ultima != null && ultima.tamaño == tamaño) {
+            return ultima;
+        }
+        ultima = new Topologia(Tipo.CUADRICULA, tamaño, 1);
+        ultimaCuadricula = ultima;
+        return ultima;
+    }
+    
+    /**
+     * Cuadrícula que se cierra sobre sí misma: la última fila toca la primera y la
+     * última columna toca la primera
+     * @param tamaño Número de filas y columnas
+     */
+    public static Topologia toroide(int tamaño) {
+        return new Topologia(Tipo.TOROIDE, tamaño, 1);
+    }
+    
+    /**
+     * Rejilla de hexágonos guardada en filas, con las filas impares desplazadas
+     * @param tamaño Número de filas y columnas
+     */
+    public static Topologia hexagonal(int tamaño) {
+        return new Topologia(Tipo.HEXAGONAL, tamaño, 1);
+    }
+    
+    /**
+     * Tablero en tres dimensiones: capas de tamaño / capas filas apiladas una sobre otra
+     * @param tamaño Número de filas y columnas de la matriz completa
+     * @param capas Número de capas; debe dividir al tamaño
+     */
+    public static Topologia capas(int tamaño, int capas) {
+        if (capas < 1 || tamaño % capas != 0) {
+            throw new IllegalArgumentException("El número de capas debe dividir al tamaño del tablero");
+        }
+        return new Topologia(Tipo.CAPAS, tamaño, capas);
+    }
+    
+    /**
+     * Calcula las listas de vecinas con dos pasadas: contar y repartir
+     */
+    private void construir() {
+        int total = tamaño * tamaño;
+        int[] buffer = new int[26];
+        inicioVecinas = new int[total + 1];
+        gradoMaximo = 0;
+        for (int indice = 0; indice < total; indice++) {
+            int grado = calcularVecinas(indice, buffer);
+            inicioVecinas[indice + 1] = inicioVecinas[indice] + grado;
+            gradoMaximo = Math.max(gradoMaximo, grado);
+        }
+        vecinas = new int[inicioVecinas[total]];
+        for (int indice = 0; indice < total; indice++) {
+            calcularVecinas(indice, buffer);
+            System.arraycopy(buffer, 0, vecinas, inicioVecinas[indice], inicioVecinas[indice + 1] - inicioVecinas[indice]);
+        }
+    }
+    
+    /**
+     * Escribe las vecinas de una casilla, sin repetir y sin la propia casilla
+     * En la cuadrícula salen en el mismo orden que el recorrido clásico de -1 a 1
+     * @return Número de vecinas
+     */
+    private int calcularVecinas(int indice, int[] destino) {
+        int fila = indice / tamaño;
+        int columna = indice % tamaño;
+        int n = 0;
+        switch (tipo) {
+            case TOROIDE:
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        int vecina = Math.floorMod(fila + i, tamaño) * tamaño + Math.floorMod(columna + j, tamaño);
+                        n = agregar(destino, n, indice, vecina);
+                    }
+                }
+                break;
+            case HEXAGONAL:
+                // Las filas impares están desplazadas a la derecha: sus vecinas de arriba y abajo
+                // son la columna propia y la siguiente; en las pares, la anterior y la propia
+                int desplazamiento = fila % 2 == 0 ? -1 : 0;
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        boolean enFila = i == 0 && j != 0;
+                        boolean enOtraFila = i != 0 && j >= 0;
+                        int c = i == 0 ? columna + j : columna + j + desplazamiento;
+                        if ((enFila || enOtraFila) && dentro(fila + i, c)) {
+                            n = agregar(destino, n, indice, (fila + i) * tamaño + c);
+                        }
+                    }
+                }
+                break;
+            case CAPAS:
+                int filasPorCapa = tamaño / capas;
+                int capa = fila / filasPorCapa;
+                int filaEnCapa = fila % filasPorCapa;
+                for (int k = -1; k <= 1; k++) {
+                    for (int i = -1; i <= 1; i++) {
+                        for (int j = -1; j <= 1; j++) {
+                            int f = filaEnCapa + i;
+                            if (capa + k >= 0 && capa + k < capas && f >= 0 && f < filasPorCapa
+                                    && columna + j >= 0 && columna + j < tamaño) {
+                                n = agregar(destino, n, indice, ((capa + k) * filasPorCapa + f) * tamaño + columna + j);
+                            }
+                        }
+                    }
+                }
+                break;
+            default:
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        if (dentro(fila + i, columna + j)) {
+                            n = agregar(destino, n, indice, (fila + i) * tamaño + columna + j);
+                        }
+                    }
+                }
+                break;
+        }
+        return n;
+    }
+    
+    /**
+     * Añade una vecina si no es la propia casilla ni está ya (en tableros muy pequeños
+     * el toroide llega a la misma casilla por dos lados)
+     */
+    private static int agregar(int[] destino, int n, int indice, int vecina) {
+        if (vecina == indice) {
+            return n;
+        }
+        for (int i = 0; i < n; i++) {
+            if (destino[i] == vecina) {
+                return n;
+            }
+        }
+        destino[n] = vecina;
+        return n + 1;
+    }
+    
+    private boolean dentro(int fila, int columna) {
+        return fila >= 0 && fila < tamaño && columna >= 0 && columna < tamaño;
+    }
+    
+    /**
+     * Vuelve a calcular las listas de vecinas, que no se guardan al serializar
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        construir();
+    }
+    
+    /**
+     * Posición en {@link #getVecina(int)} de la primera vecina de una casilla
+     */
+    public int inicio(int indice) {
+        return inicioVecinas[indice];
+    }
+    
+    /**
+     * Posición siguiente a la última vecina de una casilla
+     */
+    public int fin(int indice) {
+        return inicioVecinas[indice + 1];
+    }
+    
+    public int getVecina(int posicion) {
+        return vecinas[posicion];
+    }
+    
+    /**
+     * Indica si dos casillas distintas son vecinas
+     */
+    public boolean sonVecinas(int a, int b) {
+        for (int k = inicioVecinas[a]; k < inicioVecinas[a + 1]; k++) {
+            if (vecinas[k] == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Obtiene el número de vecinas de una casilla
+     */
+    public int getGrado(int indice) {
+        return inicioVecinas[indice + 1] - inicioVecinas[indice];
+    }
+    
+    /**
+     * Obtiene el mayor número de vecinas de una casilla (8 en la cuadrícula, 26 con capas)
+     */
+    public int getGradoMaximo() {
+        return gradoMaximo;
+    }
+    
+    public Tipo getTipo() {
+        return tipo;
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public int getCapas() {
+        return capas;
+    }
+    
+    @Override
+    public String toString() {
+        return tipo == Tipo.CAPAS ? tipo + " (" + capas + " capas)" : tipo.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,472 @@
+package persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import modelo.Jugador;
+
+/**
+ * Almacén persistente de estadísticas de jugadores
+ * 
+ * El archivo es en sí mismo una tabla hash de direccionamiento abierto: una cabecera
+ * y registros de ancho fijo, cada uno en la ranura que indica el hash de su nombre
+ * (con sondeo lineal). Buscar o actualizar un jugador lee y escribe un único registro,
+ * así que el coste no depende del número de jugadores y no hace falta cargar ningún
+ * índice en memoria al abrir. Cuando la ocupación supera el 70 % la tabla se duplica.
+ * 
+ * Los registros miden 128 bytes y empiezan en múltiplos de 128, de modo que nunca
+ * cruzan una página del disco y cada actualización es una única escritura.
+ * El archivo se bloquea al abrirlo: varias sesiones de la misma JVM pueden compartir
+ * el almacén, pero otro proceso no puede abrirlo a la vez
+ */
+public class AlmacenEstadisticas implements Closeable {
+    private static final String ARCHIVO_JUGADORES = "jugadores.dat";
+    private static final int MAGICO = 0x42534D4A;
+    private static final int VERSION = 1;
+    private static final int TAMAÑO_REGISTRO = 128;
+    private static final int TAMAÑO_CABECERA = TAMAÑO_REGISTRO;
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final double OCUPACION_MAXIMA = 0.7;
+    private static final int FRANJAS = 64;
+    
+    // Distribución del registro
+    private static final int POS_ESTADO = 0;
+    private static final int POS_LONGITUD = 1;
+    private static final int POS_JUGADAS = 4;
+    private static final int POS_GANADAS = 8;
+    private static final int POS_PERDIDAS = 12;
+    private static final int POS_HASH = 16;
+    private static final int POS_ACTUALIZADO = 24;
+    private static final int POS_NOMBRE = 32;
+    public static final int LONGITUD_MAXIMA_NOMBRE = TAMAÑO_REGISTRO - POS_NOMBRE;
+    
+    private static final byte LIBRE = 0;
+    private static final byte OCUPADO = 1;
+    
+    private final Path ruta;
+    private final ReentrantReadWriteLock bloqueoTabla;
+    private final ReentrantLock bloqueoInsercion;
+    private final ReentrantLock[] franjas;
+    private FileChannel canal;
+    private FileLock bloqueoArchivo;
+    private int capacidad;
+    private int ocupados;
+    
+    /**
+     * Abre el almacén en el directorio de guardado por defecto
+     * @throws IOException Si no se puede abrir o está en uso por otro proceso
+     */
+    public AlmacenEstadisticas() throws IOException {
+        this(Paths.get("guardados", ARCHIVO_JUGADORES));
+    }
+    
+    /**
+     * Abre o crea el almacén en un archivo concreto
+     * @param ruta Archivo del almacén
+     * @throws IOException Si no se puede abrir, no es un almacén o está en uso por otro proceso
+     */
+    public AlmacenEstadisticas(Path ruta) throws IOException {
+        this.ruta = ruta;
+        this.bloqueoTabla = new ReentrantReadWriteLock();
+        this.bloqueoInsercion = new ReentrantLock();
+        this.franjas = new ReentrantLock[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        
+        Path directorio = ruta.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        abrir(ruta);
+        if (canal.size() == 0) {
+            capacidad = CAPACIDAD_INICIAL;
+            ocupados = 0;
+            canal.write(ByteBuffer.allocate(TAMAÑO_REGISTRO), TAMAÑO_CABECERA + (long) capacidad * TAMAÑO_REGISTRO
+                    - TAMAÑO_REGISTRO);
+            escribirCabecera();
+        } else {
+            leerCabecera();
+        }
+    }
+    
+    /**
+     * Abre el canal y bloquea el archivo frente a otros procesos
+     */
+    private void abrir(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        bloqueoArchivo = canal.tryLock();
+        if (bloqueoArchivo == null) {
+            canal.close();
+            throw new IOException("El almacén de estadísticas está en uso por otro proceso: " + archivo);
+        }
+    }
+    
+    private void leerCabecera() throws IOException {
+        ByteBuffer cabecera = leer(0);
+        if (cabecera.getInt(0) != MAGICO || cabecera.getInt(4) != VERSION) {
+            close();
+            throw new IOException("El archivo no es un almacén de estadísticas válido: " + ruta);
+        }
+        capacidad = cabecera.getInt(8);
+        ocupados = cabecera.getInt(12);
+    }
+    
+    private void escribirCabecera() throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMAÑO_CABECERA);
+        cabecera.putInt(0, MAGICO);
+        cabecera.putInt(4, VERSION);
+        cabecera.putInt(8, capacidad);
+        cabecera.putInt(12, ocupados);
+        escribir(cabecera, 0);
+    }
+    
+    /**
+     * Obtiene las estadísticas de un jugador
+     * @param nombre Nombre del jugador
+     * @return Jugador con sus estadísticas, o null si no está en el almacén
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public Jugador obtener(String nombre) throws IOException {
+        byte[] bytes = codificar(nombre);
+        long hash = hash(bytes);
+        bloqueoTabla.readLock().lock();
+        try {
+            int ranura = buscar(bytes, hash);
+            if (ranura < 0) {
+                return null;
+            }
+            ReentrantLock franja = franja(ranura);
+            franja.lock();
+            try {
+                ByteBuffer registro = leer(posicion(ranura));
+                return new Jugador(nombre, registro.getInt(POS_JUGADAS), registro.getInt(POS_GANADAS),
+                                   registro.getInt(POS_PERDIDAS));
+            } finally {
+                franja.unlock();
+            }
+        } finally {
+            bloqueoTabla.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Registra una partida ganada, creando al jugador si no existe
+     * @param nombre Nombre del jugador
+     * @return Jugador con las estadísticas ya actualizadas
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public Jugador registrarVictoria(String nombre) throws IOException {
+        return registrarPartida(nombre, true);
+    }
+    
+    /**
+     * Registra una partida perdida, creando al jugador si no existe
+     * @param nombre Nombre del jugador
+     * @return Jugador con las estadísticas ya actualizadas
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public Jugador registrarDerrota(String nombre) throws IOException {
+        return registrarPartida(nombre, false);
+    }
+    
+    /**
+     * Incrementa los contadores de un jugador con una sola escritura del registro
+     * El bloqueo de franja serializa las actualizaciones del mismo jugador
+     */
+    private Jugador registrarPartida(String nombre, boolean victoria) throws IOException {
+        byte[] bytes = codificar(nombre);
+        long hash = hash(bytes);
+        
+        while (true) {
+            bloqueoTabla.readLock().lock();
+            try {
+                int ranura = buscar(bytes, hash);
+                if (ranura >= 0) {
+                    ReentrantLock franja = franja(ranura);
+                    franja.lock();
+                    try {
+                        long posicion = posicion(ranura);
+                        ByteBuffer registro = leer(posicion);
+                        registro.putInt(POS_JUGADAS, registro.getInt(POS_JUGADAS) + 1);
+                        if (victoria) {
+                            registro.putInt(POS_GANADAS, registro.getInt(POS_GANADAS) + 1);
+                        } else {
+                            registro.putInt(POS_PERDIDAS, registro.getInt(POS_PERDIDAS) + 1);
+                        }
+                        registro.putLong(POS_ACTUALIZADO, System.currentTimeMillis());
+                        escribir(registro, posicion);
+                        return new Jugador(nombre, registro.getInt(POS_JUGADAS), registro.getInt(POS_GANADAS),
+                                           registro.getInt(POS_PERDIDAS));
+                    } finally {
+                        franja.unlock();
+                    }
+                }
+            } finally {
+                bloqueoTabla.readLock().unlock();
+            }
+            
+            // Jugador nuevo: insertarlo vacío y volver a buscarlo, por si la tabla se amplió
+            insertar(bytes, hash);
+        }
+    }
+    
+    /**
+     * Inserta un registro vacío para el jugador si todavía no existe
+     * Las inserciones se serializan entre sí para que dos nombres no ocupen la misma ranura
+     */
+    private void insertar(byte[] bytes, long hash) throws IOException {
+        if (ocupadosTrasInsertar() > getCapacidad() * OCUPACION_MAXIMA) {
+            ampliar();
+        }
+        
+        bloqueoTabla.readLock().lock();
+        bloqueoInsercion.lock();
+        try {
+            int ranura = (int) (hash & (capacidad - 1));
+            while (true) {
+                ByteBuffer registro = leer(posicion(ranura));
+                if (registro.get(POS_ESTADO) == LIBRE) {
+                    escribir(registroNuevo(bytes, hash), posicion(ranura));
+                    ocupados++;
+                    escribirCabecera();
+                    return;
+                }
+                if (coincide(registro, bytes, hash)) {
+                    return; // Otra sesión lo insertó mientras tanto
+                }
+                ranura = (ranura + 1) & (capacidad - 1);
+            }
+        } finally {
+            bloqueoInsercion.unlock();
+            bloqueoTabla.readLock().unlock();
+        }
+    }
+    
+    private int ocupadosTrasInsertar() {
+        bloqueoInsercion.lock();
+        try {
+            return ocupados + 1;
+        } finally {
+            bloqueoInsercion.unlock();
+        }
+    }
+    
+    /**
+     * Busca la ranura de un jugador por sondeo lineal desde la ranura de su hash
+     * @return Ranura del jugador o -1 si no existe
+     */
+    private int buscar(byte[] bytes, long hash) throws IOException {
+        int ranura = (int) (hash & (capacidad - 1));
+        while (true) {
+            ByteBuffer registro = leer(posicion(ranura));
+            if (registro.get(POS_ESTADO) == LIBRE) {
+                return -1;
+            }
+            if (coincide(registro, bytes, hash)) {
+                return ranura;
+            }
+            ranura = (ranura + 1) & (capacidad - 1);
+        }
+    }
+    
+    private static boolean coincide(ByteBuffer registro, byte[] bytes, long hash) {
+        if (registro.get(POS_ESTADO) != OCUPADO || registro.getLong(POS_HASH) != hash
+                || registro.get(POS_LONGITUD) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (registro.get(POS_NOMBRE + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static ByteBuffer registroNuevo(byte[] bytes, long hash) {
+        ByteBuffer registro = ByteBuffer.allocate(TAMAÑO_REGISTRO);
+        registro.put(POS_ESTADO, OCUPADO);
+        registro.put(POS_LONGITUD, (byte) bytes.length);
+        registro.putLong(POS_HASH, hash);
+        registro.putLong(POS_ACTUALIZADO, System.currentTimeMillis());
+        for (int i = 0; i < bytes.length; i++) {
+            registro.put(POS_NOMBRE + i, bytes[i]);
+        }
+        return registro;
+    }
+    
+    /**
+     * Duplica la tabla: reubica los registros en un archivo nuevo y lo intercambia
+     * con el actual mediante un renombrado atómico
+     */
+    private void ampliar() throws IOException {
+        bloqueoTabla.writeLock().lock();
+        try {
+            if (ocupados + 1 <= capacidad * OCUPACION_MAXIMA) {
+                return; // Otra sesión ya amplió la tabla
+            }
+            int nuevaCapacidad = capacidad * 2;
+            Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+            
+            try (FileChannel destino = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                destino.write(ByteBuffer.allocate(TAMAÑO_REGISTRO),
+                        TAMAÑO_CABECERA + (long) nuevaCapacidad * TAMAÑO_REGISTRO - TAMAÑO_REGISTRO);
+                ByteBuffer vacio = ByteBuffer.allocate(TAMAÑO_REGISTRO);
+                
+                for (int ranura = 0; ranura < capacidad; ranura++) {
+                    ByteBuffer registro = leer(posicion(ranura));
+                    if (registro.get(POS_ESTADO) != OCUPADO) {
+                        continue;
+                    }
+                    int nueva = (int) (registro.getLong(POS_HASH) & (nuevaCapacidad - 1));
+                    while (true) {
+                        vacio.clear();
+                        leerCompleto(destino, vacio, TAMAÑO_CABECERA + (long) nueva * TAMAÑO_REGISTRO);
+                        if (vacio.get(POS_ESTADO) == LIBRE) {
+                            break;
+                        }
+                        nueva = (nueva + 1) & (nuevaCapacidad - 1);
+                    }
+                    registro.clear();
+                    escribirCompleto(destino, registro, TAMAÑO_CABECERA + (long) nueva * TAMAÑO_REGISTRO);
+                }
+                
+                ByteBuffer cabecera = ByteBuffer.allocate(TAMAÑO_CABECERA);
+                cabecera.putInt(0, MAGICO);
+                cabecera.putInt(4, VERSION);
+                cabecera.putInt(8, nuevaCapacidad);
+                cabecera.putInt(12, ocupados);
+                escribirCompleto(destino, cabecera, 0);
+                destino.force(true);
+            }
+            
+            bloqueoArchivo.release();
+            canal.close();
+            Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            abrir(ruta);
+            capacidad = nuevaCapacidad;
+        } finally {
+            bloqueoTabla.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Número de jugadores guardados
+     */
+    public int getNumeroJugadores() {
+        bloqueoInsercion.lock();
+        try {
+            return ocupados;
+        } finally {
+            bloqueoInsercion.unlock();
+        }
+    }
+    
+    /**
+     * Número de ranuras de la tabla
+     */
+    public int getCapacidad() {
+        bloqueoTabla.readLock().lock();
+        try {
+            return capacidad;
+        } finally {
+            bloqueoTabla.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Fuerza la escritura a disco de las actualizaciones pendientes
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public void sincronizar() throws IOException {
+        canal.force(false);
+    }
+    
+    /**
+     * Cierra el almacén y libera el bloqueo del archivo
+     */
+    @Override
+    public void close() throws IOException {
+        bloqueoTabla.writeLock().lock();
+        try {
+            if (canal.isOpen()) {
+                canal.force(true);
+                bloqueoArchivo.release();
+                canal.close();
+            }
+        } finally {
+            bloqueoTabla.writeLock().unlock();
+        }
+    }
+    
+    private ReentrantLock franja(int ranura) {
+        return franjas[ranura & (FRANJAS - 1)];
+    }
+    
+    private static long posicion(int ranura) {
+        return TAMAÑO_CABECERA + (long) ranura * TAMAÑO_REGISTRO;
+    }
+    
+    private ByteBuffer leer(long posicion) throws IOException {
+        ByteBuffer registro = ByteBuffer.allocate(TAMAÑO_REGISTRO);
+        leerCompleto(canal, registro, posicion);
+        return registro;
+    }
+    
+    private void escribir(ByteBuffer registro, long posicion) throws IOException {
+        registro.clear();
+        escribirCompleto(canal, registro, posicion);
+    }
+    
+    private static void leerCompleto(FileChannel canal, ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicion + destino.position()) < 0) {
+                break; // Más allá del final: el resto queda a cero, como una ranura libre
+            }
+        }
+    }
+    
+    private static void escribirCompleto(FileChannel canal, ByteBuffer origen, long posicion) throws IOException {
+        while (origen.hasRemaining()) {
+            canal.write(origen, posicion + origen.position());
+        }
+    }
+    
+    /**
+     * Codifica el nombre en UTF-8 y comprueba que quepa en el registro
+     */
+    private static byte[] codificar(String nombre) {
+        byte[] bytes = nombre.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > LONGITUD_MAXIMA_NOMBRE) {
+            throw new IllegalArgumentException("El nombre debe tener entre 1 y " + LONGITUD_MAXIMA_NOMBRE + " bytes");
+        }
+        return bytes;
+    }
+    
+    /**
+     * Hash FNV-1a de 64 bits, mezclado para repartir bien los bits bajos
+     */
+    private static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
\ No newline at end of file
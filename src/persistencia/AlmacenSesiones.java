@@ -0,0 +1,870 @@
+package persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import metricas.MetricasJuego;
+import modelo.Jugador;
+import modelo.Tablero;
+
+/**
+ * Almacén clave-valor de partidas por sesión o por jugador, para servidores con miles
+ * de sesiones que guardan a menudo
+ * 
+ * Cada guardado se añade al final del segmento activo (segmento-N.log) como un registro
+ * con CRC, sin reescribir nada; borrar añade una lápida. En memoria solo hay un índice
+ * hash de clave a segmento y posición, así que leer es una única lectura del disco.
+ * Cuando el segmento activo llega a su tamaño máximo se cierra y se escribe su archivo
+ * de pistas (segmento-N.pista): clave, posición y longitud de cada registro, sin valores.
+ * 
+ * Los registros reemplazados o borrados se cuentan por segmento. Cuando son más de la
+ * mitad de los segmentos cerrados, un hilo en segundo plano copia los registros vivos a
+ * un segmento compactado que toma el número del último segmento copiado y borra los
+ * anteriores. Al abrir, los segmentos con pistas válidas se cargan desde ellas y solo se
+ * recorre entero el que no llegó a cerrarse, truncando un registro final a medio escribir.
+ * 
+ * El directorio se bloquea al abrirlo: las sesiones de un servidor comparten una misma
+ * instancia, que admite lecturas y escrituras concurrentes
+ */
+public class AlmacenSesiones implements Closeable {
+    private static final String ARCHIVO_BLOQUEO = "almacen.lock";
+    private static final String PREFIJO = "segmento-";
+    private static final String EXTENSION_SEGMENTO = ".log";
+    private static final String EXTENSION_PISTA = ".pista";
+    private static final String EXTENSION_TEMPORAL = ".tmp";
+    private static final int MAGICO_SEGMENTO = 0x42534D53;
+    private static final int MAGICO_PISTA = 0x42534D50;
+    private static final int VERSION = 1;
+    private static final int COMPACTADO = 1;
+    private static final int CABECERA_SEGMENTO = 20;
+    private static final int CABECERA_PISTA = 24;
+    private static final int CABECERA_REGISTRO = 12;
+    private static final int BORRADO = -1;
+    public static final int LONGITUD_MAXIMA_CLAVE = 1024;
+    public static final long TAMAÑO_SEGMENTO_POR_DEFECTO = 64L << 20;
+    private static final double FRACCION_COMPACTACION = 0.5;
+    
+    /**
+     * Archivo de registros; solo el activo crece
+     */
+    private static final class Segmento {
+        final long id;
+        final FileChannel canal;
+        final long generacion;
+        final boolean compactado;
+        long tamaño;
+        // Bytes de registros reemplazados, borrados o lápidas
+        long obsoletos;
+        
+        Segmento(long id, FileChannel canal, long generacion, boolean compactado, long tamaño) {
+            this.id = id;
+            this.canal = canal;
+            this.generacion = generacion;
+            this.compactado = compactado;
+            this.tamaño = tamaño;
+        }
+    }
+    
+    /**
+     * Posición del último registro de una clave
+     */
+    private static final class Entrada {
+        final Segmento segmento;
+        final long posicion;
+        final int longitud;
+        
+        Entrada(Segmento segmento, long posicion, int longitud) {
+            this.segmento = segmento;
+            this.posicion = posicion;
+            this.longitud = longitud;
+        }
+    }
+    
+    /**
+     * Recibe los registros de un segmento en orden
+     */
+    private interface VisitanteRegistro {
+        void visitar(String clave, boolean borrado, long posicion, byte[] registro) throws IOException;
+    }
+    
+    private final Path directorio;
+    private final long tamañoMaximoSegmento;
+    private final ConcurrentHashMap<String, Entrada> indice;
+    private final List<Segmento> cerrados;
+    private final Random generaciones;
+    private final FileChannel canalBloqueo;
+    private final FileLock bloqueoDirectorio;
+    // Escrituras y cambios de segmentos; lecturas frente al cambio de segmentos al compactar
+    private final ReentrantLock bloqueoEscritura;
+    private final ReentrantReadWriteLock bloqueoSegmentos;
+    private final ReentrantLock bloqueoCompactacion;
+    private final AtomicBoolean compactando;
+    private final ExecutorService compactador;
+    private Segmento activo;
+    private ByteArrayOutputStream pistaActiva;
+    private DataOutputStream escritorPista;
+    private int segmentosRecorridos;
+    private volatile boolean cerrado;
+    
+    /**
+     * Abre o crea el almacén en el directorio de guardado por defecto
+     * @throws IOException Si no se puede abrir o ya está abierto
+     */
+    public AlmacenSesiones() throws IOException {
+        this(Paths.get("guardados", "sesiones"));
+    }
+    
+    /**
+     * Abre o crea el almacén en un directorio con segmentos de 64 MB
+     * @param directorio Directorio de los segmentos
+     * @throws IOException Si no se puede abrir, hay un segmento dañado o ya está abierto
+     */
+    public AlmacenSesiones(Path directorio) throws IOException {
+        this(directorio, TAMAÑO_SEGMENTO_POR_DEFECTO);
+    }
+    
+    /**
+     * Abre o crea el almacén en un directorio
+     * @param directorio Directorio de los segmentos
+     * @param tamañoMaximoSegmento Bytes a partir de los cuales se cierra el segmento activo
+     * @throws IOException Si no se puede abrir, hay un segmento dañado o ya está abierto
+     */
+    public AlmacenSesiones(Path directorio, long tamañoMaximoSegmento) throws IOException {
+        if (tamañoMaximoSegmento <= CABECERA_SEGMENTO) {
+            throw new IllegalArgumentException("El tamaño máximo de segmento es demasiado pequeño");
+        }
+        this.directorio = directorio;
+        this.tamañoMaximoSegmento = tamañoMaximoSegmento;
+        this.indice = new ConcurrentHashMap<>();
+        this.cerrados = new ArrayList<>();
+        this.generaciones = new Random();
+        this.bloqueoEscritura = new ReentrantLock();
+        this.bloqueoSegmentos = new ReentrantReadWriteLock();
+        this.bloqueoCompactacion = new ReentrantLock();
+        this.compactando = new AtomicBoolean();
+        this.compactador = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "compactador-sesiones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        
+        Files.createDirectories(directorio);
+        canalBloqueo = FileChannel.open(directorio.resolve(ARCHIVO_BLOQUEO), StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE);
+        FileLock bloqueo;
+        try {
+            bloqueo = canalBloqueo.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Otra instancia de esta misma JVM ya tiene el directorio
+            bloqueo = null;
+        }
+        bloqueoDirectorio = bloqueo;
+        if (bloqueoDirectorio == null) {
+            canalBloqueo.close();
+            compactador.shutdown();
+            throw new IOException("El almacén de sesiones está en uso: " + directorio);
+        }
+        try {
+            recuperar();
+        } catch (IOException | RuntimeException e) {
+            liberar();
+            throw e;
+        }
+    }
+    
+    /**
+     * Carga el índice desde las pistas (o recorriendo los segmentos que no tienen) y abre
+     * un segmento activo nuevo
+     */
+    private void recuperar() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.endsWith(EXTENSION_TEMPORAL)) {
+                    // Compactación interrumpida: los segmentos originales siguen intactos
+                    Files.delete(archivo);
+                } else if (nombre.startsWith(PREFIJO) && nombre.endsWith(EXTENSION_SEGMENTO)) {
+                    ids.add(Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION_SEGMENTO.length())));
+                }
+            }
+        }
+        ids.sort(null);
+        
+        List<Segmento> segmentos = new ArrayList<>();
+        for (long id : ids) {
+            segmentos.add(abrirSegmento(id));
+        }
+        // Una compactación que llegó a renombrar su resultado sustituye a todos los anteriores
+        int ultimoCompactado = -1;
+        for (int i = 0; i < segmentos.size(); i++) {
+            if (segmentos.get(i).compactado) {
+                ultimoCompactado = i;
+            }
+        }
+        for (int i = 0; i < ultimoCompactado; i++) {
+            borrarSegmento(segmentos.get(i));
+        }
+        segmentos = new ArrayList<>(segmentos.subList(Math.max(ultimoCompactado, 0), segmentos.size()));
+        
+        for (Segmento segmento : segmentos) {
+            if (segmento.tamaño == CABECERA_SEGMENTO) {
+                borrarSegmento(segmento);
+                continue;
+            }
+            if (!cargarPista(segmento)) {
+                recorrerParaIndice(segmento);
+                segmentosRecorridos++;
+            }
+            cerrados.add(segmento);
+        }
+        
+        long siguiente = ids.isEmpty() ? 1 : ids.get(ids.size() - 1) + 1;
+        activo = crearSegmento(rutaSegmento(siguiente), siguiente, false);
+        reiniciarPistaActiva();
+    }
+    
+    /**
+     * Obtiene el valor guardado con una clave
+     * @param clave Sesión o jugador
+     * @return Valor guardado, o null si la clave no existe
+     * @throws IOException Si ocurre un error de E/S o el registro está dañado
+     */
+    public byte[] obtener(String clave) throws IOException {
+        bloqueoSegmentos.readLock().lock();
+        try {
+            comprobarAbierto();
+            Entrada entrada = indice.get(clave);
+            if (entrada == null) {
+                return null;
+            }
+            ByteBuffer registro = ByteBuffer.allocate(entrada.longitud);
+            leerCompleto(entrada.segmento.canal, registro, entrada.posicion);
+            byte[] bytes = registro.array();
+            if (!registroValido(bytes, 0, bytes.length)) {
+                throw new IOException("Registro dañado para la clave " + clave + " en el segmento " + entrada.segmento.id);
+            }
+            int longitudClave = registro.getInt(4);
+            int longitudValor = registro.getInt(8);
+            byte[] valor = new byte[longitudValor];
+            System.arraycopy(bytes, CABECERA_REGISTRO + longitudClave, valor, 0, longitudValor);
+            return valor;
+        } finally {
+            bloqueoSegmentos.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Guarda un valor con una clave, sustituyendo el anterior
+     * @param clave Sesión o jugador
+     * @param valor Bytes a guardar
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public void guardar(String clave, byte[] valor) throws IOException {
+        if (valor == null) {
+            throw new IllegalArgumentException("El valor no puede ser nulo");
+        }
+        añadir(clave, valor);
+    }
+    
+    /**
+     * Borra una clave añadiendo una lápida
+     * @param clave Sesión o jugador
+     * @return true si la clave existía
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public boolean eliminar(String clave) throws IOException {
+        if (!indice.containsKey(clave)) {
+            return false;
+        }
+        return añadir(clave, null);
+    }
+    
+    /**
+     * Añade un registro (o una lápida si el valor es null) al segmento activo y actualiza el índice
+     * @return true si la clave existía antes
+     */
+    private boolean añadir(String clave, byte[] valor) throws IOException {
+        byte[] bytesClave = codificar(clave);
+        ByteBuffer registro = registro(bytesClave, valor);
+        int longitud = registro.remaining();
+        bloqueoEscritura.lock();
+        try {
+            comprobarAbierto();
+            if (activo.tamaño > CABECERA_SEGMENTO && activo.tamaño + longitud > tamañoMaximoSegmento) {
+                rotar();
+            }
+            long posicion = activo.tamaño;
+            escribirCompleto(activo.canal, registro, posicion);
+            activo.tamaño += longitud;
+            anotarPista(escritorPista, bytesClave, posicion, valor == null ? -longitud : longitud);
+            
+            Entrada anterior;
+            if (valor == null) {
+                anterior = indice.remove(clave);
+                activo.obsoletos += longitud;
+            } else {
+                anterior = indice.put(clave, new Entrada(activo, posicion, longitud));
+            }
+            if (anterior != null) {
+                anterior.segmento.obsoletos += anterior.longitud;
+            }
+            return anterior != null;
+        } finally {
+            bloqueoEscritura.unlock();
+        }
+    }
+    
+    /**
+     * Guarda la partida de una sesión (tablero y jugador serializados)
+     * @param sesion Clave de la sesión o del jugador
+     * @param tablero El tablero a guardar
+     * @param jugador El jugador a guardar
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public void guardarPartida(String sesion, Tablero tablero, Jugador jugador) throws IOException {
+        long inicio = System.nanoTime();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeLong(System.currentTimeMillis());
+            oos.writeObject(tablero);
+            oos.writeObject(jugador);
+        }
+        guardar(sesion, bytes.toByteArray());
+        MetricasJuego.getInstancia().registrarGuardado(System.nanoTime() - inicio, bytes.size());
+    }
+    
+    /**
+     * Carga la partida de una sesión
+     * @param sesion Clave de la sesión o del jugador
+     * @return Array con [Tablero, Jugador] o null si la sesión no tiene partida
+     * @throws IOException Si ocurre un error de E/S o no se puede deserializar
+     */
+    public Object[] cargarPartida(String sesion) throws IOException {
+        long inicio = System.nanoTime();
+        byte[] bytes = obtener(sesion);
+        if (bytes == null) {
+            return null;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            ois.readLong();
+            Tablero tablero = (Tablero) ois.readObject();
+            Jugador jugador = (Jugador) ois.readObject();
+            MetricasJuego.getInstancia().registrarCarga(System.nanoTime() - inicio, bytes.length);
+            return new Object[]{tablero, jugador};
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Error al cargar la partida de " + sesion + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Cierra el segmento activo con sus pistas, abre otro y lanza una compactación si
+     * los segmentos cerrados tienen demasiados registros obsoletos
+     */
+    private void rotar() throws IOException {
+        cerrarActivo();
+        cerrados.add(activo);
+        long siguiente = activo.id + 1;
+        activo = crearSegmento(rutaSegmento(siguiente), siguiente, false);
+        reiniciarPistaActiva();
+        
+        long total = 0;
+        long obsoletos = 0;
+        for (Segmento segmento : cerrados) {
+            total += segmento.tamaño;
+            obsoletos += segmento.obsoletos;
+        }
+        if (obsoletos > total * FRACCION_COMPACTACION && compactando.compareAndSet(false, true)) {
+            compactador.execute(() -> {
+                try {
+                    compactar();
+                } catch (IOException e) {
+                    System.err.println("Error al compactar el almacén de sesiones: " + e.getMessage());
+                } finally {
+                    compactando.set(false);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Copia los registros vivos de todos los segmentos cerrados a un segmento compactado
+     * y borra los originales. Las escrituras siguen en el segmento activo mientras se
+     * copia; solo se detienen al sustituir los segmentos y actualizar el índice
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public void compactar() throws IOException {
+        bloqueoCompactacion.lock();
+        try {
+            List<Segmento> origen;
+            long obsoletos = 0;
+            bloqueoEscritura.lock();
+            try {
+                comprobarAbierto();
+                origen = new ArrayList<>(cerrados);
+                for (Segmento segmento : origen) {
+                    obsoletos += segmento.obsoletos;
+                }
+            } finally {
+                bloqueoEscritura.unlock();
+            }
+            if (origen.isEmpty() || obsoletos == 0) {
+                return;
+            }
+            
+            // El resultado toma el número del último segmento copiado
+            long id = origen.get(origen.size() - 1).id;
+            Path temporal = directorio.resolve(PREFIJO + id + EXTENSION_SEGMENTO + EXTENSION_TEMPORAL);
+            Path pistaTemporal = directorio.resolve(PREFIJO + id + EXTENSION_PISTA + EXTENSION_TEMPORAL);
+            Segmento destino = crearSegmento(temporal, id, true);
+            List<String> claves = new ArrayList<>();
+            List<Entrada> anteriores = new ArrayList<>();
+            List<Entrada> nuevas = new ArrayList<>();
+            ByteArrayOutputStream pista = new ByteArrayOutputStream();
+            DataOutputStream escritor = new DataOutputStream(pista);
+            try {
+                for (Segmento segmento : origen) {
+                    recorrer(segmento, false, (clave, borrado, posicion, registro) -> {
+                        Entrada actual = indice.get(clave);
+                        if (borrado || actual == null || actual.segmento != segmento || actual.posicion != posicion) {
+                            return;
+                        }
+                        long nuevaPosicion = destino.tamaño;
+                        escribirCompleto(destino.canal, ByteBuffer.wrap(registro), nuevaPosicion);
+                        destino.tamaño += registro.length;
+                        anotarPista(escritor, codificar(clave), nuevaPosicion, registro.length);
+                        claves.add(clave);
+                        anteriores.add(actual);
+                        nuevas.add(new Entrada(destino, nuevaPosicion, registro.length));
+                    });
+                }
+                destino.canal.force(true);
+                escribirPista(pistaTemporal, destino, pista.toByteArray());
+            } catch (IOException | RuntimeException e) {
+                destino.canal.close();
+                Files.deleteIfExists(temporal);
+                Files.deleteIfExists(pistaTemporal);
+                throw e;
+            }
+            
+            bloqueoEscritura.lock();
+            bloqueoSegmentos.writeLock().lock();
+            try {
+                // Primero el segmento: una pista vieja con otra generación se ignora al abrir
+                Files.move(temporal, rutaSegmento(id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(pistaTemporal, rutaPista(id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                for (int i = 0; i < claves.size(); i++) {
+                    // Las claves reescritas o borradas mientras se copiaba conservan su entrada
+                    if (!indice.replace(claves.get(i), anteriores.get(i), nuevas.get(i))) {
+                        destino.obsoletos += nuevas.get(i).longitud;
+                    }
+                }
+                for (Segmento segmento : origen) {
+                    segmento.canal.close();
+                    if (segmento.id != id) {
+                        Files.deleteIfExists(rutaSegmento(segmento.id));
+                        Files.deleteIfExists(rutaPista(segmento.id));
+                    }
+                }
+                cerrados.removeAll(origen);
+                cerrados.add(0, destino);
+            } finally {
+                bloqueoSegmentos.writeLock().unlock();
+                bloqueoEscritura.unlock();
+            }
+        } finally {
+            bloqueoCompactacion.unlock();
+        }
+    }
+    
+    /**
+     * Fuerza a disco los registros del segmento activo
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public void sincronizar() throws IOException {
+        bloqueoEscritura.lock();
+        try {
+            comprobarAbierto();
+            activo.canal.force(false);
+        } finally {
+            bloqueoEscritura.unlock();
+        }
+    }
+    
+    public boolean contiene(String clave) {
+        return indice.containsKey(clave);
+    }
+    
+    public int getNumeroClaves() {
+        return indice.size();
+    }
+    
+    /**
+     * Obtiene el número de segmentos, incluido el activo
+     */
+    public int getNumeroSegmentos() {
+        bloqueoEscritura.lock();
+        try {
+            return cerrados.size() + 1;
+        } finally {
+            bloqueoEscritura.unlock();
+        }
+    }
+    
+    /**
+     * Obtiene los bytes de registros reemplazados, borrados y lápidas que aún ocupan disco
+     */
+    public long getBytesObsoletos() {
+        bloqueoEscritura.lock();
+        try {
+            long obsoletos = activo.obsoletos;
+            for (Segmento segmento : cerrados) {
+                obsoletos += segmento.obsoletos;
+            }
+            return obsoletos;
+        } finally {
+            bloqueoEscritura.unlock();
+        }
+    }
+    
+    /**
+     * Obtiene cuántos segmentos hubo que recorrer enteros al abrir por no tener pistas válidas
+     */
+    public int getSegmentosRecorridos() {
+        return segmentosRecorridos;
+    }
+    
+    /**
+     * Espera a la compactación en curso, guarda las pistas del segmento activo y libera el directorio
+     * @throws IOException Si ocurre un error de E/S
+     */
+    @Override
+    public void close() throws IOException {
+        if (cerrado) {
+            return;
+        }
+        compactador.shutdown();
+        try {
+            compactador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        bloqueoEscritura.lock();
+        bloqueoSegmentos.writeLock().lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            if (activo.tamaño == CABECERA_SEGMENTO) {
+                borrarSegmento(activo);
+            } else {
+                cerrarActivo();
+                activo.canal.close();
+            }
+            for (Segmento segmento : cerrados) {
+                segmento.canal.close();
+            }
+        } finally {
+            bloqueoSegmentos.writeLock().unlock();
+            bloqueoEscritura.unlock();
+            liberar();
+        }
+    }
+    
+    private void liberar() throws IOException {
+        compactador.shutdownNow();
+        if (bloqueoDirectorio.isValid()) {
+            bloqueoDirectorio.release();
+        }
+        canalBloqueo.close();
+    }
+    
+    private void comprobarAbierto() throws IOException {
+        if (cerrado) {
+            throw new IOException("El almacén de sesiones está cerrado");
+        }
+    }
+    
+    private Path rutaSegmento(long id) {
+        return directorio.resolve(PREFIJO + id + EXTENSION_SEGMENTO);
+    }
+    
+    private Path rutaPista(long id) {
+        return directorio.resolve(PREFIJO + id + EXTENSION_PISTA);
+    }
+    
+    /**
+     * Crea un segmento vacío con su cabecera y una generación nueva
+     */
+    private Segmento crearSegmento(Path ruta, long id, boolean compactado) throws IOException {
+        FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                             StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long generacion = generaciones.nextLong();
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_SEGMENTO);
+        cabecera.putInt(0, MAGICO_SEGMENTO);
+        cabecera.putInt(4, VERSION);
+        cabecera.putInt(8, compactado ? COMPACTADO : 0);
+        cabecera.putLong(12, generacion);
+        escribirCompleto(canal, cabecera, 0);
+        return new Segmento(id, canal, generacion, compactado, CABECERA_SEGMENTO);
+    }
+    
+    private Segmento abrirSegmento(long id) throws IOException {
+        Path ruta = rutaSegmento(id);
+        FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_SEGMENTO);
+        if (canal.size() < CABECERA_SEGMENTO) {
+            // Segmento creado sin llegar a escribir la cabecera
+            return new Segmento(id, canal, 0, false, CABECERA_SEGMENTO);
+        }
+        leerCompleto(canal, cabecera, 0);
+        if (cabecera.getInt(0) != MAGICO_SEGMENTO || cabecera.getInt(4) != VERSION) {
+            canal.close();
+            throw new IOException("El archivo no es un segmento de sesiones válido: " + ruta);
+        }
+        return new Segmento(id, canal, cabecera.getLong(12), (cabecera.getInt(8) & COMPACTADO) != 0, canal.size());
+    }
+    
+    private void borrarSegmento(Segmento segmento) throws IOException {
+        segmento.canal.close();
+        Files.deleteIfExists(rutaSegmento(segmento.id));
+        Files.deleteIfExists(rutaPista(segmento.id));
+    }
+    
+    /**
+     * Escribe las pistas del segmento activo y lo deja en disco
+     */
+    private void cerrarActivo() throws IOException {
+        activo.canal.force(true);
+        escritorPista.flush();
+        Path temporal = directorio.resolve(PREFIJO + activo.id + EXTENSION_PISTA + EXTENSION_TEMPORAL);
+        escribirPista(temporal, activo, pistaActiva.toByteArray());
+        Files.move(temporal, rutaPista(activo.id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private void reiniciarPistaActiva() {
+        pistaActiva = new ByteArrayOutputStream();
+        escritorPista = new DataOutputStream(pistaActiva);
+    }
+    
+    /**
+     * Escribe un archivo de pistas con la generación y el tamaño del segmento al que
+     * corresponde: si el segmento cambia, la pista deja de valer
+     */
+    private static void escribirPista(Path ruta, Segmento segmento, byte[] entradas) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                  StandardOpenOption.WRITE)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_PISTA);
+            cabecera.putInt(0, MAGICO_PISTA);
+            cabecera.putInt(4, VERSION);
+            cabecera.putLong(8, segmento.generacion);
+            cabecera.putLong(16, segmento.tamaño);
+            escribirCompleto(canal, cabecera, 0);
+            escribirCompleto(canal, ByteBuffer.wrap(entradas), CABECERA_PISTA);
+            canal.force(true);
+        }
+    }
+    
+    /**
+     * Entrada de pista: clave, posición y longitud del registro (negativa si es una lápida)
+     */
+    private static void anotarPista(DataOutputStream escritor, byte[] clave, long posicion, int longitud) throws IOException {
+        escritor.writeShort(clave.length);
+        escritor.write(clave);
+        escritor.writeLong(posicion);
+        escritor.writeInt(longitud);
+    }
+    
+    /**
+     * Carga las entradas de un segmento desde su archivo de pistas
+     * @return false si no hay pista o no corresponde al segmento actual
+     */
+    private boolean cargarPista(Segmento segmento) throws IOException {
+        Path ruta = rutaPista(segmento.id);
+        if (!Files.exists(ruta)) {
+            return false;
+        }
+        ByteBuffer pista = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        if (pista.remaining() < CABECERA_PISTA || pista.getInt(0) != MAGICO_PISTA || pista.getInt(4) != VERSION
+                || pista.getLong(8) != segmento.generacion || pista.getLong(16) != segmento.tamaño) {
+            return false;
+        }
+        pista.position(CABECERA_PISTA);
+        while (pista.hasRemaining()) {
+            byte[] clave = new byte[pista.getShort()];
+            pista.get(clave);
+            long posicion = pista.getLong();
+            int longitud = pista.getInt();
+            indexar(segmento, new String(clave, StandardCharsets.UTF_8), longitud < 0, posicion, Math.abs(longitud));
+        }
+        return true;
+    }
+    
+    /**
+     * Recorre un segmento sin pista para el índice y le escribe la pista
+     */
+    private void recorrerParaIndice(Segmento segmento) throws IOException {
+        ByteArrayOutputStream pista = new ByteArrayOutputStream();
+        DataOutputStream escritor = new DataOutputStream(pista);
+        recorrer(segmento, true, (clave, borrado, posicion, registro) -> {
+            indexar(segmento, clave, borrado, posicion, registro.length);
+            anotarPista(escritor, codificar(clave), posicion, borrado ? -registro.length : registro.length);
+        });
+        escribirPista(rutaPista(segmento.id), segmento, pista.toByteArray());
+    }
+    
+    /**
+     * Aplica un registro recuperado al índice; los segmentos se aplican del más antiguo al más nuevo
+     */
+    private void indexar(Segmento segmento, String clave, boolean borrado, long posicion, int longitud) {
+        Entrada anterior;
+        if (borrado) {
+            anterior = indice.remove(clave);
+            segmento.obsoletos += longitud;
+        } else {
+            anterior = indice.put(clave, new Entrada(segmento, posicion, longitud));
+        }
+        if (anterior != null) {
+            anterior.segmento.obsoletos += anterior.longitud;
+        }
+    }
+    
+    /**
+     * Lee en orden los registros de un segmento comprobando su CRC
+     * @param truncar true para cortar el segmento en el primer registro incompleto o dañado
+     *                (una escritura interrumpida); false para tratarlo como un error
+     */
+    private void recorrer(Segmento segmento, boolean truncar, VisitanteRegistro visitante) throws IOException {
+        long posicion = CABECERA_SEGMENTO;
+        long tamaño = segmento.canal.size();
+        try (InputStream archivo = Files.newInputStream(rutaSegmento(segmento.id));
+             DataInputStream entrada = new DataInputStream(new BufferedInputStream(archivo, 1 << 16))) {
+            entrada.skipBytes(CABECERA_SEGMENTO);
+            while (posicion < tamaño) {
+                byte[] registro = leerRegistro(entrada, tamaño - posicion);
+                if (registro == null) {
+                    break;
+                }
+                ByteBuffer cabecera = ByteBuffer.wrap(registro);
+                int longitudClave = cabecera.getInt(4);
+                String clave = new String(registro, CABECERA_REGISTRO, longitudClave, StandardCharsets.UTF_8);
+                visitante.visitar(clave, cabecera.getInt(8) == BORRADO, posicion, registro);
+                posicion += registro.length;
+            }
+        }
+        if (posicion < tamaño) {
+            if (!truncar) {
+                throw new IOException("Registro dañado en el segmento " + segmento.id + " en la posición " + posicion);
+            }
+            segmento.canal.truncate(posicion);
+            segmento.tamaño = posicion;
+        }
+    }
+    
+    /**
+     * Lee un registro completo
+     * @return Bytes del registro, o null si está incompleto o su CRC no coincide
+     */
+    private static byte[] leerRegistro(DataInputStream entrada, long restantes) throws IOException {
+        if (restantes < CABECERA_REGISTRO) {
+            return null;
+        }
+        int crc = entrada.readInt();
+        int longitudClave = entrada.readInt();
+        int longitudValor = entrada.readInt();
+        if (longitudClave < 1 || longitudClave > LONGITUD_MAXIMA_CLAVE || longitudValor < BORRADO
+                || CABECERA_REGISTRO + longitudClave + (long) Math.max(longitudValor, 0) > restantes) {
+            return null;
+        }
+        byte[] registro = new byte[CABECERA_REGISTRO + longitudClave + Math.max(longitudValor, 0)];
+        ByteBuffer.wrap(registro).putInt(crc).putInt(longitudClave).putInt(longitudValor);
+        try {
+            entrada.readFully(registro, CABECERA_REGISTRO, registro.length - CABECERA_REGISTRO);
+        } catch (EOFException e) {
+            return null;
+        }
+        return registroValido(registro, 0, registro.length) ? registro : null;
+    }
+    
+    /**
+     * Registro: CRC32 del resto, longitud de la clave, longitud del valor (-1 en una
+     * lápida), clave en UTF-8 y valor
+     */
+    private static ByteBuffer registro(byte[] clave, byte[] valor) {
+        int longitudValor = valor == null ? 0 : valor.length;
+        ByteBuffer registro = ByteBuffer.allocate(CABECERA_REGISTRO + clave.length + longitudValor);
+        registro.putInt(0);
+        registro.putInt(clave.length);
+        registro.putInt(valor == null ? BORRADO : valor.length);
+        registro.put(clave);
+        if (valor != null) {
+            registro.put(valor);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(registro.array(), 4, registro.capacity() - 4);
+        registro.putInt(0, (int) crc.getValue());
+        registro.flip();
+        return registro;
+    }
+    
+    private static boolean registroValido(byte[] registro, int inicio, int longitud) {
+        CRC32 crc = new CRC32();
+        crc.update(registro, inicio + 4, longitud - 4);
+        return ByteBuffer.wrap(registro, inicio, longitud).getInt() == (int) crc.getValue();
+    }
+    
+    private static byte[] codificar(String clave) {
+        byte[] bytes = clave.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > LONGITUD_MAXIMA_CLAVE) {
+            throw new IllegalArgumentException("La clave debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " bytes");
+        }
+        return bytes;
+    }
+    
+    private static void leerCompleto(FileChannel canal, ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicion + destino.position()) < 0) {
+                throw new EOFException("Fin de archivo inesperado en la posición " + posicion);
+            }
+        }
+    }
+    
+    private static void escribirCompleto(FileChannel canal, ByteBuffer origen, long posicion) throws IOException {
+        long escrito = 0;
+        while (origen.hasRemaining()) {
+            escrito += canal.write(origen, posicion + escrito);
+        }
+    }
+}
\ No newline at end of file
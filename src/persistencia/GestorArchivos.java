@@ -4,7 +4,13 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
+import eventos.EventoCarga;
+import eventos.EventoGuardado;
+import eventos.EventoLimpiezaTemporales;
+import metricas.MetricasJuego;
 import modelo.Jugador;
 import modelo.Tablero;
 
@@ -15,12 +21,24 @@ import modelo.Tablero;
 public class GestorArchivos {
     private static final String DIRECTORIO_GUARDADO = "guardados";
     private static final String ARCHIVO_JUEGO = "juego.dat";
-    private static final String RUTA_COMPLETA = DIRECTORIO_GUARDADO + File.separator + ARCHIVO_JUEGO;
+    
+    private final String directorioGuardado;
+    private final String rutaCompleta;
     
     /**
      * Constructor que asegura la existencia del directorio de guardado
      */
     public GestorArchivos() {
+        this(DIRECTORIO_GUARDADO);
+    }
+    
+    /**
+     * Constructor que guarda en un directorio distinto al predeterminado
+     * @param directorioGuardado Directorio donde se guarda el juego
+     */
+    public GestorArchivos(String directorioGuardado) {
+        this.directorioGuardado = directorioGuardado;
+        this.rutaCompleta = directorioGuardado + File.separator + ARCHIVO_JUEGO;
         crearDirectorioSiNoExiste();
     }
     
@@ -29,7 +47,7 @@ public class GestorArchivos {
      */
     private void crearDirectorioSiNoExiste() {
         try {
-            Path directorio = Paths.get(DIRECTORIO_GUARDADO);
+            Path directorio = Paths.get(directorioGuardado);
             if (!Files.exists(directorio)) {
                 Files.createDirectories(directorio);
             }
@@ -45,8 +63,11 @@ public class GestorArchivos {
      * @throws IOException Si ocurre un error de E/O
      */
     public void guardarJuego(Tablero tablero, Jugador jugador) throws IOException {
+        EventoGuardado evento = new EventoGuardado();
+        evento.begin();
+        long inicio = System.nanoTime();
         try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(RUTA_COMPLETA))) {
+                new FileOutputStream(rutaCompleta))) {
             
             // Guardar timestamp para verificar la validez del archivo
             oos.writeLong(System.currentTimeMillis());
@@ -61,6 +82,15 @@ public class GestorArchivos {
         } catch (IOException e) {
             throw new IOException("Error al guardar el juego: " + e.getMessage());
         }
+        long bytes = new File(rutaCompleta).length();
+        MetricasJuego.getInstancia().registrarGuardado(System.nanoTime() - inicio, bytes);
+        
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.ruta = rutaCompleta;
+            evento.bytes = bytes;
+            evento.commit();
+        }
     }
     
     /**
@@ -70,14 +100,17 @@ public class GestorArchivos {
      * @throws ClassNotFoundException Si no se puede deserializar la clase
      */
     public Object[] cargarJuego() throws IOException, ClassNotFoundException {
-        File archivo = new File(RUTA_COMPLETA);
+        File archivo = new File(rutaCompleta);
         
         if (!archivo.exists()) {
             return null;
         }
         
+        EventoCarga evento = new EventoCarga();
+        evento.begin();
+        long inicio = System.nanoTime();
         try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(RUTA_COMPLETA))) {
+                new FileInputStream(rutaCompleta))) {
             
             // Leer timestamp
             long timestamp = ois.readLong();
@@ -95,6 +128,13 @@ public class GestorArchivos {
             Tablero tablero = (Tablero) ois.readObject();
             Jugador jugador = (Jugador) ois.readObject();
             
+            MetricasJuego.getInstancia().registrarCarga(System.nanoTime() - inicio, archivo.length());
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.ruta = rutaCompleta;
+                evento.bytes = archivo.length();
+                evento.commit();
+            }
             return new Object[]{tablero, jugador};
             
         } catch (IOException | ClassNotFoundException e) {
@@ -107,7 +147,7 @@ public class GestorArchivos {
      * @return true si existe un archivo guardado, false en caso contrario
      */
     public boolean existeJuegoGuardado() {
-        return new File(RUTA_COMPLETA).exists();
+        return new File(rutaCompleta).exists();
     }
     
     /**
@@ -115,7 +155,7 @@ public class GestorArchivos {
      * @return true si se eliminó exitosamente, false en caso contrario
      */
     public boolean eliminarJuegoGuardado() {
-        File archivo = new File(RUTA_COMPLETA);
+        File archivo = new File(rutaCompleta);
         if (archivo.exists()) {
             return archivo.delete();
         }
@@ -127,43 +167,57 @@ public class GestorArchivos {
      * Implementa la funcionalidad requerida en la memoria
      */
     private void limpiarArchivosTemporales() {
+        EventoLimpiezaTemporales evento = new EventoLimpiezaTemporales();
+        evento.begin();
+        AtomicInteger eliminados = new AtomicInteger();
         try {
-            Path directorio = Paths.get(DIRECTORIO_GUARDADO);
+            Path directorio = Paths.get(directorioGuardado);
             if (Files.exists(directorio)) {
                 long horaActual = System.currentTimeMillis();
                 long unaHoraEnMillis = 60 * 60 * 1000;
                 
-                Files.list(directorio)
-                    .filter(path -> {
-                        try {
-                            String nombre = path.getFileName().toString().toLowerCase();
-                            // Buscar archivos temporales (xlsx, pdf, tmp, etc.)
-                            boolean esArchivoTemporal = nombre.endsWith(".xlsx") || 
-                                                     nombre.endsWith(".pdf") || 
-                                                     nombre.endsWith(".tmp") ||
-                                                     nombre.contains("temp");
-                            
-                            if (esArchivoTemporal) {
-                                long tiempoModificacion = Files.getLastModifiedTime(path).toMillis();
-                                return (horaActual - tiempoModificacion) > unaHoraEnMillis;
+                // El listado mantiene abierto el directorio hasta cerrarlo
+                try (Stream<Path> archivos = Files.list(directorio)) {
+                    archivos
+                        .filter(path -> {
+                            try {
+                                String nombre = path.getFileName().toString().toLowerCase();
+                                // Buscar archivos temporales (xlsx, pdf, tmp, etc.)
+                                boolean esArchivoTemporal = nombre.endsWith(".xlsx") || 
+                                                         nombre.endsWith(".pdf") || 
+                                                         nombre.endsWith(".tmp") ||
+                                                         nombre.contains("temp");
+                                
+                                if (esArchivoTemporal) {
+                                    long tiempoModificacion = Files.getLastModifiedTime(path).toMillis();
+                                    return (horaActual - tiempoModificacion) > unaHoraEnMillis;
+                                }
+                                return false;
+                            } catch (IOException e) {
+                                return false;
+                            }
+                        })
+                        .forEach(path -> {
+                            try {
+                                Files.deleteIfExists(path);
+                                eliminados.incrementAndGet();
+                                System.out.println("Archivo temporal eliminado: " + path.getFileName());
+                            } catch (IOException e) {
+                                System.err.println("Error al eliminar archivo temporal: " + e.getMessage());
                             }
-                            return false;
-                        } catch (IOException e) {
-                            return false;
-                        }
-                    })
-                    .forEach(path -> {
-                        try {
-                            Files.deleteIfExists(path);
-                            System.out.println("Archivo temporal eliminado: " + path.getFileName());
-                        } catch (IOException e) {
-                            System.err.println("Error al eliminar archivo temporal: " + e.getMessage());
-                        }
-                    });
+                        });
+                }
             }
         } catch (IOException e) {
             System.err.println("Error al limpiar archivos temporales: " + e.getMessage());
         }
+        
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.directorio = directorioGuardado;
+            evento.eliminados = eliminados.get();
+            evento.commit();
+        }
     }
     
     /**
@@ -171,7 +225,7 @@ public class GestorArchivos {
      * @return String con información del archivo o null si no existe
      */
     public String obtenerInfoArchivoGuardado() {
-        File archivo = new File(RUTA_COMPLETA);
+        File archivo = new File(rutaCompleta);
         
         if (!archivo.exists()) {
             return null;
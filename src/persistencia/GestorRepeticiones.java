@@ -0,0 +1,253 @@
+package persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import modelo.EstadoJuego;
+import modelo.Movimiento;
+import modelo.PuntoControl;
+import modelo.Repeticion;
+
+/**
+ * Guarda y carga repeticiones de partidas en un formato binario compacto
+ * 
+ * Formato: cabecera con la marca "BMRP", la versión y los parámetros del tablero;
+ * después las jugadas, cada una como dos enteros de longitud variable (la jugada
+ * codificada y los milisegundos desde la anterior), y por último los puntos de control
+ * con sus planos de bits. Una partida típica de principiante ocupa unos cientos de bytes
+ */
+public class GestorRepeticiones {
+    private static final String DIRECTORIO_REPETICIONES = "guardados" + File.separator + "repeticiones";
+    private static final String EXTENSION = ".rep";
+    private static final int MAGIA = 0x424D5250;
+    private static final byte VERSION = 1;
+    // Tablero más grande que se acepta al leer una repetición
+    public static final int TAMAÑO_MAXIMO = 1024;
+    private static final EstadoJuego[] ESTADOS = EstadoJuego.values();
+    
+    private final Path directorio;
+    
+    /**
+     * Constructor con el directorio de repeticiones por defecto
+     */
+    public GestorRepeticiones() {
+        this(DIRECTORIO_REPETICIONES);
+    }
+    
+    /**
+     * Constructor que guarda en un directorio distinto al predeterminado
+     * @param directorio Directorio de las repeticiones
+     */
+    public GestorRepeticiones(String directorio) {
+        this.directorio = Paths.get(directorio);
+    }
+    
+    /**
+     * Guarda una repetición con un nombre basado en su fecha de inicio
+     * @param repeticion Repetición a guardar
+     * @return Ruta del archivo escrito
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public Path guardar(Repeticion repeticion) throws IOException {
+        Files.createDirectories(directorio);
+        Path ruta = directorio.resolve("partida-" + repeticion.getFechaInicio() + EXTENSION);
+        escribir(repeticion, ruta);
+        return ruta;
+    }
+    
+    /**
+     * Lista las repeticiones guardadas, de la más reciente a la más antigua
+     * @return Rutas de las repeticiones
+     * @throws IOException Si no se puede leer el directorio
+     */
+    public List<Path> listar() throws IOException {
+        List<Path> rutas = new ArrayList<>();
+        if (!Files.isDirectory(directorio)) {
+            return rutas;
+        }
+        try (DirectoryStream<Path> contenido = Files.newDirectoryStream(directorio, "*" + EXTENSION)) {
+            for (Path ruta : contenido) {
+                rutas.add(ruta);
+            }
+        }
+        // Los nombres llevan la fecha en milisegundos: el orden por nombre es cronológico
+        Collections.sort(rutas, Collections.reverseOrder());
+        return rutas;
+    }
+    
+    /**
+     * Carga la repetición más reciente
+     * @return Repetición o null si no hay ninguna
+     * @throws IOException Si ocurre un error de E/S o el archivo no es válido
+     */
+    public Repeticion cargarUltima() throws IOException {
+        List<Path> rutas = listar();
+        return rutas.isEmpty() ? null : leer(rutas.get(0));
+    }
+    
+    /**
+     * Escribe una repetición en un archivo; se escribe aparte y se mueve al terminar
+     * @param repeticion Repetición a escribir
+     * @param ruta Archivo de destino
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public static void escribir(Repeticion repeticion, Path ruta) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+            salida.writeInt(MAGIA);
+            salida.writeByte(VERSION);
+            salida.writeInt(repeticion.getTamaño());
+            salida.writeInt(repeticion.getNumeroMinas());
+            salida.writeLong(repeticion.getSemilla());
+            salida.writeInt(repeticion.getIntervalo());
+            salida.writeLong(repeticion.getFechaInicio());
+            
+            int jugadas = repeticion.getNumeroJugadas();
+            escribirVarint(salida, jugadas);
+            int tiempoAnterior = 0;
+            for (int i = 0; i < jugadas; i++) {
+                escribirVarint(salida, repeticion.getMovimiento(i));
+                escribirVarint(salida, repeticion.getTiempo(i) - tiempoAnterior);
+                tiempoAnterior = repeticion.getTiempo(i);
+            }
+            
+            List<PuntoControl> puntos = repeticion.getPuntosControl();
+            escribirVarint(salida, puntos.size());
+            for (PuntoControl punto : puntos) {
+                escribirVarint(salida, punto.getJugada());
+                escribirVarint(salida, punto.getCasillasDescubiertas());
+                salida.writeByte(punto.getEstado().ordinal());
+                salida.writeBoolean(punto.tieneMinasPendientes());
+                for (long palabra : punto.getPlanos()) {
+                    salida.writeLong(palabra);
+                }
+            }
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Lee una repetición de un archivo
+     * @param ruta Archivo de la repetición
+     * @return Repetición leída
+     * @throws IOException Si ocurre un error de E/S o el archivo no es una repetición válida,
+     *                     incluidos parámetros o jugadas fuera de los límites del tablero
+     */
+    public static Repeticion leer(Path ruta) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(ruta)))) {
+            if (entrada.readInt() != MAGIA) {
+                throw new IOException("El archivo no es una repetición: " + ruta);
+            }
+            byte version = entrada.readByte();
+            if (version != VERSION) {
+                throw new IOException("Versión de repetición no soportada: " + version);
+            }
+            int tamaño = entrada.readInt();
+            int numeroMinas = entrada.readInt();
+            long semilla = entrada.readLong();
+            int intervalo = entrada.readInt();
+            long fechaInicio = entrada.readLong();
+            if (tamaño < 1 || tamaño > TAMAÑO_MAXIMO) {
+                throw new IOException("Tamaño de tablero inválido en la repetición: " + tamaño);
+            }
+            int casillas = tamaño * tamaño;
+            // Las minas deben dejar sitio a la zona segura del primer clic
+            if (numeroMinas < 0 || numeroMinas > casillas - Math.min(9, casillas)) {
+                throw new IOException("Número de minas inválido en la repetición: " + numeroMinas);
+            }
+            if (intervalo < 1) {
+                throw new IOException("Intervalo entre puntos de control inválido: " + intervalo);
+            }
+            
+            // Cada jugada ocupa al menos dos bytes: no puede haber más que la mitad del archivo
+            long bytes = Files.size(ruta);
+            int jugadas = leerVarint(entrada);
+            if (jugadas < 0 || jugadas > bytes / 2) {
+                throw new IOException("Número de jugadas inválido en la repetición: " + jugadas);
+            }
+            int[] movimientos = new int[jugadas];
+            int[] tiempos = new int[jugadas];
+            int tiempo = 0;
+            for (int i = 0; i < jugadas; i++) {
+                movimientos[i] = leerVarint(entrada);
+                if (movimientos[i] < 0 || Movimiento.indice(movimientos[i]) >= casillas) {
+                    throw new IOException("Jugada " + i + " fuera del tablero en la repetición");
+                }
+                tiempo += leerVarint(entrada);
+                tiempos[i] = tiempo;
+            }
+            
+            int numeroPuntos = leerVarint(entrada);
+            int palabras = 3 * ((casillas + 63) / 64);
+            if (numeroPuntos < 0 || numeroPuntos > bytes / (8L * palabras)) {
+                throw new IOException("Número de puntos de control inválido en la repetición: " + numeroPuntos);
+            }
+            List<PuntoControl> puntos = new ArrayList<>(numeroPuntos);
+            int jugadaAnterior = -1;
+            for (int i = 0; i < numeroPuntos; i++) {
+                int jugada = leerVarint(entrada);
+                if (jugada <= jugadaAnterior || jugada > jugadas) {
+                    throw new IOException("Punto de control fuera de orden en la repetición: jugada " + jugada);
+                }
+                jugadaAnterior = jugada;
+                int casillasDescubiertas = leerVarint(entrada);
+                if (casillasDescubiertas < 0 || casillasDescubiertas > casillas) {
+                    throw new IOException("Casillas descubiertas inválidas en la repetición: " + casillasDescubiertas);
+                }
+                int estado = entrada.readByte();
+                if (estado < 0 || estado >= ESTADOS.length) {
+                    throw new IOException("Estado de juego inválido en la repetición");
+                }
+                boolean minasPendientes = entrada.readBoolean();
+                long[] planos = new long[palabras];
+                for (int j = 0; j < palabras; j++) {
+                    planos[j] = entrada.readLong();
+                }
+                puntos.add(new PuntoControl(jugada, casillasDescubiertas, ESTADOS[estado], minasPendientes, planos));
+            }
+            
+            try {
+                return new Repeticion(tamaño, numeroMinas, semilla, intervalo, fechaInicio, movimientos, tiempos, puntos);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Repetición inválida: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Escribe un entero no negativo en grupos de 7 bits (1 byte si es menor que 128)
+     */
+    private static void escribirVarint(DataOutputStream salida, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            salida.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        salida.writeByte(valor);
+    }
+    
+    private static int leerVarint(DataInputStream entrada) throws IOException {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            int b = entrada.readUnsignedByte();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Entero de longitud variable corrupto");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package persistencia;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import modelo.Dificultad;
+import modelo.ResultadoPartida;
+
+/**
+ * Clasificaciones con las K mejores victorias de cada dificultad
+ * 
+ * Cada clasificación es un arreglo ordenado e inmutable publicado mediante una
+ * referencia atómica: insertar copia el arreglo con la nueva entrada y lo publica
+ * con compareAndSet, reintentando si otra sesión se adelantó. Las lecturas nunca
+ * bloquean y siempre ven una clasificación completa y ordenada. Un resultado que
+ * no entra en una clasificación llena se descarta sin copiar nada.
+ * 
+ * Las entradas aceptadas se añaden a un registro de texto, así guardar es una sola
+ * línea por récord. Al abrir se reconstruyen las clasificaciones leyendo el registro
+ * y, si creció demasiado, se reescribe solo con las entradas vigentes
+ */
+public class TablaClasificacion implements Closeable {
+    public static final int TAMAÑO_POR_DEFECTO = 10;
+    private static final String ARCHIVO_CLASIFICACION = "clasificacion.log";
+    private static final String SEPARADOR = "\t";
+    private static final ResultadoPartida[] VACIA = new ResultadoPartida[0];
+    
+    private final int maximo;
+    private final Path ruta;
+    private final Map<Dificultad, AtomicReference<ResultadoPartida[]>> clasificaciones;
+    private final Object bloqueoEscritura;
+    private BufferedWriter registro;
+    
+    /**
+     * Abre la clasificación del directorio de guardado por defecto
+     * @throws IOException Si no se puede leer o crear el registro
+     */
+    public TablaClasificacion() throws IOException {
+        this(Paths.get("guardados", ARCHIVO_CLASIFICACION), TAMAÑO_POR_DEFECTO);
+    }
+    
+    /**
+     * Abre o crea una clasificación persistente
+     * @param ruta Archivo del registro; null para una clasificación solo en memoria
+     * @param maximo Entradas por dificultad
+     * @throws IOException Si no se puede leer o crear el registro
+     */
+    public TablaClasificacion(Path ruta, int maximo) throws IOException {
+        if (maximo < 1) {
+            throw new IllegalArgumentException("La clasificación debe admitir al menos una entrada");
+        }
+        this.maximo = maximo;
+        this.ruta = ruta;
+        this.bloqueoEscritura = new Object();
+        this.clasificaciones = new EnumMap<>(Dificultad.class);
+        for (Dificultad dificultad : Dificultad.values()) {
+            clasificaciones.put(dificultad, new AtomicReference<>(VACIA));
+        }
+        
+        if (ruta != null) {
+            int lineas = cargar();
+            if (lineas > 2 * maximo * Dificultad.values().length) {
+                compactar();
+            }
+            registro = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+    
+    /**
+     * Registra una partida si es una victoria que entra en su clasificación
+     * @param resultado Resultado de la partida
+     * @return Puesto obtenido (empezando en 1), o -1 si no entra
+     * @throws IOException Si no se puede guardar la nueva entrada
+     */
+    public int registrar(ResultadoPartida resultado) throws IOException {
+        int puesto = insertar(resultado);
+        if (puesto > 0 && registro != null) {
+            synchronized (bloqueoEscritura) {
+                registro.write(codificar(resultado));
+                registro.newLine();
+                registro.flush();
+            }
+        }
+        return puesto;
+    }
+    
+    /**
+     * Inserta en memoria sin bloquear
+     * @return Puesto obtenido, o -1 si no entra
+     */
+    private int insertar(ResultadoPartida resultado) {
+        if (!resultado.esVictoria() || resultado.getDificultad() == null) {
+            return -1;
+        }
+        AtomicReference<ResultadoPartida[]> referencia = clasificaciones.get(resultado.getDificultad());
+        
+        while (true) {
+            ResultadoPartida[] actual = referencia.get();
+            int posicion = Arrays.binarySearch(actual, resultado, ResultadoPartida.ORDEN_CLASIFICACION);
+            if (posicion >= 0) {
+                return -1; // Ya registrado
+            }
+            posicion = -posicion - 1;
+            if (posicion >= maximo) {
+                return -1;
+            }
+            
+            int longitud = Math.min(actual.length + 1, maximo);
+            ResultadoPartida[] nueva = new ResultadoPartida[longitud];
+            System.arraycopy(actual, 0, nueva, 0, posicion);
+            nueva[posicion] = resultado;
+            System.arraycopy(actual, posicion, nueva, posicion + 1, longitud - posicion - 1);
+            
+            if (referencia.compareAndSet(actual, nueva)) {
+                return posicion + 1;
+            }
+        }
+    }
+    
+    /**
+     * Obtiene la clasificación de una dificultad
+     * @param dificultad Dificultad a consultar
+     * @return Lista inmutable ordenada del mejor al peor
+     */
+    public List<ResultadoPartida> getMejores(Dificultad dificultad) {
+        return Collections.unmodifiableList(Arrays.asList(clasificaciones.get(dificultad).get()));
+    }
+    
+    public int getMaximo() {
+        return maximo;
+    }
+    
+    /**
+     * Reconstruye las clasificaciones a partir del registro
+     * @return Líneas leídas
+     */
+    private int cargar() throws IOException {
+        int lineas = 0;
+        try (BufferedReader lector = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                lineas++;
+                ResultadoPartida resultado = decodificar(linea);
+                if (resultado != null) {
+                    insertar(resultado);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        return lineas;
+    }
+    
+    /**
+     * Reescribe el registro solo con las entradas vigentes y lo reemplaza de forma atómica
+     */
+    private void compactar() throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (BufferedWriter escritor = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            for (AtomicReference<ResultadoPartida[]> referencia : clasificaciones.values()) {
+                for (ResultadoPartida resultado : referencia.get()) {
+                    escritor.write(codificar(resultado));
+                    escritor.newLine();
+                }
+            }
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static String codificar(ResultadoPartida resultado) {
+        String nombre = resultado.getNombre().replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        return resultado.getDificultad().name() + SEPARADOR + nombre + SEPARADOR + resultado.getDuracionMillis()
+                + SEPARADOR + resultado.getClics() + SEPARADOR + resultado.getValor3BV()
+                + SEPARADOR + resultado.getFechaMillis();
+    }
+    
+    /**
+     * Interpreta una línea del registro; las líneas dañadas se ignoran
+     */
+    private static ResultadoPartida decodificar(String linea) {
+        String[] campos = linea.split(SEPARADOR);
+        if (campos.length != 6) {
+            return null;
+        }
+        try {
+            return new ResultadoPartida(campos[1], Dificultad.valueOf(campos[0]), true,
+                    Long.parseLong(campos[2]), Integer.parseInt(campos[3]), Integer.parseInt(campos[4]),
+                    Long.parseLong(campos[5]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Cierra el registro
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (bloqueoEscritura) {
+            if (registro != null) {
+                registro.close();
+                registro = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package simulacion;
+
+import modelo.EstadoJuego;
+
+/**
+ * Miles de tableros pequeños jugados a la vez en arreglos primitivos contiguos
+ * 
+ * Cada tablero de hasta 128 casillas cabe en dos long por plano (minas, descubiertas,
+ * casillas vacías), guardados uno detrás de otro: no hay objetos por tablero ni por casilla.
+ * Cada jugada se aplica a todo el lote con bucles sobre esos arreglos, y las expansiones
+ * avanzan a la vez en todos los tableros dilatando sus máscaras de 128 bits.
+ * 
+ * Las minas se colocan con la misma secuencia que java.util.Random y la misma zona segura
+ * en el centro que {@link modelo.Tablero}, así que con la misma semilla el tablero es idéntico.
+ * La política de juego es la del jugador al azar de {@link Simulador#jugarAlAzar}: descubrir
+ * el centro y después una casilla tapada al azar, con java.util.Random(~semilla)
+ * 
+ * No es seguro para hilos: cada hilo debe usar su propio lote
+ */
+public final class LoteTableros {
+    /** Casillas máximas de cada tablero: dos palabras de 64 bits */
+    public static final int CASILLAS_MAXIMAS = 128;
+    
+    // Constantes del generador lineal congruencial de java.util.Random
+    private static final long MULTIPLICADOR = 0x5DEECE66DL;
+    private static final long SUMANDO = 0xBL;
+    private static final long MASCARA_ALEATORIO = (1L << 48) - 1;
+    
+    private static final byte EN_CURSO = 0;
+    private static final byte VICTORIA = 1;
+    private static final byte DERROTA = 2;
+    
+    private final int tamaño;
+    private final int numeroMinas;
+    private final int capacidad;
+    private final int centro;
+    
+    // Máscaras de 128 bits (parte baja y alta) de las casillas válidas y de los bordes
+    private final long validasBaja;
+    private final long validasAlta;
+    private final long sinPrimeraBaja;
+    private final long sinPrimeraAlta;
+    private final long sinUltimaBaja;
+    private final long sinUltimaAlta;
+    
+    // Planos de cada tablero b en las posiciones 2b (casillas 0-63) y 2b+1 (casillas 64-127)
+    private final long[] minas;
+    private final long[] descubiertas;
+    private final long[] ceros;
+    private final long[] zona;
+    private final long[] aleatorio;
+    private final byte[] estados;
+    private final int[] jugadas;
+    private int tableros;
+    
+    // Resultado de la última dilatación
+    private long dilatadaBaja;
+    private long dilatadaAlta;
+    
+    /**
+     * Constructor del lote
+     * @param tamaño Número de filas y columnas (como mucho 11, para no pasar de 128 casillas)
+     * @param numeroMinas Minas de cada tablero
+     * @param capacidad Tableros que se juegan a la vez
+     */
+    public LoteTableros(int tamaño, int numeroMinas, int capacidad) {
+        if (tamaño < 3 || tamaño * tamaño > CASILLAS_MAXIMAS) {
+            throw new IllegalArgumentException("El lote admite tableros de 3x3 a 11x11");
+        }
+        if (numeroMinas < 0 || numeroMinas > tamaño * tamaño - 9) {
+            throw new IllegalArgumentException("Número de minas inválido para un tablero de " + tamaño + "x" + tamaño);
+        }
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.capacidad = capacidad;
+        this.centro = tamaño / 2;
+        
+        long[] validas = new long[2];
+        long[] primera = new long[2];
+        long[] ultima = new long[2];
+        for (int indice = 0; indice < tamaño * tamaño; indice++) {
+            validas[indice >>> 6] |= 1L << indice;
+            if (indice % tamaño == 0) {
+                primera[indice >>> 6] |= 1L << indice;
+            } else if (indice % tamaño == tamaño - 1) {
+                ultima[indice >>> 6] |= 1L << indice;
+            }
+        }
+        this.validasBaja = validas[0];
+        this.validasAlta = validas[1];
+        this.sinPrimeraBaja = ~primera[0];
+        this.sinPrimeraAlta = ~primera[1];
+        this.sinUltimaBaja = ~ultima[0];
+        this.sinUltimaAlta = ~ultima[1];
+        
+        this.minas = new long[2 * capacidad];
+        this.descubiertas = new long[2 * capacidad];
+        this.ceros = new long[2 * capacidad];
+        this.zona = new long[2 * capacidad];
+        this.aleatorio = new long[capacidad];
+        this.estados = new byte[capacidad];
+        this.jugadas = new int[capacidad];
+    }
+    
+    /**
+     * Juega una partida al azar en cada tablero del lote hasta que terminan todas
+     * @param semillas Semilla de cada tablero (como mucho la capacidad del lote)
+     * @return Número de victorias
+     */
+    public int jugarAlAzar(long[] semillas) {
+        if (semillas.length > capacidad) {
+            throw new IllegalArgumentException("El lote admite como mucho " + capacidad + " tableros");
+        }
+        tableros = semillas.length;
+        for (int b = 0; b < tableros; b++) {
+            colocarMinas(b, semillas[b]);
+            aleatorio[b] = (~semillas[b] ^ MULTIPLICADOR) & MASCARA_ALEATORIO;
+        }
+        
+        // Casillas vacías de todos los tableros: las que no tocan ninguna mina
+        for (int b = 0; b < tableros; b++) {
+            dilatar(minas[2 * b], minas[2 * b + 1]);
+            ceros[2 * b] = ~dilatadaBaja & validasBaja;
+            ceros[2 * b + 1] = ~dilatadaAlta & validasAlta;
+        }
+        
+        // Primer clic en el centro, que siempre está en una zona vacía
+        int primera = centro * tamaño + centro;
+        for (int b = 0; b < tableros; b++) {
+            descubiertas[2 * b] = 0L;
+            descubiertas[2 * b + 1] = 0L;
+            zona[2 * b + (primera >>> 6)] = 1L << primera;
+            estados[b] = EN_CURSO;
+            jugadas[b] = 1;
+        }
+        expandir();
+        
+        int enCurso = evaluar();
+        while (enCurso > 0) {
+            for (int b = 0; b < tableros; b++) {
+                if (estados[b] == EN_CURSO) {
+                    descubrirAlAzar(b);
+                }
+            }
+            expandir();
+            enCurso = evaluar();
+        }
+        
+        int victorias = 0;
+        for (int b = 0; b < tableros; b++) {
+            victorias += estados[b] == VICTORIA ? 1 : 0;
+        }
+        return victorias;
+    }
+    
+    /**
+     * Coloca las minas de un tablero igual que Tablero con la zona segura en el centro
+     */
+    private void colocarMinas(int b, long semilla) {
+        long estado = (semilla ^ MULTIPLICADOR) & MASCARA_ALEATORIO;
+        long baja = 0L;
+        long alta = 0L;
+        int colocadas = 0;
+        while (colocadas < numeroMinas) {
+            estado = siguiente(estado);
+            int fila = acotar(estado, tamaño);
+            while (fila < 0) {
+                estado = siguiente(estado);
+                fila = acotar(estado, tamaño);
+            }
+            estado = siguiente(estado);
+            int columna = acotar(estado, tamaño);
+            while (columna < 0) {
+                estado = siguiente(estado);
+                columna = acotar(estado, tamaño);
+            }
+            
+            int indice = fila * tamaño + columna;
+            boolean enZonaSegura = Math.abs(fila - centro) <= 1 && Math.abs(columna - centro) <= 1;
+            long bit = 1L << indice;
+            boolean ocupada = ((indice < 64 ? baja : alta) & bit) != 0;
+            if (!enZonaSegura && !ocupada) {
+                if (indice < 64) {
+                    baja |= bit;
+                } else {
+                    alta |= bit;
+                }
+                colocadas++;
+            }
+        }
+        minas[2 * b] = baja;
+        minas[2 * b + 1] = alta;
+    }
+    
+    /**
+     * Descubre una casilla tapada al azar de un tablero
+     */
+    private void descubrirAlAzar(int b) {
+        long tapadasBaja = ~descubiertas[2 * b] & validasBaja;
+        long tapadasAlta = ~descubiertas[2 * b + 1] & validasAlta;
+        int tapadas = Long.bitCount(tapadasBaja) + Long.bitCount(tapadasAlta);
+        
+        long estado = aleatorio[b];
+        estado = siguiente(estado);
+        int elegida = acotar(estado, tapadas);
+        while (elegida < 0) {
+            estado = siguiente(estado);
+            elegida = acotar(estado, tapadas);
+        }
+        aleatorio[b] = estado;
+        jugadas[b]++;
+        
+        // La casilla tapada número "elegida" en orden de índice
+        int enBaja = Long.bitCount(tapadasBaja);
+        long palabra = elegida < enBaja ? tapadasBaja : tapadasAlta;
+        for (int i = elegida < enBaja ? elegida : elegida - enBaja; i > 0; i--) {
+            palabra &= palabra - 1;
+        }
+        int indice = Long.numberOfTrailingZeros(palabra) + (elegida < enBaja ? 0 : 64);
+        
+        int p = 2 * b + (indice >>> 6);
+        long bit = 1L << indice;
+        descubiertas[p] |= bit;
+        if ((minas[p] & bit) != 0) {
+            estados[b] = DERROTA;
+        } else if ((ceros[p] & bit) != 0) {
+            zona[p] |= bit;
+        }
+    }
+    
+    /**
+     * Expande a la vez las zonas vacías de todos los tableros
+     * Cada vuelta dilata una vez la zona de cada tablero dentro de sus casillas vacías,
+     * hasta que ninguna crece; después se revela la zona con su borde
+     */
+    private void expandir() {
+        boolean cambio = true;
+        while (cambio) {
+            cambio = false;
+            for (int b = 0; b < tableros; b++) {
+                long baja = zona[2 * b];
+                long alta = zona[2 * b + 1];
+                if ((baja | alta) == 0) {
+                    continue;
+                }
+                dilatar(baja, alta);
+                long nuevaBaja = dilatadaBaja & ceros[2 * b] | baja;
+                long nuevaAlta = dilatadaAlta & ceros[2 * b + 1] | alta;
+                if (nuevaBaja != baja || nuevaAlta != alta) {
+                    zona[2 * b] = nuevaBaja;
+                    zona[2 * b + 1] = nuevaAlta;
+                    cambio = true;
+                }
+            }
+        }
+        for (int b = 0; b < tableros; b++) {
+            long baja = zona[2 * b];
+            long alta = zona[2 * b + 1];
+            if ((baja | alta) != 0) {
+                dilatar(baja, alta);
+                descubiertas[2 * b] |= dilatadaBaja;
+                descubiertas[2 * b + 1] |= dilatadaAlta;
+                zona[2 * b] = 0L;
+                zona[2 * b + 1] = 0L;
+            }
+        }
+    }
+    
+    /**
+     * Marca como ganados los tableros con todas las casillas sin mina descubiertas
+     * @return Tableros que siguen en curso
+     */
+    private int evaluar() {
+        int seguras = tamaño * tamaño - numeroMinas;
+        int enCurso = 0;
+        for (int b = 0; b < tableros; b++) {
+            if (estados[b] == EN_CURSO) {
+                int abiertas = Long.bitCount(descubiertas[2 * b]) + Long.bitCount(descubiertas[2 * b + 1]);
+                if (abiertas == seguras) {
+                    estados[b] = VICTORIA;
+                } else {
+                    enCurso++;
+                }
+            }
+        }
+        return enCurso;
+    }
+    
+    /**
+     * Dilata una máscara de 128 bits a sus ocho vecinas: primero en horizontal, sin
+     * pasar de una fila a otra, y luego una fila arriba y abajo
+     */
+    private void dilatar(long baja, long alta) {
+        // Se recorta ya aquí para que la casilla siguiente a la última no suba una fila al desplazar
+        long horizontalBaja = (baja
+                | baja << 1 & sinPrimeraBaja
+                | (baja >>> 1 | alta << 63) & sinUltimaBaja) & validasBaja;
+        long horizontalAlta = (alta
+                | (alta << 1 | baja >>> 63) & sinPrimeraAlta
+                | alta >>> 1 & sinUltimaAlta) & validasAlta;
+        dilatadaBaja = (horizontalBaja
+                | horizontalBaja << tamaño
+                | horizontalBaja >>> tamaño | horizontalAlta << (64 - tamaño)) & validasBaja;
+        dilatadaAlta = (horizontalAlta
+                | horizontalAlta << tamaño | horizontalBaja >>> (64 - tamaño)
+                | horizontalAlta >>> tamaño) & validasAlta;
+    }
+    
+    private static long siguiente(long estado) {
+        return (estado * MULTIPLICADOR + SUMANDO) & MASCARA_ALEATORIO;
+    }
+    
+    /**
+     * Reduce un paso del generador a [0, cota) igual que Random.nextInt(cota)
+     * @return Valor, o -1 si Random descartaría este paso y pediría otro
+     */
+    private static int acotar(long estado, int cota) {
+        int bits = (int) (estado >>> 17);
+        if ((cota & -cota) == cota) {
+            return (int) ((cota * (long) bits) >> 31);
+        }
+        int valor = bits % cota;
+        return bits - valor + (cota - 1) < 0 ? -1 : valor;
+    }
+    
+    /**
+     * Obtiene el resultado de un tablero de la última llamada a {@link #jugarAlAzar(long[])}
+     */
+    public EstadoJuego getEstado(int tablero) {
+        return estados[tablero] == VICTORIA ? EstadoJuego.VICTORIA
+                : estados[tablero] == DERROTA ? EstadoJuego.DERROTA : EstadoJuego.EN_CURSO;
+    }
+    
+    /**
+     * Obtiene los clics que hicieron falta en un tablero, incluido el primero
+     */
+    public int getJugadas(int tablero) {
+        return jugadas[tablero];
+    }
+    
+    /**
+     * Obtiene las casillas descubiertas de un tablero (al perder, incluida la mina pisada)
+     */
+    public int getCasillasDescubiertas(int tablero) {
+        return Long.bitCount(descubiertas[2 * tablero]) + Long.bitCount(descubiertas[2 * tablero + 1]);
+    }
+    
+    public boolean tieneMina(int tablero, int indice) {
+        return (minas[2 * tablero + (indice >>> 6)] & (1L << indice)) != 0;
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+    
+    public int getCapacidad() {
+        return capacidad;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package simulacion;
+
+/**
+ * Resultados agregados de una simulación
+ */
+public class ResumenSimulacion {
+    private final String configuracion;
+    private final int hilos;
+    private final long partidas;
+    private final long victorias;
+    private final long adivinanzas;
+    private final long suma3BV;
+    private final long nanosPartidas;
+    private final long nanosTotales;
+    
+    /**
+     * Constructor del resumen
+     * @param configuracion Descripción del tablero simulado
+     * @param hilos Hilos usados
+     * @param partidas Partidas jugadas
+     * @param victorias Partidas ganadas
+     * @param adivinanzas Adivinanzas totales (incluye el primer clic)
+     * @param suma3BV Suma del 3BV de todos los tableros
+     * @param nanosPartidas Tiempo de CPU sumado de todas las partidas
+     * @param nanosTotales Tiempo real de la simulación completa
+     */
+    public ResumenSimulacion(String configuracion, int hilos, long partidas, long victorias,
+                             long adivinanzas, long suma3BV, long nanosPartidas, long nanosTotales) {
+        this.configuracion = configuracion;
+        this.hilos = hilos;
+        this.partidas = partidas;
+        this.victorias = victorias;
+        this.adivinanzas = adivinanzas;
+        this.suma3BV = suma3BV;
+        this.nanosPartidas = nanosPartidas;
+        this.nanosTotales = nanosTotales;
+    }
+    
+    public long getPartidas() {
+        return partidas;
+    }
+    
+    public long getVictorias() {
+        return victorias;
+    }
+    
+    public int getHilos() {
+        return hilos;
+    }
+    
+    public double getPorcentajeVictorias() {
+        return partidas == 0 ? 0.0 : (double) victorias / partidas * 100;
+    }
+    
+    public double getAdivinanzasPromedio() {
+        return partidas == 0 ? 0.0 : (double) adivinanzas / partidas;
+    }
+    
+    public double get3BVPromedio() {
+        return partidas == 0 ? 0.0 : (double) suma3BV / partidas;
+    }
+    
+    public double getMicrosegundosPorPartida() {
+        return partidas == 0 ? 0.0 : nanosPartidas / 1e3 / partidas;
+    }
+    
+    public double getPartidasPorSegundo() {
+        return nanosTotales == 0 ? 0.0 : partidas / (nanosTotales / 1e9);
+    }
+    
+    /**
+     * Obtiene el resumen en formato de texto
+     * @return String con el resumen
+     */
+    @Override
+    public String toString() {
+        return String.format("Configuración: %s%nHilos: %d%nPartidas: %d%nVictorias: %d (%.2f%%)%n"
+                + "Adivinanzas por partida: %.3f%n3BV promedio: %.2f%n"
+                + "Tiempo por partida: %.2f µs%nRendimiento: %.0f partidas/s%n",
+                configuracion, hilos, partidas, victorias, getPorcentajeVictorias(),
+                getAdivinanzasPromedio(), get3BVPromedio(), getMicrosegundosPorPartida(),
+                getPartidasPorSegundo());
+    }
+}
@@ -0,0 +1,264 @@
+package simulacion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import modelo.EstadoJuego;
+import modelo.Movimiento;
+import modelo.Tablero;
+import solucionador.BotSolucionador;
+import solucionador.CalculadoraProbabilidades;
+
+/**
+ * Simulador de partidas del bot en todos los núcleos
+ * Sirve para obtener estadísticas de victorias y ajustar las dificultades con datos
+ * 
+ * Cada hilo reutiliza su propio tablero entre partidas y no comparte estado mutable con
+ * los demás salvo los acumuladores, que son LongAdder sin bloqueos. Los hilos reclaman
+ * bloques de partidas y cada bloque tiene su flujo aleatorio (SplittableRandom) derivado
+ * de la semilla y del número de bloque, así que con adivinanzas al azar el resultado es el
+ * mismo con cualquier número de hilos. Con probabilidades solo lo es si ningún cálculo
+ * agota su presupuesto de tiempo
+ */
+public class Simulador {
+    private static final int PARTIDAS_POR_BLOQUE = 256;
+    private static final long PRESUPUESTO_PROBABILIDADES_NANOS = 50_000_000L;
+    private static final int TABLEROS_POR_LOTE = 1024;
+    
+    private final int tamaño;
+    private final int numeroMinas;
+    private final long semilla;
+    private final boolean usarProbabilidades;
+    
+    /**
+     * Constructor del simulador
+     * @param tamaño Tamaño de los tableros
+     * @param numeroMinas Minas de cada tablero
+     * @param semilla Semilla de la que se derivan los flujos aleatorios de cada bloque
+     * @param usarProbabilidades true para que el bot adivine con probabilidades exactas
+     */
+    public Simulador(int tamaño, int numeroMinas, long semilla, boolean usarProbabilidades) {
+        this.tamaño = tamaño;
+        this.numeroMinas = numeroMinas;
+        this.semilla = semilla;
+        this.usarProbabilidades = usarProbabilidades;
+    }
+    
+    /**
+     * Juega las partidas repartidas entre varios hilos
+     * @param partidas Número total de partidas
+     * @param hilos Número de hilos de trabajo
+     * @return Resumen agregado
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    public ResumenSimulacion ejecutar(long partidas, int hilos) throws InterruptedException {
+        AtomicLong siguienteBloque = new AtomicLong();
+        LongAdder jugadas = new LongAdder();
+        LongAdder victorias = new LongAdder();
+        LongAdder adivinanzas = new LongAdder();
+        LongAdder suma3BV = new LongAdder();
+        LongAdder nanosPartidas = new LongAdder();
+        
+        Thread[] trabajadores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            trabajadores[h] = new Thread(() -> {
+                Tablero tablero = new Tablero(tamaño, numeroMinas, semilla);
+                ForkJoinPool pool = usarProbabilidades ? new ForkJoinPool(1) : null;
+                CalculadoraProbabilidades calculadora = usarProbabilidades
+                        ? new CalculadoraProbabilidades(pool, PRESUPUESTO_PROBABILIDADES_NANOS)
+                        : null;
+                try {
+                    long inicioBloque;
+                    while ((inicioBloque = siguienteBloque.getAndAdd(PARTIDAS_POR_BLOQUE)) < partidas) {
+                        long fin = Math.min(partidas, inicioBloque + PARTIDAS_POR_BLOQUE);
+                        long victoriasBloque = 0;
+                        long adivinanzasBloque = 0;
+                        long suma3BVBloque = 0;
+                        long inicio = System.nanoTime();
+                        
+                        // El flujo depende solo del bloque, no del hilo que lo reclama
+                        SplittableRandom random = new SplittableRandom(semillaBloque(inicioBloque / PARTIDAS_POR_BLOQUE));
+                        BotSolucionador bot = new BotSolucionador(random, calculadora);
+                        for (long p = inicioBloque; p < fin; p++) {
+                            tablero.reiniciar(random.nextLong());
+                            suma3BVBloque += tablero.calcular3BV();
+                            if (bot.jugar(tablero) == EstadoJuego.VICTORIA) {
+                                victoriasBloque++;
+                            }
+                            adivinanzasBloque += bot.getAdivinanzas();
+                        }
+                        
+                        // Una actualización de los acumuladores por bloque, no por partida
+                        nanosPartidas.add(System.nanoTime() - inicio);
+                        jugadas.add(fin - inicioBloque);
+                        victorias.add(victoriasBloque);
+                        adivinanzas.add(adivinanzasBloque);
+                        suma3BV.add(suma3BVBloque);
+                    }
+                } finally {
+                    if (pool != null) {
+                        pool.shutdown();
+                    }
+                }
+            }, "simulador-" + h);
+        }
+        
+        long inicio = System.nanoTime();
+        for (Thread trabajador : trabajadores) {
+            trabajador.start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        long nanosTotales = System.nanoTime() - inicio;
+        
+        return new ResumenSimulacion(getConfiguracion(), hilos, jugadas.sum(), victorias.sum(),
+                adivinanzas.sum(), suma3BV.sum(), nanosPartidas.sum(), nanosTotales);
+    }
+    
+    /**
+     * Semilla del flujo aleatorio de un bloque: mezcla de la semilla y del número de bloque
+     * (función de mezcla de SplitMix64), para que bloques consecutivos no den flujos solapados
+     */
+    private long semillaBloque(long bloque) {
+        long z = semilla + (bloque + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Mide el rendimiento con 1, 2, 4... hasta el número máximo de hilos
+     * @param partidas Partidas por medición
+     * @param maximoHilos Máximo de hilos a probar
+     * @return Un resumen por cada número de hilos probado
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    public List<ResumenSimulacion> medirEscalado(long partidas, int maximoHilos) throws InterruptedException {
+        List<ResumenSimulacion> resultados = new ArrayList<>();
+        for (int hilos = 1; hilos <= maximoHilos; hilos *= 2) {
+            resultados.add(ejecutar(partidas, hilos));
+            if (hilos < maximoHilos && hilos * 2 > maximoHilos) {
+                // Terminar en el máximo aunque no sea potencia de dos
+                resultados.add(ejecutar(partidas, maximoHilos));
+            }
+        }
+        return resultados;
+    }
+    
+    /**
+     * Juega una partida con el jugador al azar: descubre el centro y después casillas
+     * tapadas al azar hasta que termina
+     * @param tablero Tablero sin jugadas, con la zona segura en el centro
+     * @param random Generador de las jugadas
+     * @return Clics de la partida, incluido el primero
+     */
+    public static int jugarAlAzar(Tablero tablero, Random random) {
+        int tamaño = tablero.getTamaño();
+        int centro = tamaño / 2;
+        tablero.aplicarMovimiento(Movimiento.descubrir(centro, centro, tamaño));
+        int jugadas = 1;
+        while (!tablero.estaTerminado()) {
+            int elegida = random.nextInt(tamaño * tamaño - tablero.getCasillasDescubiertas());
+            for (int indice = 0; ; indice++) {
+                if (!tablero.getCasilla(indice / tamaño, indice % tamaño).estaDescubierta() && elegida-- == 0) {
+                    tablero.aplicarMovimiento(Movimiento.descubrir(indice / tamaño, indice % tamaño, tamaño));
+                    break;
+                }
+            }
+            jugadas++;
+        }
+        return jugadas;
+    }
+    
+    /**
+     * Compara en un solo hilo el rendimiento del jugador al azar sobre Tablero y sobre
+     * {@link LoteTableros}; las partidas son las mismas en los dos casos
+     * @param partidas Partidas que juega cada motor
+     * @return Informe con las partidas por segundo de cada motor
+     * @throws IllegalArgumentException Si el tablero no cabe en un lote (más de 11x11)
+     */
+    public String compararConLotes(long partidas) {
+        LoteTableros lote = new LoteTableros(tamaño, numeroMinas, TABLEROS_POR_LOTE);
+        int centro = tamaño / 2;
+        Tablero tablero = new Tablero(tamaño, numeroMinas, semilla, centro, centro);
+        long victoriasObjetos = 0;
+        long inicio = System.nanoTime();
+        for (long p = 0; p < partidas; p++) {
+            tablero.reiniciar(semilla + p, centro, centro);
+            jugarAlAzar(tablero, new Random(~(semilla + p)));
+            victoriasObjetos += tablero.esVictoria() ? 1 : 0;
+        }
+        long nanosObjetos = System.nanoTime() - inicio;
+        
+        long[] semillas = new long[TABLEROS_POR_LOTE];
+        long victoriasLote = 0;
+        inicio = System.nanoTime();
+        for (long p = 0; p < partidas; p += TABLEROS_POR_LOTE) {
+            int n = (int) Math.min(TABLEROS_POR_LOTE, partidas - p);
+            if (n < semillas.length) {
+                semillas = new long[n];
+            }
+            for (int b = 0; b < n; b++) {
+                semillas[b] = semilla + p + b;
+            }
+            victoriasLote += lote.jugarAlAzar(semillas);
+        }
+        long nanosLote = System.nanoTime() - inicio;
+        
+        StringBuilder informe = new StringBuilder("=== JUGADOR AL AZAR: TABLERO FRENTE A LOTE ===\n");
+        informe.append(String.format("Configuración: %dx%d con %d minas, %d partidas en un hilo%n",
+                tamaño, tamaño, numeroMinas, partidas));
+        informe.append(String.format("%-10s %16s %12s%n", "Motor", "Partidas/s", "Victorias"));
+        informe.append(String.format("%-10s %16.0f %12d%n", "Tablero", partidas / (nanosObjetos / 1e9), victoriasObjetos));
+        informe.append(String.format("%-10s %16.0f %12d%n", "Lote", partidas / (nanosLote / 1e9), victoriasLote));
+        informe.append(String.format("Aceleración: %.2fx%n", (double) nanosObjetos / nanosLote));
+        return informe.toString();
+    }
+    
+    /**
+     * Genera el texto del informe con el resumen y, si existe, la tabla de escalado
+     * @param resumen Resumen principal
+     * @param escalado Mediciones de escalado o null
+     * @return Informe en texto
+     */
+    public static String generarInforme(ResumenSimulacion resumen, List<ResumenSimulacion> escalado) {
+        StringBuilder informe = new StringBuilder("=== INFORME DE SIMULACIÓN ===\n");
+        informe.append(resumen);
+        
+        if (escalado != null && !escalado.isEmpty()) {
+            double base = escalado.get(0).getPartidasPorSegundo();
+            informe.append("\n=== ESCALADO POR NÚCLEOS ===\n");
+            informe.append(String.format("%6s %16s %10s%n", "Hilos", "Partidas/s", "Aceleración"));
+            for (ResumenSimulacion medicion : escalado) {
+                informe.append(String.format("%6d %16.0f %10.2fx%n", medicion.getHilos(),
+                        medicion.getPartidasPorSegundo(), medicion.getPartidasPorSegundo() / base));
+            }
+        }
+        return informe.toString();
+    }
+    
+    /**
+     * Escribe el informe en un archivo de texto
+     * @param ruta Ruta del archivo
+     * @param informe Texto del informe
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public static void escribirInforme(Path ruta, String informe) throws IOException {
+        Files.write(ruta, informe.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String getConfiguracion() {
+        return String.format("%dx%d con %d minas%s", tamaño, tamaño, numeroMinas,
+                usarProbabilidades ? " (adivinanzas por probabilidad)" : " (adivinanzas al azar)");
+    }
+}
\ No newline at end of file
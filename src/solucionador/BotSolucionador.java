@@ -0,0 +1,93 @@
+package solucionador;
+
+import java.util.SplittableRandom;
+
+import modelo.EstadoJuego;
+import modelo.Tablero;
+
+/**
+ * Bot que juega partidas completas con el solucionador
+ * Descubre todas las casillas deducibles y, cuando hace falta adivinar, elige la casilla
+ * de menor probabilidad de mina (si tiene calculadora) o una casilla desconocida al azar
+ * 
+ * No es seguro para hilos: cada hilo debe usar su propia instancia
+ */
+public class BotSolucionador {
+    private final SplittableRandom random;
+    private final CalculadoraProbabilidades calculadora;
+    private Solucionador solucionador;
+    private int adivinanzas;
+    
+    /**
+     * Constructor del bot
+     * @param random Generador aleatorio propio del hilo que usa el bot
+     * @param calculadora Calculadora para elegir adivinanzas, o null para adivinar al azar
+     */
+    public BotSolucionador(SplittableRandom random, CalculadoraProbabilidades calculadora) {
+        this.random = random;
+        this.calculadora = calculadora;
+    }
+    
+    /**
+     * Juega una partida hasta el final
+     * @param tablero Tablero sin jugadas o con jugadas previas
+     * @return Estado final de la partida
+     */
+    public EstadoJuego jugar(Tablero tablero) {
+        if (solucionador == null) {
+            solucionador = new Solucionador(tablero);
+        } else {
+            solucionador.reiniciar(tablero);
+        }
+        adivinanzas = 0;
+        
+        while (solucionador.resolver() == EstadoSolucion.ADIVINANZA_NECESARIA) {
+            int indice = elegirAdivinanza(tablero);
+            if (indice < 0) {
+                break;
+            }
+            adivinanzas++;
+            solucionador.descubrir(indice);
+        }
+        return tablero.getEstado();
+    }
+    
+    /**
+     * Elige la casilla a descubrir cuando no hay deducciones seguras
+     */
+    private int elegirAdivinanza(Tablero tablero) {
+        if (calculadora != null) {
+            return calculadora.calcular(tablero).getCasillaMasSegura();
+        }
+        
+        int total = tablero.getTamaño() * tablero.getTamaño();
+        int candidatas = 0;
+        for (int i = 0; i < total; i++) {
+            if (esCandidata(i)) {
+                candidatas++;
+            }
+        }
+        if (candidatas == 0) {
+            return -1;
+        }
+        
+        int objetivo = random.nextInt(candidatas);
+        for (int i = 0; i < total; i++) {
+            if (esCandidata(i) && objetivo-- == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private boolean esCandidata(int indice) {
+        return !solucionador.estaDescubierta(indice) && !solucionador.esMinaSegura(indice);
+    }
+    
+    /**
+     * Obtiene las adivinanzas que necesitó la última partida
+     */
+    public int getAdivinanzas() {
+        return adivinanzas;
+    }
+}
@@ -0,0 +1,414 @@
+package solucionador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import modelo.Casilla;
+import modelo.ListaEnteros;
+import modelo.Tablero;
+import modelo.Topologia;
+
+/**
+ * Calcula la probabilidad exacta de mina de cada casilla tapada
+ * usando solo el estado visible del tablero
+ * 
+ * La frontera (casillas tapadas junto a números) se divide en componentes independientes
+ * que se enumeran en paralelo en un ForkJoinPool. Después se combinan con el total de minas:
+ * cada total t de minas en la frontera pesa C(interior, minasRestantes - t), siendo
+ * interior las casillas tapadas sin números alrededor
+ * 
+ * Si la enumeración supera el presupuesto de tiempo, se usan los conteos parciales
+ * obtenidos hasta ese momento y el resultado se marca como no exacto. Esos conteos no son
+ * una muestra uniforme: la vuelta atrás solo ha recorrido las soluciones que comparten los
+ * valores de las primeras casillas del componente, así que en ellas la probabilidad puede
+ * salir cerca de 0 o de 1 sin serlo. El orden de prueba aleatorio evita que el sesgo vaya
+ * siempre hacia "libre", pero con {@link Probabilidades#esExacto()} en false los valores
+ * solo sirven como orientación
+ * 
+ * Con la caché activada, los componentes que no cambiaron desde el cálculo anterior
+ * reutilizan su enumeración; solo se vuelven a enumerar los afectados por las últimas
+ * jugadas. En ese modo la calculadora no debe compartirse entre hilos
+ */
+public class CalculadoraProbabilidades {
+    private static final long PRESUPUESTO_POR_DEFECTO_NANOS = 2_000_000_000L;
+    
+    private final ForkJoinPool pool;
+    private final long presupuestoNanos;
+    private Map<FirmaComponente, ComponenteFrontera> cache;
+    
+    /**
+     * Constructor con un pool y un presupuesto de tiempo concretos
+     * @param pool Pool donde se enumeran los componentes
+     * @param presupuestoNanos Tiempo máximo de enumeración en nanosegundos
+     */
+    public CalculadoraProbabilidades(ForkJoinPool pool, long presupuestoNanos) {
+        this.pool = pool;
+        this.presupuestoNanos = presupuestoNanos;
+    }
+    
+    /**
+     * Constructor por defecto: pool común y dos segundos de presupuesto
+     */
+    public CalculadoraProbabilidades() {
+        this(ForkJoinPool.commonPool(), PRESUPUESTO_POR_DEFECTO_NANOS);
+    }
+    
+    /**
+     * Activa la caché de componentes entre cálculos sucesivos sobre el mismo tablero
+     */
+    public void activarCache() {
+        if (cache == null) {
+            cache = new HashMap<>();
+        }
+    }
+    
+    /**
+     * Calcula las probabilidades de mina del tablero
+     * @param tablero Tablero a analizar
+     * @return Probabilidad de mina por casilla
+     */
+    public Probabilidades calcular(Tablero tablero) {
+        int tamaño = tablero.getTamaño();
+        int total = tamaño * tamaño;
+        long limite = System.nanoTime() + presupuestoNanos;
+        
+        boolean[] descubierta = new boolean[total];
+        int tapadas = 0;
+        for (int i = 0; i < total; i++) {
+            descubierta[i] = tablero.getCasilla(i / tamaño, i % tamaño).estaDescubierta();
+            if (!descubierta[i]) {
+                tapadas++;
+            }
+        }
+        
+        List<ComponenteFrontera> componentes = construirComponentes(tablero, descubierta,
+                tablero.getNumeroMinas(), limite);
+        
+        List<ComponenteFrontera> pendientes = componentes;
+        if (cache != null) {
+            pendientes = new ArrayList<>();
+            for (ComponenteFrontera componente : componentes) {
+                ComponenteFrontera enumerado = cache.get(componente.firma);
+                if (enumerado != null) {
+                    componente.copiarResultado(enumerado);
+                } else {
+                    pendientes.add(componente);
+                }
+            }
+        }
+        
+        if (!pendientes.isEmpty()) {
+            List<ComponenteFrontera> trabajos = pendientes;
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(trabajos)));
+        }
+        
+        if (cache != null) {
+            // Conservar solo los componentes vigentes: los que cambiaron quedan invalidados
+            Map<FirmaComponente, ComponenteFrontera> vigentes = new HashMap<>();
+            for (ComponenteFrontera componente : componentes) {
+                ComponenteFrontera anterior = cache.get(componente.firma);
+                if (anterior != null) {
+                    vigentes.put(componente.firma, anterior);
+                } else if (componente.completo) {
+                    vigentes.put(componente.firma, componente);
+                }
+            }
+            cache = vigentes;
+        }
+        
+        return combinar(tablero, descubierta, tapadas, componentes);
+    }
+    
+    /**
+     * Construye los componentes conexos de la frontera y sus restricciones
+     */
+    List<ComponenteFrontera> construirComponentes(Tablero tablero, boolean[] descubierta,
+                                                 int minasTotales, long limite) {
+        int tamaño = tablero.getTamaño();
+        int total = tamaño * tamaño;
+        Topologia topologia = tablero.getTopologia();
+        
+        // Restricciones: números descubiertos con vecinos tapados
+        ListaEnteros numeros = new ListaEnteros();
+        int[] padre = new int[total];
+        Arrays.fill(padre, -1);
+        int[] vecinosTapados = new int[topologia.getGradoMaximo()];
+        
+        for (int i = 0; i < total; i++) {
+            if (!descubierta[i]) {
+                continue;
+            }
+            Casilla casilla = tablero.getCasilla(i / tamaño, i % tamaño);
+            if (casilla.tieneMina()) {
+                continue;
+            }
+            int n = recogerVecinosTapados(i, topologia, descubierta, vecinosTapados);
+            if (n == 0) {
+                continue;
+            }
+            numeros.agregar(i);
+            for (int k = 0; k < n; k++) {
+                if (padre[vecinosTapados[k]] < 0) {
+                    padre[vecinosTapados[k]] = vecinosTapados[k];
+                }
+                unir(padre, vecinosTapados[0], vecinosTapados[k]);
+            }
+        }
+        
+        // Agrupar las restricciones por componente (la raíz de sus casillas)
+        int[] componenteDe = new int[total];
+        Arrays.fill(componenteDe, -1);
+        List<ListaEnteros> restriccionesPorComponente = new ArrayList<>();
+        for (int r = 0; r < numeros.tamaño(); r++) {
+            int n = recogerVecinosTapados(numeros.obtener(r), topologia, descubierta, vecinosTapados);
+            int raiz = buscar(padre, vecinosTapados[0]);
+            if (componenteDe[raiz] < 0) {
+                componenteDe[raiz] = restriccionesPorComponente.size();
+                restriccionesPorComponente.add(new ListaEnteros());
+            }
+            restriccionesPorComponente.get(componenteDe[raiz]).agregar(numeros.obtener(r));
+        }
+        
+        List<ComponenteFrontera> componentes = new ArrayList<>();
+        int[] local = new int[total];
+        Arrays.fill(local, -1);
+        for (ListaEnteros restricciones : restriccionesPorComponente) {
+            componentes.add(construirComponente(tablero, descubierta, restricciones, local,
+                    minasTotales, limite));
+        }
+        return componentes;
+    }
+    
+    /**
+     * Construye un componente ordenando sus casillas según el orden de las restricciones,
+     * de modo que cada número quede completamente asignado lo antes posible
+     */
+    private ComponenteFrontera construirComponente(Tablero tablero, boolean[] descubierta,
+                                                   ListaEnteros restricciones, int[] local,
+                                                   int minasTotales, long limite) {
+        int tamaño = tablero.getTamaño();
+        Topologia topologia = tablero.getTopologia();
+        int numeroRestricciones = restricciones.tamaño();
+        int[] vecinosTapados = new int[topologia.getGradoMaximo()];
+        ListaEnteros casillas = new ListaEnteros();
+        int[][] casillasDeRestriccion = new int[numeroRestricciones][];
+        int[] valores = new int[numeroRestricciones];
+        
+        for (int r = 0; r < numeroRestricciones; r++) {
+            int numero = restricciones.obtener(r);
+            int n = recogerVecinosTapados(numero, topologia, descubierta, vecinosTapados);
+            valores[r] = tablero.getCasilla(numero / tamaño, numero % tamaño).getMinasAdyacentes();
+            casillasDeRestriccion[r] = new int[n];
+            for (int k = 0; k < n; k++) {
+                int global = vecinosTapados[k];
+                if (local[global] < 0) {
+                    local[global] = casillas.tamaño();
+                    casillas.agregar(global);
+                }
+                casillasDeRestriccion[r][k] = local[global];
+            }
+        }
+        
+        // Índice inverso casilla -> restricciones en formato compacto
+        int n = casillas.tamaño();
+        int[] inicio = new int[n + 1];
+        int[] tamañoRestricciones = new int[numeroRestricciones];
+        for (int r = 0; r < numeroRestricciones; r++) {
+            tamañoRestricciones[r] = casillasDeRestriccion[r].length;
+            for (int c : casillasDeRestriccion[r]) {
+                inicio[c + 1]++;
+            }
+        }
+        for (int c = 0; c < n; c++) {
+            inicio[c + 1] += inicio[c];
+        }
+        int[] restriccionesPorCasilla = new int[inicio[n]];
+        int[] siguiente = Arrays.copyOf(inicio, n);
+        for (int r = 0; r < numeroRestricciones; r++) {
+            for (int c : casillasDeRestriccion[r]) {
+                restriccionesPorCasilla[siguiente[c]++] = r;
+            }
+        }
+        
+        int[] globales = casillas.aArreglo();
+        for (int global : globales) {
+            local[global] = -1;
+        }
+        
+        return new ComponenteFrontera(globales, inicio, restriccionesPorCasilla, valores,
+                tamañoRestricciones, minasTotales, limite);
+    }
+    
+    /**
+     * Combina los componentes con el total de minas y calcula cada probabilidad
+     */
+    private Probabilidades combinar(Tablero tablero, boolean[] descubierta, int tapadas,
+                                    List<ComponenteFrontera> componentes) {
+        int tamaño = tablero.getTamaño();
+        int total = tamaño * tamaño;
+        int minas = tablero.getNumeroMinas();
+        boolean exacto = true;
+        
+        int frontera = 0;
+        for (ComponenteFrontera componente : componentes) {
+            frontera += componente.casillas.length;
+            exacto &= componente.completo;
+            escalar(componente);
+        }
+        int interior = tapadas - frontera;
+        
+        // Pesos por total de minas en la frontera: C(interior, minas - t), en escala logarítmica
+        double[] logFactorial = logFactoriales(Math.max(interior, 1));
+        double[] logPeso = new double[frontera + 1];
+        double maximoLog = Double.NEGATIVE_INFINITY;
+        for (int t = 0; t <= frontera; t++) {
+            int restantes = minas - t;
+            logPeso[t] = (restantes < 0 || restantes > interior)
+                    ? Double.NEGATIVE_INFINITY
+                    : logFactorial[interior] - logFactorial[restantes] - logFactorial[interior - restantes];
+            maximoLog = Math.max(maximoLog, logPeso[t]);
+        }
+        double[] peso = new double[frontera + 1];
+        for (int t = 0; t <= frontera; t++) {
+            peso[t] = Math.exp(logPeso[t] - maximoLog);
+        }
+        
+        // Convoluciones prefijo/sufijo para excluir cada componente en O(componentes)
+        int c = componentes.size();
+        double[][] prefijo = new double[c + 1][];
+        double[][] sufijo = new double[c + 1][];
+        prefijo[0] = new double[]{1.0};
+        sufijo[c] = new double[]{1.0};
+        for (int i = 0; i < c; i++) {
+            prefijo[i + 1] = convolucionar(prefijo[i], componentes.get(i).soluciones);
+        }
+        for (int i = c - 1; i >= 0; i--) {
+            sufijo[i] = convolucionar(componentes.get(i).soluciones, sufijo[i + 1]);
+        }
+        
+        double[] distribucion = prefijo[c];
+        double z = 0;
+        double minasInteriorEsperadas = 0;
+        for (int t = 0; t < distribucion.length; t++) {
+            z += distribucion[t] * peso[t];
+            minasInteriorEsperadas += distribucion[t] * peso[t] * (minas - t);
+        }
+        
+        double[] probabilidades = new double[total];
+        Arrays.fill(probabilidades, Double.NaN);
+        
+        if (z <= 0) {
+            // Estado inconsistente (o sin soluciones encontradas a tiempo): reparto uniforme
+            for (int i = 0; i < total; i++) {
+                if (!descubierta[i]) {
+                    probabilidades[i] = (double) minas / tapadas;
+                }
+            }
+            return new Probabilidades(tamaño, probabilidades, false, c);
+        }
+        
+        double probabilidadInterior = interior > 0 ? minasInteriorEsperadas / z / interior : 0;
+        for (int i = 0; i < total; i++) {
+            if (!descubierta[i]) {
+                probabilidades[i] = probabilidadInterior;
+            }
+        }
+        
+        for (int i = 0; i < c; i++) {
+            ComponenteFrontera componente = componentes.get(i);
+            double[] resto = convolucionar(prefijo[i], sufijo[i + 1]);
+            int n = componente.casillas.length;
+            
+            // h[k] = sum_j resto[j] * peso[k + j]
+            double[] h = new double[n + 1];
+            for (int k = 0; k <= n; k++) {
+                for (int j = 0; j < resto.length && k + j < peso.length; j++) {
+                    h[k] += resto[j] * peso[k + j];
+                }
+            }
+            
+            for (int local = 0; local < n; local++) {
+                double suma = 0;
+                for (int k = 0; k <= n; k++) {
+                    suma += componente.minasPorCasilla[k * n + local] * h[k];
+                }
+                probabilidades[componente.casillas[local]] = suma / z;
+            }
+        }
+        
+        return new Probabilidades(tamaño, probabilidades, exacto, c);
+    }
+    
+    /**
+     * Normaliza los conteos de un componente por su máximo para evitar desbordamientos;
+     * el factor se cancela al dividir entre z
+     */
+    private static void escalar(ComponenteFrontera componente) {
+        double maximo = 0;
+        for (double s : componente.soluciones) {
+            maximo = Math.max(maximo, s);
+        }
+        if (maximo <= 1) {
+            return;
+        }
+        for (int k = 0; k < componente.soluciones.length; k++) {
+            componente.soluciones[k] /= maximo;
+        }
+        for (int k = 0; k < componente.minasPorCasilla.length; k++) {
+            componente.minasPorCasilla[k] /= maximo;
+        }
+    }
+    
+    private static double[] convolucionar(double[] a, double[] b) {
+        double[] resultado = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                resultado[i + j] += a[i] * b[j];
+            }
+        }
+        return resultado;
+    }
+    
+    private static double[] logFactoriales(int n) {
+        double[] resultado = new double[n + 1];
+        for (int i = 2; i <= n; i++) {
+            resultado[i] = resultado[i - 1] + Math.log(i);
+        }
+        return resultado;
+    }
+    
+    private static int recogerVecinosTapados(int indice, Topologia topologia, boolean[] descubierta, int[] destino) {
+        int n = 0;
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            int vecina = topologia.getVecina(k);
+            if (!descubierta[vecina]) {
+                destino[n++] = vecina;
+            }
+        }
+        return n;
+    }
+    
+    private static int buscar(int[] padre, int x) {
+        while (padre[x] != x) {
+            padre[x] = padre[padre[x]];
+            x = padre[x];
+        }
+        return x;
+    }
+    
+    private static void unir(int[] padre, int a, int b) {
+        int raizA = buscar(padre, a);
+        int raizB = buscar(padre, b);
+        if (raizA != raizB) {
+            padre[raizB] = raizA;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package solucionador;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Componente conexo de la frontera: casillas tapadas unidas por números compartidos
+ * Los componentes son independientes entre sí (solo los acopla el total de minas),
+ * por lo que cada uno se enumera por separado y en paralelo
+ * 
+ * La enumeración recorre todas las asignaciones mina/libre consistentes con los números
+ * mediante vuelta atrás con poda, y acumula para cada cantidad de minas k:
+ * - soluciones[k]: número de asignaciones con k minas
+ * - minasPorCasilla[k * n + c]: cuántas de ellas tienen mina en la casilla c
+ * 
+ * En cada nodo se prueba primero "mina" o "libre" al azar (con una secuencia fija por
+ * firma): la enumeración completa no cambia, pero si se corta por tiempo los conteos
+ * parciales ya no se inclinan siempre hacia "libre" en las primeras casillas
+ */
+final class ComponenteFrontera extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private static final int NODOS_ENTRE_CONSULTAS_DE_TIEMPO = 1024;
+    
+    // Casillas globales en orden de enumeración
+    final int[] casillas;
+    
+    // Restricciones de cada casilla local en formato compacto
+    private final int[] inicioRestricciones;
+    private final int[] restriccionesPorCasilla;
+    private final int[] valores;
+    private final int[] tamañoRestricciones;
+    
+    private final int maximoMinas;
+    private final long limiteNanos;
+    
+    // Estado de la enumeración
+    private int[] minasAsignadas;
+    private int[] sinAsignar;
+    private boolean[] asignacion;
+    private long nodos;
+    private long estadoAleatorio;
+    
+    final FirmaComponente firma;
+    
+    double[] soluciones;
+    double[] minasPorCasilla;
+    boolean completo;
+    
+    /**
+     * Constructor del componente
+     * @param casillas Casillas globales en orden de enumeración
+     * @param inicioRestricciones Inicio de las restricciones de cada casilla local
+     * @param restriccionesPorCasilla Identificadores de restricción por casilla local
+     * @param valores Minas exigidas por cada restricción
+     * @param tamañoRestricciones Casillas tapadas de cada restricción
+     * @param maximoMinas Máximo de minas que puede contener el componente
+     * @param limiteNanos Instante (System.nanoTime) en que se abandona la enumeración
+     */
+    ComponenteFrontera(int[] casillas, int[] inicioRestricciones, int[] restriccionesPorCasilla,
+                       int[] valores, int[] tamañoRestricciones, int maximoMinas, long limiteNanos) {
+        this.casillas = casillas;
+        this.inicioRestricciones = inicioRestricciones;
+        this.restriccionesPorCasilla = restriccionesPorCasilla;
+        this.valores = valores;
+        this.tamañoRestricciones = tamañoRestricciones;
+        this.maximoMinas = Math.min(maximoMinas, casillas.length);
+        this.limiteNanos = limiteNanos;
+        this.firma = new FirmaComponente(casillas, inicioRestricciones, restriccionesPorCasilla, valores);
+    }
+    
+    /**
+     * Copia los conteos de un componente idéntico ya enumerado
+     * @param enumerado Componente con la misma firma y la enumeración completa
+     */
+    void copiarResultado(ComponenteFrontera enumerado) {
+        this.soluciones = enumerado.soluciones.clone();
+        this.minasPorCasilla = enumerado.minasPorCasilla.clone();
+        this.completo = true;
+    }
+    
+    @Override
+    protected void compute() {
+        int n = casillas.length;
+        minasAsignadas = new int[valores.length];
+        sinAsignar = tamañoRestricciones.clone();
+        asignacion = new boolean[n];
+        soluciones = new double[n + 1];
+        minasPorCasilla = new double[(n + 1) * n];
+        completo = true;
+        estadoAleatorio = firma.hashCode() * 0x9E3779B97F4A7C15L | 1;
+        
+        enumerar(0, 0);
+        
+        // Liberar el estado de trabajo; solo se conservan los conteos
+        minasAsignadas = null;
+        sinAsignar = null;
+        asignacion = null;
+    }
+    
+    /**
+     * Asigna la casilla local 'posicion' y continúa con la siguiente
+     * @return false si se agotó el tiempo y hay que abandonar
+     */
+    private boolean enumerar(int posicion, int minas) {
+        if (++nodos % NODOS_ENTRE_CONSULTAS_DE_TIEMPO == 0 && System.nanoTime() > limiteNanos) {
+            completo = false;
+            return false;
+        }
+        
+        if (posicion == casillas.length) {
+            registrarSolucion(minas);
+            return true;
+        }
+        
+        // Probar los dos valores en orden aleatorio
+        boolean minaPrimero = siguienteBit();
+        for (int intento = 0; intento < 2; intento++) {
+            boolean mina = minaPrimero == (intento == 0);
+            if (mina && minas >= maximoMinas) {
+                continue;
+            }
+            boolean seguir = !asignar(posicion, mina) || enumerar(posicion + 1, mina ? minas + 1 : minas);
+            desasignar(posicion, mina);
+            if (!seguir) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Siguiente bit de un xorshift de 64 bits, más barato que un Random por nodo
+     */
+    private boolean siguienteBit() {
+        long x = estadoAleatorio;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        estadoAleatorio = x;
+        return x < 0;
+    }
+    
+    /**
+     * Asigna un valor a la casilla y comprueba que sus restricciones sigan siendo satisfacibles
+     */
+    private boolean asignar(int posicion, boolean mina) {
+        asignacion[posicion] = mina;
+        boolean valido = true;
+        for (int k = inicioRestricciones[posicion]; k < inicioRestricciones[posicion + 1]; k++) {
+            int r = restriccionesPorCasilla[k];
+            sinAsignar[r]--;
+            if (mina) {
+                minasAsignadas[r]++;
+            }
+            if (minasAsignadas[r] > valores[r] || minasAsignadas[r] + sinAsignar[r] < valores[r]) {
+                valido = false;
+            }
+        }
+        return valido;
+    }
+    
+    private void desasignar(int posicion, boolean mina) {
+        for (int k = inicioRestricciones[posicion]; k < inicioRestricciones[posicion + 1]; k++) {
+            int r = restriccionesPorCasilla[k];
+            sinAsignar[r]++;
+            if (mina) {
+                minasAsignadas[r]--;
+            }
+        }
+        asignacion[posicion] = false;
+    }
+    
+    private void registrarSolucion(int minas) {
+        int n = casillas.length;
+        soluciones[minas]++;
+        int base = minas * n;
+        for (int c = 0; c < n; c++) {
+            if (asignacion[c]) {
+                minasPorCasilla[base + c]++;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package solucionador;
+
+/**
+ * Resultado de intentar resolver un tablero sin adivinar
+ */
+public enum EstadoSolucion {
+    /** El tablero se completó con victoria */
+    RESUELTO,
+    /** No quedan deducciones seguras: la siguiente jugada exige adivinar */
+    ADIVINANZA_NECESARIA,
+    /** La partida terminó en derrota (por una adivinanza o un estado inconsistente) */
+    DERROTA
+}
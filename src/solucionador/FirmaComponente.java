@@ -0,0 +1,46 @@
+package solucionador;
+
+import java.util.Arrays;
+
+/**
+ * Identifica un componente de frontera por su estructura: casillas, restricciones y valores
+ * Dos componentes con la misma firma tienen exactamente las mismas soluciones, así que la
+ * enumeración de uno sirve para el otro
+ */
+final class FirmaComponente {
+    private final int[] casillas;
+    private final int[] inicioRestricciones;
+    private final int[] restriccionesPorCasilla;
+    private final int[] valores;
+    private final int hash;
+    
+    FirmaComponente(int[] casillas, int[] inicioRestricciones, int[] restriccionesPorCasilla, int[] valores) {
+        this.casillas = casillas;
+        this.inicioRestricciones = inicioRestricciones;
+        this.restriccionesPorCasilla = restriccionesPorCasilla;
+        this.valores = valores;
+        this.hash = ((Arrays.hashCode(casillas) * 31 + Arrays.hashCode(restriccionesPorCasilla)) * 31
+                + Arrays.hashCode(valores));
+    }
+    
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof FirmaComponente)) {
+            return false;
+        }
+        FirmaComponente firma = (FirmaComponente) otro;
+        return hash == firma.hash
+                && Arrays.equals(casillas, firma.casillas)
+                && Arrays.equals(inicioRestricciones, firma.inicioRestricciones)
+                && Arrays.equals(restriccionesPorCasilla, firma.restriccionesPorCasilla)
+                && Arrays.equals(valores, firma.valores);
+    }
+    
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
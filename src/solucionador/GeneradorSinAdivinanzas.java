@@ -0,0 +1,178 @@
+package solucionador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import eventos.EventoGeneracionTablero;
+import modelo.Dificultad;
+import modelo.Tablero;
+
+/**
+ * Generador de tableros que se pueden resolver sin adivinar desde una casilla inicial
+ * 
+ * Varios hilos prueban candidatos en paralelo: el candidato k usa una semilla derivada de
+ * la semilla maestra y de k, con la casilla inicial y sus vecinas libres de minas. Cada
+ * candidato se valida con el {@link Solucionador}. El primer candidato válido (el de menor k)
+ * gana y los hilos que van por candidatos posteriores se detienen, de modo que con la misma
+ * semilla maestra el resultado es el mismo sin importar el número de hilos
+ */
+public class GeneradorSinAdivinanzas {
+    private static final long PASO_SEMILLA = 0x9E3779B97F4A7C15L;
+    private static final long INTENTOS_MAXIMOS = 1_000_000L;
+    
+    private final ExecutorService ejecutor;
+    private final int hilos;
+    
+    /**
+     * Constructor del generador
+     * @param hilos Número de hilos de generación
+     */
+    public GeneradorSinAdivinanzas(int hilos) {
+        this.hilos = hilos;
+        this.ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "generador-sin-adivinanzas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+    
+    /**
+     * Genera un tablero resoluble sin adivinar con la casilla inicial ya descubierta
+     * @param tamaño Tamaño del tablero
+     * @param numeroMinas Minas del tablero
+     * @param semilla Semilla maestra; la misma semilla produce siempre el mismo tablero
+     * @param filaInicio Fila de la casilla inicial
+     * @param columnaInicio Columna de la casilla inicial
+     * @return Tablero con la casilla inicial descubierta (su semilla permite recrearlo)
+     * @throws InterruptedException Si se interrumpe la generación
+     */
+    public Tablero generar(int tamaño, int numeroMinas, long semilla, int filaInicio, int columnaInicio)
+            throws InterruptedException {
+        EventoGeneracionTablero evento = new EventoGeneracionTablero();
+        evento.begin();
+        AtomicLong siguienteCandidato = new AtomicLong();
+        AtomicLong mejorCandidato = new AtomicLong(Long.MAX_VALUE);
+        
+        List<Future<?>> trabajos = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            trabajos.add(ejecutor.submit(() -> {
+                Tablero tablero = null;
+                Solucionador solucionador = null;
+                long k;
+                
+                // Se abandona en cuanto ya existe un candidato válido anterior al siguiente
+                while ((k = siguienteCandidato.getAndIncrement()) < mejorCandidato.get()
+                        && k < INTENTOS_MAXIMOS && !Thread.currentThread().isInterrupted()) {
+                    long semillaCandidato = semillaCandidato(semilla, k);
+                    if (tablero == null) {
+                        tablero = new Tablero(tamaño, numeroMinas, semillaCandidato, filaInicio, columnaInicio);
+                        solucionador = new Solucionador(tablero);
+                    } else {
+                        tablero.reiniciar(semillaCandidato, filaInicio, columnaInicio);
+                        solucionador.reiniciar(tablero);
+                    }
+                    
+                    solucionador.descubrir(filaInicio * tamaño + columnaInicio);
+                    if (solucionador.resolver() == EstadoSolucion.RESUELTO) {
+                        mejorCandidato.accumulateAndGet(k, Math::min);
+                    }
+                }
+            }));
+        }
+        
+        try {
+            for (Future<?> trabajo : trabajos) {
+                trabajo.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al generar el tablero: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (Future<?> trabajo : trabajos) {
+                trabajo.cancel(true);
+            }
+        }
+        
+        if (mejorCandidato.get() == Long.MAX_VALUE) {
+            throw new IllegalStateException("No se encontró un tablero sin adivinanzas en "
+                    + INTENTOS_MAXIMOS + " intentos");
+        }
+        
+        // Recrear el ganador: su semilla y la casilla inicial lo determinan por completo
+        Tablero tablero = new Tablero(tamaño, numeroMinas, semillaCandidato(semilla, mejorCandidato.get()),
+                filaInicio, columnaInicio);
+        new Solucionador(tablero).descubrir(filaInicio * tamaño + columnaInicio);
+        
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.tamaño = tamaño;
+            evento.minas = numeroMinas;
+            evento.semilla = semilla;
+            evento.sinAdivinanzas = true;
+            evento.candidatos = (int) mejorCandidato.get() + 1;
+            evento.commit();
+        }
+        return tablero;
+    }
+    
+    /**
+     * Genera un tablero sin adivinanzas con la casilla inicial en el centro
+     * @param dificultad Configuración del tablero
+     * @param semilla Semilla maestra
+     * @return Tablero con la casilla central descubierta
+     * @throws InterruptedException Si se interrumpe la generación
+     */
+    public Tablero generar(Dificultad dificultad, long semilla) throws InterruptedException {
+        int centro = dificultad.getTamaño() / 2;
+        return generar(dificultad.getTamaño(), dificultad.getNumeroMinas(), semilla, centro, centro);
+    }
+    
+    /**
+     * Mide la latencia de generación para una dificultad
+     * @param dificultad Configuración del tablero
+     * @param muestras Número de tableros a generar
+     * @param semilla Semilla de la primera muestra (las siguientes usan semilla + i)
+     * @return Latencias en nanosegundos, ordenadas de menor a mayor
+     * @throws InterruptedException Si se interrumpe la generación
+     */
+    public long[] medirLatencias(Dificultad dificultad, int muestras, long semilla) throws InterruptedException {
+        long[] latencias = new long[muestras];
+        for (int i = 0; i < muestras; i++) {
+            long inicio = System.nanoTime();
+            generar(dificultad, semilla + i);
+            latencias[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(latencias);
+        return latencias;
+    }
+    
+    /**
+     * Obtiene un percentil de un arreglo de latencias ordenado
+     * @param latencias Latencias ordenadas
+     * @param percentil Percentil entre 0 y 100
+     * @return Latencia del percentil indicado
+     */
+    public static long percentil(long[] latencias, double percentil) {
+        if (latencias.length == 0) {
+            return 0;
+        }
+        int posicion = (int) Math.ceil(percentil / 100.0 * latencias.length) - 1;
+        return latencias[Math.max(0, Math.min(latencias.length - 1, posicion))];
+    }
+    
+    /**
+     * Detiene los hilos del generador
+     */
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+    
+    private static long semillaCandidato(long semilla, long candidato) {
+        return semilla + candidato * PASO_SEMILLA;
+    }
+}
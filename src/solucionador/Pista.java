@@ -0,0 +1,49 @@
+package solucionador;
+
+/**
+ * Sugerencia de jugada para el jugador
+ */
+public class Pista {
+    private final int fila;
+    private final int columna;
+    private final double probabilidadMina;
+    private final boolean segura;
+    
+    /**
+     * Constructor de la pista
+     * @param fila Fila de la casilla sugerida
+     * @param columna Columna de la casilla sugerida
+     * @param probabilidadMina Probabilidad de que la casilla tenga mina
+     * @param segura true si se ha deducido con certeza que no tiene mina
+     */
+    public Pista(int fila, int columna, double probabilidadMina, boolean segura) {
+        this.fila = fila;
+        this.columna = columna;
+        this.probabilidadMina = probabilidadMina;
+        this.segura = segura;
+    }
+    
+    public int getFila() {
+        return fila;
+    }
+    
+    public int getColumna() {
+        return columna;
+    }
+    
+    public double getProbabilidadMina() {
+        return probabilidadMina;
+    }
+    
+    public boolean esSegura() {
+        return segura;
+    }
+    
+    /**
+     * Obtiene la coordenada en el formato de la consola (por ejemplo, B3)
+     * @return Coordenada letra-número
+     */
+    public String getCoordenada() {
+        return String.valueOf((char) ('A' + fila)) + (columna + 1);
+    }
+}
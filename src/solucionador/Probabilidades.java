@@ -0,0 +1,64 @@
+package solucionador;
+
+/**
+ * Probabilidad de mina de cada casilla tapada de un tablero
+ */
+public class Probabilidades {
+    private final int tamaño;
+    private final double[] probabilidades;
+    private final boolean exacto;
+    private final int componentes;
+    
+    /**
+     * Constructor del resultado
+     * @param tamaño Tamaño del tablero
+     * @param probabilidades Probabilidad por índice de casilla (NaN en casillas descubiertas)
+     * @param exacto false si algún componente no se enumeró completo dentro del presupuesto
+     * @param componentes Número de componentes de frontera analizados
+     */
+    Probabilidades(int tamaño, double[] probabilidades, boolean exacto, int componentes) {
+        this.tamaño = tamaño;
+        this.probabilidades = probabilidades;
+        this.exacto = exacto;
+        this.componentes = componentes;
+    }
+    
+    public double getProbabilidad(int indice) {
+        return probabilidades[indice];
+    }
+    
+    public double getProbabilidad(int fila, int columna) {
+        return probabilidades[fila * tamaño + columna];
+    }
+    
+    /**
+     * Obtiene la casilla tapada con menor probabilidad de mina
+     * @return Índice de la casilla o -1 si no quedan casillas tapadas
+     */
+    public int getCasillaMasSegura() {
+        int mejor = -1;
+        for (int i = 0; i < probabilidades.length; i++) {
+            if (!Double.isNaN(probabilidades[i]) && (mejor < 0 || probabilidades[i] < probabilidades[mejor])) {
+                mejor = i;
+            }
+        }
+        return mejor;
+    }
+    
+    /**
+     * Indica si el resultado es exacto o una aproximación parcial por falta de tiempo
+     * Una aproximación puede estar muy sesgada en algunas casillas (ver
+     * {@link CalculadoraProbabilidades}), incluida la que da {@link #getCasillaMasSegura()}
+     */
+    public boolean esExacto() {
+        return exacto;
+    }
+    
+    public int getComponentes() {
+        return componentes;
+    }
+    
+    public int getTamaño() {
+        return tamaño;
+    }
+}
\ No newline at end of file
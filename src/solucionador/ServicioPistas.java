@@ -0,0 +1,119 @@
+package solucionador;
+
+import java.util.concurrent.ForkJoinPool;
+
+import modelo.ListaEnteros;
+import modelo.ObservadorTablero;
+import modelo.Tablero;
+
+/**
+ * Servicio de pistas con estado persistente entre jugadas
+ * 
+ * Observa el tablero y acumula las casillas reveladas desde la última pista; al pedir otra,
+ * el solucionador solo reexamina las restricciones cercanas a ellas. Si no hay casillas
+ * seguras, las probabilidades se calculan con caché de componentes, de modo que solo se
+ * vuelven a enumerar los componentes de frontera que cambiaron
+ */
+public class ServicioPistas implements ObservadorTablero {
+    private static final long PRESUPUESTO_NANOS = 200_000_000L;
+    
+    private final Tablero tablero;
+    private final Solucionador solucionador;
+    private final CalculadoraProbabilidades calculadora;
+    private final ListaEnteros descubiertasPendientes;
+    private Pista ultimaPista;
+    private boolean resincronizar;
+    
+    /**
+     * Constructor del servicio; se registra como observador del tablero
+     * @param tablero Tablero de la partida en curso
+     */
+    public ServicioPistas(Tablero tablero) {
+        this.tablero = tablero;
+        this.solucionador = new Solucionador(tablero);
+        this.calculadora = new CalculadoraProbabilidades(ForkJoinPool.commonPool(), PRESUPUESTO_NANOS);
+        this.calculadora.activarCache();
+        this.descubiertasPendientes = new ListaEnteros();
+        tablero.agregarObservador(this);
+    }
+    
+    @Override
+    public void casillaDescubierta(int indice) {
+        descubiertasPendientes.agregar(indice);
+        ultimaPista = null;
+    }
+    
+    @Override
+    public void casillaOcultada(int indice) {
+        // El solucionador solo avanza: al deshacer hay que volver a leer el tablero
+        resincronizar = true;
+        ultimaPista = null;
+    }
+    
+    @Override
+    public void tableroReiniciado() {
+        resincronizar = true;
+        ultimaPista = null;
+    }
+    
+    /**
+     * Obtiene una casilla segura o, si no existe, la de menor probabilidad de mina
+     * @return Pista o null si la partida terminó
+     */
+    public Pista obtenerPista() {
+        if (tablero.estaTerminado()) {
+            return null;
+        }
+        if (ultimaPista != null && !tablero.getCasilla(ultimaPista.getFila(), ultimaPista.getColumna()).estaMarcada()) {
+            return ultimaPista;
+        }
+        
+        int tamaño = tablero.getTamaño();
+        if (tablero.tieneMinasPendientes()) {
+            // El primer clic nunca tiene mina: cualquier casilla es segura
+            ultimaPista = new Pista(tamaño / 2, tamaño / 2, 0.0, true);
+            return ultimaPista;
+        }
+        
+        if (resincronizar) {
+            solucionador.reiniciar(tablero);
+            descubiertasPendientes.limpiar();
+            resincronizar = false;
+        } else if (!descubiertasPendientes.estaVacia()) {
+            solucionador.notificarDescubiertas(descubiertasPendientes.aArreglo());
+            descubiertasPendientes.limpiar();
+        }
+        solucionador.propagar();
+        
+        for (int indice : solucionador.getCasillasSeguras()) {
+            if (!tablero.getCasilla(indice / tamaño, indice % tamaño).estaMarcada()) {
+                ultimaPista = new Pista(indice / tamaño, indice % tamaño, 0.0, true);
+                return ultimaPista;
+            }
+        }
+        
+        Probabilidades probabilidades = calculadora.calcular(tablero);
+        int mejor = -1;
+        for (int i = 0; i < tamaño * tamaño; i++) {
+            double p = probabilidades.getProbabilidad(i);
+            if (!Double.isNaN(p) && !tablero.getCasilla(i / tamaño, i % tamaño).estaMarcada()
+                    && (mejor < 0 || p < probabilidades.getProbabilidad(mejor))) {
+                mejor = i;
+            }
+        }
+        if (mejor < 0) {
+            return null;
+        }
+        
+        double probabilidad = probabilidades.getProbabilidad(mejor);
+        ultimaPista = new Pista(mejor / tamaño, mejor % tamaño, probabilidad, probabilidad == 0.0);
+        return ultimaPista;
+    }
+    
+    /**
+     * Deja de observar el tablero
+     */
+    public void cerrar() {
+        tablero.quitarObservador(this);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,430 @@
+package solucionador;
+
+import java.util.Arrays;
+
+import modelo.Casilla;
+import modelo.EstadoJuego;
+import modelo.ListaEnteros;
+import modelo.Movimiento;
+import modelo.ResultadoLote;
+import modelo.Tablero;
+import modelo.Topologia;
+
+/**
+ * Solucionador determinista por propagación de restricciones
+ * Trabaja solo con el estado visible del tablero (casillas descubiertas y sus números);
+ * nunca consulta dónde están las minas
+ * 
+ * Reglas aplicadas:
+ * - Casilla individual: si el número ya está cubierto por minas conocidas, el resto es seguro;
+ *   si el número iguala las casillas desconocidas, todas son minas
+ * - Pares de restricciones vecinas (subconjunto/superconjunto): compara los conjuntos de
+ *   casillas desconocidas de dos números que comparten alguna para deducir la diferencia
+ * 
+ * Las restricciones se revisan con una cola de trabajo incremental: cada cambio solo
+ * vuelve a encolar los números vecinos de las casillas afectadas
+ */
+public class Solucionador {
+    private static final byte DESCONOCIDA = 0;
+    private static final byte SEGURA = 1;
+    private static final byte MINA = 2;
+    private static final byte DESCUBIERTA = 3;
+    
+    private Tablero tablero;
+    private int tamaño;
+    private int totalCasillas;
+    
+    // Vecinas de cada casilla según la forma del tablero
+    private Topologia topologia;
+    
+    private byte[] estado;
+    private int[] valor;
+    private boolean[] enCola;
+    private final ListaEnteros cola;
+    private final ListaEnteros segurasPendientes;
+    private int minasConocidas;
+    
+    // Buffers reutilizables para las reglas de pares
+    private int[] desconocidasA = new int[8];
+    private int[] desconocidasB = new int[8];
+    // Números ya comparados en la llamada actual a las reglas de pares
+    private int[] comparados;
+    private int ronda;
+    
+    /**
+     * Constructor del solucionador
+     * @param tablero Tablero a analizar
+     */
+    public Solucionador(Tablero tablero) {
+        this.cola = new ListaEnteros(64);
+        this.segurasPendientes = new ListaEnteros(64);
+        reiniciar(tablero);
+    }
+    
+    /**
+     * Reinicia el solucionador para otro tablero reutilizando la memoria reservada
+     * @param nuevoTablero Tablero a analizar
+     */
+    public void reiniciar(Tablero nuevoTablero) {
+        this.tablero = nuevoTablero;
+        this.topologia = nuevoTablero.getTopologia();
+        if (topologia.getGradoMaximo() > desconocidasA.length) {
+            desconocidasA = new int[topologia.getGradoMaximo()];
+            desconocidasB = new int[topologia.getGradoMaximo()];
+        }
+        
+        if (estado == null || nuevoTablero.getTamaño() != tamaño) {
+            this.tamaño = nuevoTablero.getTamaño();
+            this.totalCasillas = tamaño * tamaño;
+            this.estado = new byte[totalCasillas];
+            this.valor = new int[totalCasillas];
+            this.enCola = new boolean[totalCasillas];
+            this.comparados = new int[totalCasillas];
+            this.ronda = 0;
+        } else {
+            Arrays.fill(estado, DESCONOCIDA);
+            Arrays.fill(enCola, false);
+        }
+        
+        cola.limpiar();
+        segurasPendientes.limpiar();
+        minasConocidas = 0;
+        sincronizar();
+    }
+    
+    /**
+     * Lee el estado visible completo del tablero (una sola vez por tablero)
+     */
+    private void sincronizar() {
+        for (int i = 0; i < totalCasillas; i++) {
+            Casilla casilla = tablero.getCasilla(i / tamaño, i % tamaño);
+            if (casilla.estaDescubierta() && !casilla.tieneMina()) {
+                estado[i] = DESCUBIERTA;
+                valor[i] = casilla.getMinasAdyacentes();
+                encolar(i);
+            }
+        }
+    }
+    
+    /**
+     * Informa al solucionador de casillas reveladas fuera de él (jugadas del usuario o adivinanzas)
+     * Solo se vuelven a revisar las restricciones cercanas a esas casillas
+     * @param indices Índices de las casillas reveladas
+     */
+    public void notificarDescubiertas(int[] indices) {
+        for (int indice : indices) {
+            if (estado[indice] == DESCUBIERTA) {
+                continue;
+            }
+            Casilla casilla = tablero.getCasilla(indice / tamaño, indice % tamaño);
+            if (casilla.tieneMina()) {
+                continue;
+            }
+            
+            estado[indice] = DESCUBIERTA;
+            valor[indice] = casilla.getMinasAdyacentes();
+            encolar(indice);
+            encolarVecinosDescubiertos(indice);
+        }
+    }
+    
+    /**
+     * Aplica la propagación de restricciones hasta agotar la cola de trabajo
+     * @return true si se dedujo al menos una casilla nueva
+     */
+    public boolean propagar() {
+        boolean hayDeducciones = false;
+        
+        while (!cola.estaVacia()) {
+            int indice = cola.quitarUltimo();
+            enCola[indice] = false;
+            
+            if (aplicarReglaIndividual(indice) || aplicarReglasDePares(indice)) {
+                hayDeducciones = true;
+            }
+        }
+        
+        return hayDeducciones;
+    }
+    
+    /**
+     * Juega el tablero descubriendo solo casillas seguras
+     * Termina al completar el tablero o cuando la siguiente jugada exige adivinar
+     * @return Estado final del intento
+     */
+    public EstadoSolucion resolver() {
+        ListaEnteros lote = new ListaEnteros();
+        
+        while (!tablero.estaTerminado()) {
+            propagar();
+            
+            lote.limpiar();
+            while (!segurasPendientes.estaVacia()) {
+                int indice = segurasPendientes.quitarUltimo();
+                if (estado[indice] == SEGURA) {
+                    lote.agregar(Movimiento.descubrir(indice / tamaño, indice % tamaño, tamaño));
+                }
+            }
+            
+            if (lote.estaVacia()) {
+                return EstadoSolucion.ADIVINANZA_NECESARIA;
+            }
+            
+            ResultadoLote resultado = tablero.aplicarMovimientos(lote.aArreglo());
+            notificarDescubiertas(resultado.getCasillasDescubiertas());
+            
+            if (resultado.getCasillasDescubiertas().length == 0) {
+                // Las casillas seguras restantes están marcadas por el usuario
+                return EstadoSolucion.ADIVINANZA_NECESARIA;
+            }
+        }
+        
+        return estadoFinal();
+    }
+    
+    /**
+     * Descubre una casilla elegida fuera del solucionador (por ejemplo, una adivinanza)
+     * y actualiza la información incremental
+     * @param indice Índice de la casilla a descubrir
+     * @return Cambios producidos en el tablero
+     */
+    public ResultadoLote descubrir(int indice) {
+        ResultadoLote resultado = tablero.aplicarMovimientos(
+                new int[]{Movimiento.descubrir(indice / tamaño, indice % tamaño, tamaño)});
+        notificarDescubiertas(resultado.getCasillasDescubiertas());
+        return resultado;
+    }
+    
+    /**
+     * Regla de casilla individual sobre un número descubierto
+     */
+    private boolean aplicarReglaIndividual(int indice) {
+        int desconocidas = 0;
+        int minas = 0;
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            byte estadoVecino = estado[topologia.getVecina(k)];
+            if (estadoVecino == DESCONOCIDA) {
+                desconocidas++;
+            } else if (estadoVecino == MINA) {
+                minas++;
+            }
+        }
+        
+        if (desconocidas == 0) {
+            return false;
+        }
+        
+        int restantes = valor[indice] - minas;
+        if (restantes != 0 && restantes != desconocidas) {
+            return false;
+        }
+        
+        byte deduccion = restantes == 0 ? SEGURA : MINA;
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            if (estado[topologia.getVecina(k)] == DESCONOCIDA) {
+                fijar(topologia.getVecina(k), deduccion);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Reglas de subconjunto/superconjunto entre este número y los números que comparten
+     * con él alguna casilla desconocida (con los demás no se deduce nada que no dé la
+     * regla individual). Se llega a ellos por las vecinas de sus casillas desconocidas
+     */
+    private boolean aplicarReglasDePares(int indiceA) {
+        int nA = recogerDesconocidas(indiceA, desconocidasA);
+        if (nA == 0) {
+            return false;
+        }
+        int restantesA = valor[indiceA] - contarMinas(indiceA);
+        
+        if (++ronda == 0) {
+            Arrays.fill(comparados, 0);
+            ronda = 1;
+        }
+        comparados[indiceA] = ronda;
+        for (int i = 0; i < nA; i++) {
+            int comun = desconocidasA[i];
+            for (int k = topologia.inicio(comun); k < topologia.fin(comun); k++) {
+                int indiceB = topologia.getVecina(k);
+                if (estado[indiceB] != DESCUBIERTA || comparados[indiceB] == ronda) {
+                    continue;
+                }
+                comparados[indiceB] = ronda;
+                
+                int nB = recogerDesconocidas(indiceB, desconocidasB);
+                if (nB == 0) {
+                    continue;
+                }
+                int restantesB = valor[indiceB] - contarMinas(indiceB);
+                
+                if (compararRestricciones(desconocidasA, nA, restantesA, desconocidasB, nB, restantesB)
+                        || compararRestricciones(desconocidasB, nB, restantesB, desconocidasA, nA, restantesA)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Compara dos restricciones A y B deduciendo sobre sus diferencias
+     * - Si A ⊆ B y tienen las mismas minas restantes, B \ A es seguro
+     * - Si las minas que B tiene de más que A igualan |B \ A|, B \ A son minas y A \ B es seguro
+     */
+    private boolean compararRestricciones(int[] a, int nA, int restantesA, int[] b, int nB, int restantesB) {
+        int soloB = 0;
+        for (int i = 0; i < nB; i++) {
+            if (!contiene(a, nA, b[i])) {
+                soloB++;
+            }
+        }
+        if (soloB == 0) {
+            return false;
+        }
+        int comunes = nB - soloB;
+        boolean subconjunto = comunes == nA;
+        
+        if (subconjunto && restantesA == restantesB) {
+            for (int i = 0; i < nB; i++) {
+                if (!contiene(a, nA, b[i])) {
+                    fijar(b[i], SEGURA);
+                }
+            }
+            return true;
+        }
+        
+        if (restantesB - restantesA == soloB) {
+            for (int i = 0; i < nB; i++) {
+                if (!contiene(a, nA, b[i])) {
+                    fijar(b[i], MINA);
+                }
+            }
+            for (int i = 0; i < nA; i++) {
+                if (!contiene(b, nB, a[i])) {
+                    fijar(a[i], SEGURA);
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    private static boolean contiene(int[] conjunto, int n, int valorBuscado) {
+        for (int i = 0; i < n; i++) {
+            if (conjunto[i] == valorBuscado) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private int recogerDesconocidas(int indice, int[] destino) {
+        int n = 0;
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            if (estado[topologia.getVecina(k)] == DESCONOCIDA) {
+                destino[n++] = topologia.getVecina(k);
+            }
+        }
+        return n;
+    }
+    
+    private int contarMinas(int indice) {
+        int minas = 0;
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            if (estado[topologia.getVecina(k)] == MINA) {
+                minas++;
+            }
+        }
+        return minas;
+    }
+    
+    /**
+     * Registra una deducción y encola los números afectados por ella
+     */
+    private void fijar(int indice, byte deduccion) {
+        if (estado[indice] != DESCONOCIDA) {
+            return;
+        }
+        estado[indice] = deduccion;
+        if (deduccion == MINA) {
+            minasConocidas++;
+        } else {
+            segurasPendientes.agregar(indice);
+        }
+        encolarVecinosDescubiertos(indice);
+    }
+    
+    private void encolarVecinosDescubiertos(int indice) {
+        for (int k = topologia.inicio(indice); k < topologia.fin(indice); k++) {
+            if (estado[topologia.getVecina(k)] == DESCUBIERTA) {
+                encolar(topologia.getVecina(k));
+            }
+        }
+    }
+    
+    private void encolar(int indice) {
+        if (!enCola[indice] && valor[indice] > 0) {
+            enCola[indice] = true;
+            cola.agregar(indice);
+        }
+    }
+    
+    private EstadoSolucion estadoFinal() {
+        if (tablero.getEstado() == EstadoJuego.VICTORIA) {
+            return EstadoSolucion.RESUELTO;
+        }
+        if (tablero.getEstado() == EstadoJuego.DERROTA) {
+            return EstadoSolucion.DERROTA;
+        }
+        return EstadoSolucion.ADIVINANZA_NECESARIA;
+    }
+    
+    /**
+     * Obtiene las casillas deducidas como seguras que siguen tapadas
+     * @return Índices de casillas seguras
+     */
+    public int[] getCasillasSeguras() {
+        return recogerEstado(SEGURA);
+    }
+    
+    /**
+     * Obtiene las casillas deducidas con certeza como minas
+     * @return Índices de minas seguras
+     */
+    public int[] getMinasSeguras() {
+        return recogerEstado(MINA);
+    }
+    
+    private int[] recogerEstado(byte buscado) {
+        ListaEnteros resultado = new ListaEnteros();
+        for (int i = 0; i < totalCasillas; i++) {
+            if (estado[i] == buscado && !tablero.getCasilla(i / tamaño, i % tamaño).estaDescubierta()) {
+                resultado.agregar(i);
+            }
+        }
+        return resultado.aArreglo();
+    }
+    
+    public boolean esSegura(int indice) {
+        return estado[indice] == SEGURA;
+    }
+    
+    public boolean esMinaSegura(int indice) {
+        return estado[indice] == MINA;
+    }
+    
+    public boolean estaDescubierta(int indice) {
+        return estado[indice] == DESCUBIERTA;
+    }
+    
+    public int getMinasConocidas() {
+        return minasConocidas;
+    }
+    
+    public Tablero getTablero() {
+        return tablero;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,324 @@
+package test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import excepciones.CasillaYaDescubiertaException;
+import modelo.Jugador;
+import modelo.Tablero;
+import persistencia.AlmacenSesiones;
+
+/**
+ * Clase de pruebas unitarias para el almacén de sesiones
+ */
+public class TestAlmacenSesiones {
+    
+    // Segmentos pequeños para que las pruebas roten y compacten a menudo
+    private static final long SEGMENTO_PEQUEÑO = 4096;
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para AlmacenSesiones
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - ALMACÉN DE SESIONES ===");
+        
+        try {
+            Path directorio = Files.createTempDirectory("buscaminas-sesiones");
+            testGuardarObtenerYEliminar(directorio.resolve("basico"));
+            testReaperturaConPistas(directorio.resolve("pistas"));
+            testEscrituraCortada(directorio.resolve("cortada"));
+            testCompactacion(directorio.resolve("compactacion"));
+            testEscriturasConcurrentes(directorio.resolve("concurrente"));
+            testValidaciones(directorio.resolve("validaciones"));
+            
+            borrar(directorio);
+        } catch (IOException e) {
+            assert false : "Error de E/S en las pruebas del almacén de sesiones: " + e.getMessage();
+        }
+        
+        System.out.println("=== TODAS LAS PRUEBAS ALMACÉN DE SESIONES COMPLETADAS ===\n");
+    }
+    
+    private static void testGuardarObtenerYEliminar(Path directorio) throws IOException {
+        System.out.print("Test: Guardar, sobrescribir y eliminar sesiones... ");
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio)) {
+            assert almacen.obtener("nadie") == null : "Una sesión desconocida no debe existir";
+            assert !almacen.eliminar("nadie") : "Eliminar una sesión desconocida no hace nada";
+            
+            almacen.guardar("sesión-ñandú", valor(1, 10));
+            almacen.guardar("vacía", new byte[0]);
+            assert Arrays.equals(almacen.obtener("sesión-ñandú"), valor(1, 10));
+            assert almacen.obtener("vacía").length == 0 : "Un valor vacío es distinto de no tener valor";
+            
+            almacen.guardar("sesión-ñandú", valor(2, 300));
+            assert Arrays.equals(almacen.obtener("sesión-ñandú"), valor(2, 300)) : "Debe leerse el último valor guardado";
+            assert almacen.getNumeroClaves() == 2;
+            assert almacen.getBytesObsoletos() > 0 : "El valor reemplazado queda obsoleto";
+            
+            assert almacen.eliminar("vacía");
+            assert almacen.obtener("vacía") == null && !almacen.contiene("vacía");
+            assert almacen.getNumeroClaves() == 1;
+            
+            Tablero tablero = new Tablero(9, 10, 7L, 4, 4);
+            tablero.descubrirCasilla(4, 4);
+            Jugador jugador = new Jugador("Ana");
+            almacen.guardarPartida("partida", tablero, jugador);
+            Object[] partida = almacen.cargarPartida("partida");
+            Tablero cargado = (Tablero) partida[0];
+            assert cargado.getCasillasDescubiertas() == tablero.getCasillasDescubiertas() : "El tablero debe cargarse igual";
+            assert ((Jugador) partida[1]).getNombre().equals("Ana");
+            assert almacen.cargarPartida("otra") == null;
+        } catch (CasillaYaDescubiertaException e) {
+            assert false : "La casilla estaba tapada";
+        }
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio)) {
+            assert Arrays.equals(almacen.obtener("sesión-ñandú"), valor(2, 300)) : "Los valores deben persistir";
+            assert almacen.obtener("vacía") == null : "Los borrados deben persistir";
+            assert almacen.cargarPartida("partida") != null;
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Al reabrir, todos los segmentos cerrados se cargan desde sus pistas sin recorrerlos
+     */
+    private static void testReaperturaConPistas(Path directorio) throws IOException {
+        System.out.print("Test: Reapertura desde archivos de pistas... ");
+        
+        int sesiones = 2000;
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio, SEGMENTO_PEQUEÑO)) {
+            for (int i = 0; i < sesiones; i++) {
+                almacen.guardar("s" + i, valor(i, i % 50));
+            }
+            for (int i = 0; i < sesiones; i += 7) {
+                almacen.eliminar("s" + i);
+            }
+            assert almacen.getNumeroSegmentos() > 10 : "Con segmentos pequeños debe haber rotado";
+        }
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio, SEGMENTO_PEQUEÑO)) {
+            assert almacen.getSegmentosRecorridos() == 0 : "Todos los segmentos tenían pistas";
+            comprobarSesiones(almacen, sesiones);
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Un registro a medio escribir al final del último segmento se descarta sin perder
+     * los anteriores, y el segmento se recorre solo cuando su pista no coincide
+     */
+    private static void testEscrituraCortada(Path directorio) throws IOException {
+        System.out.print("Test: Recuperación de una escritura cortada... ");
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio)) {
+            for (int i = 0; i < 100; i++) {
+                almacen.guardar("s" + i, valor(i, 20));
+            }
+        }
+        
+        // Simular una caída: el último segmento pierde su pista y acaba en un registro incompleto
+        Path ultimo = segmentos(directorio).get(segmentos(directorio).size() - 1);
+        Files.delete(directorio.resolve(ultimo.getFileName().toString().replace(".log", ".pista")));
+        long tamañoValido = Files.size(ultimo);
+        try (FileChannel canal = FileChannel.open(ultimo, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer cortado = ByteBuffer.allocate(30);
+            cortado.putInt(12345).putInt(2).putInt(100).put("s0".getBytes(StandardCharsets.UTF_8));
+            cortado.rewind();
+            canal.write(cortado);
+        }
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio)) {
+            assert almacen.getSegmentosRecorridos() == 1 : "Solo el segmento sin pista se recorre";
+            assert Files.size(ultimo) == tamañoValido : "El registro incompleto debe truncarse";
+            assert almacen.getNumeroClaves() == 100;
+            assert Arrays.equals(almacen.obtener("s0"), valor(0, 20)) : "El registro cortado no sustituye al anterior";
+            assert Arrays.equals(almacen.obtener("s99"), valor(99, 20));
+            almacen.guardar("nueva", valor(1, 5));
+        }
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio)) {
+            assert almacen.getSegmentosRecorridos() == 0 : "La pista se reescribe tras recorrer el segmento";
+            assert almacen.getNumeroClaves() == 101;
+            assert Arrays.equals(almacen.obtener("nueva"), valor(1, 5));
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Compactar reduce los segmentos a los registros vivos y conserva los últimos valores
+     */
+    private static void testCompactacion(Path directorio) throws IOException {
+        System.out.print("Test: Compactación de registros obsoletos... ");
+        
+        int sesiones = 100;
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio, SEGMENTO_PEQUEÑO)) {
+            for (int ronda = 0; ronda < 30; ronda++) {
+                for (int i = 0; i < sesiones; i++) {
+                    almacen.guardar("s" + i, valor(i + ronda, 40));
+                }
+            }
+            for (int i = 0; i < sesiones; i += 7) {
+                almacen.eliminar("s" + i);
+            }
+            almacen.compactar();
+            
+            assert almacen.getNumeroSegmentos() <= 3 : "Solo quedan el compactado y los escritos después";
+            assert segmentos(directorio).size() == almacen.getNumeroSegmentos() : "Los segmentos compactados se borran";
+            assert almacen.getBytesObsoletos() < SEGMENTO_PEQUEÑO : "Solo quedan obsoletos los del segmento activo";
+            for (int i = 0; i < sesiones; i++) {
+                byte[] esperado = i % 7 == 0 ? null : valor(i + 29, 40);
+                assert Arrays.equals(almacen.obtener("s" + i), esperado) : "s" + i + " debe conservar su último valor";
+            }
+        }
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio, SEGMENTO_PEQUEÑO)) {
+            assert almacen.getSegmentosRecorridos() == 0 : "El segmento compactado tiene pista";
+            assert almacen.getNumeroClaves() == sesiones - (sesiones + 6) / 7;
+            assert Arrays.equals(almacen.obtener("s1"), valor(30, 40));
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Varias sesiones que guardan y leen a la vez, con rotaciones y compactaciones en
+     * segundo plano, no deben perder ni mezclar valores
+     */
+    private static void testEscriturasConcurrentes(Path directorio) throws IOException {
+        System.out.print("Test: Escrituras concurrentes con compactación... ");
+        
+        int hilos = 8;
+        int sesionesPorHilo = 50;
+        int rondas = 40;
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio, SEGMENTO_PEQUEÑO)) {
+            List<Thread> trabajadores = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                int hilo = h;
+                trabajadores.add(new Thread(() -> {
+                    try {
+                        for (int ronda = 0; ronda < rondas; ronda++) {
+                            for (int i = 0; i < sesionesPorHilo; i++) {
+                                String clave = "h" + hilo + "-" + i;
+                                almacen.guardar(clave, valor(ronda * 1000 + i, 30));
+                                byte[] leido = almacen.obtener(clave);
+                                if (!Arrays.equals(leido, valor(ronda * 1000 + i, 30))) {
+                                    throw new AssertionError("Valor inesperado para " + clave);
+                                }
+                            }
+                        }
+                    } catch (Throwable e) {
+                        error.compareAndSet(null, e);
+                    }
+                }));
+            }
+            for (Thread trabajador : trabajadores) {
+                trabajador.start();
+            }
+            for (Thread trabajador : trabajadores) {
+                try {
+                    trabajador.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            assert error.get() == null : "Error en un hilo: " + error.get();
+            assert almacen.getNumeroClaves() == hilos * sesionesPorHilo;
+        }
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio, SEGMENTO_PEQUEÑO)) {
+            assert almacen.getSegmentosRecorridos() == 0;
+            assert almacen.getNumeroSegmentos() < 20
+                    : "La compactación en segundo plano debe haber quitado segmentos";
+            for (int h = 0; h < hilos; h++) {
+                for (int i = 0; i < sesionesPorHilo; i++) {
+                    assert Arrays.equals(almacen.obtener("h" + h + "-" + i), valor((rondas - 1) * 1000 + i, 30));
+                }
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void testValidaciones(Path directorio) throws IOException {
+        System.out.print("Test: Validaciones del almacén de sesiones... ");
+        
+        try (AlmacenSesiones almacen = new AlmacenSesiones(directorio)) {
+            try {
+                new AlmacenSesiones(directorio).close();
+                assert false : "El directorio debe estar bloqueado";
+            } catch (IOException e) {
+                // Esperado
+            }
+            
+            String[] clavesInvalidas = {"", new String(new char[AlmacenSesiones.LONGITUD_MAXIMA_CLAVE + 1]).replace('\0', 'x')};
+            for (String clave : clavesInvalidas) {
+                try {
+                    almacen.guardar(clave, new byte[1]);
+                    assert false : "Debe rechazar una clave de " + clave.length() + " caracteres";
+                } catch (IllegalArgumentException e) {
+                    // Esperado
+                }
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void comprobarSesiones(AlmacenSesiones almacen, int sesiones) throws IOException {
+        for (int i = 0; i < sesiones; i++) {
+            byte[] esperado = i % 7 == 0 ? null : valor(i, i % 50);
+            assert Arrays.equals(almacen.obtener("s" + i), esperado) : "Valor distinto para s" + i;
+        }
+    }
+    
+    private static byte[] valor(int semilla, int longitud) {
+        byte[] valor = new byte[longitud];
+        for (int i = 0; i < longitud; i++) {
+            valor[i] = (byte) (semilla * 31 + i);
+        }
+        return valor;
+    }
+    
+    private static List<Path> segmentos(Path directorio) throws IOException {
+        List<Path> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "segmento-*.log")) {
+            for (Path archivo : archivos) {
+                segmentos.add(archivo);
+            }
+        }
+        segmentos.sort((a, b) -> Long.compare(numero(a), numero(b)));
+        return segmentos;
+    }
+    
+    private static long numero(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring("segmento-".length(), nombre.length() - ".log".length()));
+    }
+    
+    private static void borrar(Path ruta) throws IOException {
+        if (Files.isDirectory(ruta)) {
+            try (DirectoryStream<Path> archivos = Files.newDirectoryStream(ruta)) {
+                for (Path archivo : archivos) {
+                    borrar(archivo);
+                }
+            }
+        }
+        Files.deleteIfExists(ruta);
+    }
+}
\ No newline at end of file
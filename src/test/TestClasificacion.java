@@ -0,0 +1,181 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import modelo.Dificultad;
+import modelo.ResultadoPartida;
+import persistencia.TablaClasificacion;
+
+/**
+ * Clase de pruebas unitarias para las clasificaciones
+ */
+public class TestClasificacion {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para TablaClasificacion
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - CLASIFICACIÓN ===");
+        
+        testOrdenYLimite();
+        testInsercionesConcurrentes();
+        testPersistenciaIncremental();
+        testResumenDePartida();
+        
+        System.out.println("=== TODAS LAS PRUEBAS CLASIFICACIÓN COMPLETADAS ===\n");
+    }
+    
+    private static ResultadoPartida victoria(String nombre, Dificultad dificultad, long duracion) {
+        return new ResultadoPartida(nombre, dificultad, true, duracion, 20, 15, 1000L + duracion);
+    }
+    
+    /**
+     * La clasificación debe quedarse con las K victorias más rápidas y separar dificultades
+     */
+    private static void testOrdenYLimite() {
+        System.out.print("Test: Orden y límite de la clasificación... ");
+        
+        try (TablaClasificacion tabla = new TablaClasificacion(null, 3)) {
+            assert tabla.registrar(victoria("Ana", Dificultad.PRINCIPIANTE, 9000)) == 1 : "La primera entrada es la mejor";
+            assert tabla.registrar(victoria("Luis", Dificultad.PRINCIPIANTE, 5000)) == 1 : "Una más rápida pasa delante";
+            assert tabla.registrar(victoria("Eva", Dificultad.PRINCIPIANTE, 7000)) == 2 : "Debe insertarse en su puesto";
+            assert tabla.registrar(victoria("Rita", Dificultad.PRINCIPIANTE, 9500)) == -1 : "Con la tabla llena, una más lenta no entra";
+            assert tabla.registrar(victoria("Omar", Dificultad.PRINCIPIANTE, 6000)) == 2 : "Una más rápida desplaza a la última";
+            assert tabla.registrar(new ResultadoPartida("Pepe", Dificultad.PRINCIPIANTE, false, 100, 1, 15, 1)) == -1 :
+                   "Las derrotas no entran en la clasificación";
+            assert tabla.registrar(victoria("Ana", Dificultad.EXPERTO, 90000)) == 1 : "Cada dificultad tiene su clasificación";
+            
+            List<ResultadoPartida> mejores = tabla.getMejores(Dificultad.PRINCIPIANTE);
+            assert mejores.size() == 3 : "No debe superar el máximo";
+            assert mejores.get(0).getNombre().equals("Luis") && mejores.get(1).getNombre().equals("Omar")
+                   && mejores.get(2).getNombre().equals("Eva") : "Debe ordenarse por duración";
+            assert tabla.getMejores(Dificultad.INTERMEDIO).isEmpty() : "Una dificultad sin victorias está vacía";
+            assert Math.abs(mejores.get(0).getEficiencia() - 3.0) < 1e-9 : "15 3BV en 5 s son 3 3BV/s";
+        } catch (IOException e) {
+            assert false : "Una tabla en memoria no debe fallar: " + e.getMessage();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Con muchas sesiones insertando a la vez debe quedar exactamente el top-K global
+     */
+    private static void testInsercionesConcurrentes() {
+        System.out.print("Test: Inserciones concurrentes... ");
+        
+        try (final TablaClasificacion tabla = new TablaClasificacion(null, 10)) {
+            List<Long> duraciones = new ArrayList<>();
+            for (long d = 1; d <= 4000; d++) {
+                duraciones.add(d * 10);
+            }
+            Collections.shuffle(duraciones, new Random(3));
+            final AtomicBoolean siempreOrdenada = new AtomicBoolean(true);
+            
+            Thread[] sesiones = new Thread[4];
+            for (int s = 0; s < sesiones.length; s++) {
+                final List<Long> parte = duraciones.subList(s * 1000, (s + 1) * 1000);
+                final int sesion = s;
+                sesiones[s] = new Thread(() -> {
+                    for (long duracion : parte) {
+                        try {
+                            tabla.registrar(victoria("Sesion" + sesion, Dificultad.INTERMEDIO, duracion));
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        // Una lectura concurrente siempre ve una lista ordenada
+                        List<ResultadoPartida> vista = tabla.getMejores(Dificultad.INTERMEDIO);
+                        for (int i = 1; i < vista.size(); i++) {
+                            if (vista.get(i - 1).getDuracionMillis() >= vista.get(i).getDuracionMillis()) {
+                                siempreOrdenada.set(false);
+                            }
+                        }
+                    }
+                });
+                sesiones[s].start();
+            }
+            for (Thread sesion : sesiones) {
+                try {
+                    sesion.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            
+            assert siempreOrdenada.get() : "Las lecturas concurrentes deben ver una clasificación ordenada";
+            List<ResultadoPartida> mejores = tabla.getMejores(Dificultad.INTERMEDIO);
+            assert mejores.size() == 10 : "Debe quedar una clasificación completa";
+            for (int i = 0; i < 10; i++) {
+                assert mejores.get(i).getDuracionMillis() == (i + 1) * 10 : "Deben quedar las 10 mejores globales";
+            }
+        } catch (IOException e) {
+            assert false : "Una tabla en memoria no debe fallar: " + e.getMessage();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Los récords deben guardarse al momento y recuperarse al reabrir, compactando el registro
+     */
+    private static void testPersistenciaIncremental() {
+        System.out.print("Test: Persistencia incremental de la clasificación... ");
+        
+        try {
+            Path directorio = Files.createTempDirectory("buscaminas-clasificacion");
+            Path archivo = directorio.resolve("clasificacion.log");
+            
+            try (TablaClasificacion tabla = new TablaClasificacion(archivo, 2)) {
+                for (long d = 100; d > 0; d--) {
+                    tabla.registrar(victoria("Jugador" + d, Dificultad.EXPERTO, d * 1000));
+                }
+                assert Files.readAllLines(archivo).size() == 100 : "Cada récord debe añadirse al registro";
+            }
+            
+            try (TablaClasificacion tabla = new TablaClasificacion(archivo, 2)) {
+                List<ResultadoPartida> mejores = tabla.getMejores(Dificultad.EXPERTO);
+                assert mejores.size() == 2 && mejores.get(0).getNombre().equals("Jugador1")
+                       && mejores.get(1).getNombre().equals("Jugador2") : "Debe recuperarse la clasificación";
+                assert Files.readAllLines(archivo).size() == 2 : "El registro debe compactarse al abrir";
+                
+                Files.write(archivo, "línea dañada\n".getBytes("UTF-8"), StandardOpenOption.APPEND);
+            }
+            
+            try (TablaClasificacion tabla = new TablaClasificacion(archivo, 2)) {
+                assert tabla.getMejores(Dificultad.EXPERTO).size() == 2 : "Las líneas dañadas deben ignorarse";
+            }
+            
+            Files.deleteIfExists(archivo);
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            assert false : "Error de E/S en la clasificación: " + e.getMessage();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * El resumen usa el separador de líneas del sistema y solo da la eficiencia al ganar
+     */
+    private static void testResumenDePartida() {
+        System.out.print("Test: Resumen de una partida... ");
+        
+        String[] lineas = victoria("Ana", Dificultad.PRINCIPIANTE, 7500).getResumen().split(System.lineSeparator());
+        assert lineas.length == 3 : "Tiempo, clics y 3BV van en líneas separadas";
+        assert lineas[0].equals(String.format("Tiempo: %.1f s", 7.5)) && lineas[1].equals("Clics: 20");
+        assert lineas[2].equals(String.format("3BV: 15 (%.2f 3BV/s)", 2.0)) : "Al ganar se añade la eficiencia";
+        
+        String derrota = new ResultadoPartida("Ana", Dificultad.PRINCIPIANTE, false, 7500, 20, 15, 1L).getResumen();
+        assert derrota.endsWith("3BV: 15") : "Al perder no hay eficiencia";
+        
+        System.out.println("✓ PASÓ");
+    }
+}
\ No newline at end of file
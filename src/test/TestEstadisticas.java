@@ -0,0 +1,154 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import modelo.Jugador;
+import persistencia.AlmacenEstadisticas;
+
+/**
+ * Clase de pruebas unitarias para el almacén persistente de estadísticas
+ */
+public class TestEstadisticas {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para AlmacenEstadisticas
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - ESTADÍSTICAS ===");
+        
+        try {
+            Path directorio = Files.createTempDirectory("buscaminas-estadisticas");
+            testRegistroYReapertura(directorio.resolve("jugadores.dat"));
+            testActualizacionesConcurrentes(directorio.resolve("concurrente.dat"));
+            testValidaciones(directorio.resolve("validaciones.dat"));
+            
+            for (String archivo : new String[]{"jugadores.dat", "concurrente.dat", "validaciones.dat"}) {
+                Files.deleteIfExists(directorio.resolve(archivo));
+            }
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            assert false : "Error de E/S en las pruebas de estadísticas: " + e.getMessage();
+        }
+        
+        System.out.println("=== TODAS LAS PRUEBAS ESTADÍSTICAS COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Los contadores deben sobrevivir a las ampliaciones de la tabla y al cierre del archivo
+     */
+    private static void testRegistroYReapertura(Path archivo) throws IOException {
+        System.out.print("Test: Registro y reapertura del almacén... ");
+        
+        int jugadores = 5000;
+        try (AlmacenEstadisticas almacen = new AlmacenEstadisticas(archivo)) {
+            assert almacen.obtener("Nadie") == null : "Un jugador desconocido no debe existir";
+            
+            for (int i = 0; i < jugadores; i++) {
+                almacen.registrarVictoria("Jugador" + i);
+                if (i % 3 == 0) {
+                    almacen.registrarDerrota("Jugador" + i);
+                }
+            }
+            assert almacen.getNumeroJugadores() == jugadores : "Debe haber un registro por jugador";
+            assert almacen.getCapacidad() * 0.7 >= jugadores : "La tabla debe ampliarse al llenarse";
+        }
+        
+        try (AlmacenEstadisticas almacen = new AlmacenEstadisticas(archivo)) {
+            assert almacen.getNumeroJugadores() == jugadores : "El número de jugadores debe persistir";
+            for (int i = 0; i < jugadores; i++) {
+                Jugador jugador = almacen.obtener("Jugador" + i);
+                int derrotas = i % 3 == 0 ? 1 : 0;
+                assert jugador != null && jugador.getPartidasGanadas() == 1
+                       && jugador.getPartidasPerdidas() == derrotas
+                       && jugador.getPartidasJugadas() == 1 + derrotas :
+                       "Las estadísticas de Jugador" + i + " deben persistir";
+            }
+            
+            Jugador ñandu = almacen.registrarDerrota("Ñandú");
+            assert ñandu.getPartidasJugadas() == 1 && ñandu.getNombre().equals("Ñandú") :
+                   "Los nombres con caracteres no ASCII deben funcionar";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Varias sesiones que actualizan a la vez no deben perder partidas
+     */
+    private static void testActualizacionesConcurrentes(Path archivo) throws IOException {
+        System.out.print("Test: Actualizaciones concurrentes... ");
+        
+        final AtomicReference<IOException> error = new AtomicReference<>();
+        try (final AlmacenEstadisticas almacen = new AlmacenEstadisticas(archivo)) {
+            Thread[] sesiones = new Thread[4];
+            for (int s = 0; s < sesiones.length; s++) {
+                final int sesion = s;
+                sesiones[s] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 2000; i++) {
+                            // Un jugador compartido y otros propios de cada sesión, para forzar ampliaciones
+                            almacen.registrarVictoria("Compartido");
+                            almacen.registrarDerrota("Sesion" + sesion + "-" + (i % 500));
+                        }
+                    } catch (IOException e) {
+                        error.set(e);
+                    }
+                });
+                sesiones[s].start();
+            }
+            for (Thread sesion : sesiones) {
+                try {
+                    sesion.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            
+            assert error.get() == null : "No debe haber errores de E/S";
+            Jugador compartido = almacen.obtener("Compartido");
+            assert compartido.getPartidasGanadas() == 8000 : "No deben perderse victorias concurrentes";
+            assert almacen.getNumeroJugadores() == 1 + 4 * 500 : "Cada jugador debe insertarse una sola vez";
+            for (int s = 0; s < sesiones.length; s++) {
+                assert almacen.obtener("Sesion" + s + "-7").getPartidasPerdidas() == 4 :
+                       "Las derrotas de cada sesión deben contarse";
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Nombres inválidos y archivos ajenos deben rechazarse
+     */
+    private static void testValidaciones(Path archivo) throws IOException {
+        System.out.print("Test: Validaciones del almacén... ");
+        
+        try (AlmacenEstadisticas almacen = new AlmacenEstadisticas(archivo)) {
+            StringBuilder largo = new StringBuilder();
+            for (int i = 0; i <= AlmacenEstadisticas.LONGITUD_MAXIMA_NOMBRE; i++) {
+                largo.append('x');
+            }
+            boolean rechazado = false;
+            try {
+                almacen.registrarVictoria(largo.toString());
+            } catch (IllegalArgumentException e) {
+                rechazado = true;
+            }
+            assert rechazado : "Un nombre demasiado largo debe rechazarse";
+        }
+        
+        Files.write(archivo, "no es un almacén".getBytes("UTF-8"));
+        boolean invalido = false;
+        try (AlmacenEstadisticas almacen = new AlmacenEstadisticas(archivo)) {
+            almacen.getNumeroJugadores();
+        } catch (IOException e) {
+            invalido = true;
+        }
+        assert invalido : "Un archivo ajeno no debe abrirse como almacén";
+        
+        System.out.println("✓ PASÓ");
+    }
+}
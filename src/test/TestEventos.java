@@ -0,0 +1,97 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import eventos.AnalizadorJfr;
+import eventos.ResumenEvento;
+import excepciones.CasillaYaDescubiertaException;
+import jdk.jfr.Recording;
+import modelo.Jugador;
+import modelo.Tablero;
+import persistencia.GestorArchivos;
+
+/**
+ * Clase de pruebas unitarias para los eventos de Java Flight Recorder
+ */
+public class TestEventos {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para los eventos
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - EVENTOS JFR ===");
+        
+        testGrabacionYAnalisis();
+        
+        System.out.println("=== TODAS LAS PRUEBAS EVENTOS JFR COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Una partida grabada debe producir los eventos del juego y el analizador debe resumirlos
+     */
+    private static void testGrabacionYAnalisis() {
+        System.out.print("Test: Grabación y análisis de eventos... ");
+        
+        try {
+            Path directorio = Files.createTempDirectory("buscaminas-jfr");
+            Path grabacion = directorio.resolve("partida.jfr");
+            Tablero tablero = new Tablero(16, 10, 7L, 8, 8);
+            
+            try (Recording recording = new Recording()) {
+                // Sin umbral para que se graben también las operaciones rápidas
+                for (String nombre : new String[]{"Descubrir", "Expansion", "Marcar", "Guardado", "Carga"}) {
+                    recording.enable(AnalizadorJfr.PREFIJO + nombre).withThreshold(Duration.ZERO);
+                }
+                recording.start();
+                
+                tablero.descubrirCasilla(8, 8);
+                int mina = buscarCasillaCubierta(tablero);
+                tablero.marcarCasilla(mina / 16, mina % 16);
+                GestorArchivos gestor = new GestorArchivos(directorio.toString());
+                gestor.guardarJuego(tablero, new Jugador("Eventos"));
+                gestor.cargarJuego();
+                gestor.eliminarJuegoGuardado();
+                
+                recording.stop();
+                recording.dump(grabacion);
+            }
+            
+            Map<String, ResumenEvento> resumenes = AnalizadorJfr.analizar(grabacion);
+            ResumenEvento descubrir = resumenes.get(AnalizadorJfr.PREFIJO + "Descubrir");
+            ResumenEvento expansion = resumenes.get(AnalizadorJfr.PREFIJO + "Expansion");
+            
+            assert descubrir != null && descubrir.getCuenta() == 1 : "Debe grabarse el descubrimiento";
+            assert descubrir.getCasillas() == tablero.getCasillasDescubiertas() :
+                   "El evento debe contar las casillas abiertas";
+            assert expansion != null && expansion.getCasillas() == tablero.getCasillasDescubiertas() :
+                   "La expansión debe contar las casillas abiertas";
+            assert resumenes.containsKey(AnalizadorJfr.PREFIJO + "Marcar") : "Debe grabarse la bandera";
+            assert resumenes.get(AnalizadorJfr.PREFIJO + "Guardado").getBytes() > 0 : "El guardado debe incluir los bytes";
+            assert resumenes.get(AnalizadorJfr.PREFIJO + "Carga").getBytes() > 0 : "La carga debe incluir los bytes";
+            
+            Files.deleteIfExists(grabacion);
+            Files.deleteIfExists(directorio);
+        } catch (IOException | ClassNotFoundException | CasillaYaDescubiertaException e) {
+            assert false : "No debe fallar la grabación: " + e.getMessage();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Busca una casilla que siga cubierta para poder marcarla
+     */
+    private static int buscarCasillaCubierta(Tablero tablero) {
+        int tamaño = tablero.getTamaño();
+        for (int i = 0; i < tamaño * tamaño; i++) {
+            if (!tablero.getCasilla(i / tamaño, i % tamaño).estaDescubierta()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package test;
+
+import controlador.FabricaTableros;
+import modelo.ConfiguracionTablero;
+import modelo.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la fábrica de tableros y sus reservas
+ */
+public class TestFabricaTableros {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para FabricaTableros
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - FÁBRICA DE TABLEROS ===");
+        
+        testFalloYRelleno();
+        testAciertoDesdeReserva();
+        testSinAdivinanzas();
+        testReservasInactivas();
+        
+        System.out.println("=== TODAS LAS PRUEBAS FÁBRICA DE TABLEROS COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Sin reserva el tablero se crea en el momento, y después la reserva se llena sola
+     */
+    private static void testFalloYRelleno() {
+        System.out.print("Test: Fallo y relleno de la reserva... ");
+        
+        FabricaTableros fabrica = new FabricaTableros(3, 60_000, 1);
+        try {
+            ConfiguracionTablero configuracion = new ConfiguracionTablero(9, 10, false);
+            Tablero tablero = fabrica.obtener(configuracion);
+            assert fabrica.getFallos() == 1 && fabrica.getAciertos() == 0 : "Con la reserva vacía es un fallo";
+            assert tablero.getTamaño() == 9 && tablero.getNumeroMinas() == 10;
+            assert tablero.tieneMinasPendientes() : "Las minas se colocan en el primer clic";
+            
+            esperarDisponibles(fabrica, configuracion, 3);
+            assert fabrica.getDisponibles(configuracion) == 3 : "La reserva no pasa de su capacidad";
+            assert fabrica.getMetricas().contains("9x9/10: 3 disponibles, 0 aciertos, 1 fallos");
+        } finally {
+            fabrica.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Con la reserva precalentada se sirven tableros distintos sin fallos
+     */
+    private static void testAciertoDesdeReserva() {
+        System.out.print("Test: Aciertos desde la reserva... ");
+        
+        FabricaTableros fabrica = new FabricaTableros(2, 60_000, 1);
+        try {
+            ConfiguracionTablero configuracion = new ConfiguracionTablero(16, 40, false);
+            fabrica.precalentar(configuracion);
+            esperarDisponibles(fabrica, configuracion, 2);
+            
+            Tablero primero = fabrica.obtener(configuracion);
+            Tablero segundo = fabrica.obtener(configuracion);
+            assert fabrica.getAciertos() == 2 && fabrica.getFallos() == 0 : "Ambos deben salir de la reserva";
+            assert primero != segundo && primero.getTamaño() == 16 && segundo.getNumeroMinas() == 40;
+            assert fabrica.getTasaAciertos() == 1.0;
+            
+            // Las dos extracciones vuelven a llenar la reserva
+            esperarDisponibles(fabrica, configuracion, 2);
+        } finally {
+            fabrica.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Un fallo sin adivinanzas genera el tablero en el momento, nunca uno normal
+     */
+    private static void testSinAdivinanzas() {
+        System.out.print("Test: Tableros sin adivinanzas... ");
+        
+        FabricaTableros fabrica = new FabricaTableros(1, 60_000, 2);
+        try {
+            ConfiguracionTablero configuracion = new ConfiguracionTablero(9, 10, true);
+            Tablero fallo = fabrica.obtener(configuracion);
+            assert fabrica.getFallos() == 1;
+            assert fallo.getCasilla(4, 4).estaDescubierta() : "La casilla central ya viene descubierta";
+            
+            esperarDisponibles(fabrica, configuracion, 1);
+            Tablero acierto = fabrica.obtener(configuracion);
+            assert fabrica.getAciertos() == 1 && acierto.getCasilla(4, 4).estaDescubierta();
+        } finally {
+            fabrica.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Una reserva que no se usa se vacía y deja de aparecer en las métricas
+     */
+    private static void testReservasInactivas() {
+        System.out.print("Test: Vaciado de reservas inactivas... ");
+        
+        FabricaTableros fabrica = new FabricaTableros(2, 100, 1);
+        try {
+            ConfiguracionTablero configuracion = new ConfiguracionTablero(8, 10, false);
+            fabrica.precalentar(configuracion);
+            long limite = System.currentTimeMillis() + 5000;
+            while (fabrica.getMetricas().contains("8x8/10") && System.currentTimeMillis() < limite) {
+                dormir(10);
+            }
+            assert !fabrica.getMetricas().contains("8x8/10") : "La reserva inactiva debe eliminarse";
+            assert fabrica.getDisponibles(configuracion) == 0;
+        } finally {
+            fabrica.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void esperarDisponibles(FabricaTableros fabrica, ConfiguracionTablero configuracion, int disponibles) {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (fabrica.getDisponibles(configuracion) < disponibles && System.currentTimeMillis() < limite) {
+            dormir(5);
+        }
+        assert fabrica.getDisponibles(configuracion) == disponibles
+                : "La reserva debería tener " + disponibles + " tableros y tiene " + fabrica.getDisponibles(configuracion);
+    }
+    
+    private static void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Prueba interrumpida");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package test;
+
+import java.util.Random;
+
+import modelo.Tablero;
+import simulacion.LoteTableros;
+import simulacion.Simulador;
+
+/**
+ * Clase de pruebas unitarias para el lote de tableros del simulador
+ */
+public class TestLoteTableros {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para LoteTableros
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - LOTE DE TABLEROS ===");
+        
+        testMismasMinasQueTablero();
+        testMismasPartidasQueTablero();
+        testLoteIncompleto();
+        testArgumentosInvalidos();
+        
+        System.out.println("=== TODAS LAS PRUEBAS LOTE DE TABLEROS COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Con la misma semilla el lote coloca las minas en las mismas casillas que Tablero
+     */
+    private static void testMismasMinasQueTablero() {
+        System.out.print("Test: Minas iguales que en Tablero... ");
+        
+        int[][] configuraciones = {{3, 0}, {5, 8}, {8, 20}, {10, 10}, {11, 30}};
+        for (int[] configuracion : configuraciones) {
+            int tamaño = configuracion[0];
+            int minas = configuracion[1];
+            LoteTableros lote = new LoteTableros(tamaño, minas, 40);
+            long[] semillas = new long[40];
+            for (int b = 0; b < semillas.length; b++) {
+                semillas[b] = 1000L * tamaño + b;
+            }
+            lote.jugarAlAzar(semillas);
+            
+            for (int b = 0; b < semillas.length; b++) {
+                Tablero tablero = new Tablero(tamaño, minas, semillas[b], tamaño / 2, tamaño / 2);
+                for (int indice = 0; indice < tamaño * tamaño; indice++) {
+                    assert lote.tieneMina(b, indice) == tablero.getCasilla(indice / tamaño, indice % tamaño).tieneMina()
+                            : "Mina distinta en " + tamaño + "x" + tamaño + ", semilla " + semillas[b] + ", casilla " + indice;
+                }
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Cada partida del lote termina igual y con los mismos clics que la del jugador
+     * al azar sobre Tablero, incluidas las expansiones que cruzan de una palabra a otra
+     */
+    private static void testMismasPartidasQueTablero() {
+        System.out.print("Test: Partidas iguales que con Tablero... ");
+        
+        int[][] configuraciones = {{4, 3}, {7, 6}, {8, 10}, {10, 10}, {11, 15}};
+        int victoriasTotales = 0;
+        for (int[] configuracion : configuraciones) {
+            int tamaño = configuracion[0];
+            int minas = configuracion[1];
+            LoteTableros lote = new LoteTableros(tamaño, minas, 300);
+            long[] semillas = new long[300];
+            for (int b = 0; b < semillas.length; b++) {
+                semillas[b] = b;
+            }
+            int victorias = lote.jugarAlAzar(semillas);
+            
+            int victoriasTablero = 0;
+            for (int b = 0; b < semillas.length; b++) {
+                Tablero tablero = new Tablero(tamaño, minas, semillas[b], tamaño / 2, tamaño / 2);
+                int jugadas = Simulador.jugarAlAzar(tablero, new Random(~semillas[b]));
+                assert tablero.getEstado() == lote.getEstado(b)
+                        : "Resultado distinto en " + tamaño + "x" + tamaño + ", semilla " + semillas[b];
+                assert jugadas == lote.getJugadas(b)
+                        : "Clics distintos en " + tamaño + "x" + tamaño + ", semilla " + semillas[b];
+                if (tablero.esVictoria()) {
+                    victoriasTablero++;
+                    assert lote.getCasillasDescubiertas(b) == tamaño * tamaño - minas;
+                }
+            }
+            assert victorias == victoriasTablero : "El lote debe contar las mismas victorias";
+            victoriasTotales += victorias;
+        }
+        assert victoriasTotales > 0 : "Con pocas minas el jugador al azar gana alguna vez";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Un lote se puede jugar con menos tableros que su capacidad y reutilizar después
+     */
+    private static void testLoteIncompleto() {
+        System.out.print("Test: Lote incompleto y reutilizado... ");
+        
+        LoteTableros lote = new LoteTableros(9, 10, 64);
+        long[] todas = new long[64];
+        for (int b = 0; b < todas.length; b++) {
+            todas[b] = 500L + b;
+        }
+        lote.jugarAlAzar(todas);
+        
+        long[] pocas = {503L, 510L, 7L};
+        lote.jugarAlAzar(pocas);
+        for (int b = 0; b < pocas.length; b++) {
+            Tablero tablero = new Tablero(9, 10, pocas[b], 4, 4);
+            int jugadas = Simulador.jugarAlAzar(tablero, new Random(~pocas[b]));
+            assert tablero.getEstado() == lote.getEstado(b) && jugadas == lote.getJugadas(b)
+                    : "Lo jugado antes no debe afectar a la partida siguiente";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void testArgumentosInvalidos() {
+        System.out.print("Test: Argumentos inválidos... ");
+        
+        int[][] invalidos = {{2, 0}, {12, 10}, {10, -1}, {10, 92}};
+        for (int[] argumentos : invalidos) {
+            try {
+                new LoteTableros(argumentos[0], argumentos[1], 8);
+                assert false : "Debe rechazar " + argumentos[0] + "x" + argumentos[0] + " con " + argumentos[1] + " minas";
+            } catch (IllegalArgumentException e) {
+                // Esperado
+            }
+        }
+        
+        try {
+            new LoteTableros(10, 10, 2).jugarAlAzar(new long[3]);
+            assert false : "No se pueden jugar más tableros que la capacidad";
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+package test;
+
+import metricas.HistogramaLatencia;
+import metricas.MetricasJuego;
+
+/**
+ * Clase de pruebas unitarias para las métricas de ejecución
+ */
+public class TestMetricas {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para las métricas
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - MÉTRICAS ===");
+        
+        testPercentilesHistograma();
+        testHistogramaConcurrente();
+        testMetricasJuego();
+        
+        System.out.println("=== TODAS LAS PRUEBAS MÉTRICAS COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Los percentiles deben quedar dentro del error relativo de las cubetas
+     */
+    private static void testPercentilesHistograma() {
+        System.out.print("Test: Percentiles del histograma... ");
+        
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        assert histograma.getPercentil(50) == 0 : "Un histograma vacío debe devolver 0";
+        
+        for (long valor = 1; valor <= 100000; valor++) {
+            histograma.registrar(valor);
+        }
+        assert histograma.getCuenta() == 100000 : "Debe contar todos los registros";
+        assert histograma.getMaximo() == 100000 : "Debe conservar el máximo exacto";
+        assert Math.abs(histograma.getMedia() - 50000.5) < 1e-6 : "La media debe ser exacta";
+        
+        double[] percentiles = {1, 50, 90, 99, 99.9};
+        for (double percentil : percentiles) {
+            double esperado = 100000 * percentil / 100;
+            long obtenido = histograma.getPercentil(percentil);
+            assert obtenido >= esperado && obtenido <= esperado * 1.125 + 1 :
+                   "El percentil " + percentil + " debe tener un error menor al 12,5%: " + obtenido;
+        }
+        assert histograma.getPercentil(100) == 100000 : "El percentil 100 es el máximo";
+        
+        // Valores pequeños y grandes tienen cubeta propia o aproximada sin desbordar
+        HistogramaLatencia extremos = new HistogramaLatencia();
+        extremos.registrar(-5);
+        extremos.registrar(3);
+        extremos.registrar(Long.MAX_VALUE);
+        assert extremos.getPercentil(30) == 0 : "Los negativos cuentan como cero";
+        assert extremos.getPercentil(60) == 3 : "Los valores menores que 8 son exactos";
+        assert extremos.getPercentil(100) == Long.MAX_VALUE : "El valor máximo no debe desbordar";
+        
+        histograma.reiniciar();
+        assert histograma.getCuenta() == 0 && histograma.getMaximo() == 0 : "Reiniciar debe vaciar el histograma";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Registros desde varios hilos no deben perderse
+     */
+    private static void testHistogramaConcurrente() {
+        System.out.print("Test: Histograma concurrente... ");
+        
+        final HistogramaLatencia histograma = new HistogramaLatencia();
+        Thread[] hilos = new Thread[4];
+        for (int h = 0; h < hilos.length; h++) {
+            final long base = h * 1000L;
+            hilos[h] = new Thread(() -> {
+                for (int i = 0; i < 50000; i++) {
+                    histograma.registrar(base + i % 1000);
+                }
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        assert histograma.getCuenta() == 200000 : "Deben contarse todos los registros concurrentes";
+        assert histograma.getMaximo() == 3999 : "El máximo debe ser el mayor valor de todos los hilos";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Las métricas del juego deben agregar jugadas, E/S y errores
+     */
+    private static void testMetricasJuego() {
+        System.out.print("Test: Métricas del juego... ");
+        
+        MetricasJuego metricas = new MetricasJuego();
+        metricas.registrarMovimiento();
+        metricas.registrarMovimiento();
+        metricas.registrarDescubrimiento(2000, 1);
+        metricas.registrarDescubrimiento(4000, 31);
+        metricas.registrarGuardado(10000, 700);
+        metricas.registrarCarga(5000, 700);
+        metricas.registrarError("CasillaYaDescubiertaException");
+        metricas.registrarError("CasillaYaDescubiertaException");
+        metricas.registrarError("IllegalArgumentException");
+        
+        assert metricas.getMovimientos() == 2 : "Debe contar las jugadas";
+        assert metricas.getDescubrimientos() == 2 : "Debe contar los descubrimientos";
+        assert metricas.getCasillasPorDescubrimientoMedia() == 16 : "Debe promediar las casillas abiertas";
+        assert metricas.getDescubrirMaximoMicros() == 4 : "Debe publicar el máximo en microsegundos";
+        assert metricas.getBytesGuardados() == 700 && metricas.getBytesCargados() == 700 : "Debe sumar los bytes";
+        assert metricas.getErrores() == 3 : "Debe contar todos los errores";
+        assert metricas.getErroresPorTipo().get("CasillaYaDescubiertaException") == 2 : "Debe agrupar errores por tipo";
+        assert metricas.generarInforme().contains("Jugadas: 2") : "El informe debe incluir las jugadas";
+        
+        metricas.reiniciar();
+        assert metricas.getMovimientos() == 0 && metricas.getErrores() == 0 : "Reiniciar debe vaciar las métricas";
+        
+        System.out.println("✓ PASÓ");
+    }
+}
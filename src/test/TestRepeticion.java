@@ -0,0 +1,314 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import modelo.EstadoJuego;
+import modelo.Movimiento;
+import modelo.PuntoControl;
+import modelo.ReproductorRepeticion;
+import modelo.Repeticion;
+import modelo.Tablero;
+import persistencia.GestorRepeticiones;
+
+/**
+ * Clase de pruebas unitarias para las repeticiones de partidas
+ */
+public class TestRepeticion {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para Repeticion y ReproductorRepeticion
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - REPETICIONES ===");
+        
+        testPuntoControl();
+        testSaltoAJugada();
+        testAvanceRapido();
+        testDeshacerDuranteGrabacion();
+        testArchivoRepeticion();
+        testArchivoCorrupto();
+        
+        System.out.println("=== TODAS LAS PRUEBAS REPETICIONES COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Juega una partida al azar grabándola y devuelve el estado tras cada jugada
+     */
+    private static List<PuntoControl> grabarPartida(Tablero tablero, Repeticion repeticion, long semilla) {
+        List<PuntoControl> estados = new ArrayList<>();
+        estados.add(PuntoControl.capturar(tablero, 0));
+        int tamaño = tablero.getTamaño();
+        Random random = new Random(semilla);
+        while (!tablero.estaTerminado() && estados.size() < 60) {
+            int indice = random.nextInt(tamaño * tamaño);
+            int movimiento = random.nextInt(5) == 0
+                    ? Movimiento.marcar(indice / tamaño, indice % tamaño, tamaño)
+                    : Movimiento.descubrir(indice / tamaño, indice % tamaño, tamaño);
+            if (tablero.aplicarMovimiento(movimiento)) {
+                repeticion.registrar(movimiento, tablero);
+                estados.add(PuntoControl.capturar(tablero, estados.size()));
+            }
+        }
+        return estados;
+    }
+    
+    /**
+     * Un punto de control debe reconstruir el tablero exacto, incluidas las partidas perdidas
+     */
+    private static void testPuntoControl() {
+        System.out.print("Test: Captura y restauración de puntos de control... ");
+        
+        Tablero pendiente = Tablero.conPrimerClicSeguro(9, 10, 3L);
+        PuntoControl inicial = PuntoControl.capturar(pendiente, 0);
+        assert inicial.tieneMinasPendientes() : "Las minas aún no están colocadas";
+        assert inicial.restaurar(9, 10, 3L).tieneMinasPendientes() : "Restaurar debe mantener las minas pendientes";
+        
+        for (long semilla = 0; semilla < 20; semilla++) {
+            Tablero tablero = new Tablero(12, 30, semilla);
+            List<PuntoControl> estados = grabarPartida(tablero, new Repeticion(tablero, 8), semilla);
+            for (PuntoControl estado : estados) {
+                Tablero restaurado = estado.restaurar(12, 30, semilla);
+                assert estado.coincideCon(restaurado) : "El tablero restaurado debe coincidir con el capturado";
+                assert restaurado.getTamañoFrontera() == frontera(restaurado) : "La frontera debe reconstruirse";
+            }
+            assert estados.get(estados.size() - 1).getEstado() == tablero.getEstado() : "El último estado es el final";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Saltar a cualquier jugada, en cualquier orden, debe dar el mismo tablero que jugarla
+     */
+    private static void testSaltoAJugada() {
+        System.out.print("Test: Salto a cualquier jugada... ");
+        
+        for (long semilla = 0; semilla < 20; semilla++) {
+            Tablero tablero = Tablero.conPrimerClicSeguro(12, 20, semilla);
+            Repeticion repeticion = new Repeticion(tablero, 4);
+            List<PuntoControl> estados = grabarPartida(tablero, repeticion, semilla);
+            assert repeticion.getNumeroJugadas() == estados.size() - 1 : "Deben grabarse todas las jugadas";
+            
+            ReproductorRepeticion reproductor = new ReproductorRepeticion(repeticion);
+            Random random = new Random(semilla);
+            for (int i = 0; i < 40; i++) {
+                int jugada = random.nextInt(estados.size());
+                reproductor.irA(jugada);
+                assert reproductor.getPosicion() == jugada : "La posición debe ser la jugada pedida";
+                assert estados.get(jugada).coincideCon(reproductor.getTablero()) : "Estado distinto en la jugada " + jugada;
+            }
+            
+            reproductor.irA(0);
+            for (int jugada = 1; jugada < estados.size(); jugada++) {
+                assert reproductor.avanzar() : "Debe poder avanzarse";
+                assert estados.get(jugada).coincideCon(reproductor.getTablero()) : "Estado distinto al avanzar";
+            }
+            assert !reproductor.avanzar() : "No se puede avanzar más allá del final";
+            assert reproductor.retroceder() : "Debe poder retrocederse";
+            assert estados.get(estados.size() - 2).coincideCon(reproductor.getTablero()) : "Estado distinto al retroceder";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * El avance rápido debe coincidir con lo grabado y detectar repeticiones alteradas
+     */
+    private static void testAvanceRapido() {
+        System.out.print("Test: Avance rápido como prueba de regresión... ");
+        
+        Tablero tablero = new Tablero(16, 30, 11L);
+        Repeticion repeticion = new Repeticion(tablero, 5);
+        grabarPartida(tablero, repeticion, 11L);
+        assert new ReproductorRepeticion(repeticion).avanceRapido() == -1 : "La repetición debe coincidir";
+        
+        // Cambiar la primera jugada por otra distinta debe detectarse en el siguiente punto de control
+        int[] movimientos = new int[repeticion.getNumeroJugadas()];
+        int[] tiempos = new int[movimientos.length];
+        for (int i = 0; i < movimientos.length; i++) {
+            movimientos[i] = repeticion.getMovimiento(i);
+            tiempos[i] = repeticion.getTiempo(i);
+        }
+        movimientos[0] ^= 1;
+        Repeticion alterada = new Repeticion(16, 30, 11L, 5, repeticion.getFechaInicio(),
+                movimientos, tiempos, repeticion.getPuntosControl());
+        int divergencia = new ReproductorRepeticion(alterada).avanceRapido();
+        assert divergencia > 0 && divergencia <= 5 : "La alteración debe detectarse en el primer punto de control";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Deshacer durante la grabación debe dejar una repetición que reproduce la partida final
+     */
+    private static void testDeshacerDuranteGrabacion() {
+        System.out.print("Test: Deshacer durante la grabación... ");
+        
+        Tablero tablero = Tablero.conPrimerClicSeguro(10, 12, 5L);
+        tablero.activarHistorial(50);
+        Repeticion repeticion = new Repeticion(tablero, 3);
+        
+        // Deshacer el primer clic: las minas ya colocadas se quedan y el tablero inicial cambia
+        tablero.aplicarMovimiento(Movimiento.descubrir(0, 0, 10));
+        repeticion.registrar(Movimiento.descubrir(0, 0, 10), tablero);
+        tablero.deshacer();
+        repeticion.descartarUltima(tablero);
+        
+        List<PuntoControl> estados = grabarPartida(tablero, repeticion, 5L);
+        for (int i = 0; i < 3 && tablero.deshacer(); i++) {
+            repeticion.descartarUltima(tablero);
+        }
+        assert tablero.rehacer() && repeticion.restaurarUltima(tablero) : "Debe poder rehacerse";
+        
+        ReproductorRepeticion reproductor = new ReproductorRepeticion(repeticion);
+        assert reproductor.avanceRapido() == -1 : "La repetición debe coincidir tras deshacer";
+        assert PuntoControl.capturar(tablero, 0).coincideCon(reproductor.getTablero()) : "Debe acabar como la partida";
+        assert estados.size() > 3 : "La partida debe tener jugadas";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Guardar y cargar una repetición debe conservar jugadas, tiempos y puntos de control
+     */
+    private static void testArchivoRepeticion() {
+        System.out.print("Test: Archivo de repetición... ");
+        
+        try {
+            Path directorio = Files.createTempDirectory("buscaminas-repeticiones");
+            GestorRepeticiones gestor = new GestorRepeticiones(directorio.toString());
+            assert gestor.cargarUltima() == null : "Sin repeticiones no hay nada que cargar";
+            
+            Tablero tablero = Tablero.conPrimerClicSeguro(16, 40, 21L);
+            Repeticion repeticion = new Repeticion(tablero, Repeticion.INTERVALO_POR_DEFECTO);
+            grabarPartida(tablero, repeticion, 21L);
+            Path ruta = gestor.guardar(repeticion);
+            
+            Repeticion leida = gestor.cargarUltima();
+            assert leida.getNumeroJugadas() == repeticion.getNumeroJugadas() : "Debe conservar las jugadas";
+            assert leida.getSemilla() == 21L && leida.getTamaño() == 16 && leida.getNumeroMinas() == 40 : "Debe conservar los parámetros";
+            for (int i = 0; i < leida.getNumeroJugadas(); i++) {
+                assert leida.getMovimiento(i) == repeticion.getMovimiento(i) : "Jugada distinta en " + i;
+                assert leida.getTiempo(i) == repeticion.getTiempo(i) : "Tiempo distinto en " + i;
+            }
+            assert leida.getPuntosControl().size() == repeticion.getPuntosControl().size() : "Debe conservar los puntos de control";
+            ReproductorRepeticion reproductor = new ReproductorRepeticion(leida);
+            assert reproductor.avanceRapido() == -1 : "La repetición leída debe coincidir";
+            assert reproductor.getTablero().getEstado() == tablero.getEstado() : "Debe acabar igual que la partida";
+            assert tablero.getEstado() != EstadoJuego.EN_CURSO || leida.getNumeroJugadas() == 59 : "La partida termina o llega al límite";
+            
+            Files.deleteIfExists(ruta);
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            throw new AssertionError("Error de E/S: " + e.getMessage());
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Un archivo dañado o manipulado se rechaza con IOException al leerlo, sin llegar a
+     * fallar dentro del tablero al reproducirlo
+     */
+    private static void testArchivoCorrupto() {
+        System.out.print("Test: Archivo de repetición corrupto... ");
+        
+        try {
+            Path directorio = Files.createTempDirectory("buscaminas-repeticiones");
+            Path ruta = directorio.resolve("corrupta.rep");
+            Tablero tablero = Tablero.conPrimerClicSeguro(9, 10, 4L);
+            Repeticion repeticion = new Repeticion(tablero, 4);
+            grabarPartida(tablero, repeticion, 4L);
+            GestorRepeticiones.escribir(repeticion, ruta);
+            byte[] original = Files.readAllBytes(ruta);
+            
+            // Cabecera: marca (4), versión (1), tamaño (4), minas (4), semilla (8), intervalo (4), fecha (8)
+            int[][] cabeceras = {{5, -3}, {5, 0}, {5, 100_000}, {9, -1}, {9, 81}, {21, 0}};
+            for (int[] cambio : cabeceras) {
+                byte[] bytes = original.clone();
+                ByteBuffer.wrap(bytes).putInt(cambio[0], cambio[1]);
+                assert rechazada(ruta, bytes) : "Debe rechazar el valor " + cambio[1] + " en la posición " + cambio[0];
+            }
+            // Número de jugadas negativo y enorme
+            for (byte[] jugadas : new byte[][]{{-1, -1, -1, -1, 0x0F}, {-1, -1, -1, 0x7F}}) {
+                byte[] bytes = original.clone();
+                System.arraycopy(jugadas, 0, bytes, 33, jugadas.length);
+                assert rechazada(ruta, bytes) : "Debe rechazar un número de jugadas imposible";
+            }
+            
+            // Jugada fuera del tablero y puntos de control desordenados
+            List<PuntoControl> inicial = Collections.singletonList(PuntoControl.capturar(new Tablero(4, 2, 1L), 0));
+            Repeticion fuera = new Repeticion(4, 2, 1L, 16, 0L, new int[]{Movimiento.descubrir(5, 0, 4)}, new int[]{0}, inicial);
+            GestorRepeticiones.escribir(fuera, ruta);
+            assert rechazada(ruta, Files.readAllBytes(ruta)) : "Debe rechazar una jugada fuera del tablero";
+            List<PuntoControl> desordenados = new ArrayList<>(inicial);
+            desordenados.add(PuntoControl.capturar(new Tablero(4, 2, 1L), 0));
+            Repeticion repetidos = new Repeticion(4, 2, 1L, 16, 0L, new int[]{0}, new int[]{0}, desordenados);
+            GestorRepeticiones.escribir(repetidos, ruta);
+            assert rechazada(ruta, Files.readAllBytes(ruta)) : "Debe rechazar puntos de control fuera de orden";
+            
+            // Bytes cambiados al azar: o se rechaza al leer o se reproduce sin excepciones
+            Random random = new Random(4L);
+            for (int i = 0; i < 300; i++) {
+                byte[] bytes = original.clone();
+                for (int j = 0; j < 3; j++) {
+                    bytes[5 + random.nextInt(bytes.length - 5)] = (byte) random.nextInt(256);
+                }
+                Files.write(ruta, bytes);
+                Repeticion leida;
+                try {
+                    leida = GestorRepeticiones.leer(ruta);
+                } catch (IOException e) {
+                    continue;
+                }
+                new ReproductorRepeticion(leida).avanceRapido();
+            }
+            
+            Files.deleteIfExists(ruta);
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            throw new AssertionError("Error de E/S: " + e.getMessage());
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static boolean rechazada(Path ruta, byte[] bytes) throws IOException {
+        Files.write(ruta, bytes);
+        try {
+            GestorRepeticiones.leer(ruta);
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+    
+    private static int frontera(Tablero tablero) {
+        int tamaño = tablero.getTamaño();
+        int enFrontera = 0;
+        for (int i = 0; i < tamaño; i++) {
+            for (int j = 0; j < tamaño; j++) {
+                if (tablero.getCasilla(i, j).estaDescubierta()) {
+                    continue;
+                }
+                boolean vecinaDescubierta = false;
+                for (int f = Math.max(0, i - 1); f <= Math.min(tamaño - 1, i + 1); f++) {
+                    for (int c = Math.max(0, j - 1); c <= Math.min(tamaño - 1, j + 1); c++) {
+                        vecinaDescubierta |= tablero.getCasilla(f, c).estaDescubierta();
+                    }
+                }
+                if (vecinaDescubierta) {
+                    enFrontera++;
+                }
+            }
+        }
+        return enFrontera;
+    }
+}
\ No newline at end of file
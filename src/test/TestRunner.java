@@ -28,11 +28,50 @@ public class TestRunner {
             // Ejecutar pruebas de Jugador
             TestJugador.ejecutarPruebas();
             
+            // Ejecutar pruebas del Solucionador
+            TestSolucionador.ejecutarPruebas();
+            
+            // Ejecutar pruebas de Métricas
+            TestMetricas.ejecutarPruebas();
+            
+            // Ejecutar pruebas de Eventos JFR
+            TestEventos.ejecutarPruebas();
+            
+            // Ejecutar pruebas de Estadísticas persistentes
+            TestEstadisticas.ejecutarPruebas();
+            
+            // Ejecutar pruebas de Clasificación
+            TestClasificacion.ejecutarPruebas();
+            
+            // Ejecutar pruebas de Repeticiones
+            TestRepeticion.ejecutarPruebas();
+            
+            // Ejecutar pruebas de Transmisión
+            TestTransmision.ejecutarPruebas();
+            
+            // Ejecutar pruebas del Lote de tableros
+            TestLoteTableros.ejecutarPruebas();
+            
+            // Ejecutar pruebas del Tablero disperso
+            TestTableroDisperso.ejecutarPruebas();
+            
+            // Ejecutar pruebas del Almacén de sesiones
+            TestAlmacenSesiones.ejecutarPruebas();
+            
+            // Ejecutar pruebas de la Simulación
+            TestSimulacion.ejecutarPruebas();
+            
+            // Ejecutar pruebas del Modo sin interfaz
+            TestSinInterfaz.ejecutarPruebas();
+            
+            // Ejecutar pruebas de la Fábrica de tableros
+            TestFabricaTableros.ejecutarPruebas();
+            
             System.out.println("=== RESUMEN DE PRUEBAS ===");
             System.out.println("✓ Todas las pruebas unitarias PASARON exitosamente");
             System.out.println("✓ El código cumple con los requisitos especificados");
             System.out.println("✓ Principios de TDD aplicados correctamente");
-            
+        
         } catch (AssertionError e) {
             System.err.println("❌ FALLO EN PRUEBA: " + e.getMessage());
             todasPasaron = false;
@@ -63,6 +102,19 @@ public class TestRunner {
             TestCasilla.ejecutarPruebas();
             TestTablero.ejecutarPruebas();
             TestJugador.ejecutarPruebas();
+            TestSolucionador.ejecutarPruebas();
+            TestMetricas.ejecutarPruebas();
+            TestEventos.ejecutarPruebas();
+            TestEstadisticas.ejecutarPruebas();
+            TestClasificacion.ejecutarPruebas();
+            TestRepeticion.ejecutarPruebas();
+            TestTransmision.ejecutarPruebas();
+            TestLoteTableros.ejecutarPruebas();
+            TestTableroDisperso.ejecutarPruebas();
+            TestAlmacenSesiones.ejecutarPruebas();
+            TestSimulacion.ejecutarPruebas();
+            TestSinInterfaz.ejecutarPruebas();
+            TestFabricaTableros.ejecutarPruebas();
             return true;
         } catch (AssertionError | Exception e) {
             System.err.println("Error en pruebas: " + e.getMessage());
@@ -0,0 +1,185 @@
+package test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import modelo.EstadoJuego;
+import modelo.Tablero;
+import simulacion.ResumenSimulacion;
+import simulacion.Simulador;
+import solucionador.BotSolucionador;
+import solucionador.CalculadoraProbabilidades;
+
+/**
+ * Clase de pruebas unitarias para el simulador, el bot y el resumen de simulación
+ */
+public class TestSimulacion {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias de la simulación
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - SIMULACIÓN ===");
+        
+        testBotSinMinas();
+        testBotTerminaYEsDeterminista();
+        testResumen();
+        testSimulacionReproducible();
+        testSinHilosPerdidos();
+        testEscaladoEInforme();
+        
+        System.out.println("=== TODAS LAS PRUEBAS SIMULACIÓN COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Sin minas basta el primer clic, que cuenta como adivinanza
+     */
+    private static void testBotSinMinas() {
+        System.out.print("Test: Bot en un tablero sin minas... ");
+        
+        BotSolucionador bot = new BotSolucionador(new SplittableRandom(1L), null);
+        Tablero tablero = new Tablero(6, 0, 1L);
+        assert bot.jugar(tablero) == EstadoJuego.VICTORIA;
+        assert bot.getAdivinanzas() == 1 : "Solo el primer clic es una adivinanza";
+        assert tablero.getCasillasDescubiertas() == 36;
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * El bot juega hasta el final, y con la misma semilla juega igual
+     */
+    private static void testBotTerminaYEsDeterminista() {
+        System.out.print("Test: El bot termina y es determinista... ");
+        
+        for (CalculadoraProbabilidades calculadora : new CalculadoraProbabilidades[]{null, new CalculadoraProbabilidades()}) {
+            BotSolucionador primero = new BotSolucionador(new SplittableRandom(7L), calculadora);
+            BotSolucionador segundo = new BotSolucionador(new SplittableRandom(7L), calculadora);
+            for (long semilla = 0; semilla < 50; semilla++) {
+                Tablero a = new Tablero(9, 10, semilla);
+                Tablero b = new Tablero(9, 10, semilla);
+                EstadoJuego estado = primero.jugar(a);
+                assert estado != EstadoJuego.EN_CURSO : "La partida debe terminar";
+                assert segundo.jugar(b) == estado && primero.getAdivinanzas() == segundo.getAdivinanzas()
+                        : "La misma semilla debe dar la misma partida";
+                assert primero.getAdivinanzas() >= 1;
+                if (estado == EstadoJuego.VICTORIA) {
+                    assert a.getCasillasDescubiertas() == 81 - 10 : "Ganar es descubrir todas las casillas seguras";
+                }
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void testResumen() {
+        System.out.print("Test: Resumen de simulación... ");
+        
+        ResumenSimulacion vacio = new ResumenSimulacion("vacío", 1, 0, 0, 0, 0, 0, 0);
+        assert vacio.getPorcentajeVictorias() == 0.0 && vacio.getAdivinanzasPromedio() == 0.0;
+        assert vacio.get3BVPromedio() == 0.0 && vacio.getMicrosegundosPorPartida() == 0.0;
+        assert vacio.getPartidasPorSegundo() == 0.0 : "Sin tiempo no se divide entre cero";
+        
+        ResumenSimulacion resumen = new ResumenSimulacion("9x9", 3, 4, 1, 10, 60, 8000, 2_000_000_000L);
+        assert resumen.getPorcentajeVictorias() == 25.0;
+        assert resumen.getAdivinanzasPromedio() == 2.5;
+        assert resumen.get3BVPromedio() == 15.0;
+        assert resumen.getMicrosegundosPorPartida() == 2.0;
+        assert resumen.getPartidasPorSegundo() == 2.0;
+        String texto = resumen.toString();
+        assert texto.contains("9x9") && texto.contains("Hilos: 3") && texto.contains("Partidas: 4")
+                : "El texto debe incluir la configuración y los contadores";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Cada bloque de partidas tiene su propio flujo aleatorio, así que el resultado no
+     * depende de cuántos hilos se repartan los bloques
+     */
+    private static void testSimulacionReproducible() {
+        System.out.print("Test: Simulación reproducible con cualquier número de hilos... ");
+        
+        Simulador simulador = new Simulador(8, 10, 11L, false);
+        long[] referencia = null;
+        for (int hilos : new int[]{1, 3, 4}) {
+            ResumenSimulacion resumen = ejecutar(simulador, 1000, hilos);
+            assert resumen.getPartidas() == 1000 : "Deben jugarse exactamente las partidas pedidas";
+            assert resumen.getHilos() == hilos;
+            long[] valores = {resumen.getVictorias(), Math.round(resumen.getAdivinanzasPromedio() * 1000),
+                              Math.round(resumen.get3BVPromedio() * 1000)};
+            if (referencia == null) {
+                referencia = valores;
+            } else {
+                assert Arrays.equals(valores, referencia) : "Con " + hilos + " hilos el resultado cambia";
+            }
+        }
+        
+        ResumenSimulacion otraSemilla = ejecutar(new Simulador(8, 10, 12L, false), 1000, 1);
+        assert otraSemilla.get3BVPromedio() != referencia[2] / 1000.0 || otraSemilla.getVictorias() != referencia[0]
+                : "Otra semilla debe dar otras partidas";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Los pools de la calculadora de cada hilo se cierran al terminar
+     */
+    private static void testSinHilosPerdidos() {
+        System.out.print("Test: Simulación con probabilidades sin hilos perdidos... ");
+        
+        int antes = contarHilosDePool();
+        Simulador simulador = new Simulador(8, 10, 3L, true);
+        for (int i = 0; i < 3; i++) {
+            assert ejecutar(simulador, 200, 2).getPartidas() == 200;
+        }
+        long limite = System.currentTimeMillis() + 5000;
+        while (contarHilosDePool() > antes && System.currentTimeMillis() < limite) {
+            Thread.yield();
+        }
+        assert contarHilosDePool() <= antes : "Los hilos de los pools deben terminar";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void testEscaladoEInforme() {
+        System.out.print("Test: Escalado e informe... ");
+        
+        Simulador simulador = new Simulador(8, 10, 5L, false);
+        List<ResumenSimulacion> escalado;
+        try {
+            escalado = simulador.medirEscalado(300, 3);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Simulación interrumpida");
+        }
+        assert escalado.size() == 3 && escalado.get(0).getHilos() == 1 && escalado.get(1).getHilos() == 2
+                && escalado.get(2).getHilos() == 3 : "Debe duplicar los hilos y terminar en el máximo";
+        
+        String informe = Simulador.generarInforme(escalado.get(0), escalado);
+        assert informe.contains("INFORME DE SIMULACIÓN") && informe.contains("ESCALADO POR NÚCLEOS");
+        assert !Simulador.generarInforme(escalado.get(0), null).contains("ESCALADO") : "Sin escalado no hay tabla";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static ResumenSimulacion ejecutar(Simulador simulador, long partidas, int hilos) {
+        try {
+            return simulador.ejecutar(partidas, hilos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Simulación interrumpida");
+        }
+    }
+    
+    private static int contarHilosDePool() {
+        int hilos = 0;
+        for (Thread hilo : Thread.getAllStackTraces().keySet()) {
+            if (hilo.isAlive() && hilo.getName().startsWith("ForkJoinPool-")) {
+                hilos++;
+            }
+        }
+        return hilos;
+    }
+}
\ No newline at end of file
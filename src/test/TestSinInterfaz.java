@@ -0,0 +1,179 @@
+package test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+import controlador.ControladorSinInterfaz;
+import controlador.FuenteMovimientos;
+import controlador.FuenteMovimientosAleatoria;
+import controlador.FuenteMovimientosTexto;
+import modelo.Movimiento;
+import modelo.Tablero;
+
+/**
+ * Clase de pruebas unitarias para el modo sin interfaz y sus fuentes de jugadas
+ */
+public class TestSinInterfaz {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias del modo sin interfaz
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - MODO SIN INTERFAZ ===");
+        
+        testFuenteTexto();
+        testFuenteTextoInvalida();
+        testFuenteAleatoria();
+        testFuenteAleatoriaDeterminista();
+        testControladorSinInterfaz();
+        
+        System.out.println("=== TODAS LAS PRUEBAS MODO SIN INTERFAZ COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Se ignoran comentarios y líneas vacías, y las jugadas se repiten en cada partida
+     */
+    private static void testFuenteTexto() {
+        System.out.print("Test: Jugadas leídas de un texto... ");
+        
+        FuenteMovimientosTexto fuente = leer("# partida de prueba\n\nA1\n  mb2 \nE5\n", 5);
+        assert fuente.getNumeroJugadas() == 3;
+        
+        Tablero tablero = new Tablero(5, 3, 1L);
+        for (int partida = 0; partida < 2; partida++) {
+            fuente.nuevaPartida(tablero);
+            assert fuente.siguienteMovimiento(tablero) == Movimiento.descubrir(0, 0, 5);
+            assert fuente.siguienteMovimiento(tablero) == Movimiento.marcar(1, 1, 5);
+            assert fuente.siguienteMovimiento(tablero) == Movimiento.descubrir(4, 4, 5);
+            assert fuente.siguienteMovimiento(tablero) == FuenteMovimientos.FIN : "Tras la última jugada no quedan más";
+        }
+        
+        try {
+            fuente.nuevaPartida(new Tablero(6, 3, 1L));
+            assert false : "Las jugadas se comprobaron para otro tamaño";
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Las jugadas mal escritas o fuera del tablero se rechazan al leerlas, con su línea
+     */
+    private static void testFuenteTextoInvalida() {
+        System.out.print("Test: Jugadas inválidas o fuera del tablero... ");
+        
+        String[][] casos = {{"A1\nB0\n", "línea 2"}, {"A1\nX\n", "línea 2"}, {"J10\nK1\n", "línea 2"},
+                            {"\nA11\n", "línea 2"}, {"MA12\n", "línea 1"}};
+        for (String[] caso : casos) {
+            try {
+                new FuenteMovimientosTexto(new StringReader(caso[0]), 10);
+                assert false : "Debe rechazar " + caso[0].trim();
+            } catch (IOException e) {
+                assert e.getMessage().contains(caso[1]) : "El error debe indicar la línea: " + e.getMessage();
+            }
+        }
+        try {
+            new FuenteMovimientosTexto(new StringReader("K1\n"), 10);
+            assert false : "Debe rechazar K1 en un tablero de 10x10";
+        } catch (IOException e) {
+            assert e.getMessage().contains("A-J, 1-10") : "El error debe indicar el rango válido";
+        }
+        assert leer("J10\n", 10).getNumeroJugadas() == 1 : "La última casilla es válida";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Cada jugada aleatoria cae en una casilla tapada distinta hasta que termina la partida
+     */
+    private static void testFuenteAleatoria() {
+        System.out.print("Test: Jugadas aleatorias sobre casillas tapadas... ");
+        
+        FuenteMovimientosAleatoria fuente = new FuenteMovimientosAleatoria(3L);
+        for (long semilla = 0; semilla < 50; semilla++) {
+            int tamaño = semilla % 2 == 0 ? 8 : 12;
+            Tablero tablero = new Tablero(tamaño, tamaño + 2, semilla);
+            fuente.nuevaPartida(tablero);
+            Set<Integer> elegidas = new HashSet<>();
+            int movimiento;
+            while ((movimiento = fuente.siguienteMovimiento(tablero)) != FuenteMovimientos.FIN) {
+                int indice = Movimiento.indice(movimiento);
+                assert Movimiento.tipo(movimiento) == Movimiento.DESCUBRIR;
+                assert !tablero.getCasilla(indice / tamaño, indice % tamaño).estaDescubierta() : "Debe elegir una casilla tapada";
+                assert elegidas.add(indice) : "No debe repetir casillas";
+                tablero.aplicarMovimiento(movimiento);
+            }
+            assert tablero.estaTerminado() : "La fuente solo se agota al terminar la partida";
+        }
+        
+        // Sin llamar a nuevaPartida también se adapta al tablero nuevo
+        Tablero sinMinas = new Tablero(4, 0, 1L);
+        sinMinas.aplicarMovimiento(fuente.siguienteMovimiento(sinMinas));
+        assert sinMinas.esVictoria() && fuente.siguienteMovimiento(sinMinas) == FuenteMovimientos.FIN;
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void testFuenteAleatoriaDeterminista() {
+        System.out.print("Test: Jugadas aleatorias reproducibles... ");
+        
+        FuenteMovimientosAleatoria primera = new FuenteMovimientosAleatoria(9L);
+        FuenteMovimientosAleatoria segunda = new FuenteMovimientosAleatoria(9L);
+        Tablero a = new Tablero(10, 10, 4L);
+        Tablero b = new Tablero(10, 10, 4L);
+        primera.nuevaPartida(a);
+        segunda.nuevaPartida(b);
+        int movimiento;
+        while ((movimiento = primera.siguienteMovimiento(a)) != FuenteMovimientos.FIN) {
+            assert segunda.siguienteMovimiento(b) == movimiento : "La misma semilla debe dar las mismas jugadas";
+            a.aplicarMovimiento(movimiento);
+            b.aplicarMovimiento(movimiento);
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * El controlador juega todas las partidas, cuenta los resultados y escribe el resumen
+     */
+    private static void testControladorSinInterfaz() {
+        System.out.print("Test: Controlador sin interfaz... ");
+        
+        ControladorSinInterfaz aleatorio = ejecutar(new FuenteMovimientosAleatoria(1L), 200, "aleatorio");
+        assert aleatorio.getVictorias() + aleatorio.getDerrotas() == 200 && aleatorio.getSinTerminar() == 0
+                : "Las jugadas aleatorias terminan todas las partidas";
+        assert aleatorio.getDerrotas() > 0 : "Al azar se pierden partidas";
+        ControladorSinInterfaz repetido = ejecutar(new FuenteMovimientosAleatoria(1L), 200, "aleatorio");
+        assert repetido.getVictorias() == aleatorio.getVictorias() : "Con semillas fijas el resultado se repite";
+        
+        ControladorSinInterfaz texto = ejecutar(leer("MA1\nA1\n", 8), 20, "texto");
+        assert texto.getSinTerminar() == 20 && texto.getVictorias() + texto.getDerrotas() == 0
+                : "Descubrir una casilla marcada no la descubre y la partida queda sin terminar";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static ControladorSinInterfaz ejecutar(FuenteMovimientos fuente, int partidas, String nombre) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ControladorSinInterfaz controlador = new ControladorSinInterfaz(fuente, 8, 10, 100L, new PrintStream(bytes, true));
+        controlador.ejecutar(partidas);
+        String resumen = bytes.toString();
+        assert resumen.contains("RESUMEN SIN INTERFAZ") && resumen.contains("Tablero: 8x8 con 10 minas")
+                && resumen.contains("Partidas: " + partidas) : "Resumen incompleto (" + nombre + "): " + resumen;
+        return controlador;
+    }
+    
+    private static FuenteMovimientosTexto leer(String texto, int tamaño) {
+        try {
+            return new FuenteMovimientosTexto(new StringReader(texto), tamaño);
+        } catch (IOException e) {
+            throw new AssertionError("Jugadas válidas rechazadas: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,336 @@
+package test;
+
+import excepciones.CasillaYaDescubiertaException;
+import modelo.Tablero;
+import modelo.Topologia;
+import solucionador.CalculadoraProbabilidades;
+import solucionador.EstadoSolucion;
+import solucionador.GeneradorSinAdivinanzas;
+import solucionador.Pista;
+import solucionador.Probabilidades;
+import solucionador.ServicioPistas;
+import solucionador.Solucionador;
+
+/**
+ * Clase de pruebas unitarias para el solucionador por propagación de restricciones
+ */
+public class TestSolucionador {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para Solucionador
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - SOLUCIONADOR ===");
+        
+        testSinInformacionExigeAdivinar();
+        testDeduccionesCorrectas();
+        testResolverNuncaPierde();
+        testProbabilidadesExactas();
+        testGeneradorSinAdivinanzas();
+        testServicioPistas();
+        testTopologias();
+        
+        System.out.println("=== TODAS LAS PRUEBAS SOLUCIONADOR COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Busca una casilla sin minas adyacentes para abrir la partida
+     */
+    static int buscarCasillaVacia(Tablero tablero) {
+        int tamaño = tablero.getTamaño();
+        for (int i = 0; i < tamaño * tamaño; i++) {
+            if (!tablero.getCasilla(i / tamaño, i % tamaño).tieneMina()
+                    && tablero.getCasilla(i / tamaño, i % tamaño).getMinasAdyacentes() == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Sin casillas descubiertas no hay nada que deducir
+     */
+    private static void testSinInformacionExigeAdivinar() {
+        System.out.print("Test: Tablero sin descubrir exige adivinar... ");
+        
+        Solucionador solucionador = new Solucionador(new Tablero(10, 10, 1L));
+        assert solucionador.resolver() == EstadoSolucion.ADIVINANZA_NECESARIA : "Debe pedir una adivinanza";
+        assert solucionador.getCasillasSeguras().length == 0 : "No debe haber casillas seguras";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Las deducciones deben coincidir con la posición real de las minas
+     */
+    private static void testDeduccionesCorrectas() {
+        System.out.print("Test: Deducciones correctas... ");
+        
+        for (long semilla = 0; semilla < 200; semilla++) {
+            Tablero tablero = new Tablero(16, 40, semilla);
+            int inicio = buscarCasillaVacia(tablero);
+            if (inicio < 0) {
+                continue;
+            }
+            
+            Solucionador solucionador = new Solucionador(tablero);
+            solucionador.descubrir(inicio);
+            solucionador.propagar();
+            
+            for (int indice : solucionador.getMinasSeguras()) {
+                assert tablero.getCasilla(indice / 16, indice % 16).tieneMina() : "Mina deducida incorrecta";
+            }
+            for (int indice : solucionador.getCasillasSeguras()) {
+                assert !tablero.getCasilla(indice / 16, indice % 16).tieneMina() : "Casilla segura incorrecta";
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Resolver solo descubre casillas seguras, así que nunca termina en derrota
+     */
+    private static void testResolverNuncaPierde() {
+        System.out.print("Test: Resolver nunca pierde... ");
+        
+        int resueltos = 0;
+        for (long semilla = 0; semilla < 500; semilla++) {
+            Tablero tablero = new Tablero(10, 10, semilla);
+            int inicio = buscarCasillaVacia(tablero);
+            if (inicio < 0) {
+                continue;
+            }
+            
+            Solucionador solucionador = new Solucionador(tablero);
+            solucionador.descubrir(inicio);
+            EstadoSolucion estado = solucionador.resolver();
+            
+            assert estado != EstadoSolucion.DERROTA : "El solucionador no debe perder (semilla " + semilla + ")";
+            if (estado == EstadoSolucion.RESUELTO) {
+                assert tablero.esVictoria() : "Un tablero resuelto debe estar ganado";
+                resueltos++;
+            }
+        }
+        assert resueltos > 0 : "Debe resolver al menos un tablero";
+        
+        System.out.println("✓ PASÓ (" + resueltos + " tableros resueltos)");
+    }
+    
+    /**
+     * Compara la calculadora con una enumeración por fuerza bruta en tableros pequeños
+     */
+    private static void testProbabilidadesExactas() {
+        System.out.print("Test: Probabilidades exactas... ");
+        
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades();
+        int comparados = 0;
+        for (long semilla = 0; semilla < 60; semilla++) {
+            Tablero tablero = new Tablero(4, 3, semilla);
+            int inicio = buscarCasillaVacia(tablero);
+            if (inicio < 0) {
+                continue;
+            }
+            new Solucionador(tablero).descubrir(inicio);
+            if (tablero.estaTerminado()) {
+                continue;
+            }
+            
+            Probabilidades probabilidades = calculadora.calcular(tablero);
+            double[] esperadas = fuerzaBruta(tablero);
+            
+            double suma = 0;
+            for (int i = 0; i < esperadas.length; i++) {
+                if (tablero.getCasilla(i / 4, i % 4).estaDescubierta()) {
+                    assert Double.isNaN(probabilidades.getProbabilidad(i)) : "Casilla descubierta sin probabilidad";
+                    continue;
+                }
+                assert Math.abs(probabilidades.getProbabilidad(i) - esperadas[i]) < 1e-9 :
+                       "Probabilidad incorrecta en la casilla " + i + " (semilla " + semilla + ")";
+                suma += probabilidades.getProbabilidad(i);
+            }
+            assert probabilidades.esExacto() : "El resultado debe ser exacto";
+            assert Math.abs(suma - tablero.getNumeroMinas()) < 1e-9 : "Las probabilidades deben sumar el total de minas";
+            comparados++;
+        }
+        assert comparados > 0 : "Debe compararse al menos un tablero";
+        
+        System.out.println("✓ PASÓ (" + comparados + " tableros comparados)");
+    }
+    
+    /**
+     * Enumera todas las colocaciones de minas compatibles con los números visibles
+     */
+    private static double[] fuerzaBruta(Tablero tablero) {
+        int tamaño = tablero.getTamaño();
+        Topologia topologia = tablero.getTopologia();
+        int total = tamaño * tamaño;
+        double[] conteo = new double[total];
+        double soluciones = 0;
+        
+        for (int mascara = 0; mascara < (1 << total); mascara++) {
+            if (Integer.bitCount(mascara) != tablero.getNumeroMinas()) {
+                continue;
+            }
+            boolean valida = true;
+            for (int i = 0; i < total && valida; i++) {
+                boolean descubierta = tablero.getCasilla(i / tamaño, i % tamaño).estaDescubierta();
+                if (descubierta && (mascara & (1 << i)) != 0) {
+                    valida = false;
+                } else if (descubierta) {
+                    int minas = 0;
+                    for (int k = topologia.inicio(i); k < topologia.fin(i); k++) {
+                        if ((mascara & (1 << topologia.getVecina(k))) != 0) {
+                            minas++;
+                        }
+                    }
+                    valida = minas == tablero.getCasilla(i / tamaño, i % tamaño).getMinasAdyacentes();
+                }
+            }
+            if (valida) {
+                soluciones++;
+                for (int i = 0; i < total; i++) {
+                    if ((mascara & (1 << i)) != 0) {
+                        conteo[i]++;
+                    }
+                }
+            }
+        }
+        
+        for (int i = 0; i < total; i++) {
+            conteo[i] /= soluciones;
+        }
+        return conteo;
+    }
+    
+    /**
+     * El generador debe producir tableros resolubles y reproducibles con cualquier número de hilos
+     */
+    private static void testGeneradorSinAdivinanzas() {
+        System.out.print("Test: Generador sin adivinanzas... ");
+        
+        GeneradorSinAdivinanzas unHilo = new GeneradorSinAdivinanzas(1);
+        GeneradorSinAdivinanzas variosHilos = new GeneradorSinAdivinanzas(3);
+        try {
+            for (long semilla = 0; semilla < 5; semilla++) {
+                Tablero tablero = unHilo.generar(16, 40, semilla, 8, 8);
+                Tablero repetido = variosHilos.generar(16, 40, semilla, 8, 8);
+                
+                assert tablero.getSemilla() == repetido.getSemilla() : "La semilla maestra debe fijar el tablero";
+                assert tablero.getCasilla(8, 8).estaDescubierta() : "La casilla inicial debe estar descubierta";
+                assert tablero.getCasilla(8, 8).getMinasAdyacentes() == 0 : "La casilla inicial debe estar vacía";
+                assert new Solucionador(tablero).resolver() == EstadoSolucion.RESUELTO :
+                       "El tablero debe resolverse sin adivinar";
+            }
+        } catch (InterruptedException e) {
+            assert false : "La generación no debe interrumpirse";
+        } finally {
+            unHilo.cerrar();
+            variosHilos.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Las pistas deben ser correctas y la caché de componentes no debe alterar las probabilidades
+     */
+    private static void testServicioPistas() {
+        System.out.print("Test: Servicio de pistas... ");
+        
+        CalculadoraProbabilidades conCache = new CalculadoraProbabilidades();
+        conCache.activarCache();
+        CalculadoraProbabilidades sinCache = new CalculadoraProbabilidades();
+        
+        for (long semilla = 0; semilla < 20; semilla++) {
+            Tablero tablero = Tablero.conPrimerClicSeguro(16, 40, semilla);
+            ServicioPistas servicio = new ServicioPistas(tablero);
+            
+            // Seguir las pistas hasta terminar: una pista segura nunca puede tener mina
+            while (!tablero.estaTerminado()) {
+                Pista pista = servicio.obtenerPista();
+                if (pista.esSegura()) {
+                    assert tablero.tieneMinasPendientes()
+                           || !tablero.getCasilla(pista.getFila(), pista.getColumna()).tieneMina() :
+                           "Una pista segura no debe tener mina";
+                } else {
+                    Probabilidades a = conCache.calcular(tablero);
+                    Probabilidades b = sinCache.calcular(tablero);
+                    for (int i = 0; i < 256; i++) {
+                        assert Double.isNaN(a.getProbabilidad(i)) == Double.isNaN(b.getProbabilidad(i))
+                               && (Double.isNaN(a.getProbabilidad(i))
+                                   || Math.abs(a.getProbabilidad(i) - b.getProbabilidad(i)) < 1e-9) :
+                               "La caché no debe cambiar las probabilidades";
+                    }
+                }
+                try {
+                    tablero.descubrirCasilla(pista.getFila(), pista.getColumna());
+                } catch (CasillaYaDescubiertaException e) {
+                    assert false : "La pista debe señalar una casilla tapada";
+                }
+            }
+            servicio.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * En el toroide, la rejilla hexagonal y las capas el solucionador solo deduce lo
+     * cierto, no pierde y la calculadora coincide con la fuerza bruta
+     */
+    private static void testTopologias() {
+        System.out.print("Test: Solucionador en otras topologías... ");
+        
+        Topologia[] topologias = {Topologia.toroide(10), Topologia.hexagonal(10), Topologia.capas(12, 3)};
+        int resueltos = 0;
+        for (Topologia topologia : topologias) {
+            int tamaño = topologia.getTamaño();
+            for (long semilla = 0; semilla < 150; semilla++) {
+                Tablero tablero = new Tablero(topologia, tamaño * tamaño / 8, semilla, tamaño / 2, tamaño / 2);
+                Solucionador solucionador = new Solucionador(tablero);
+                solucionador.descubrir(tamaño / 2 * tamaño + tamaño / 2);
+                solucionador.propagar();
+                for (int indice : solucionador.getMinasSeguras()) {
+                    assert tablero.getCasilla(indice / tamaño, indice % tamaño).tieneMina() : topologia + ": mina deducida incorrecta";
+                }
+                for (int indice : solucionador.getCasillasSeguras()) {
+                    assert !tablero.getCasilla(indice / tamaño, indice % tamaño).tieneMina() : topologia + ": casilla segura incorrecta";
+                }
+                
+                EstadoSolucion estado = solucionador.resolver();
+                assert estado != EstadoSolucion.DERROTA : topologia + ": el solucionador no debe perder (semilla " + semilla + ")";
+                if (estado == EstadoSolucion.RESUELTO) {
+                    assert tablero.esVictoria() : "Un tablero resuelto debe estar ganado";
+                    resueltos++;
+                }
+            }
+        }
+        assert resueltos > 0 : "Debe resolver al menos un tablero";
+        
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades();
+        int comparados = 0;
+        for (Topologia topologia : new Topologia[] {Topologia.toroide(4), Topologia.hexagonal(4)}) {
+            for (long semilla = 0; semilla < 60; semilla++) {
+                Tablero tablero = new Tablero(topologia, 2, semilla, 1, 1);
+                new Solucionador(tablero).descubrir(5);
+                if (tablero.estaTerminado()) {
+                    continue;
+                }
+                
+                Probabilidades probabilidades = calculadora.calcular(tablero);
+                double[] esperadas = fuerzaBruta(tablero);
+                for (int i = 0; i < esperadas.length; i++) {
+                    if (!tablero.getCasilla(i / 4, i % 4).estaDescubierta()) {
+                        assert Math.abs(probabilidades.getProbabilidad(i) - esperadas[i]) < 1e-9 :
+                               topologia + ": probabilidad incorrecta en la casilla " + i + " (semilla " + semilla + ")";
+                    }
+                }
+                comparados++;
+            }
+        }
+        assert comparados > 0 : "Debe compararse al menos un tablero";
+        
+        System.out.println("✓ PASÓ (" + resueltos + " tableros resueltos, " + comparados + " comparados)");
+    }
+}
\ No newline at end of file
@@ -1,8 +1,20 @@
 package test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import excepciones.CasillaYaDescubiertaException;
 import modelo.Casilla;
+import modelo.EstadoJuego;
+import modelo.HistorialJugadas;
+import modelo.InstantaneaTablero;
+import modelo.Movimiento;
+import modelo.ResultadoLote;
 import modelo.Tablero;
+import modelo.Topologia;
 
 /**
  * Clase de pruebas unitarias para la clase Tablero
@@ -22,6 +34,19 @@ public class TestTablero {
         testMarcarCasilla();
         testExcepcionCasillaYaDescubierta();
         testCondicionVictoria();
+        testAplicarMovimientosEnLote();
+        testMinasAdyacentes();
+        testPrimerClicSeguro();
+        testFronteraYContadores();
+        testDeshacerYRehacer();
+        testHistorialAcotado();
+        testInstantaneas();
+        testLectoresConcurrentes();
+        testMotorBitboard();
+        testIndiceRegiones();
+        testMinaConUltimaCasilla();
+        testExpansionCortadaPorBandera();
+        testTopologias();
         
         System.out.println("=== TODAS LAS PRUEBAS COMPLETADAS ===\n");
     }
@@ -103,7 +128,7 @@ public class TestTablero {
             }
             
             assert casillaEncontrada : "Debe existir al menos una casilla sin mina";
-            
+        
         } catch (CasillaYaDescubiertaException e) {
             assert false : "No debería lanzarse excepción en casilla no descubierta";
         }
@@ -196,4 +221,795 @@ public class TestTablero {
         
         System.out.println("✓ PASÓ");
     }
+    
+    /**
+     * Prueba la aplicación de un lote de jugadas con cambios acumulados
+     */
+    private static void testAplicarMovimientosEnLote() {
+        System.out.print("Test: Aplicar movimientos en lote... ");
+        
+        Tablero tablero = new Tablero();
+        int tamaño = tablero.getTamaño();
+        int[] movimientos = new int[tamaño * tamaño + 2];
+        int n = 0;
+        
+        // Marcar y desmarcar una mina, luego descubrir todas las casillas seguras
+        for (int i = 0; i < tamaño && n == 0; i++) {
+            for (int j = 0; j < tamaño && n == 0; j++) {
+                if (tablero.getCasilla(i, j).tieneMina()) {
+                    movimientos[n++] = Movimiento.marcar(i, j, tamaño);
+                    movimientos[n++] = Movimiento.marcar(i, j, tamaño);
+                }
+            }
+        }
+        for (int i = 0; i < tamaño; i++) {
+            for (int j = 0; j < tamaño; j++) {
+                if (!tablero.getCasilla(i, j).tieneMina()) {
+                    movimientos[n++] = Movimiento.descubrir(i, j, tamaño);
+                }
+            }
+        }
+        
+        ResultadoLote resultado = tablero.aplicarMovimientos(Arrays.copyOf(movimientos, n));
+        
+        assert resultado.getEstado() == EstadoJuego.VICTORIA : "El lote debe terminar en victoria";
+        assert resultado.getBanderasAlternadas().length == 2 : "Deben registrarse dos cambios de marca";
+        assert resultado.getCasillasDescubiertas().length == tablero.getCasillasDescubiertas() :
+               "El resultado debe contener cada casilla revelada una sola vez";
+        assert resultado.getMovimientosAplicados() <= n : "No se aplican jugadas tras terminar";
+        
+        // Un lote sobre una partida terminada no aplica nada
+        ResultadoLote vacio = tablero.aplicarMovimientos(new int[]{Movimiento.marcar(0, 0, tamaño)});
+        assert vacio.getMovimientosAplicados() == 0 : "No debe aplicarse ninguna jugada con el juego terminado";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Prueba que los contadores de minas adyacentes coinciden con un conteo directo
+     */
+    private static void testMinasAdyacentes() {
+        System.out.print("Test: Contadores de minas adyacentes... ");
+        
+        for (long semilla = 0; semilla < 50; semilla++) {
+            Tablero tablero = new Tablero(12, 30, semilla);
+            verificarMinasAdyacentes(tablero);
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Compara cada contador con las minas vecinas contadas una a una
+     */
+    static void verificarMinasAdyacentes(Tablero tablero) {
+        int tamaño = tablero.getTamaño();
+        for (int i = 0; i < tamaño; i++) {
+            for (int j = 0; j < tamaño; j++) {
+                if (tablero.getCasilla(i, j).tieneMina()) {
+                    continue;
+                }
+                int minas = 0;
+                for (int f = Math.max(0, i - 1); f <= Math.min(tamaño - 1, i + 1); f++) {
+                    for (int c = Math.max(0, j - 1); c <= Math.min(tamaño - 1, j + 1); c++) {
+                        if (tablero.getCasilla(f, c).tieneMina()) {
+                            minas++;
+                        }
+                    }
+                }
+                assert tablero.getCasilla(i, j).getMinasAdyacentes() == minas :
+                       "Contador incorrecto en " + i + "," + j;
+            }
+        }
+    }
+    
+    /**
+     * Prueba la colocación diferida de minas en el primer descubrimiento
+     */
+    private static void testPrimerClicSeguro() {
+        System.out.print("Test: Primer clic seguro... ");
+        
+        for (long semilla = 0; semilla < 50; semilla++) {
+            Tablero tablero = Tablero.conPrimerClicSeguro(10, 20, semilla);
+            assert tablero.tieneMinasPendientes() : "Las minas deben estar pendientes antes del primer clic";
+            
+            int fila = (int) (semilla % 10);
+            int columna = (int) ((semilla * 7) % 10);
+            try {
+                tablero.descubrirCasilla(fila, columna);
+            } catch (CasillaYaDescubiertaException e) {
+                assert false : "La primera casilla no puede estar descubierta";
+            }
+            
+            assert !tablero.estaTerminado() || tablero.esVictoria() : "El primer clic nunca debe perder";
+            assert tablero.getCasilla(fila, columna).getMinasAdyacentes() == 0 : "El primer clic debe abrir una zona vacía";
+            
+            // Misma semilla y misma primera casilla: mismo tablero
+            Tablero equivalente = new Tablero(10, 20, semilla, fila, columna);
+            int minas = 0;
+            for (int i = 0; i < 10; i++) {
+                for (int j = 0; j < 10; j++) {
+                    assert tablero.getCasilla(i, j).tieneMina() == equivalente.getCasilla(i, j).tieneMina() :
+                           "La colocación debe ser reproducible";
+                    if (tablero.getCasilla(i, j).tieneMina()) {
+                        minas++;
+                    }
+                }
+            }
+            assert minas == 20 : "Deben colocarse todas las minas";
+            verificarMinasAdyacentes(tablero);
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Prueba que la frontera y los contadores incrementales coinciden con un recorrido completo
+     */
+    private static void testFronteraYContadores() {
+        System.out.print("Test: Frontera y contadores... ");
+        
+        for (long semilla = 0; semilla < 30; semilla++) {
+            Tablero tablero = Tablero.conPrimerClicSeguro(12, 25, semilla);
+            tablero.marcarCasilla(0, 0);
+            tablero.marcarCasilla(11, 11);
+            tablero.marcarCasilla(11, 11);
+            assert tablero.getBanderas() == 1 : "Debe haber una bandera";
+            assert tablero.getMinasRestantes() == 24 : "Deben quedar 24 minas sin marcar";
+            
+            int[] jugadas = {Movimiento.descubrir(6, 6, 12), Movimiento.descubrir(2, 9, 12),
+                             Movimiento.descubrir(9, 2, 12)};
+            tablero.aplicarMovimientos(jugadas);
+            
+            int enFrontera = 0;
+            for (int i = 0; i < 12; i++) {
+                for (int j = 0; j < 12; j++) {
+                    boolean esperada = !tablero.getCasilla(i, j).estaDescubierta() && tieneVecinaDescubierta(tablero, i, j);
+                    assert tablero.esFrontera(i, j) == esperada : "Frontera incorrecta en " + i + "," + j;
+                    if (esperada) {
+                        enFrontera++;
+                    }
+                }
+            }
+            assert tablero.getTamañoFrontera() == enFrontera : "Tamaño de frontera incorrecto";
+            assert tablero.getFrontera().length == enFrontera : "Los índices de frontera deben coincidir";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Prueba que deshacer y rehacer recorren exactamente los mismos estados que las jugadas
+     */
+    private static void testDeshacerYRehacer() {
+        System.out.print("Test: Deshacer y rehacer... ");
+        
+        for (long semilla = 0; semilla < 30; semilla++) {
+            Tablero tablero = Tablero.conPrimerClicSeguro(12, 25, semilla);
+            tablero.activarHistorial(1000);
+            assert !tablero.puedeDeshacer() : "Sin jugadas no hay nada que deshacer";
+            
+            Random random = new Random(semilla);
+            List<String> estados = new ArrayList<>();
+            estados.add(describir(tablero));
+            tablero.aplicarMovimiento(Movimiento.descubrir(6, 6, 12));
+            estados.add(describir(tablero));
+            while (!tablero.estaTerminado() && estados.size() < 40) {
+                int indice = random.nextInt(144);
+                int movimiento = random.nextInt(4) == 0
+                        ? Movimiento.marcar(indice / 12, indice % 12, 12)
+                        : Movimiento.descubrir(indice / 12, indice % 12, 12);
+                if (tablero.aplicarMovimiento(movimiento)) {
+                    estados.add(describir(tablero));
+                }
+            }
+            
+            for (int i = estados.size() - 2; i >= 0; i--) {
+                assert tablero.deshacer() : "Debe poder deshacerse la jugada " + i;
+                assert describir(tablero).equals(estados.get(i)) : "Estado distinto al deshacer la jugada " + i;
+            }
+            assert !tablero.deshacer() : "No deben quedar jugadas que deshacer";
+            assert tablero.getEstado() == EstadoJuego.EN_CURSO : "Al deshacerlo todo la partida está en curso";
+            
+            for (int i = 1; i < estados.size(); i++) {
+                assert tablero.rehacer() : "Debe poder rehacerse la jugada " + i;
+                assert describir(tablero).equals(estados.get(i)) : "Estado distinto al rehacer la jugada " + i;
+            }
+            assert !tablero.rehacer() : "No deben quedar jugadas que rehacer";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Prueba los límites de profundidad y memoria del historial
+     */
+    private static void testHistorialAcotado() {
+        System.out.print("Test: Historial acotado... ");
+        
+        Tablero tablero = new Tablero(10, 10, 1L);
+        tablero.activarHistorial(3);
+        for (int j = 0; j < 5; j++) {
+            tablero.marcarCasilla(0, j);
+        }
+        for (int i = 0; i < 3; i++) {
+            assert tablero.deshacer() : "Deben poder deshacerse las tres últimas jugadas";
+        }
+        assert !tablero.deshacer() : "Las jugadas más antiguas se descartan";
+        assert tablero.getBanderas() == 2 : "Deben quedar las dos banderas más antiguas";
+        
+        // Una jugada nueva descarta lo que quedaba por rehacer
+        tablero.marcarCasilla(5, 5);
+        assert !tablero.puedeRehacer() : "No debe quedar nada por rehacer tras una jugada nueva";
+        
+        // Con muchas jugadas la memoria se mantiene dentro del límite
+        Tablero grande = Tablero.conPrimerClicSeguro(64, 300, 7L);
+        grande.activarHistorial(1000, 2000);
+        HistorialJugadas historial = grande.getHistorial();
+        Random random = new Random(7L);
+        grande.aplicarMovimiento(Movimiento.descubrir(32, 32, 64));
+        for (int i = 0; i < 20000 && !grande.estaTerminado(); i++) {
+            int indice = random.nextInt(64 * 64);
+            if (!grande.getCasilla(indice / 64, indice % 64).tieneMina()) {
+                grande.aplicarMovimiento(Movimiento.descubrir(indice / 64, indice % 64, 64));
+            } else if (random.nextBoolean()) {
+                grande.aplicarMovimiento(Movimiento.marcar(indice / 64, indice % 64, 64));
+            }
+            assert historial.getEnterosUsados() <= 2000 : "El historial supera su límite de memoria";
+            assert historial.getProfundidad() <= 1000 : "El historial supera su profundidad";
+        }
+        int descubiertas = grande.getCasillasDescubiertas();
+        int deshechas = 0;
+        while (grande.deshacer()) {
+            deshechas++;
+        }
+        assert deshechas > 0 : "Deben poder deshacerse las jugadas recientes";
+        assert grande.getCasillasDescubiertas() < descubiertas : "Deshacer debe tapar casillas";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Prueba que las instantáneas reflejan el tablero y no cambian después de publicarse
+     */
+    private static void testInstantaneas() {
+        System.out.print("Test: Instantáneas con copia en escritura... ");
+        
+        Tablero tablero = Tablero.conPrimerClicSeguro(16, 40, 3L);
+        assert tablero.getInstantanea() == null : "Sin activarlas no hay instantáneas";
+        tablero.activarInstantaneas();
+        tablero.activarHistorial(10);
+        
+        InstantaneaTablero inicial = tablero.getInstantanea();
+        tablero.aplicarMovimiento(Movimiento.descubrir(8, 8, 16));
+        tablero.marcarCasilla(0, 0);
+        InstantaneaTablero tras = tablero.getInstantanea();
+        assert tras.getVersion() > inicial.getVersion() : "Cada jugada publica una versión nueva";
+        assert tablero.getInstantanea() == tras : "Sin cambios no se publica nada nuevo";
+        assert coincide(inicial, Tablero.conPrimerClicSeguro(16, 40, 3L)) : "La instantánea inicial no debe cambiar";
+        assert coincide(tras, tablero) : "La instantánea debe coincidir con el tablero";
+        assert tras.getCasillasDescubiertas() == tablero.getCasillasDescubiertas() : "Debe copiar los contadores";
+        assert tras.getMinasRestantes() == 39 : "Debe contar la bandera";
+        
+        tablero.deshacer();
+        tablero.deshacer();
+        assert coincide(tablero.getInstantanea(), tablero) : "Deshacer debe publicar el tablero tapado";
+        assert tras.estaDescubierta(8, 8) && !tablero.getInstantanea().estaDescubierta(8, 8)
+                : "La instantánea anterior conserva lo deshecho";
+        
+        tablero.reiniciar(9L);
+        assert coincide(tablero.getInstantanea(), tablero) : "Reiniciar debe publicar el tablero nuevo";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * El motor por palabras de bits debe dar los mismos contadores y revelar las mismas
+     * casillas que el escalar, también con filas de más de una palabra y con banderas
+     */
+    private static void testMotorBitboard() {
+        System.out.print("Test: Motor por palabras de bits igual al escalar... ");
+        
+        int[] tamaños = {1, 2, 7, 63, 64, 65, 130};
+        for (int tamaño : tamaños) {
+            for (long semilla = 0; semilla < 4; semilla++) {
+                // En tableros grandes y vacíos la expansión escalar recursiva desbordaría la pila
+                double densidad = (tamaño > 65 ? 0.15 : 0.05) + 0.05 * semilla;
+                int minas = (int) (tamaño * tamaño * densidad);
+                Tablero escalar = new Tablero(tamaño, minas, semilla);
+                Tablero bitboard = new Tablero(tamaño, minas, semilla);
+                escalar.activarHistorial(10);
+                bitboard.activarHistorial(10);
+                bitboard.activarMotorBitboard();
+                assert bitboard.usaMotorBitboard() && !escalar.usaMotorBitboard();
+                
+                Random random = new Random(semilla);
+                for (int partida = 0; partida < 2; partida++) {
+                    // Al reiniciar el motor calcula todos los contadores con sumadores de bits
+                    long nuevaSemilla = random.nextLong();
+                    escalar.reiniciar(nuevaSemilla);
+                    bitboard.reiniciar(nuevaSemilla);
+                    assert mismasMinas(escalar, bitboard) : "Los contadores deben coincidir en " + tamaño + "x" + tamaño;
+                    
+                    for (int jugada = 0; jugada < 3 * tamaño && !escalar.estaTerminado(); jugada++) {
+                        int opcion = random.nextInt(10);
+                        if (opcion == 0) {
+                            assert escalar.deshacer() == bitboard.deshacer();
+                        } else {
+                            int indice = random.nextInt(tamaño * tamaño);
+                            int movimiento = opcion < 4
+                                    ? Movimiento.marcar(indice / tamaño, indice % tamaño, tamaño)
+                                    : Movimiento.descubrir(indice / tamaño, indice % tamaño, tamaño);
+                            assert escalar.aplicarMovimiento(movimiento) == bitboard.aplicarMovimiento(movimiento);
+                        }
+                        assert describir(escalar).equals(describir(bitboard))
+                                : "Ambos motores deben revelar lo mismo en " + tamaño + "x" + tamaño;
+                    }
+                }
+            }
+        }
+        
+        // Minas diferidas: se colocan con el motor ya activo
+        Tablero escalar = Tablero.conPrimerClicSeguro(70, 600, 9L);
+        Tablero bitboard = Tablero.conPrimerClicSeguro(70, 600, 9L);
+        bitboard.activarMotorBitboard();
+        escalar.aplicarMovimiento(Movimiento.descubrir(35, 35, 70));
+        bitboard.aplicarMovimiento(Movimiento.descubrir(35, 35, 70));
+        assert mismasMinas(escalar, bitboard) && describir(escalar).equals(describir(bitboard));
+        assert bitboard.getCasillasDescubiertas() >= 9 : "La primera casilla abre una zona vacía";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * El índice de regiones da el 3BV y abre de una vez regiones enormes, sin recursión
+     */
+    private static void testIndiceRegiones() {
+        System.out.print("Test: Índice de regiones vacías y 3BV... ");
+        
+        Tablero vacio = new Tablero(3, 0, 1L);
+        assert vacio.calcular3BV() == 1 && vacio.getNumeroRegionesVacias() == 1 : "Sin minas basta un clic";
+        assert Tablero.conPrimerClicSeguro(9, 10, 1L).calcular3BV() == 0 : "Sin minas colocadas no hay 3BV";
+        
+        for (long semilla = 0; semilla < 30; semilla++) {
+            int tamaño = 5 + (int) semilla;
+            Tablero tablero = new Tablero(tamaño, tamaño * tamaño / 6, semilla);
+            int[] esperado = contarRegiones(tablero);
+            assert tablero.getNumeroRegionesVacias() == esperado[0] : "Número de regiones incorrecto";
+            assert tablero.calcular3BV() == esperado[0] + esperado[1] : "3BV incorrecto con semilla " + semilla;
+            
+            // Tras reiniciar el índice se vuelve a construir
+            tablero.reiniciar(semilla + 100);
+            esperado = contarRegiones(tablero);
+            assert tablero.calcular3BV() == esperado[0] + esperado[1] : "3BV incorrecto tras reiniciar";
+        }
+        
+        // Una región de casi todo el tablero se abre sin desbordar la pila
+        Tablero grande = new Tablero(400, 40, 3L);
+        int fila = 0;
+        int columna = 0;
+        while (grande.getCasilla(fila, columna).tieneMina() || grande.getCasilla(fila, columna).getMinasAdyacentes() != 0) {
+            columna = (columna + 1) % 400;
+            fila += columna == 0 ? 1 : 0;
+        }
+        grande.aplicarMovimiento(Movimiento.descubrir(fila, columna, 400));
+        assert grande.getCasillasDescubiertas() > 150000 : "La región vacía debe abrirse entera";
+        int frontera = 0;
+        for (int i = 0; i < 400; i++) {
+            for (int j = 0; j < 400; j++) {
+                if (!grande.getCasilla(i, j).estaDescubierta() && tieneVecinaDescubierta(grande, i, j)) {
+                    frontera++;
+                }
+            }
+        }
+        assert grande.getTamañoFrontera() == frontera : "La frontera debe seguir al día";
+        
+        // Con una bandera dentro de la región se expande casilla a casilla y la bandera corta
+        Tablero conBandera = new Tablero(12, 8, 5L);
+        Tablero referencia = new Tablero(12, 8, 5L);
+        referencia.activarMotorBitboard();
+        int celda = 0;
+        while (conBandera.getCasilla(celda / 12, celda % 12).getMinasAdyacentes() != 0
+                || conBandera.getCasilla(celda / 12, celda % 12).tieneMina()) {
+            celda++;
+        }
+        int vecina = celda % 12 < 11 ? celda + 1 : celda - 1;
+        for (Tablero t : new Tablero[]{conBandera, referencia}) {
+            t.marcarCasilla(vecina / 12, vecina % 12);
+            t.aplicarMovimiento(Movimiento.descubrir(celda / 12, celda % 12, 12));
+        }
+        assert !conBandera.getCasilla(vecina / 12, vecina % 12).estaDescubierta() : "La casilla marcada sigue tapada";
+        assert describir(conBandera).equals(describir(referencia)) : "Debe revelar lo mismo que la expansión normal";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Cuenta las regiones vacías y las casillas numeradas que no tocan ninguna, recorriendo el tablero
+     */
+    private static int[] contarRegiones(Tablero tablero) {
+        int tamaño = tablero.getTamaño();
+        boolean[] visitada = new boolean[tamaño * tamaño];
+        int regiones = 0;
+        List<Integer> pendientes = new ArrayList<>();
+        for (int inicio = 0; inicio < tamaño * tamaño; inicio++) {
+            Casilla casilla = tablero.getCasilla(inicio / tamaño, inicio % tamaño);
+            if (visitada[inicio] || casilla.tieneMina() || casilla.getMinasAdyacentes() != 0) {
+                continue;
+            }
+            regiones++;
+            visitada[inicio] = true;
+            pendientes.add(inicio);
+            while (!pendientes.isEmpty()) {
+                int indice = pendientes.remove(pendientes.size() - 1);
+                for (int f = Math.max(0, indice / tamaño - 1); f <= Math.min(tamaño - 1, indice / tamaño + 1); f++) {
+                    for (int c = Math.max(0, indice % tamaño - 1); c <= Math.min(tamaño - 1, indice % tamaño + 1); c++) {
+                        Casilla vecina = tablero.getCasilla(f, c);
+                        if (!visitada[f * tamaño + c] && !vecina.tieneMina() && vecina.getMinasAdyacentes() == 0) {
+                            visitada[f * tamaño + c] = true;
+                            pendientes.add(f * tamaño + c);
+                        }
+                    }
+                }
+            }
+        }
+        int sueltas = 0;
+        for (int i = 0; i < tamaño; i++) {
+            for (int j = 0; j < tamaño; j++) {
+                Casilla casilla = tablero.getCasilla(i, j);
+                if (!casilla.tieneMina() && casilla.getMinasAdyacentes() != 0 && !tieneVecinaVacia(tablero, i, j)) {
+                    sueltas++;
+                }
+            }
+        }
+        return new int[]{regiones, sueltas};
+    }
+    
+    private static boolean tieneVecinaVacia(Tablero tablero, int fila, int columna) {
+        int tamaño = tablero.getTamaño();
+        for (int f = Math.max(0, fila - 1); f <= Math.min(tamaño - 1, fila + 1); f++) {
+            for (int c = Math.max(0, columna - 1); c <= Math.min(tamaño - 1, columna + 1); c++) {
+                Casilla vecina = tablero.getCasilla(f, c);
+                if (!vecina.tieneMina() && vecina.getMinasAdyacentes() == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private static boolean mismasMinas(Tablero a, Tablero b) {
+        for (int i = 0; i < a.getTamaño(); i++) {
+            for (int j = 0; j < a.getTamaño(); j++) {
+                Casilla x = a.getCasilla(i, j);
+                Casilla y = b.getCasilla(i, j);
+                if (x.tieneMina() != y.tieneMina() || x.getMinasAdyacentes() != y.getMinasAdyacentes()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Prueba que un lector en otro hilo nunca ve una jugada a medias
+     */
+    private static void testLectoresConcurrentes() {
+        System.out.print("Test: Lectores concurrentes sin bloqueos... ");
+        
+        Tablero tablero = new Tablero(64, 400, 1L);
+        tablero.activarInstantaneas();
+        AtomicBoolean terminado = new AtomicBoolean(false);
+        AtomicBoolean inconsistente = new AtomicBoolean(false);
+        int[] lecturas = new int[1];
+        
+        Thread lector = new Thread(() -> {
+            long versionAnterior = -1;
+            while (!terminado.get()) {
+                InstantaneaTablero instantanea = tablero.getInstantanea();
+                int descubiertas = 0;
+                for (int i = 0; i < 64; i++) {
+                    for (int j = 0; j < 64; j++) {
+                        if (instantanea.estaDescubierta(i, j) && !instantanea.tieneMinaDescubierta(i, j)) {
+                            descubiertas++;
+                        }
+                    }
+                }
+                int esperadas = instantanea.getCasillasDescubiertas()
+                        - (instantanea.getEstado() == EstadoJuego.DERROTA ? 1 : 0);
+                if (descubiertas != esperadas || instantanea.getVersion() < versionAnterior) {
+                    inconsistente.set(true);
+                }
+                versionAnterior = instantanea.getVersion();
+                lecturas[0]++;
+            }
+        });
+        lector.start();
+        
+        Random random = new Random(1L);
+        for (int partida = 0; partida < 200; partida++) {
+            tablero.reiniciar(partida, 32, 32);
+            tablero.aplicarMovimiento(Movimiento.descubrir(32, 32, 64));
+            while (!tablero.estaTerminado()) {
+                int indice = random.nextInt(64 * 64);
+                tablero.aplicarMovimiento(Movimiento.descubrir(indice / 64, indice % 64, 64));
+            }
+        }
+        terminado.set(true);
+        try {
+            lector.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        assert !inconsistente.get() : "El lector vio una jugada a medio aplicar";
+        assert lecturas[0] > 0 : "El lector debe haber leído alguna instantánea";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static boolean coincide(InstantaneaTablero instantanea, Tablero tablero) {
+        for (int i = 0; i < tablero.getTamaño(); i++) {
+            for (int j = 0; j < tablero.getTamaño(); j++) {
+                if (!instantanea.getRepresentacion(i, j).equals(tablero.getCasilla(i, j).getRepresentacion())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Describe todo el estado visible del tablero, incluidos contadores y frontera
+     */
+    private static String describir(Tablero tablero) {
+        StringBuilder sb = new StringBuilder();
+        int tamaño = tablero.getTamaño();
+        for (int i = 0; i < tamaño; i++) {
+            for (int j = 0; j < tamaño; j++) {
+                sb.append(tablero.getCasilla(i, j).getRepresentacion());
+            }
+        }
+        sb.append(tablero.getEstado()).append(' ').append(tablero.getCasillasDescubiertas())
+          .append(' ').append(tablero.getBanderas()).append(' ').append(tablero.getTamañoFrontera())
+          .append(' ').append(Arrays.toString(tablero.getFrontera()));
+        return sb.toString();
+    }
+    
+    private static boolean tieneVecinaDescubierta(Tablero tablero, int fila, int columna) {
+        int tamaño = tablero.getTamaño();
+        for (int f = Math.max(0, fila - 1); f <= Math.min(tamaño - 1, fila + 1); f++) {
+            for (int c = Math.max(0, columna - 1); c <= Math.min(tamaño - 1, columna + 1); c++) {
+                if (tablero.getCasilla(f, c).estaDescubierta()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Pisar una mina es derrota aunque con ella el número de casillas descubiertas
+     * llegue al de casillas sin mina
+     */
+    private static void testMinaConUltimaCasilla() {
+        System.out.print("Test: Mina pisada con una sola casilla segura tapada... ");
+        
+        // 4x4 con 3 minas en la primera columna: tras el centro quedan tapadas las minas y (0,0)
+        Tablero tablero = new Tablero(4, 3, 9L, 2, 2);
+        tablero.aplicarMovimiento(Movimiento.descubrir(2, 2, 4));
+        assert tablero.getCasillasDescubiertas() == 12;
+        assert tablero.getCasilla(1, 0).tieneMina();
+        tablero.aplicarMovimiento(Movimiento.descubrir(1, 0, 4));
+        assert tablero.getEstado() == EstadoJuego.DERROTA : "Pisar una mina nunca es victoria";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Una bandera dentro de una región vacía impide usar el índice de regiones; la
+     * expansión casilla a casilla de un tablero grande no debe desbordar la pila
+     */
+    private static void testExpansionCortadaPorBandera() {
+        System.out.print("Test: Expansión grande cortada por una bandera... ");
+        
+        int tamaño = 300;
+        Tablero tablero = new Tablero(tamaño, 1, 5L);
+        int fila = tamaño / 2;
+        int columna = tamaño / 2;
+        if (tablero.getCasilla(fila, columna).tieneMina()) {
+            columna++;
+        }
+        tablero.marcarCasilla(fila, columna);
+        int origen = tablero.getCasilla(0, 0).tieneMina() ? tamaño - 1 : 0;
+        tablero.aplicarMovimiento(Movimiento.descubrir(origen, origen, tamaño));
+        
+        assert !tablero.getCasilla(fila, columna).estaDescubierta() : "La casilla marcada no se descubre";
+        assert tablero.getCasillasDescubiertas() == tamaño * tamaño - 2
+                : "Deben descubrirse todas las casillas salvo la mina y la marcada";
+        assert !tablero.estaTerminado() : "Queda una casilla segura tapada bajo la bandera";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Cada topología da las vecinas de su geometría, y los contadores, la expansión (por
+     * regiones y casilla a casilla) y la frontera siguen esas vecinas
+     */
+    private static void testTopologias() {
+        System.out.print("Test: Topologías toroide, hexagonal y capas... ");
+        
+        Topologia[] topologias = {Topologia.cuadricula(9), Topologia.toroide(9), Topologia.hexagonal(9),
+                                  Topologia.capas(12, 3)};
+        for (Topologia topologia : topologias) {
+            int tamaño = topologia.getTamaño();
+            int total = tamaño * tamaño;
+            for (int a = 0; a < total; a++) {
+                int grado = 0;
+                for (int b = 0; b < total; b++) {
+                    boolean esperada = sonVecinasEn(topologia, a, b);
+                    assert topologia.sonVecinas(a, b) == esperada : topologia + ": vecindad incorrecta entre " + a + " y " + b;
+                    grado += esperada ? 1 : 0;
+                }
+                assert topologia.getGrado(a) == grado;
+            }
+            
+            int centro = tamaño / 2;
+            Random random = new Random(tamaño);
+            for (long semilla = 0; semilla < 20; semilla++) {
+                Tablero tablero = new Tablero(topologia, total / 8, semilla, centro, centro);
+                for (int a = 0; a < total; a++) {
+                    Casilla casilla = tablero.getCasilla(a / tamaño, a % tamaño);
+                    if (casilla.tieneMina()) {
+                        continue;
+                    }
+                    int minas = 0;
+                    for (int b = 0; b < total; b++) {
+                        minas += sonVecinasEn(topologia, a, b) && tablero.getCasilla(b / tamaño, b % tamaño).tieneMina() ? 1 : 0;
+                    }
+                    assert casilla.getMinasAdyacentes() == minas : topologia + ": contador incorrecto en " + a;
+                }
+                
+                // Jugar casillas sin mina, a veces con una bandera que corta la expansión
+                boolean[] descubiertas = new boolean[total];
+                boolean[] marcadas = new boolean[total];
+                int casilla = centro * tamaño + centro;
+                for (int jugada = 0; jugada < 12 && !tablero.estaTerminado(); jugada++) {
+                    tablero.aplicarMovimiento(Movimiento.descubrir(casilla / tamaño, casilla % tamaño, tamaño));
+                    expandirReferencia(tablero, casilla, descubiertas, marcadas);
+                    for (int a = 0; a < total; a++) {
+                        assert tablero.getCasilla(a / tamaño, a % tamaño).estaDescubierta() == descubiertas[a]
+                                : topologia + ", semilla " + semilla + ": expansión incorrecta en " + a;
+                        boolean enFrontera = false;
+                        for (int b = 0; b < total && !descubiertas[a] && !enFrontera; b++) {
+                            enFrontera = descubiertas[b] && sonVecinasEn(topologia, a, b);
+                        }
+                        assert tablero.esFrontera(a / tamaño, a % tamaño) == enFrontera : topologia + ": frontera incorrecta en " + a;
+                    }
+                    
+                    if (random.nextInt(3) == 0) {
+                        int bandera = tapadaSinMina(tablero, random, descubiertas, marcadas);
+                        if (bandera >= 0) {
+                            tablero.aplicarMovimiento(Movimiento.marcar(bandera / tamaño, bandera % tamaño, tamaño));
+                            marcadas[bandera] = true;
+                        }
+                    }
+                    casilla = tapadaSinMina(tablero, random, descubiertas, marcadas);
+                    if (casilla < 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        
+        // En las capas una casilla puede tener más de 15 minas vecinas, que no caben en un byte con signo
+        Tablero capas = new Tablero(Topologia.capas(9, 3), 52, 5L, 4, 4);
+        capas.activarInstantaneas();
+        boolean muchasVecinas = false;
+        for (int a = 0; a < 81; a++) {
+            Casilla casilla = capas.getCasilla(a / 9, a % 9);
+            if (!casilla.tieneMina() && !casilla.estaDescubierta()) {
+                capas.aplicarMovimiento(Movimiento.descubrir(a / 9, a % 9, 9));
+                muchasVecinas |= casilla.getMinasAdyacentes() >= 16;
+            }
+        }
+        assert muchasVecinas && capas.esVictoria() : "La prueba debe descubrir una casilla con 16 minas vecinas o más";
+        InstantaneaTablero instantanea = capas.getInstantanea();
+        for (int a = 0; a < 81; a++) {
+            Casilla casilla = capas.getCasilla(a / 9, a % 9);
+            assert instantanea.estaDescubierta(a / 9, a % 9) == casilla.estaDescubierta();
+            if (casilla.estaDescubierta()) {
+                assert instantanea.getMinasAdyacentes(a / 9, a % 9) == casilla.getMinasAdyacentes()
+                        : "Capas: la instantánea da " + instantanea.getMinasAdyacentes(a / 9, a % 9) + " minas vecinas en " + a;
+                assert instantanea.getRepresentacion(a / 9, a % 9).equals(casilla.getRepresentacion());
+            }
+        }
+        
+        assert new Tablero(16, 40, 1L).getTopologia() == new Tablero(16, 40, 2L).getTopologia()
+                : "Los tableros del mismo tamaño comparten la cuadrícula";
+        try {
+            new Tablero(Topologia.toroide(8), 5, 1L, -1, -1).activarMotorBitboard();
+            assert false : "El motor por palabras de bits solo admite la cuadrícula";
+        } catch (IllegalStateException e) {
+            // Esperado
+        }
+        try {
+            Topologia.capas(10, 3);
+            assert false : "Las capas deben dividir al tamaño";
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Vecindad de referencia calculada con coordenadas, sin las listas de la topología
+     */
+    private static boolean sonVecinasEn(Topologia topologia, int a, int b) {
+        int tamaño = topologia.getTamaño();
+        int filaA = a / tamaño;
+        int columnaA = a % tamaño;
+        int filaB = b / tamaño;
+        int columnaB = b % tamaño;
+        if (a == b) {
+            return false;
+        }
+        switch (topologia.getTipo()) {
+            case TOROIDE:
+                return distanciaCircular(filaA, filaB, tamaño) <= 1 && distanciaCircular(columnaA, columnaB, tamaño) <= 1;
+            case HEXAGONAL:
+                // Coordenadas cúbicas de una rejilla con las filas impares desplazadas
+                int xA = columnaA - (filaA - (filaA & 1)) / 2;
+                int xB = columnaB - (filaB - (filaB & 1)) / 2;
+                int dx = xA - xB;
+                int dz = filaA - filaB;
+                return Math.max(Math.abs(dx), Math.max(Math.abs(dz), Math.abs(dx + dz))) == 1;
+            case CAPAS:
+                int filas = tamaño / topologia.getCapas();
+                return Math.abs(filaA / filas - filaB / filas) <= 1 && Math.abs(filaA % filas - filaB % filas) <= 1
+                        && Math.abs(columnaA - columnaB) <= 1;
+            default:
+                return Math.abs(filaA - filaB) <= 1 && Math.abs(columnaA - columnaB) <= 1;
+        }
+    }
+    
+    private static int distanciaCircular(int a, int b, int tamaño) {
+        int distancia = Math.abs(a - b);
+        return Math.min(distancia, tamaño - distancia);
+    }
+    
+    /**
+     * Descubre una casilla en el tablero de referencia y expande por anchura sus zonas vacías
+     */
+    private static void expandirReferencia(Tablero tablero, int inicio, boolean[] descubiertas, boolean[] marcadas) {
+        int tamaño = tablero.getTamaño();
+        int[] pendientes = new int[descubiertas.length];
+        int n = 0;
+        descubiertas[inicio] = true;
+        pendientes[n++] = inicio;
+        while (n > 0) {
+            int a = pendientes[--n];
+            if (tablero.getCasilla(a / tamaño, a % tamaño).getMinasAdyacentes() != 0) {
+                continue;
+            }
+            for (int b = 0; b < descubiertas.length; b++) {
+                if (!descubiertas[b] && !marcadas[b] && sonVecinasEn(tablero.getTopologia(), a, b)) {
+                    descubiertas[b] = true;
+                    pendientes[n++] = b;
+                }
+            }
+        }
+    }
+    
+    private static int tapadaSinMina(Tablero tablero, Random random, boolean[] descubiertas, boolean[] marcadas) {
+        int tamaño = tablero.getTamaño();
+        for (int intento = 0; intento < 200; intento++) {
+            int a = random.nextInt(descubiertas.length);
+            if (!descubiertas[a] && !marcadas[a] && !tablero.getCasilla(a / tamaño, a % tamaño).tieneMina()) {
+                return a;
+            }
+        }
+        return -1;
+    }
 }
\ No newline at end of file
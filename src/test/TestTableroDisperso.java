@@ -0,0 +1,310 @@
+package test;
+
+import java.util.Random;
+
+import controlador.FabricaTableros;
+import excepciones.CasillaYaDescubiertaException;
+import modelo.ConfiguracionTablero;
+import modelo.EstadoJuego;
+import modelo.Tablero;
+import modelo.TableroDisperso;
+import modelo.TableroJugable;
+
+/**
+ * Clase de pruebas unitarias para el tablero disperso
+ */
+public class TestTableroDisperso {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para TableroDisperso
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - TABLERO DISPERSO ===");
+        
+        testMismasMinasQueTablero();
+        testMismasPartidasQueTablero();
+        testMemoriaSegunZonaDescubierta();
+        testTableroEnorme();
+        testSinJugadasTrasTerminar();
+        testPrimerClicSeguro();
+        testFabricaEligeRepresentacion();
+        testArgumentosInvalidos();
+        
+        System.out.println("=== TODAS LAS PRUEBAS TABLERO DISPERSO COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Con la misma semilla las minas y los contadores coinciden con los de Tablero
+     */
+    private static void testMismasMinasQueTablero() {
+        System.out.print("Test: Minas y contadores iguales que en Tablero... ");
+        
+        int[][] configuraciones = {{1, 0}, {3, 0}, {5, 8}, {16, 40}, {30, 99}};
+        for (int[] configuracion : configuraciones) {
+            int tamaño = configuracion[0];
+            for (long semilla = 0; semilla < 10; semilla++) {
+                Tablero tablero = new Tablero(tamaño, configuracion[1], semilla, tamaño / 2, tamaño / 2);
+                TableroDisperso disperso = new TableroDisperso(tamaño, configuracion[1], semilla, tamaño / 2, tamaño / 2);
+                for (int fila = 0; fila < tamaño; fila++) {
+                    for (int columna = 0; columna < tamaño; columna++) {
+                        assert disperso.tieneMina(fila, columna) == tablero.getCasilla(fila, columna).tieneMina()
+                                : "Mina distinta en (" + fila + ", " + columna + ")";
+                        if (!disperso.tieneMina(fila, columna)) {
+                            assert disperso.getMinasAdyacentes(fila, columna) == tablero.getCasilla(fila, columna).getMinasAdyacentes()
+                                    : "Contador distinto en (" + fila + ", " + columna + ")";
+                        }
+                    }
+                }
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Las mismas jugadas, con banderas que cortan expansiones, descubren las mismas
+     * casillas y terminan igual; el tablero de 300x300 reparte lo descubierto en varios
+     * bloques del mapa comprimido y los hace cambiar de forma
+     */
+    private static void testMismasPartidasQueTablero() {
+        System.out.print("Test: Partidas iguales que con Tablero... ");
+        
+        int[][] configuraciones = {{8, 10}, {16, 40}, {30, 60}, {300, 900}};
+        for (int[] configuracion : configuraciones) {
+            int tamaño = configuracion[0];
+            int partidas = tamaño > 100 ? 2 : 30;
+            for (long semilla = 0; semilla < partidas; semilla++) {
+                Tablero tablero = new Tablero(tamaño, configuracion[1], semilla, tamaño / 2, tamaño / 2);
+                TableroDisperso disperso = new TableroDisperso(tamaño, configuracion[1], semilla, tamaño / 2, tamaño / 2);
+                Random random = new Random(semilla);
+                int fila = tamaño / 2;
+                int columna = tamaño / 2;
+                for (int jugada = 0; jugada < 40 && !tablero.estaTerminado(); jugada++) {
+                    if (random.nextInt(4) == 0) {
+                        tablero.marcarCasilla(fila, columna);
+                        disperso.marcarCasilla(fila, columna);
+                    } else if (!tablero.getCasilla(fila, columna).estaDescubierta()) {
+                        descubrir(tablero, disperso, fila, columna);
+                    }
+                    fila = random.nextInt(tamaño);
+                    columna = random.nextInt(tamaño);
+                }
+                
+                assert disperso.getEstado() == tablero.getEstado() : "Resultado distinto (semilla " + semilla + ")";
+                assert disperso.getCasillasDescubiertas() == tablero.getCasillasDescubiertas()
+                        : "Número de casillas descubiertas distinto (semilla " + semilla + ")";
+                for (int f = 0; f < tamaño; f++) {
+                    for (int c = 0; c < tamaño; c++) {
+                        assert disperso.estaDescubierta(f, c) == tablero.getCasilla(f, c).estaDescubierta()
+                                : "Casilla (" + f + ", " + c + ") distinta en " + tamaño + "x" + tamaño + ", semilla " + semilla;
+                        assert disperso.estaMarcada(f, c) == tablero.getCasilla(f, c).estaMarcada();
+                    }
+                }
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void descubrir(Tablero tablero, TableroDisperso disperso, int fila, int columna) {
+        try {
+            tablero.descubrirCasilla(fila, columna);
+            disperso.descubrirCasilla(fila, columna);
+        } catch (CasillaYaDescubiertaException e) {
+            assert false : "La casilla estaba tapada en los dos tableros";
+        }
+    }
+    
+    /**
+     * Descubrir casi todo un tablero de un millón de casillas ocupa bastante menos que un
+     * bit por casilla, porque las filas descubiertas se guardan como tramos
+     */
+    private static void testMemoriaSegunZonaDescubierta() {
+        System.out.print("Test: Memoria según la zona descubierta... ");
+        
+        TableroDisperso disperso = new TableroDisperso(1000, 500, 3L, 500, 500);
+        long antes = disperso.getBytesAproximados();
+        descubrir(disperso, 500, 500);
+        long descubiertas = disperso.getCasillasDescubiertas();
+        
+        assert descubiertas > 900_000 : "Con tan pocas minas la primera expansión descubre casi todo";
+        assert disperso.getBytesAproximados() < 1000L * 1000 / 8 / 2
+                : "Lo descubierto debe ocupar menos que la mitad de un mapa de bits completo";
+        assert antes < 40_000 : "Antes de jugar solo ocupan las minas";
+        
+        System.out.println("✓ PASÓ (" + disperso.getBytesAproximados() / 1024 + " KB con " + descubiertas + " descubiertas)");
+    }
+    
+    /**
+     * Un tablero de diez mil millones de casillas solo guarda sus minas, y los índices
+     * pasan de lo que cabe en un int
+     */
+    private static void testTableroEnorme() {
+        System.out.print("Test: Tablero de 100000x100000... ");
+        
+        int tamaño = 100_000;
+        TableroDisperso disperso = new TableroDisperso(tamaño, 10_000, 42L, -1, -1);
+        assert disperso.getBytesAproximados() < 1_000_000 : "Debe ocupar según las minas, no según el área";
+        
+        // La primera mina sale de los dos primeros números de la misma secuencia
+        Random random = new Random(42L);
+        int filaMina = random.nextInt(tamaño);
+        int columnaMina = random.nextInt(tamaño);
+        assert disperso.tieneMina(filaMina, columnaMina) : "La primera mina debe estar donde la pone Tablero";
+        
+        int fila = filaMina == 0 ? 1 : filaMina - 1;
+        assert disperso.getMinasAdyacentes(fila, columnaMina) >= 1;
+        descubrir(disperso, fila, columnaMina);
+        assert disperso.getCasillasDescubiertas() == 1 : "Una casilla numerada no expande";
+        assert disperso.getEstado() == EstadoJuego.EN_CURSO;
+        
+        disperso.marcarCasilla(filaMina, columnaMina);
+        descubrir(disperso, filaMina, columnaMina);
+        assert !disperso.estaTerminado() : "Una casilla marcada no se descubre";
+        disperso.marcarCasilla(filaMina, columnaMina);
+        descubrir(disperso, filaMina, columnaMina);
+        assert disperso.getEstado() == EstadoJuego.DERROTA : "Pisar una mina termina la partida";
+        int minasVisibles = 0;
+        Random otras = new Random(42L);
+        for (int i = 0; i < 10; i++) {
+            int f = otras.nextInt(tamaño);
+            int c = otras.nextInt(tamaño);
+            minasVisibles += disperso.estaDescubierta(f, c) ? 1 : 0;
+        }
+        assert minasVisibles == 10 : "Al perder se muestran todas las minas";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Con la partida terminada ninguno de los dos tableros acepta más jugadas
+     */
+    private static void testSinJugadasTrasTerminar() {
+        System.out.print("Test: Sin jugadas tras terminar la partida... ");
+        
+        for (long semilla = 0; semilla < 20; semilla++) {
+            TableroJugable[] tableros = {new Tablero(8, 10, semilla, 4, 4), new TableroDisperso(8, 10, semilla, 4, 4)};
+            for (TableroJugable tablero : tableros) {
+                int[] mina = buscar(tablero, true);
+                descubrir(tablero, mina[0], mina[1]);
+                assert tablero.getEstado() == EstadoJuego.DERROTA;
+                
+                int[] segura = buscar(tablero, false);
+                descubrir(tablero, segura[0], segura[1]);
+                tablero.marcarCasilla(segura[0], segura[1]);
+                assert !tablero.estaDescubierta(segura[0], segura[1]) && !tablero.estaMarcada(segura[0], segura[1])
+                        : tablero.getClass().getSimpleName() + " no debe cambiar tras perder";
+                assert tablero.getEstado() == EstadoJuego.DERROTA && tablero.getBanderas() == 0;
+            }
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Busca la primera casilla tapada con o sin mina
+     */
+    private static int[] buscar(TableroJugable tablero, boolean conMina) {
+        for (int fila = 0; fila < tablero.getTamaño(); fila++) {
+            for (int columna = 0; columna < tablero.getTamaño(); columna++) {
+                if (tablero.tieneMina(fila, columna) == conMina && !tablero.estaDescubierta(fila, columna)) {
+                    return new int[]{fila, columna};
+                }
+            }
+        }
+        throw new AssertionError("No hay casilla tapada " + (conMina ? "con" : "sin") + " mina");
+    }
+    
+    /**
+     * Con las minas diferidas el primer clic y sus vecinas nunca tienen mina, y el tablero
+     * queda igual que uno creado con esa zona segura
+     */
+    private static void testPrimerClicSeguro() {
+        System.out.print("Test: Primer clic seguro en el tablero disperso... ");
+        
+        for (long semilla = 0; semilla < 20; semilla++) {
+            TableroDisperso diferido = TableroDisperso.conPrimerClicSeguro(5, 16, semilla);
+            assert diferido.getBytesAproximados() < 20_000;
+            int fila = (int) (semilla % 5);
+            int columna = (int) (semilla / 5 % 5);
+            descubrir(diferido, fila, columna);
+            assert diferido.getEstado() != EstadoJuego.DERROTA : "El primer clic nunca pierde";
+            
+            TableroDisperso referencia = new TableroDisperso(5, 16, semilla, fila, columna);
+            for (int f = 0; f < 5; f++) {
+                for (int c = 0; c < 5; c++) {
+                    assert diferido.tieneMina(f, c) == referencia.tieneMina(f, c) : "Minas distintas (semilla " + semilla + ")";
+                }
+            }
+        }
+        
+        try {
+            TableroDisperso.conPrimerClicSeguro(3, 1, 1L);
+            assert false : "En un 3x3 la zona segura no deja sitio para minas";
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * La fábrica da tableros dispersos solo a las configuraciones enormes con muy pocas minas
+     */
+    private static void testFabricaEligeRepresentacion() {
+        System.out.print("Test: La fábrica elige la representación del tablero... ");
+        
+        assert FabricaTableros.esDispersa(new ConfiguracionTablero(100_000, 10_000, false));
+        assert !FabricaTableros.esDispersa(new ConfiguracionTablero(100_000, 10_000, true)) : "Sin adivinanzas necesita Tablero";
+        assert !FabricaTableros.esDispersa(new ConfiguracionTablero(3000, 90_000, false)) : "Con un 1% de minas ya no es dispersa";
+        assert !FabricaTableros.esDispersa(new ConfiguracionTablero(16, 1, false)) : "Un tablero pequeño no es disperso";
+        
+        FabricaTableros fabrica = new FabricaTableros(1, 60_000, 1);
+        try {
+            TableroJugable enorme = fabrica.obtenerJugable(new ConfiguracionTablero(50_000, 1000, false));
+            assert enorme instanceof TableroDisperso && enorme.getTamaño() == 50_000 && enorme.getNumeroMinas() == 1000;
+            assert ((TableroDisperso) enorme).getBytesAproximados() < 100_000 : "Hasta el primer clic no hay minas";
+            assert enorme.getEstado() == EstadoJuego.EN_CURSO;
+            
+            TableroJugable normal = fabrica.obtenerJugable(new ConfiguracionTablero(9, 10, false));
+            assert normal instanceof Tablero && normal.getTamaño() == 9;
+        } finally {
+            fabrica.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    private static void descubrir(TableroJugable tablero, int fila, int columna) {
+        try {
+            tablero.descubrirCasilla(fila, columna);
+        } catch (CasillaYaDescubiertaException e) {
+            assert false : "La casilla estaba tapada";
+        }
+    }
+    
+    private static void testArgumentosInvalidos() {
+        System.out.print("Test: Argumentos inválidos... ");
+        
+        int[][] invalidos = {{0, 0}, {10, -1}, {10, 92}, {3, 1}};
+        for (int[] argumentos : invalidos) {
+            try {
+                new TableroDisperso(argumentos[0], argumentos[1], 1L, argumentos[0] / 2, argumentos[0] / 2);
+                assert false : "Debe rechazar " + argumentos[0] + "x" + argumentos[0] + " con " + argumentos[1] + " minas";
+            } catch (IllegalArgumentException e) {
+                // Esperado
+            }
+        }
+        
+        try {
+            new TableroDisperso(10, 10, 1L, -1, -1).descubrirCasilla(10, 0);
+            assert false : "Debe rechazar una posición fuera del tablero";
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Esperado
+        } catch (CasillaYaDescubiertaException e) {
+            assert false : "La casilla no existe";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,261 @@
+package test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import modelo.EstadoJuego;
+import modelo.InstantaneaTablero;
+import modelo.Movimiento;
+import modelo.Tablero;
+import transmision.Fotograma;
+import transmision.ReceptorPartida;
+import transmision.SuscripcionPartida;
+import transmision.TransmisorPartida;
+
+/**
+ * Clase de pruebas unitarias para la retransmisión de partidas a espectadores
+ */
+public class TestTransmision {
+    
+    /**
+     * Ejecuta todas las pruebas unitarias para TransmisorPartida y ReceptorPartida
+     */
+    public static void ejecutarPruebas() {
+        System.out.println("=== EJECUTANDO PRUEBAS UNITARIAS - TRANSMISIÓN ===");
+        
+        testEspectadorSincronizado();
+        testFotogramaCompartido();
+        testEspectadorLento();
+        testEspectadorLentoVeElFinal();
+        testTamañoDelta();
+        
+        System.out.println("=== TODAS LAS PRUEBAS TRANSMISIÓN COMPLETADAS ===\n");
+    }
+    
+    /**
+     * Aplica una jugada al azar; a veces deshace, rehace o reinicia
+     */
+    private static void jugarAlAzar(Tablero tablero, Random random) {
+        int tamaño = tablero.getTamaño();
+        int opcion = random.nextInt(20);
+        if (opcion == 0) {
+            tablero.deshacer();
+        } else if (opcion == 1) {
+            tablero.rehacer();
+        } else if (opcion == 2 || tablero.estaTerminado()) {
+            tablero.reiniciar(random.nextLong());
+        } else {
+            int indice = random.nextInt(tamaño * tamaño);
+            tablero.aplicarMovimiento(opcion < 6
+                    ? Movimiento.marcar(indice / tamaño, indice % tamaño, tamaño)
+                    : Movimiento.descubrir(indice / tamaño, indice % tamaño, tamaño));
+        }
+    }
+    
+    private static boolean coincide(InstantaneaTablero a, InstantaneaTablero b) {
+        if (a.getVersion() != b.getVersion() || a.getTamaño() != b.getTamaño() || a.getEstado() != b.getEstado()
+                || a.getCasillasDescubiertas() != b.getCasillasDescubiertas() || a.getBanderas() != b.getBanderas()) {
+            return false;
+        }
+        for (int indice = 0; indice < a.getTamaño() * a.getTamaño(); indice++) {
+            if (a.getCodigo(indice) != b.getCodigo(indice)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Un espectador que lee todos los fotogramas ve siempre el mismo tablero que el jugador
+     */
+    private static void testEspectadorSincronizado() {
+        System.out.print("Test: Espectador sincronizado con deltas... ");
+        
+        for (long semilla = 0; semilla < 10; semilla++) {
+            Tablero tablero = new Tablero(12, 25, semilla);
+            tablero.activarHistorial(20);
+            TransmisorPartida transmisor = new TransmisorPartida(tablero, 8, 4);
+            SuscripcionPartida suscripcion = transmisor.suscribir();
+            ReceptorPartida receptor = new ReceptorPartida();
+            Random random = new Random(semilla);
+            
+            for (int jugada = 0; jugada < 300; jugada++) {
+                jugarAlAzar(tablero, random);
+                Fotograma fotograma;
+                while ((fotograma = suscripcion.recibir()) != null) {
+                    assert receptor.aplicar(fotograma) : "Cada delta debe seguir al anterior";
+                }
+                assert coincide(receptor.getInstantanea(), tablero.getInstantanea())
+                        : "El espectador debe ver el tablero del jugador";
+            }
+            assert suscripcion.getDescartados() == 0 : "Un espectador al día no descarta fotogramas";
+            transmisor.cerrar();
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Todos los espectadores reciben el mismo fotograma y los bytes se pueden enviar tal cual
+     */
+    private static void testFotogramaCompartido() {
+        System.out.print("Test: Un solo fotograma por jugada para todos los espectadores... ");
+        
+        Tablero tablero = new Tablero(10, 15, 7L);
+        TransmisorPartida transmisor = new TransmisorPartida(tablero);
+        SuscripcionPartida[] suscripciones = new SuscripcionPartida[50];
+        for (int i = 0; i < suscripciones.length; i++) {
+            suscripciones[i] = transmisor.suscribir();
+            assert suscripciones[i].recibir().esClave() : "El primer fotograma es el tablero completo";
+        }
+        assert transmisor.getNumeroSuscripciones() == 50;
+        
+        tablero.aplicarMovimiento(Movimiento.descubrir(0, 0, 10));
+        Fotograma delta = suscripciones[0].recibir();
+        assert delta != null && !delta.esClave() : "Tras una jugada llega un delta";
+        for (SuscripcionPartida suscripcion : suscripciones) {
+            if (suscripcion != suscripciones[0]) {
+                assert suscripcion.recibir() == delta : "El fotograma se comparte, no se codifica por espectador";
+            }
+        }
+        assert transmisor.getBytesEnviados() == delta.getTamaño() : "Los bytes se cuentan una vez por jugada";
+        
+        suscripciones[1].cancelar();
+        assert transmisor.getNumeroSuscripciones() == 49;
+        
+        // Los bytes escritos en un flujo se decodifican igual que el fotograma
+        try {
+            ReceptorPartida receptor = new ReceptorPartida();
+            Tablero otro = new Tablero(10, 15, 7L);
+            TransmisorPartida otroTransmisor = new TransmisorPartida(otro);
+            ByteArrayOutputStream red = new ByteArrayOutputStream();
+            otroTransmisor.suscribir().recibir().escribirEn(red);
+            delta.escribirEn(red);
+            ByteBuffer recibido = ByteBuffer.wrap(red.toByteArray());
+            assert receptor.aplicar(recibido) && receptor.aplicar(recibido) : "Los fotogramas se leen en orden";
+            assert !recibido.hasRemaining() : "Se consumen todos los bytes";
+            assert coincide(receptor.getInstantanea(), tablero.getInstantanea());
+        } catch (IOException e) {
+            throw new AssertionError("Error al escribir el fotograma: " + e.getMessage());
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Un espectador que no lee descarta fotogramas sin pasar de su capacidad
+     * y se pone al día con el siguiente fotograma clave
+     */
+    private static void testEspectadorLento() {
+        System.out.print("Test: Espectador lento descarta y se recupera... ");
+        
+        Tablero tablero = new Tablero(16, 40, 11L);
+        TransmisorPartida transmisor = new TransmisorPartida(tablero, 8, 3);
+        SuscripcionPartida rapida = transmisor.suscribir();
+        SuscripcionPartida lenta = transmisor.suscribir();
+        ReceptorPartida receptorRapido = new ReceptorPartida();
+        ReceptorPartida receptorLento = new ReceptorPartida();
+        Random random = new Random(11L);
+        
+        int jugadas = 0;
+        while (jugadas < 20) {
+            int indice = random.nextInt(256);
+            if (!tablero.getCasilla(indice / 16, indice % 16).estaMarcada()
+                    && tablero.aplicarMovimiento(Movimiento.marcar(indice / 16, indice % 16, 16))) {
+                jugadas++;
+                Fotograma fotograma;
+                while ((fotograma = rapida.recibir()) != null) {
+                    assert receptorRapido.aplicar(fotograma);
+                }
+            }
+        }
+        // Se sigue jugando hasta la siguiente versión con fotograma clave
+        while (tablero.getInstantanea().getVersion() % 8 != 0) {
+            int indice = random.nextInt(256);
+            tablero.aplicarMovimiento(Movimiento.marcar(indice / 16, indice % 16, 16));
+            Fotograma fotograma;
+            while ((fotograma = rapida.recibir()) != null) {
+                assert receptorRapido.aplicar(fotograma);
+            }
+        }
+        assert rapida.getDescartados() == 0 : "El espectador rápido no pierde nada";
+        assert lenta.getDescartados() > 0 : "El espectador lento debe descartar";
+        
+        int recibidos = 0;
+        boolean huboClave = false;
+        Fotograma fotograma;
+        while ((fotograma = lenta.recibir()) != null) {
+            recibidos++;
+            huboClave |= fotograma.esClave();
+            receptorLento.aplicar(fotograma);
+        }
+        assert recibidos <= 3 : "La cola nunca supera su capacidad";
+        assert huboClave : "El espectador lento recibe un fotograma clave";
+        assert coincide(receptorLento.getInstantanea(), tablero.getInstantanea())
+                : "Tras el fotograma clave el espectador lento vuelve a estar al día";
+        
+        // Un delta que no sigue a la versión del receptor se rechaza
+        ReceptorPartida nuevo = new ReceptorPartida();
+        int indice = tablero.getTamaño() + 1;
+        tablero.aplicarMovimiento(Movimiento.marcar(indice / 16, indice % 16, 16));
+        assert !nuevo.aplicar(rapida.recibir()) : "Sin fotograma clave no se puede aplicar un delta";
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Si la partida termina entre dos fotogramas clave periódicos, el espectador atrasado
+     * recibe igualmente el tablero final
+     */
+    private static void testEspectadorLentoVeElFinal() {
+        System.out.print("Test: Espectador lento recibe el final de la partida... ");
+        
+        for (long semilla = 0; semilla < 20; semilla++) {
+            Tablero tablero = new Tablero(8, 10, semilla);
+            // Con este intervalo nunca hay fotogramas clave periódicos
+            TransmisorPartida transmisor = new TransmisorPartida(tablero, 1_000_000, 1);
+            SuscripcionPartida lenta = transmisor.suscribir();
+            Random random = new Random(semilla);
+            while (!tablero.estaTerminado()) {
+                int indice = random.nextInt(64);
+                tablero.aplicarMovimiento(Movimiento.descubrir(indice / 8, indice % 8, 8));
+            }
+            assert tablero.getEstado() != EstadoJuego.EN_CURSO;
+            
+            ReceptorPartida receptor = new ReceptorPartida();
+            Fotograma fotograma;
+            Fotograma ultimo = null;
+            while ((fotograma = lenta.recibir()) != null) {
+                receptor.aplicar(fotograma);
+                ultimo = fotograma;
+            }
+            assert ultimo != null && ultimo.esClave() : "El último fotograma debe ser el tablero completo final";
+            assert receptor.getInstantanea().getEstado() == tablero.getEstado() : "El espectador debe ver el resultado";
+            assert coincide(receptor.getInstantanea(), tablero.getInstantanea())
+                    : "El espectador lento debe acabar con el tablero final (semilla " + semilla + ")";
+        }
+        
+        System.out.println("✓ PASÓ");
+    }
+    
+    /**
+     * Un delta ocupa mucho menos que el tablero completo
+     */
+    private static void testTamañoDelta() {
+        System.out.print("Test: Tamaño de los deltas... ");
+        
+        Tablero tablero = new Tablero(30, 99, 5L);
+        TransmisorPartida transmisor = new TransmisorPartida(tablero);
+        SuscripcionPartida suscripcion = transmisor.suscribir();
+        Fotograma clave = suscripcion.recibir();
+        assert clave.getTamaño() >= 900 : "El fotograma clave lleva todas las casillas";
+        
+        tablero.aplicarMovimiento(Movimiento.marcar(3, 4, 30));
+        Fotograma delta = suscripcion.recibir();
+        assert delta.getTamaño() <= 12 : "Marcar una casilla ocupa muy pocos bytes: " + delta.getTamaño();
+        
+        System.out.println("✓ PASÓ");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package transmision;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Actualización de una partida ya serializada, compartida por todos los espectadores
+ * 
+ * Los bytes se codifican una sola vez por jugada y nunca se modifican: cada espectador
+ * recibe el mismo objeto y lo lee con su propia vista de solo lectura
+ */
+public final class Fotograma {
+    /** Tablero completo: sustituye todo lo anterior */
+    public static final byte CLAVE = 0;
+    /** Solo las casillas que cambiaron desde la versión anterior */
+    public static final byte DELTA = 1;
+    
+    private final byte tipo;
+    private final long versionAnterior;
+    private final long version;
+    private final byte[] datos;
+    
+    Fotograma(byte tipo, long versionAnterior, long version, byte[] datos) {
+        this.tipo = tipo;
+        this.versionAnterior = versionAnterior;
+        this.version = version;
+        this.datos = datos;
+    }
+    
+    public boolean esClave() {
+        return tipo == CLAVE;
+    }
+    
+    /**
+     * Obtiene la versión sobre la que se aplica un delta (-1 en los fotogramas clave)
+     */
+    public long getVersionAnterior() {
+        return versionAnterior;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Obtiene una vista de solo lectura de los bytes, sin copiarlos
+     * @return Bytes del fotograma, listos para enviar
+     */
+    public ByteBuffer getDatos() {
+        return ByteBuffer.wrap(datos).asReadOnlyBuffer();
+    }
+    
+    /**
+     * Escribe los bytes del fotograma en un flujo
+     * @param salida Flujo de destino
+     * @throws IOException Si ocurre un error de E/S
+     */
+    public void escribirEn(OutputStream salida) throws IOException {
+        salida.write(datos);
+    }
+    
+    /**
+     * Obtiene el tamaño serializado en bytes
+     */
+    public int getTamaño() {
+        return datos.length;
+    }
+}
\ No newline at end of file
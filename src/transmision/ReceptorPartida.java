@@ -0,0 +1,117 @@
+package transmision;
+
+import java.nio.ByteBuffer;
+
+import modelo.EstadoJuego;
+import modelo.InstantaneaTablero;
+
+/**
+ * Reconstruye en el lado del espectador el tablero visible a partir de los fotogramas
+ * 
+ * Solo necesita los bytes: puede estar en otro proceso, al otro lado de un socket
+ */
+public class ReceptorPartida {
+    private static final EstadoJuego[] ESTADOS = EstadoJuego.values();
+    
+    private byte[] codigos;
+    private int tamaño;
+    private int numeroMinas;
+    private long version = -1;
+    private EstadoJuego estado;
+    private int casillasDescubiertas;
+    private int banderas;
+    
+    /**
+     * Aplica un fotograma recibido
+     * @param fotograma Fotograma a aplicar
+     * @return true si se aplicó; false si es un delta que no sigue a la versión actual
+     */
+    public boolean aplicar(Fotograma fotograma) {
+        return aplicar(fotograma.getDatos());
+    }
+    
+    /**
+     * Aplica los bytes de un fotograma
+     * @param datos Bytes del fotograma, tal como se enviaron
+     * @return true si se aplicó; false si es un delta que no sigue a la versión actual
+     * @throws IllegalArgumentException Si los bytes están corruptos
+     */
+    public boolean aplicar(ByteBuffer datos) {
+        int tipo = datos.get();
+        if (tipo == Fotograma.CLAVE) {
+            aplicarClave(datos);
+            return true;
+        }
+        if (tipo != Fotograma.DELTA) {
+            throw new IllegalArgumentException("Tipo de fotograma desconocido: " + tipo);
+        }
+        long anterior = leerVarint(datos);
+        if (codigos == null || anterior != version) {
+            return false;
+        }
+        version = leerVarint(datos);
+        leerContadores(datos);
+        int cambios = (int) leerVarint(datos);
+        int indice = 0;
+        for (int i = 0; i < cambios; i++) {
+            indice += (int) leerVarint(datos);
+            codigos[indice] = datos.get();
+        }
+        return true;
+    }
+    
+    private void aplicarClave(ByteBuffer datos) {
+        version = leerVarint(datos);
+        tamaño = (int) leerVarint(datos);
+        numeroMinas = (int) leerVarint(datos);
+        leerContadores(datos);
+        if (codigos == null || codigos.length != tamaño * tamaño) {
+            codigos = new byte[tamaño * tamaño];
+        }
+        datos.get(codigos);
+    }
+    
+    private void leerContadores(ByteBuffer datos) {
+        estado = ESTADOS[datos.get()];
+        casillasDescubiertas = (int) leerVarint(datos);
+        banderas = (int) leerVarint(datos);
+    }
+    
+    private static long leerVarint(ByteBuffer datos) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            int b = datos.get() & 0xFF;
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Entero de longitud variable corrupto");
+    }
+    
+    /**
+     * Indica si ya se recibió algún fotograma clave
+     */
+    public boolean estaSincronizado() {
+        return codigos != null;
+    }
+    
+    /**
+     * Obtiene la versión del último fotograma aplicado (-1 si no hay ninguno)
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Obtiene una instantánea del tablero reconstruido
+     * @return Instantánea o null si todavía no llegó ningún fotograma clave
+     */
+    public InstantaneaTablero getInstantanea() {
+        if (codigos == null) {
+            return null;
+        }
+        return InstantaneaTablero.desdeCodigos(version, tamaño, numeroMinas, codigos,
+                estado, casillasDescubiertas, banderas);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package transmision;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de fotogramas de un espectador
+ * 
+ * La cola está acotada: si el espectador no la vacía a tiempo y se llena, se vacía,
+ * se descartan los deltas siguientes y el espectador se pone al día con el próximo
+ * fotograma clave. Un espectador lento nunca acumula retraso ni memoria
+ */
+public class SuscripcionPartida {
+    private final TransmisorPartida transmisor;
+    private final BlockingQueue<Fotograma> cola;
+    
+    // Los modifica el hilo que juega, salvo al suscribirse, que puede ser desde otro hilo
+    private volatile long version;
+    private volatile boolean esperandoClave;
+    private volatile long descartados;
+    
+    SuscripcionPartida(TransmisorPartida transmisor, int capacidad) {
+        this.transmisor = transmisor;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+    }
+    
+    /**
+     * Entrega un delta si el espectador está al día y tiene sitio
+     */
+    void entregarDelta(Fotograma delta) {
+        if (esperandoClave) {
+            descartados++;
+            return;
+        }
+        if (delta.getVersionAnterior() != version || !cola.offer(delta)) {
+            // Se perdió una versión o el espectador va con retraso: esperar un fotograma clave
+            cola.clear();
+            esperandoClave = true;
+            descartados++;
+            return;
+        }
+        version = delta.getVersion();
+    }
+    
+    /**
+     * Entrega un fotograma clave a un espectador que lo estaba esperando
+     */
+    void entregarClave(Fotograma clave) {
+        if (esperandoClave && cola.offer(clave)) {
+            esperandoClave = false;
+            version = clave.getVersion();
+        }
+    }
+    
+    /**
+     * Empieza de nuevo desde un fotograma clave, descartando lo pendiente
+     */
+    void iniciar(Fotograma clave) {
+        cola.clear();
+        cola.offer(clave);
+        esperandoClave = false;
+        version = clave.getVersion();
+    }
+    
+    boolean estaEsperandoClave() {
+        return esperandoClave;
+    }
+    
+    /**
+     * Obtiene el siguiente fotograma sin esperar
+     * @return Fotograma o null si no hay ninguno pendiente
+     */
+    public Fotograma recibir() {
+        return cola.poll();
+    }
+    
+    /**
+     * Espera el siguiente fotograma
+     * @param espera Tiempo máximo de espera
+     * @param unidad Unidad del tiempo de espera
+     * @return Fotograma o null si no llegó ninguno a tiempo
+     * @throws InterruptedException Si se interrumpe la espera
+     */
+    public Fotograma recibir(long espera, TimeUnit unidad) throws InterruptedException {
+        return cola.poll(espera, unidad);
+    }
+    
+    /**
+     * Obtiene los fotogramas que este espectador se perdió por ir con retraso
+     */
+    public long getDescartados() {
+        return descartados;
+    }
+    
+    /**
+     * Deja de recibir fotogramas
+     */
+    public void cancelar() {
+        transmisor.cancelar(this);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+package transmision;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import modelo.EstadoJuego;
+import modelo.InstantaneaTablero;
+import modelo.ListaEnteros;
+import modelo.ObservadorTablero;
+import modelo.Tablero;
+
+/**
+ * Retransmite una partida en directo a muchos espectadores
+ * 
+ * Observa el tablero y, al terminar cada jugada, codifica en un único {@link Fotograma}
+ * solo las casillas que cambiaron: el número de casillas y, por cada una, la distancia
+ * a la anterior como entero de longitud variable seguida de su nuevo byte. Ese mismo
+ * fotograma se entrega a todos los espectadores, así que el coste de codificar es uno
+ * por jugada y no uno por espectador. Descubrir una casilla numerada ocupa una decena de bytes.
+ * 
+ * Cada cierto número de versiones, y siempre al terminar la partida, si algún espectador
+ * se quedó atrás se codifica también un fotograma clave con el tablero completo para que
+ * se ponga al día
+ */
+public class TransmisorPartida implements ObservadorTablero {
+    public static final int INTERVALO_CLAVE_POR_DEFECTO = 32;
+    public static final int CAPACIDAD_POR_DEFECTO = 16;
+    
+    private final Tablero tablero;
+    private final int intervaloClave;
+    private final int capacidad;
+    private final List<SuscripcionPartida> suscripciones;
+    
+    // Casillas cambiadas durante la jugada en curso (solo las toca el hilo que juega)
+    private final ListaEnteros cambiadas;
+    private final long[] marcadas;
+    private boolean reiniciado;
+    private long ultimaVersion;
+    
+    private volatile Fotograma ultimaClave;
+    private volatile long bytesEnviados;
+    
+    /**
+     * Constructor con el intervalo de fotogramas clave y la capacidad de cola por defecto
+     * @param tablero Tablero de la partida; se activan sus instantáneas
+     */
+    public TransmisorPartida(Tablero tablero) {
+        this(tablero, INTERVALO_CLAVE_POR_DEFECTO, CAPACIDAD_POR_DEFECTO);
+    }
+    
+    /**
+     * Constructor del transmisor; se registra como observador del tablero
+     * @param tablero Tablero de la partida; se activan sus instantáneas
+     * @param intervaloClave Versiones entre fotogramas clave para espectadores atrasados
+     * @param capacidad Fotogramas que puede acumular cada espectador antes de descartar
+     */
+    public TransmisorPartida(Tablero tablero, int intervaloClave, int capacidad) {
+        if (intervaloClave < 1 || capacidad < 1) {
+            throw new IllegalArgumentException("El intervalo y la capacidad deben ser positivos");
+        }
+        this.tablero = tablero;
+        this.intervaloClave = intervaloClave;
+        this.capacidad = capacidad;
+        this.suscripciones = new CopyOnWriteArrayList<>();
+        int casillas = tablero.getTamaño() * tablero.getTamaño();
+        this.cambiadas = new ListaEnteros();
+        this.marcadas = new long[(casillas + 63) / 64];
+        
+        tablero.activarInstantaneas();
+        this.ultimaVersion = tablero.getInstantanea().getVersion();
+        tablero.agregarObservador(this);
+    }
+    
+    /**
+     * Suscribe un espectador; su primer fotograma es el tablero completo actual
+     * Se puede llamar desde cualquier hilo
+     * @return Suscripción con la cola de fotogramas del espectador
+     */
+    public SuscripcionPartida suscribir() {
+        SuscripcionPartida suscripcion = new SuscripcionPartida(this, capacidad);
+        suscripcion.iniciar(obtenerClave(tablero.getInstantanea()));
+        suscripciones.add(suscripcion);
+        return suscripcion;
+    }
+    
+    void cancelar(SuscripcionPartida suscripcion) {
+        suscripciones.remove(suscripcion);
+    }
+    
+    @Override
+    public void casillaDescubierta(int indice) {
+        anotar(indice);
+    }
+    
+    @Override
+    public void banderaCambiada(int indice) {
+        anotar(indice);
+    }
+    
+    @Override
+    public void casillaOcultada(int indice) {
+        anotar(indice);
+    }
+    
+    @Override
+    public void tableroReiniciado() {
+        reiniciado = true;
+    }
+    
+    private void anotar(int indice) {
+        if ((marcadas[indice >>> 6] & (1L << indice)) == 0) {
+            marcadas[indice >>> 6] |= 1L << indice;
+            cambiadas.agregar(indice);
+        }
+    }
+    
+    @Override
+    public void jugadaCompletada() {
+        InstantaneaTablero instantanea = tablero.getInstantanea();
+        if (instantanea.getVersion() == ultimaVersion) {
+            return;
+        }
+        int[] indices = cambiadas.aArreglo();
+        cambiadas.limpiar();
+        Arrays.fill(marcadas, 0L);
+        
+        if (reiniciado) {
+            // Todas las casillas cambiaron: todos reciben el tablero completo
+            reiniciado = false;
+            Fotograma clave = obtenerClave(instantanea);
+            for (SuscripcionPartida suscripcion : suscripciones) {
+                suscripcion.iniciar(clave);
+            }
+        } else {
+            Fotograma delta = codificarDelta(ultimaVersion, instantanea, indices);
+            bytesEnviados += delta.getTamaño();
+            boolean hayAtrasados = false;
+            for (SuscripcionPartida suscripcion : suscripciones) {
+                suscripcion.entregarDelta(delta);
+                hayAtrasados |= suscripcion.estaEsperandoClave();
+            }
+            // Al terminar la partida no habrá más versiones: los atrasados deben ver el final
+            boolean terminada = instantanea.getEstado() != EstadoJuego.EN_CURSO;
+            if (hayAtrasados && (terminada || instantanea.getVersion() % intervaloClave == 0)) {
+                Fotograma clave = obtenerClave(instantanea);
+                for (SuscripcionPartida suscripcion : suscripciones) {
+                    suscripcion.entregarClave(clave);
+                }
+            }
+        }
+        ultimaVersion = instantanea.getVersion();
+    }
+    
+    /**
+     * Fotograma clave de una versión; se codifica una sola vez aunque lo pidan muchos
+     */
+    private Fotograma obtenerClave(InstantaneaTablero instantanea) {
+        Fotograma clave = ultimaClave;
+        if (clave == null || clave.getVersion() != instantanea.getVersion()) {
+            clave = codificarClave(instantanea);
+            ultimaClave = clave;
+        }
+        return clave;
+    }
+    
+    /**
+     * Formato: tipo, versión anterior, versión, estado, descubiertas, banderas,
+     * número de casillas y, por cada casilla, distancia a la anterior y su byte
+     */
+    static Fotograma codificarDelta(long versionAnterior, InstantaneaTablero instantanea, int[] indices) {
+        Arrays.sort(indices);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(16 + 3 * indices.length);
+        salida.write(Fotograma.DELTA);
+        escribirVarint(salida, versionAnterior);
+        escribirVarint(salida, instantanea.getVersion());
+        salida.write(instantanea.getEstado().ordinal());
+        escribirVarint(salida, instantanea.getCasillasDescubiertas());
+        escribirVarint(salida, instantanea.getBanderas());
+        escribirVarint(salida, indices.length);
+        int anterior = 0;
+        for (int indice : indices) {
+            escribirVarint(salida, indice - anterior);
+            salida.write(instantanea.getCodigo(indice));
+            anterior = indice;
+        }
+        return new Fotograma(Fotograma.DELTA, versionAnterior, instantanea.getVersion(), salida.toByteArray());
+    }
+    
+    /**
+     * Formato: tipo, versión, tamaño, minas, estado, descubiertas, banderas y el byte de cada casilla
+     */
+    static Fotograma codificarClave(InstantaneaTablero instantanea) {
+        int casillas = instantanea.getTamaño() * instantanea.getTamaño();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(24 + casillas);
+        salida.write(Fotograma.CLAVE);
+        escribirVarint(salida, instantanea.getVersion());
+        escribirVarint(salida, instantanea.getTamaño());
+        escribirVarint(salida, instantanea.getNumeroMinas());
+        salida.write(instantanea.getEstado().ordinal());
+        escribirVarint(salida, instantanea.getCasillasDescubiertas());
+        escribirVarint(salida, instantanea.getBanderas());
+        for (int indice = 0; indice < casillas; indice++) {
+            salida.write(instantanea.getCodigo(indice));
+        }
+        return new Fotograma(Fotograma.CLAVE, -1, instantanea.getVersion(), salida.toByteArray());
+    }
+    
+    private static void escribirVarint(ByteArrayOutputStream salida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            salida.write((int) (valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        salida.write((int) valor);
+    }
+    
+    /**
+     * Deja de observar el tablero
+     */
+    public void cerrar() {
+        tablero.quitarObservador(this);
+        suscripciones.clear();
+    }
+    
+    public int getNumeroSuscripciones() {
+        return suscripciones.size();
+    }
+    
+    /**
+     * Obtiene los bytes de deltas codificados, contando cada fotograma una sola vez
+     */
+    public long getBytesEnviados() {
+        return bytesEnviados;
+    }
+}
\ No newline at end of file
@@ -1,6 +1,15 @@
 package vista;
 
+import java.io.PrintStream;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+import eventos.EventoRender;
+import modelo.Dificultad;
+import modelo.InstantaneaTablero;
 import modelo.Jugador;
+import modelo.ResultadoPartida;
 import modelo.Tablero;
 
 /**
@@ -8,99 +17,162 @@ import modelo.Tablero;
  * Implementa la capa de presentación del patrón MVC
  */
 public class VistaConsola {
+    private final PrintStream salida;
+    
+    /**
+     * Constructor que escribe en la salida estándar
+     */
+    public VistaConsola() {
+        this(System.out);
+    }
+    
+    /**
+     * Constructor que escribe en el flujo indicado
+     * @param salida Flujo donde se imprime la vista
+     */
+    public VistaConsola(PrintStream salida) {
+        this.salida = salida;
+    }
     
     /**
      * Muestra el tablero en consola con formato similar a la imagen proporcionada
      * @param tablero El tablero a mostrar
      */
     public void mostrarTablero(Tablero tablero) {
-        System.out.println();
+        int tamaño = tablero.getTamaño();
+        dibujarTablero(tamaño, tablero.getMinasRestantes(),
+                indice -> tablero.getCasilla(indice / tamaño, indice % tamaño).getRepresentacion());
+    }
+    
+    /**
+     * Muestra una instantánea del tablero, que puede tomarse mientras otro hilo juega
+     * @param instantanea La instantánea a mostrar
+     */
+    public void mostrarInstantanea(InstantaneaTablero instantanea) {
+        int tamaño = instantanea.getTamaño();
+        dibujarTablero(tamaño, instantanea.getMinasRestantes(),
+                indice -> instantanea.getRepresentacion(indice / tamaño, indice % tamaño));
+    }
+    
+    /**
+     * Dibuja la cuadrícula con la representación de cada casilla por índice
+     */
+    private void dibujarTablero(int tamaño, int minasRestantes, IntFunction<String> representacion) {
+        EventoRender evento = new EventoRender();
+        evento.begin();
+        salida.println();
+        salida.println("Minas restantes: " + minasRestantes);
         
         // Mostrar encabezado con números de columnas
-        System.out.print("   ");
-        for (int i = 1; i <= tablero.getTamaño(); i++) {
-            System.out.printf("%3d", i);
+        salida.print("   ");
+        for (int i = 1; i <= tamaño; i++) {
+            salida.printf("%3d", i);
         }
-        System.out.println();
+        salida.println();
         
         // Mostrar línea superior del tablero
-        System.out.print("  ");
-        for (int i = 0; i <= tablero.getTamaño(); i++) {
-            System.out.print("---");
+        salida.print("  ");
+        for (int i = 0; i <= tamaño; i++) {
+            salida.print("---");
         }
-        System.out.println();
+        salida.println();
         
         // Mostrar filas del tablero
-        for (int i = 0; i < tablero.getTamaño(); i++) {
+        for (int i = 0; i < tamaño; i++) {
             char letraFila = (char)('A' + i);
-            System.out.printf("%c |", letraFila);
+            salida.printf("%c |", letraFila);
             
-            for (int j = 0; j < tablero.getTamaño(); j++) {
-                System.out.printf(" %s |", tablero.getCasilla(i, j).getRepresentacion());
+            for (int j = 0; j < tamaño; j++) {
+                salida.printf(" %s |", representacion.apply(i * tamaño + j));
             }
-            System.out.println();
+            salida.println();
             
             // Línea separadora
-            System.out.print("  ");
-            for (int k = 0; k <= tablero.getTamaño(); k++) {
-                System.out.print("---");
+            salida.print("  ");
+            for (int k = 0; k <= tamaño; k++) {
+                salida.print("---");
             }
-            System.out.println();
+            salida.println();
         }
         
         mostrarLeyenda();
+        
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.tamaño = tamaño;
+            evento.commit();
+        }
     }
     
     /**
      * Muestra la leyenda de caracteres del juego
      */
     private void mostrarLeyenda() {
-        System.out.println("\nCaracteres:");
-        System.out.println("• X = Ubicación de una mina (marcada)");
-        System.out.println("• V = Espacio vacío seleccionado");
-        System.out.println("• * = Mina descubierta");
-        System.out.println("• Número = Cantidad de minas adyacentes");
-        System.out.println("• Espacio = Casilla no descubierta");
+        salida.println("\nCaracteres:");
+        salida.println("• X = Ubicación de una mina (marcada)");
+        salida.println("• V = Espacio vacío seleccionado");
+        salida.println("• * = Mina descubierta");
+        salida.println("• Número = Cantidad de minas adyacentes");
+        salida.println("• Espacio = Casilla no descubierta");
     }
     
     /**
      * Muestra el menú principal del juego
      */
     public void mostrarMenu() {
-        System.out.println("\n=== BUSCAMINAS ===");
-        System.out.println("1. Nuevo juego");
-        System.out.println("2. Cargar juego");
-        System.out.println("3. Ver estadísticas");
-        System.out.println("4. Salir");
-        System.out.print("Seleccione una opción: ");
+        salida.println("\n=== BUSCAMINAS ===");
+        salida.println("1. Nuevo juego");
+        salida.println("2. Nuevo juego sin adivinanzas");
+        salida.println("3. Cargar juego");
+        salida.println("4. Ver estadísticas");
+        salida.println("5. Ver clasificación");
+        salida.println("6. Ver última repetición");
+        salida.println("7. Salir");
+        salida.print("Seleccione una opción: ");
     }
     
     /**
      * Muestra las opciones de juego
      */
     public void mostrarOpcionesJuego() {
-        System.out.println("\nOpciones:");
-        System.out.println("• Descubrir casilla: Ingrese coordenada (ej: A5)");
-        System.out.println("• Marcar casilla: Ingrese 'M' seguido de coordenada (ej: MA5)");
-        System.out.println("• Guardar juego: Ingrese 'GUARDAR'");
-        System.out.println("• Salir al menú: Ingrese 'MENU'");
-        System.out.print("Su jugada: ");
+        salida.println("\nOpciones:");
+        salida.println("• Descubrir casilla: Ingrese coordenada (ej: A5)");
+        salida.println("• Marcar casilla: Ingrese 'M' seguido de coordenada (ej: MA5)");
+        salida.println("• Pedir pista: Ingrese 'PISTA'");
+        salida.println("• Deshacer o rehacer: Ingrese 'DESHACER' o 'REHACER'");
+        salida.println("• Ver métricas: Ingrese 'STATS'");
+        salida.println("• Guardar juego: Ingrese 'GUARDAR'");
+        salida.println("• Salir al menú: Ingrese 'MENU'");
+        salida.print("Su jugada: ");
+    }
+    
+    /**
+     * Muestra las opciones del visor de repeticiones
+     */
+    public void mostrarOpcionesRepeticion() {
+        salida.println("\nRepetición:");
+        salida.println("• Avanzar / retroceder una jugada: Ingrese '+' (o Enter) / '-'");
+        salida.println("• Saltar a una jugada: Ingrese su número (0 es el tablero inicial)");
+        salida.println("• Reproducir con los tiempos originales: Ingrese 'REPRODUCIR'");
+        salida.println("• Comprobar a toda velocidad: Ingrese 'VERIFICAR'");
+        salida.println("• Volver al menú: Ingrese 'MENU'");
+        salida.print("Su opción: ");
     }
     
     /**
      * Muestra mensaje de victoria
      */
     public void mostrarVictoria() {
-        System.out.println("\n¡FELICIDADES! ¡HAS GANADO!");
-        System.out.println("Has descubierto todas las casillas sin minas.");
+        salida.println("\n¡FELICIDADES! ¡HAS GANADO!");
+        salida.println("Has descubierto todas las casillas sin minas.");
     }
     
     /**
      * Muestra mensaje de derrota
      */
     public void mostrarDerrota() {
-        System.out.println("\n¡Juego terminado!");
-        System.out.println("Has descubierto una mina. El juego ha terminado.");
+        salida.println("\n¡Juego terminado!");
+        salida.println("Has descubierto una mina. El juego ha terminado.");
     }
     
     /**
@@ -108,8 +180,28 @@ public class VistaConsola {
      * @param jugador El jugador cuyas estadísticas mostrar
      */
     public void mostrarEstadisticas(Jugador jugador) {
-        System.out.println("\n=== ESTADÍSTICAS ===");
-        System.out.println(jugador.getEstadisticas());
+        salida.println("\n=== ESTADÍSTICAS ===");
+        salida.println(jugador.getEstadisticas());
+    }
+    
+    /**
+     * Muestra la clasificación de una dificultad
+     * @param dificultad Dificultad de la clasificación
+     * @param mejores Resultados ordenados del mejor al peor
+     */
+    public void mostrarClasificacion(Dificultad dificultad, List<ResultadoPartida> mejores) {
+        salida.println("\n=== CLASIFICACIÓN " + dificultad + " ===");
+        if (mejores.isEmpty()) {
+            salida.println("Todavía no hay victorias registradas.");
+            return;
+        }
+        salida.printf("%3s  %-20s %9s %6s %5s %8s%n", "#", "Jugador", "Tiempo", "Clics", "3BV", "3BV/s");
+        int puesto = 1;
+        for (ResultadoPartida resultado : mejores) {
+            salida.printf("%3d  %-20s %8.1fs %6d %5d %8.2f%n", puesto++, resultado.getNombre(),
+                    resultado.getDuracionMillis() / 1000.0, resultado.getClics(), resultado.getValor3BV(),
+                    resultado.getEficiencia());
+        }
     }
     
     /**
@@ -117,7 +209,7 @@ public class VistaConsola {
      * @param mensaje El mensaje de error a mostrar
      */
     public void mostrarError(String mensaje) {
-        System.out.println("Error: " + mensaje);
+        salida.println("Error: " + mensaje);
     }
     
     /**
@@ -125,14 +217,14 @@ public class VistaConsola {
      * @param mensaje El mensaje a mostrar
      */
     public void mostrarMensaje(String mensaje) {
-        System.out.println(mensaje);
+        salida.println(mensaje);
     }
     
     /**
      * Solicita el nombre del jugador
      */
     public void solicitarNombre() {
-        System.out.print("Ingrese su nombre: ");
+        salida.print("Ingrese su nombre: ");
     }
     
     /**
@@ -140,9 +232,9 @@ public class VistaConsola {
      * @param nombreJugador El nombre del jugador
      */
     public void mostrarBienvenida(String nombreJugador) {
-        System.out.println("\n¡Bienvenido al Buscaminas, " + nombreJugador + "!");
-        System.out.println("Objetivo: Descubre todas las casillas sin minas.");
-        System.out.println("Hay 10 minas ocultas en el tablero de 10x10.");
+        salida.println("\n¡Bienvenido al Buscaminas, " + nombreJugador + "!");
+        salida.println("Objetivo: Descubre todas las casillas sin minas.");
+        salida.println("Hay 10 minas ocultas en el tablero de 10x10.");
     }
     
     /**
@@ -150,7 +242,7 @@ public class VistaConsola {
      */
     public void limpiarPantalla() {
         for (int i = 0; i < 50; i++) {
-            System.out.println();
+            salida.println();
         }
     }
 }
\ No newline at end of file